@@ -21,6 +21,8 @@
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
 
 import javax.annotation.Nullable;
 import javax.xml.bind.JAXBContext;
@@ -30,6 +32,7 @@
 
 import org.apache.isis.commons.internal.base._Casts;
 import org.apache.isis.commons.internal.base._NullSafe;
+import org.apache.isis.commons.internal.collections._Maps;
 import org.apache.isis.commons.internal.resources._Xml;
 
 import lombok.NonNull;
@@ -41,8 +44,11 @@
  * unmarshalled from XML back into domain objects.
  *
  * <p>
- *     The default implementation automatically caches the JAXB marshallers
- *     by target class.
+ *     The default implementation automatically caches the JAXB contexts
+ *     by target class, and pools the marshallers and unmarshallers per cached
+ *     JAXB context (unless called with marshaller or unmarshaller properties).
+ *     Contexts not obtained from that cache, eg. as passed in by callers, get
+ *     no pool, as it would otherwise keep these reachable.
  * </p>
  *
  * @since 2.0 {@index}
@@ -133,6 +139,15 @@ Map<String, String> toXsd(
 
     class Simple implements JaxbService {
 
+        /** upper bound of idle (un)marshallers pooled per JAXB context */
+        private static final int MAX_IDLE_PER_CONTEXT = 16;
+
+        /**
+         * Keyed only by contexts of the {@link _Xml} cache, hence bounded by and living as long as that cache.
+         */
+        private final Map<JAXBContext, Queue<Marshaller>> idleMarshallers = _Maps.newConcurrentHashMap();
+        private final Map<JAXBContext, Queue<Unmarshaller>> idleUnmarshallers = _Maps.newConcurrentHashMap();
+
         @Override
         @SneakyThrows
         @Nullable
@@ -172,19 +187,28 @@ public String toXml(
             val domainClass = domainObject.getClass();
             val jaxbContext = jaxbContextForObject(domainObject);
             try {
-                val marshaller = jaxbContext.createMarshaller();
-                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-
-                for (val entry : _NullSafe.entrySet(marshallerProperties)) {
-                    marshaller.setProperty(entry.getKey(), entry.getValue());
+                val pooled = isPoolable(jaxbContext, marshallerProperties);
+                Marshaller marshaller = pooled
+                        ? borrow(idleMarshallers, jaxbContext)
+                        : null;
+                if(marshaller == null) {
+                    marshaller = jaxbContext.createMarshaller();
+                    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+
+                    for (val entry : _NullSafe.entrySet(marshallerProperties)) {
+                        marshaller.setProperty(entry.getKey(), entry.getValue());
+                    }
+
+                    configure(marshaller);
                 }
 
-                configure(marshaller);
-
                 val writer = new StringWriter();
                 marshaller.marshal(domainObject, writer);
                 val xml = writer.toString();
 
+                if(pooled) {
+                    release(idleMarshallers, jaxbContext, marshaller);
+                }
                 return xml;
 
             } catch (Exception e) {
@@ -209,13 +233,13 @@ protected JAXBContext jaxbContextForClass(final @NonNull Class<?> domainObjectCl
         }
 
         /**
-         * Optional hook
+         * Optional hook, called once per unmarshaller, as these are pooled
          */
         protected void configure(final Unmarshaller unmarshaller) {
         }
 
         /**
-         * Optional hook
+         * Optional hook, called once per marshaller, as these are pooled
          */
         protected void configure(final Marshaller marshaller) {
         }
@@ -230,18 +254,66 @@ protected Object internalFromXml(
                 return null;
             }
 
-            val unmarshaller = jaxbContext.createUnmarshaller();
+            val pooled = isPoolable(jaxbContext, unmarshallerProperties);
+            Unmarshaller unmarshaller = pooled
+                    ? borrow(idleUnmarshallers, jaxbContext)
+                    : null;
+            if(unmarshaller == null) {
+                unmarshaller = jaxbContext.createUnmarshaller();
 
-            for (val entry : _NullSafe.entrySet(unmarshallerProperties)) {
-                unmarshaller.setProperty(entry.getKey(), entry.getValue());
-            }
+                for (val entry : _NullSafe.entrySet(unmarshallerProperties)) {
+                    unmarshaller.setProperty(entry.getKey(), entry.getValue());
+                }
 
-            configure(unmarshaller);
+                configure(unmarshaller);
+            }
 
             val pojo = unmarshaller.unmarshal(new StringReader(xml));
+
+            if(pooled) {
+                release(idleUnmarshallers, jaxbContext, unmarshaller);
+            }
             return pojo;
         }
 
+        // -- POOLING
+
+        /**
+         * Only (un)marshallers without custom properties and of contexts obtained from the {@link _Xml} cache
+         * are pooled; any other context might be short-lived and must not be kept reachable by the pool.
+         */
+        private static boolean isPoolable(
+                final JAXBContext jaxbContext,
+                final @Nullable Map<String, Object> properties) {
+            return _NullSafe.isEmpty(properties)
+                    && _Xml.isCached(jaxbContext);
+        }
+
+        /**
+         * @return an idle (un)marshaller for given context, if any
+         */
+        @Nullable
+        private static <T> T borrow(
+                final Map<JAXBContext, Queue<T>> idle,
+                final JAXBContext jaxbContext) {
+            val queue = idle.get(jaxbContext);
+            return queue != null
+                    ? queue.poll()
+                    : null;
+        }
+
+        /**
+         * Returns given (un)marshaller to the pool, unless the pool is full;
+         * only (un)marshallers that completed normally and are {@link #isPoolable poolable} are returned.
+         */
+        private static <T> void release(
+                final Map<JAXBContext, Queue<T>> idle,
+                final JAXBContext jaxbContext,
+                final T marshallerOrUnmarshaller) {
+            idle.computeIfAbsent(jaxbContext, __->new ArrayBlockingQueue<>(MAX_IDLE_PER_CONTEXT))
+                .offer(marshallerOrUnmarshaller);
+        }
+
         @Override
         @SneakyThrows
         public Map<String, String> toXsd(
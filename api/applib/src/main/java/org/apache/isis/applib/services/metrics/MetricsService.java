@@ -20,6 +20,7 @@
 
 import org.apache.isis.applib.annotation.DomainObject;
 import org.apache.isis.applib.services.iactn.InteractionContext;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
 import org.apache.isis.schema.ixn.v2.MemberExecutionDto;
 
 /**
@@ -54,6 +55,23 @@ public interface MetricsService {
      */
     int numberEntitiesDirtied();
 
+    /**
+     * The number of {@link QueryResultsCache} lookups that have, so far in the current transaction, been served
+     * from cache (either the interaction scoped or the application scoped one); reset once the transaction
+     * completes.
+     */
+    default int numberQueryResultsCacheHits() {
+        return 0;
+    }
+
+    /**
+     * The number of {@link QueryResultsCache} lookups that have, so far in the current transaction, missed the
+     * cache and so required the query to be executed; reset once the transaction completes.
+     */
+    default int numberQueryResultsCacheMisses() {
+        return 0;
+    }
+
 }
 
 
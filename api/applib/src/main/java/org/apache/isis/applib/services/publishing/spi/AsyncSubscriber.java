@@ -0,0 +1,55 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.publishing.spi;
+
+/**
+ * Part of the <i>Publishing SPI</i>. Mixin for an {@link ExecutionSubscriber}, {@link CommandSubscriber}
+ * or {@link EntityChangesSubscriber}, to opt in to asynchronous, batched delivery.
+ *
+ * <p>
+ *     Rather than being called on the thread that publishes, such a subscriber has its events queued
+ *     and delivered in batches by a dedicated dispatcher thread, so that a slow subscriber does not add
+ *     to the latency of the interaction. Events of any one interaction are delivered in the order
+ *     published.
+ * </p>
+ *
+ * <p>
+ *     Delivery happens outside of the originating interaction and its transaction; hence implementations
+ *     requiring either must set these up themselves (and should rather rely on the DTOs of the events
+ *     delivered than on any domain objects they reference).
+ * </p>
+ *
+ * <p>
+ *     Queue capacity, batch size and backpressure are configured using
+ *     <code>isis.core.runtime-services.publishing.async.*</code>.
+ * </p>
+ *
+ * @since 2.0 {@index}
+ */
+public interface AsyncSubscriber {
+
+    /**
+     * Whether delivery to this subscriber should actually happen asynchronously; allows for
+     * implementations to decide at runtime (eg. based on configuration).
+     */
+    default boolean isAsyncDeliveryEnabled() {
+        return true;
+    }
+
+}
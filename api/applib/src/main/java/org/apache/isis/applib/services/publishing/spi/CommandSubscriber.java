@@ -18,6 +18,8 @@
  */
 package org.apache.isis.applib.services.publishing.spi;
 
+import java.util.List;
+
 import org.apache.isis.applib.services.command.Command;
 import org.apache.isis.commons.having.HasEnabling;
 
@@ -39,4 +41,17 @@ public interface CommandSubscriber extends HasEnabling {
      */
     void onCompleted(Command command);
 
+    /**
+     * Notifies of a batch of completed commands, in the order they completed;
+     * only called for subscribers that opted in to asynchronous delivery, see {@link AsyncSubscriber}.
+     *
+     * <p>
+     *     By default just calls {@link #onCompleted(Command)} for each; implementations may
+     *     override to process the batch more efficiently.
+     * </p>
+     */
+    default void onCommandsCompleted(final List<Command> commands) {
+        commands.forEach(this::onCompleted);
+    }
+
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.isis.applib.services.publishing.spi;
 
+import java.util.List;
+
 import org.apache.isis.applib.annotation.DomainObject;
 import org.apache.isis.commons.having.HasEnabling;
 
@@ -51,4 +53,17 @@ public interface EntityChangesSubscriber extends HasEnabling {
      * </p>
      */
     void onChanging(EntityChanges entityChanges);
+
+    /**
+     * Receives a batch of {@link EntityChanges}, in the order published;
+     * only called for subscribers that opted in to asynchronous delivery, see {@link AsyncSubscriber}.
+     *
+     * <p>
+     *     By default just calls {@link #onChanging(EntityChanges)} for each; implementations may
+     *     override to process the batch more efficiently.
+     * </p>
+     */
+    default void onEntitiesChanging(final List<EntityChanges> entityChanges) {
+        entityChanges.forEach(this::onChanging);
+    }
 }
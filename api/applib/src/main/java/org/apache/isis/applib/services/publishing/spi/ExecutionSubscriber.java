@@ -18,6 +18,8 @@
  */
 package org.apache.isis.applib.services.publishing.spi;
 
+import java.util.List;
+
 import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.Property;
 import org.apache.isis.applib.services.iactn.Execution;
@@ -68,4 +70,17 @@ public interface ExecutionSubscriber extends HasEnabling {
      */
     void onExecution(Execution<?, ?> execution);
 
+    /**
+     * Callback to notify of a batch of completed interactions, in the order they completed;
+     * only called for subscribers that opted in to asynchronous delivery, see {@link AsyncSubscriber}.
+     *
+     * <p>
+     *     By default just calls {@link #onExecution(Execution)} for each; implementations may
+     *     override to process the batch more efficiently.
+     * </p>
+     */
+    default void onExecutions(final List<Execution<?, ?>> executions) {
+        executions.forEach(this::onExecution);
+    }
+
 }
@@ -58,6 +58,28 @@ <T> T execute(
             Class<?> callingClass, String methodName,
             Object... keys);
 
+    /**
+     * As {@link #execute(Callable, Class, String, Object...)}, but opts in to also share the result with other
+     * interactions of the same user (with the same roles), if the framework is configured with an application
+     * scoped (second-level) cache; otherwise behaves just the same.
+     *
+     * <p>
+     *     A shared result is invalidated once a committed transaction has created, updated or deleted entities of
+     *     any of the <code>dependentTypes</code> (or of the types of any entities passed as keys or returned).
+     *     These must therefore include every entity type the query reads from, including those only used to
+     *     filter (eg. joined) and regardless of whether the result is empty.
+     * </p>
+     *
+     * @param dependentTypes - the entity types the query reads from, at least one
+     */
+    default <T> T executeShared(
+            final Callable<T> callable,
+            final Class<?>[] dependentTypes,
+            final Class<?> callingClass, final String methodName,
+            final Object... keys) {
+        return execute(callable, callingClass, methodName, keys);
+    }
+
 
     /**
      * Not API, for framework use only.
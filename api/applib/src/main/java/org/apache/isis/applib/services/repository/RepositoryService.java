@@ -22,6 +22,7 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
@@ -269,6 +270,48 @@ <T> List<T> allMatches(
      */
     <T> List<T> allMatches(Query<T> query);
 
+    /**
+     * Streams all the instances that match the given {@link Query},
+     * fetching these from the persistence store in batches.
+     *
+     * <p>
+     *     The query is executed only once, its results are read through a single
+     *     (database) cursor, that fetches these in batches. Unlike {@link #allMatches(Query)},
+     *     the result set is never materialized as a whole: once the stream moves on to the
+     *     next batch, the entities of the previous batch are detached (JPA) or evicted (JDO)
+     *     from the persistence context. Memory consumption is therefore bounded by
+     *     the batch size (see
+     *     <code>isis.core.runtime-services.repository-service.stream-batch-size</code>),
+     *     regardless of the number of instances.
+     * </p>
+     *
+     * <p>
+     *     This is intended for read-only bulk processing (such as exports) of large
+     *     result sets. The cursor requires a transaction in progress; without one (or if
+     *     the query type is not supported), all matching instances are fetched at once.
+     * </p>
+     *
+     * @apiNote The returned {@link Stream} should be closed after use,
+     *          typically using try-with-resources.
+     *
+     * @see #allMatches(Query)
+     * @since 2.0
+     */
+    <T> Stream<T> streamMatches(Query<T> query);
+
+    /**
+     * Streams all persisted instances of specified type (including subtypes),
+     * fetching these from the persistence store in batches.
+     *
+     * @apiNote The returned {@link Stream} should be closed after use,
+     *          typically using try-with-resources.
+     *
+     * @see #streamMatches(Query)
+     * @see #allInstances(Class)
+     * @since 2.0
+     */
+    <T> Stream<T> streamInstances(Class<T> ofType);
+
     /**
      * Finds the only instance of the specified type (including subtypes) that
      * satifies the (client-side) predicate.
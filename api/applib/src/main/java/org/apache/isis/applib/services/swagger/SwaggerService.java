@@ -18,6 +18,12 @@
  */
 package org.apache.isis.applib.services.swagger;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * Generates Swagger schema definition files to describe the public and/or
  * private RESTful APIs exposed by the RestfulObjects viewer.
@@ -45,4 +51,30 @@ String generateSwaggerSpec(
             final Visibility visibility,
             final Format format);
 
+    /**
+     * As per {@link #generateSwaggerSpec(Visibility, Format)}, but UTF-8 encoded and gzip-compressed,
+     * for serving with a {@code Content-Encoding: gzip} header.
+     *
+     * <p>
+     *     The default implementation compresses the spec on every call; implementations that cache the
+     *     generated spec may want to cache its compressed form as well.
+     * </p>
+     *
+     * @param visibility
+     * @param format
+     * @return
+     */
+    default byte[] generateSwaggerSpecGzipped(
+            final Visibility visibility,
+            final Format format) {
+        final byte[] bytes = generateSwaggerSpec(visibility, format).getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try(final GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
 }
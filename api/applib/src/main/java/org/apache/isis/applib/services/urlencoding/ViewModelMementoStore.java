@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.urlencoding;
+
+import java.util.Optional;
+
+/**
+ * SPI to hold view model mementos on the server, so that only a short opaque token needs to be
+ * included within URLs (rather than the whole, potentially large, memento).
+ *
+ * <p>
+ *     Only consulted by the framework if enabled via
+ *     <code>isis.core.runtime-services.view-model-memento-store.enabled</code>. The framework provides
+ *     an in-memory implementation with least-recently-used and time-to-live eviction; applications
+ *     running on multiple nodes (without sticky sessions) should provide an implementation backed by
+ *     a shared store instead.
+ * </p>
+ *
+ * <p>
+ *     Tokens become the bookmarks of view models, so are also held by persisted or published commands,
+ *     executions and audit entries; see the <code>enabled</code> property for the consequences.
+ * </p>
+ *
+ * @since 2.0 {@index}
+ */
+public interface ViewModelMementoStore {
+
+    /**
+     * Holds given memento, returning a token by which it can be {@link #lookup(String) looked up}
+     * subsequently.
+     *
+     * <p>
+     *     The token must be safe for use within an URL and should be deterministic, that is the same for
+     *     equal mementos, so that view models of equal state keep having equal bookmarks.
+     * </p>
+     */
+    String store(String memento);
+
+    /**
+     * Reciprocal of {@link #store(String)}.
+     *
+     * @return empty if the token is unknown, eg. because its memento has been evicted
+     */
+    Optional<String> lookup(String token);
+
+}
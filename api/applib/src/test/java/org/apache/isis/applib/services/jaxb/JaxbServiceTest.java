@@ -18,12 +18,23 @@
  */
 package org.apache.isis.applib.services.jaxb;
 
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.isis.commons.internal.resources._Xml;
 import org.apache.isis.schema.ixn.v2.ActionInvocationDto;
@@ -32,6 +43,29 @@
 
 class JaxbServiceTest {
 
+    @XmlRootElement
+    public static class Customer {
+        public String name;
+    }
+
+    @XmlRootElement
+    public static class Order {
+        public String number;
+    }
+
+    static class CountingSimple extends JaxbService.Simple {
+        int marshallersConfigured;
+        int unmarshallersConfigured;
+        @Override
+        protected void configure(final Marshaller marshaller) {
+            ++marshallersConfigured;
+        }
+        @Override
+        protected void configure(final Unmarshaller unmarshaller) {
+            ++unmarshallersConfigured;
+        }
+    }
+
     private JaxbService.Simple simple;
     private ActionInvocationDto sampleDto;
 
@@ -58,6 +92,56 @@ void clone_usingUtility() {
         assertDtoEquals(dto, _Xml.clone(dto).presentElseFail());
     }
 
+    @Test
+    void marshallersAndUnmarshallers_arePooled_unlessPropertiesGiven() {
+        val counting = new CountingSimple();
+        val customer = new Customer();
+        customer.name = "Fred";
+
+        for(int i = 0; i < 3; ++i) {
+            val xml = counting.toXml(customer);
+            assertEquals("Fred", counting.fromXml(Customer.class, xml).name);
+        }
+        assertEquals(1, counting.marshallersConfigured);
+        assertEquals(1, counting.unmarshallersConfigured);
+
+        counting.toXml(customer, Collections.singletonMap(Marshaller.JAXB_FRAGMENT, true));
+        assertEquals(2, counting.marshallersConfigured);
+    }
+
+    @Test
+    void unmarshallers_ofContextsNotCached_areNotPooled() {
+        val counting = new CountingSimple();
+        val customer = new Customer();
+        customer.name = "Fred";
+        val xml = counting.toXml(customer);
+
+        val uncachedContext = _Xml.jaxbContextFor(Customer.class, false);
+        assertFalse(_Xml.isCached(uncachedContext));
+        for(int i = 0; i < 3; ++i) {
+            assertEquals("Fred", ((Customer)counting.fromXml(uncachedContext, xml)).name);
+        }
+        assertEquals(3, counting.unmarshallersConfigured);
+
+        val cachedContext = _Xml.jaxbContextFor(Customer.class, true);
+        assertTrue(_Xml.isCached(cachedContext));
+        for(int i = 0; i < 3; ++i) {
+            assertEquals("Fred", ((Customer)counting.fromXml(cachedContext, xml)).name);
+        }
+        assertEquals(4, counting.unmarshallersConfigured);
+    }
+
+    @Test
+    void jaxbContext_forMultipleClasses_isCached() {
+        val jaxbContext = _Xml.jaxbContextFor(Arrays.<Class<?>>asList(Customer.class, Order.class), true);
+        assertSame(jaxbContext,
+                _Xml.jaxbContextFor(Arrays.<Class<?>>asList(Customer.class, Order.class), true));
+        assertNotSame(jaxbContext,
+                _Xml.jaxbContextFor(Arrays.<Class<?>>asList(Order.class, Customer.class), true));
+        assertSame(_Xml.jaxbContextFor(Customer.class, true),
+                _Xml.jaxbContextFor(Arrays.<Class<?>>asList(Customer.class), true));
+    }
+
     // -- HELPER
 
     private ActionInvocationDto getSample() {
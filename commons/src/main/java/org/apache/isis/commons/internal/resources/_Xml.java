@@ -25,6 +25,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -40,6 +41,7 @@
 import org.apache.isis.commons.internal.base._NullSafe;
 import org.apache.isis.commons.internal.codec._DocumentFactories;
 import org.apache.isis.commons.internal.collections._Maps;
+import org.apache.isis.commons.internal.collections._Sets;
 import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.commons.internal.reflection._Annotations;
 
@@ -212,12 +214,58 @@ private static boolean isIllegalAnnotationsException(Exception e) {
 
     private static Map<Class<?>, JAXBContext> jaxbContextByClass = _Maps.newConcurrentHashMap();
 
+    /**
+     * All the values of both caches, to answer {@link #isCached(JAXBContext)} without a scan.
+     */
+    private static Set<JAXBContext> cachedJaxbContexts = _Sets.newConcurrentHashSet();
+
     public static <T> JAXBContext jaxbContextFor(final Class<T> dtoClass, final boolean useCache)  {
         return useCache
-                ? jaxbContextByClass.computeIfAbsent(dtoClass, _Xml::contextOf)
+                ? jaxbContextByClass.computeIfAbsent(dtoClass, cls->remember(contextOf(cls)))
                 : contextOf(dtoClass);
     }
 
+    /**
+     * Whether given context was handed out by one of the caches, hence lives as long as those do.
+     * Allows callers to associate resources with such contexts, without having to evict these.
+     */
+    public static boolean isCached(final @Nullable JAXBContext jaxbContext) {
+        return jaxbContext != null
+                && cachedJaxbContexts.contains(jaxbContext);
+    }
+
+    private static JAXBContext remember(final JAXBContext jaxbContext) {
+        cachedJaxbContexts.add(jaxbContext);
+        return jaxbContext;
+    }
+
+    /**
+     * Keyed by the (ordered) classes to be bound, hence bounded by the number of distinct combinations
+     * of types of the domain model, as is the per class cache above.
+     */
+    private static Map<List<Class<?>>, JAXBContext> jaxbContextByClasses = _Maps.newConcurrentHashMap();
+
+    /**
+     * For contexts binding multiple classes, eg. a {@code DomainObjectList} and its element type.
+     */
+    public static JAXBContext jaxbContextFor(final @NonNull List<Class<?>> classes, final boolean useCache)  {
+        if(classes.size() == 1) {
+            return jaxbContextFor(classes.get(0), useCache);
+        }
+        return useCache
+                ? jaxbContextByClasses.computeIfAbsent(classes, list->remember(contextOf(list)))
+                : contextOf(classes);
+    }
+
+    @SneakyThrows
+    private static JAXBContext contextOf(final List<Class<?>> classes) {
+        try {
+            return JAXBContext.newInstance(classes.toArray(new Class<?>[0]));
+        } catch (Exception e) {
+            throw verboseException("obtaining JAXBContext for classes " + classes, classes.get(0), e);
+        }
+    }
+
     @SneakyThrows
     private static <T> JAXBContext contextOf(final Class<T> dtoClass) {
         try {
@@ -18,9 +18,14 @@
  */
 package org.apache.isis.core.codegen.bytebuddy.services;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
-import java.util.function.Function;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -35,31 +40,45 @@
 import org.apache.isis.commons.internal.proxy._ProxyFactory;
 import org.apache.isis.commons.internal.proxy._ProxyFactoryServiceAbstract;
 
+import lombok.NonNull;
+import lombok.Value;
+
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.NamingStrategy;
-import net.bytebuddy.dynamic.DynamicType.Builder.MethodDefinition.ImplementationDefinition;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.implementation.InvocationHandlerAdapter;
 import net.bytebuddy.matcher.ElementMatchers;
 
+/**
+ * Generates at most one proxy class per (base, interfaces) combination. The {@link InvocationHandler}
+ * is not baked into the generated type, but held by each proxy instance in a dedicated field,
+ * such that creating a proxy instance does not involve any code generation once its class is known.
+ */
 @Service
 public class ProxyFactoryServiceByteBuddy extends _ProxyFactoryServiceAbstract {
 
+    /**
+     * Name of the (per instance) field, that holds the {@link InvocationHandler} of a generated proxy.
+     */
+    static final String HANDLER_FIELD_NAME = "$$isisInvocationHandler";
+
     private final ClassLoadingStrategyAdvisor strategyAdvisor = new ClassLoadingStrategyAdvisor();
 
+    /**
+     * Shared among all factories, caches instantiators per proxy class.
+     */
+    private final Objenesis objenesis = new ObjenesisStd(true);
+
+    private final Map<ProxyClassKey, ProxyClass<?>> proxyClassByKey = new ConcurrentHashMap<>();
+
     @Override
     public <T> _ProxyFactory<T> factory(
             Class<T> base,
             Class<?>[] interfaces,
             Class<?>[] constructorArgTypes) {
 
-        final Objenesis objenesis = new ObjenesisStd();
-
-        final Function<InvocationHandler, Class<? extends T>> proxyClassFactory = handler->
-        nextProxyDef(base, interfaces)
-        .intercept(InvocationHandlerAdapter.of(handler))
-        .make()
-        .load(_Context.getDefaultClassLoader(), strategyAdvisor.getSuitableStrategy(base))
-        .getLoaded();
+        final ProxyClassKey key = ProxyClassKey.of(base, interfaces);
 
         return new _ProxyFactory<T>() {
 
@@ -98,36 +117,60 @@ public T createInstance(InvocationHandler handler, Object[] constructorArgs) {
 
             // -- HELPER (create w/o initialize)
 
-            private Object createNotUsingConstructor(InvocationHandler invocationHandler) {
-                final Class<? extends T> proxyClass = proxyClassFactory.apply(invocationHandler);
-                final Object object = objenesis.newInstance(proxyClass);
-                return object;
+            private Object createNotUsingConstructor(InvocationHandler invocationHandler)
+                    throws IllegalAccessException {
+                final ProxyClass<T> proxyClass = proxyClassFor(key);
+                final Object object = objenesis.newInstance(proxyClass.getType());
+                return proxyClass.attachHandler(object, invocationHandler);
             }
 
             // -- HELPER (create with initialize)
 
+            /**
+             * The handler gets attached after the constructor has returned,
+             * hence proxied methods must not be invoked from within the constructor.
+             */
             private Object createUsingConstructor(InvocationHandler invocationHandler, @Nullable Object[] constructorArgs)
                     throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
-                final Class<? extends T> proxyClass = proxyClassFactory.apply(invocationHandler);
-                return proxyClass
+                final ProxyClass<T> proxyClass = proxyClassFor(key);
+                final Object object = proxyClass.getType()
                         .getConstructor(constructorArgTypes==null ? _Constants.emptyClasses : constructorArgTypes)
                         .newInstance(constructorArgs==null ? _Constants.emptyObjects : constructorArgs);
+                return proxyClass.attachHandler(object, invocationHandler);
             }
 
         };
 
     }
 
+    /**
+     * Number of proxy classes generated so far.
+     */
+    public int getProxyClassCount() {
+        return proxyClassByKey.size();
+    }
+
     // -- HELPER
 
-    private static <T> ImplementationDefinition<T> nextProxyDef(
-            Class<T> base,
-            Class<?>[] interfaces) {
-        return new ByteBuddy()
+    private <T> ProxyClass<T> proxyClassFor(final ProxyClassKey key) {
+        return _Casts.uncheckedCast(
+                proxyClassByKey.computeIfAbsent(key, this::createProxyClass));
+    }
+
+    private ProxyClass<?> createProxyClass(final ProxyClassKey key) {
+        final Class<?> base = key.getBase();
+        final Class<?> proxyType = new ByteBuddy()
                 .with(new NamingStrategy.SuffixingRandom("bb"))
                 .subclass(base)
-                .implement(interfaces)
-                .method(ElementMatchers.any());
+                .implement(key.getInterfaces())
+                .defineField(HANDLER_FIELD_NAME, InvocationHandler.class,
+                        Visibility.PRIVATE, FieldManifestation.VOLATILE)
+                .method(ElementMatchers.any())
+                .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD_NAME))
+                .make()
+                .load(_Context.getDefaultClassLoader(), strategyAdvisor.getSuitableStrategy(base))
+                .getLoaded();
+        return ProxyClass.of(proxyType);
     }
 
     private static void ensureSameSize(Class<?>[] a, Object[] b) {
@@ -144,4 +187,39 @@ private static void ensureNonEmtpy(Object[] a) {
         }
     }
 
+    @Value(staticConstructor = "of")
+    private static class ProxyClassKey {
+        private final @NonNull Class<?> base;
+        private final @NonNull List<Class<?>> interfaces;
+
+        static ProxyClassKey of(final Class<?> base, final @Nullable Class<?>[] interfaces) {
+            return of(base, interfaces!=null
+                    ? Arrays.asList(interfaces.clone())
+                    : Collections.<Class<?>>emptyList());
+        }
+    }
+
+    @Value(staticConstructor = "of")
+    private static class ProxyClass<T> {
+        private final @NonNull Class<? extends T> type;
+        private final @NonNull Field handlerField;
+
+        static ProxyClass<?> of(final Class<?> type) {
+            try {
+                final Field handlerField = type.getDeclaredField(HANDLER_FIELD_NAME);
+                handlerField.setAccessible(true);
+                return of(type, handlerField);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(
+                        String.format("generated proxy class '%s' is missing its handler field", type.getName()),
+                        e);
+            }
+        }
+
+        Object attachHandler(final Object proxy, final InvocationHandler handler) throws IllegalAccessException {
+            handlerField.set(proxy, handler);
+            return proxy;
+        }
+    }
+
 }
@@ -21,6 +21,7 @@
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -1278,6 +1279,13 @@ public static class Introspector {
                  */
                 private IntrospectionMode mode = IntrospectionMode.LAZY_UNLESS_PRODUCTION;
 
+                /**
+                 * The number of (low priority) background threads introspecting the remaining types, if the
+                 * {@link #getMode() introspection mode} is {@link IntrospectionMode#LAZY_WITH_WARM_UP}.
+                 */
+                @javax.validation.constraints.Min(1)
+                private int warmUpThreads = 1;
+
                 /**
                  * If true, then no new specifications will be allowed to be loaded once introspection has been complete.
                  *
@@ -1427,6 +1435,36 @@ public static class Jdoql {
                     private boolean variablesClause = true;
                 }
             }
+
+            private final Snapshot snapshot = new Snapshot();
+            @Data
+            public static class Snapshot {
+
+                /**
+                 * Whether the outcome of metamodel introspection and validation should be written to a snapshot
+                 * file, and reused on subsequent starts.
+                 *
+                 * <p>
+                 *     The snapshot is keyed by a hash of the bytes of all introspectable classes, the programming
+                 *     model and the metamodel configuration. If this hash matches on the next start, then the
+                 *     specifications recorded in the snapshot are primed up-front, and the (successful) validation
+                 *     outcome is reused rather than running all metamodel validators again.
+                 * </p>
+                 */
+                private boolean enabled = false;
+
+                /**
+                 * Directory holding the snapshot file.
+                 */
+                @NotNull
+                private String directory = "metamodel-snapshot";
+
+                /**
+                 * If set, then metamodel validation is still run in full even if a matching snapshot is found,
+                 * and any discrepancy with the snapshot is logged (and the snapshot rewritten).
+                 */
+                private boolean verify = false;
+            }
         }
 
 
@@ -1586,6 +1624,152 @@ public static class RepositoryService {
                  */
                 private boolean disableAutoFlush = false;
 
+                /**
+                 * The number of entities fetched per round-trip, when streaming query results using
+                 * {@link org.apache.isis.applib.services.repository.RepositoryService#streamMatches(org.apache.isis.applib.query.Query)}.
+                 *
+                 * <p>
+                 *     Entities of a batch are released from the persistence context,
+                 *     once the stream moves on to the next batch.
+                 * </p>
+                 */
+                @javax.validation.constraints.Min(1)
+                private int streamBatchSize = 1000;
+
+            }
+
+            private final QueryResultsCache queryResultsCache = new QueryResultsCache();
+            @Data
+            public static class QueryResultsCache {
+
+                private final Shared shared = new Shared();
+                @Data
+                public static class Shared {
+                    /**
+                     * Whether query results cached by
+                     * {@link org.apache.isis.applib.services.queryresultscache.QueryResultsCache#executeShared(java.util.concurrent.Callable, Class[], Class, String, Object...)}
+                     * should also be shared across interactions of the same user (with the same roles), in an
+                     * application scoped (second-level) cache.  Queries executed otherwise are never shared.
+                     *
+                     * <p>
+                     *     Entries are invalidated whenever an entity type they depend upon - that is, any type
+                     *     declared by the query, or the type of any entity found in the query's arguments or in
+                     *     its result - is created, updated or deleted by a committed transaction (of this node).
+                     * </p>
+                     * <p>
+                     *     With JPA, changes are only recognized for entities that list the
+                     *     {@code JpaEntityInjectionPointResolver} entity listener; results depending on other
+                     *     entity types are only evicted once their time-to-live has expired.
+                     * </p>
+                     */
+                    private boolean enabled = false;
+
+                    /**
+                     * The maximum number of entries of the shared cache; least recently used entries are evicted
+                     * once reached.
+                     */
+                    @javax.validation.constraints.Min(1)
+                    private int maxSize = 10_000;
+
+                    /**
+                     * How long an entry of the shared cache is considered valid after it was cached.
+                     */
+                    @NotNull
+                    private Duration timeToLive = Duration.ofMinutes(10);
+                }
+            }
+
+            private final ViewModelMementoStore viewModelMementoStore = new ViewModelMementoStore();
+            @Data
+            public static class ViewModelMementoStore {
+                /**
+                 * Whether the mementos of JAXB view models should be held on the server by the
+                 * {@link org.apache.isis.applib.services.urlencoding.ViewModelMementoStore}, so that URLs
+                 * only include a short opaque token, rather than the whole (url-encoded) XML.
+                 *
+                 * <p>
+                 *     Bookmarks of such view models no longer survive an eviction of their memento (or a
+                 *     restart, if held in-memory), so only enable this if view models are not bookmarked
+                 *     for long.
+                 * </p>
+                 *
+                 * <p>
+                 *     The token becomes the view model's bookmark everywhere, not just within viewer URLs:
+                 *     also within the targets and arguments of persisted and published commands (hence the
+                 *     command log, and command replay on another node), within execution and entity change
+                 *     publishing (eg. audit trails), and within anything else that stores bookmarks. Such
+                 *     bookmarks can no longer be resolved (nor their view model's state be read from them) once
+                 *     the memento has been evicted, or by another node not sharing the store. Hence do not
+                 *     enable this if view models are the targets or arguments of actions that are published or
+                 *     logged, unless a persistent store, shared by all nodes, is provided.
+                 * </p>
+                 */
+                private boolean enabled = false;
+
+                /**
+                 * The maximum number of mementos held by the default (in-memory) store; least recently
+                 * used mementos are evicted once reached.
+                 */
+                @javax.validation.constraints.Min(1)
+                private int maxSize = 10_000;
+
+                /**
+                 * How long the default (in-memory) store holds a memento after it was last used.
+                 */
+                @NotNull
+                private Duration timeToLive = Duration.ofHours(1);
+            }
+
+            private final Publishing publishing = new Publishing();
+            @Data
+            public static class Publishing {
+
+                private final Async async = new Async();
+                @Data
+                public static class Async {
+
+                    public static enum Backpressure {
+                        /**
+                         * The publishing thread waits until the subscriber's queue has capacity again.
+                         */
+                        BLOCK,
+                        /**
+                         * The event is discarded (and counted as dropped) if the subscriber's queue is full.
+                         */
+                        DROP,
+                        /**
+                         * The publishing thread drains and delivers a batch of the subscriber's queue itself,
+                         * preserving order, before enqueuing the event.
+                         */
+                        CALLER_RUNS,
+                    }
+
+                    /**
+                     * Capacity of the bounded queue held for each subscriber that opted in to asynchronous
+                     * delivery (by implementing {@link org.apache.isis.applib.services.publishing.spi.AsyncSubscriber}).
+                     */
+                    @javax.validation.constraints.Min(1)
+                    private int queueCapacity = 4096;
+
+                    /**
+                     * The maximum number of events that are delivered to a subscriber in one go.
+                     */
+                    @javax.validation.constraints.Min(1)
+                    private int batchSize = 256;
+
+                    /**
+                     * What to do if a subscriber's queue is full.
+                     */
+                    @NotNull
+                    private Backpressure backpressure = Backpressure.BLOCK;
+
+                    /**
+                     * How long to wait on shutdown for the dispatcher threads to deliver any queued events,
+                     * before delivering the remainder on the shutdown thread.
+                     */
+                    @NotNull
+                    private Duration shutdownTimeout = Duration.ofSeconds(30);
+                }
             }
 
             private final ExceptionRecognizer exceptionRecognizer = new ExceptionRecognizer();
@@ -2870,6 +3054,69 @@ public static class Cors {
         public static class Quartz {
         }
 
+        private final CommandLog commandLog = new CommandLog();
+        @Data
+        public static class CommandLog {
+
+            private final WriteBehind writeBehind = new WriteBehind();
+            @Data
+            public static class WriteBehind {
+
+                /**
+                 * Whether commands should be persisted by a background writer, rather than within the
+                 * transaction of the interaction that executed them.
+                 *
+                 * <p>
+                 *     Each command is first appended to a local spool file (so is not lost if the application
+                 *     terminates before it has been written), then persisted in batches, each within a single
+                 *     transaction. Any commands left in the spool are written on startup.
+                 * </p>
+                 */
+                private boolean enabled = false;
+
+                /**
+                 * Directory holding the spool file.
+                 */
+                @NotNull
+                private String spoolDirectory = "command-log-spool";
+
+                /**
+                 * Whether each append to the spool file is forced to the storage device before the interaction
+                 * completes; disabling this trades durability on operating system failure for latency.
+                 */
+                private boolean syncOnAppend = true;
+
+                /**
+                 * The maximum number of commands persisted within a single transaction.
+                 */
+                @javax.validation.constraints.Min(1)
+                private int batchSize = 100;
+
+                /**
+                 * The maximum number of commands waiting to be written; once reached, interactions wait
+                 * (up to {@link #getQueueOfferTimeout() queue-offer-timeout}) for the writer to catch up.
+                 */
+                @javax.validation.constraints.Min(1)
+                private int queueCapacity = 10_000;
+
+                /**
+                 * How long an interaction waits for space in the queue, once its capacity is reached; after
+                 * that, the command is persisted synchronously, within the transaction of the interaction
+                 * (as if write-behind were disabled).
+                 */
+                @NotNull
+                private Duration queueOfferTimeout = Duration.ofSeconds(1);
+
+                /**
+                 * The number of attempts to persist a command that fails on its own (while the database is
+                 * available) before it is moved to the dead-letter file in the spool directory, so that it
+                 * does not hold up the commands after it.
+                 */
+                @javax.validation.constraints.Min(1)
+                private int maxAttempts = 5;
+            }
+        }
+
         private final CommandReplay commandReplay = new CommandReplay();
         @Data
         public static class CommandReplay {
@@ -2938,6 +3185,43 @@ public static class Exception {
         @Data
         public static class Secman {
 
+            private final Authorizor authorizor = new Authorizor();
+            @Data
+            public static class Authorizor {
+
+                private final Cache cache = new Cache();
+                @Data
+                public static class Cache {
+                    /**
+                     * Whether the permission checks of <code>AuthorizorSecman</code> are answered from an
+                     * application scoped cache, keyed by the user's set of roles, the feature and the mode.
+                     *
+                     * <p>
+                     *     The cache is invalidated whenever an <code>ApplicationUser</code>, <code>ApplicationRole</code>
+                     *     or <code>ApplicationPermission</code> is created, updated or deleted by a committed
+                     *     transaction (of this application instance). With JPA, this relies on these entities
+                     *     listing the <code>JpaEntityInjectionPointResolver</code> entity listener (as those of
+                     *     secman's <code>persistence-jpa</code> module do); custom entities that don't are only
+                     *     picked up once the time-to-live has elapsed.
+                     * </p>
+                     *
+                     * <p>
+                     *     Disabled by default: changes made outside of this application instance (eg. by another
+                     *     node of a cluster, or directly within the database) are only picked up once the
+                     *     {@link #getTimeToLive() time-to-live} has elapsed.
+                     * </p>
+                     */
+                    private boolean enabled = false;
+
+                    /**
+                     * How long cached permissions are considered valid; bounds the staleness of changes
+                     * made outside of this application instance.
+                     */
+                    @NotNull
+                    private Duration timeToLive = Duration.ofSeconds(30);
+                }
+            }
+
             private final UserRegistration userRegistration = new UserRegistration();
             @Data
             public static class UserRegistration {
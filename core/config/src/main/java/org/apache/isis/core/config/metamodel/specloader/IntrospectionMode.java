@@ -47,6 +47,19 @@ protected boolean isFullIntrospect(final DeploymentType deploymentType) {
         }
     },
 
+    /**
+     * Lazy (the application becomes ready without introspecting members up-front), but any remaining types
+     * are then introspected in the background, irrespective of the deployment mode.
+     * <p>
+     * Metamodel validation is deferred until this background warm-up has completed.
+     */
+    LAZY_WITH_WARM_UP {
+        @Override
+        protected boolean isFullIntrospect(final DeploymentType deploymentType) {
+            return false;
+        }
+    },
+
     /**
      * Full introspection, irrespective of deployment mode.
      */
@@ -64,4 +77,8 @@ public static boolean isFullIntrospect(IsisConfiguration configuration, IsisSyst
         return introspectionMode.isFullIntrospect(isisSystemEnvironment.getDeploymentType());
     }
 
+    public static boolean isWarmUp(IsisConfiguration configuration) {
+        return configuration.getCore().getMetaModel().getIntrospector().getMode() == LAZY_WITH_WARM_UP;
+    }
+
 }
@@ -20,6 +20,7 @@
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
@@ -31,6 +32,7 @@
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import org.apache.isis.applib.annotation.OrderPrecedence;
@@ -41,6 +43,7 @@
 import org.apache.isis.core.interaction.session.IsisInteraction;
 
 import lombok.NonNull;
+import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
@@ -112,6 +115,52 @@ public void onClose(final @NonNull IsisInteraction interaction) {
 
     }
 
+    // -- PROPAGATED
+
+    /**
+     * Runs given {@code callable} within its own transactional boundary on the current thread,
+     * as is required for work that is propagated from an interaction's owning thread to
+     * worker threads. Any transactions created are committed on successful completion and
+     * rolled back otherwise.
+     */
+    @SneakyThrows
+    public <R> R callWithinTransactionalBoundary(final @NonNull Callable<R> callable) {
+
+        if(txManagers.isEmpty()) {
+            return callable.call();
+        }
+
+        val txHandles = _Lists.<TxHandle>newArrayList(txManagers.size());
+        txManagers.forEach(txManager->{
+            val txTemplate = new TransactionTemplate(txManager);
+            txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+            val txStatus = txManager.getTransaction(txTemplate);
+            if(txStatus!=null // in support of JUnit testing
+                    && txStatus.isNewTransaction()) {
+                txHandles.add(new TxHandle(txManager, txStatus));
+            }
+        });
+
+        final R result;
+        try {
+            result = callable.call();
+        } catch (Throwable ex) {
+            txHandles.forEach(TxHandle::rollbackQuietly);
+            throw ex;
+        }
+
+        // complete in reverse order of creation
+        try {
+            for(int i = txHandles.size() - 1; i >= 0; i--) {
+                txHandles.get(i).complete();
+            }
+        } catch (Throwable ex) {
+            txHandles.forEach(TxHandle::rollbackQuietly);
+            throw ex;
+        }
+        return result;
+    }
+
     // -- HELPER
 
     private void newTransactionOrParticipateInExisting(
@@ -150,6 +199,32 @@ private static class CloseTask {
         private final @NonNull ThrowingRunnable runnable;
     }
 
+    @Value
+    private static class TxHandle {
+        private final @NonNull PlatformTransactionManager txManager;
+        private final @NonNull TransactionStatus txStatus;
+
+        void complete() {
+            if(txStatus.isRollbackOnly()) {
+                txManager.rollback(txStatus);
+            } else {
+                txManager.commit(txStatus);
+            }
+        }
+
+        void rollbackQuietly() {
+            if(txStatus.isCompleted()) {
+                return;
+            }
+            try {
+                txManager.rollback(txStatus);
+            } catch (final Throwable ex) {
+                log.error("failed to rollback using transaction-manager {}",
+                        txManager.getClass().getName(), ex);
+            }
+        }
+    }
+
     @Value
     private static class Handle {
         private final @NonNull List<CloseTask> onCloseTasks;
@@ -56,7 +56,16 @@ void preDestroy() {
         }
     }
 
-    private ThreadLocal<Map<String, ScopedObject>> scopedObjects = ThreadLocal.withInitial(_Maps::newHashMap);
+    /**
+     * Held per thread, such that interaction-scoped beans (that are not thread-safe, eg. the entity
+     * change tracker) are confined to a single thread: worker threads attached to an interaction (see
+     * {@link org.apache.isis.core.interaction.session.InteractionFactory#callWithinInteractionContext})
+     * get their own instances, for the duration of the attachment (and of their own transactions).
+     * <p>
+     * Present only while the thread's interaction is open (or attached), so scoped beans are never
+     * (re-)created once closed.
+     */
+    private final ThreadLocal<Map<String, ScopedObject>> scopedObjects = new ThreadLocal<>();
 
     @Override
     public Object get(String name, ObjectFactory<?> objectFactory) {
@@ -73,13 +82,15 @@ public Object get(String name, ObjectFactory<?> objectFactory) {
                     + "... @Inject Provider<MyScopedBean> provider ...", name, _Probe.currentThreadId());
         }
 
-        val existingScopedObject = scopedObjects.get().get(name);
+        val scopedObjects = scopedObjects(name);
+
+        val existingScopedObject = scopedObjects.get(name);
         if(existingScopedObject!=null) {
             return existingScopedObject.getInstance();
         }
 
         val newScopedObject = ScopedObject.of(name);
-        scopedObjects.get().put(name, newScopedObject); // just set a stub with a name only
+        scopedObjects.put(name, newScopedObject); // just set a stub with a name only
 
         log.debug("create new isis-session scoped {}", name);
         newScopedObject.setInstance(objectFactory.getObject()); // triggers call to registerDestructionCallback
@@ -94,7 +105,10 @@ public Object remove(String name) {
 
     @Override
     public void registerDestructionCallback(String name, Runnable callback) {
-        val scopedObject = scopedObjects.get().get(name);
+        val scopedObjectsIfAny = scopedObjects.get();
+        val scopedObject = scopedObjectsIfAny!=null
+                ? scopedObjectsIfAny.get(name)
+                : null;
         if(scopedObject!=null) {
             scopedObject.setDestructionCallback(callback);
         }
@@ -117,16 +131,28 @@ public String getConversationId() {
 
     @Override
     public void onTopLevelInteractionOpened() {
-        // nothing to do
+        scopedObjects.set(_Maps.newHashMap());
     }
 
     @Override
     public void onTopLevelInteractionClosing() {
-        try {
-            scopedObjects.get().values().forEach(ScopedObject::preDestroy);
-        } finally {
-            scopedObjects.remove();
+        val scopedObjectsIfAny = scopedObjects.get();
+        scopedObjects.remove();
+        if(scopedObjectsIfAny!=null) {
+            scopedObjectsIfAny.values().forEach(ScopedObject::preDestroy);
+        }
+    }
+
+    // -- HELPER
+
+    private Map<String, ScopedObject> scopedObjects(final String name) {
+        val scopedObjectsIfAny = scopedObjects.get();
+        if(scopedObjectsIfAny==null) {
+            throw _Exceptions.illegalState("Creation of bean %s with @InteractionScope requires the "
+                    + "interaction of %s to be open; it either has already been closed or was never opened "
+                    + "on this thread", name, _Probe.currentThreadId());
         }
+        return scopedObjectsIfAny;
     }
 
 }
@@ -23,7 +23,15 @@
  */
 public interface InteractionScopeLifecycleHandler {
 
+    /**
+     * Called on the thread that opens the top-level interaction, as well as on any thread an
+     * interaction gets attached to.
+     */
     void onTopLevelInteractionOpened();
+
+    /**
+     * Counterpart of {@link #onTopLevelInteractionOpened()}, called on the same thread.
+     */
     void onTopLevelInteractionClosing();
 
 }
@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.interaction.session;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decorates an {@link ExecutorService}, such that any task submitted from within an open
+ * {@link IsisInteraction} runs attached to that same interaction on the worker thread.
+ * <p>
+ * The {@link InteractionContextSnapshot} is taken on the submitting thread at the time of
+ * submission. Tasks submitted while not within an interaction are passed on as is.
+ * <p>
+ * See {@link InteractionFactory#callWithinInteractionContext(InteractionContextSnapshot, java.util.concurrent.Callable)}
+ * for the transactional semantics that apply to propagated tasks.
+ *
+ * @see InteractionFactory#withInteractionContextPropagation(ExecutorService)
+ * @since 2.0
+ */
+@RequiredArgsConstructor(staticName = "of")
+public final class InteractionContextPropagatingExecutorService
+extends AbstractExecutorService {
+
+    private final @NonNull InteractionFactory interactionFactory;
+    private final @NonNull ExecutorService delegate;
+
+    @Override
+    public void execute(final Runnable command) {
+        final Runnable task = interactionFactory.currentInteractionContextSnapshot()
+                .<Runnable>map(snapshot->()->
+                    interactionFactory.runWithinInteractionContext(snapshot, command::run))
+                .orElse(command);
+        delegate.execute(task);
+    }
+
+    // -- LIFECYCLE
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+}
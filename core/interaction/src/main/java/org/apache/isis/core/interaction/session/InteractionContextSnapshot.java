@@ -0,0 +1,57 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.interaction.session;
+
+import java.util.List;
+
+import org.apache.isis.commons.collections.Can;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Immutable capture of the {@link AuthenticationLayer} stack of the thread that owns an
+ * {@link IsisInteraction}, such that the interaction can be attached to other (worker) threads.
+ * <p>
+ * Obtained via {@link InteractionFactory#currentInteractionContextSnapshot()} and attached using
+ * {@link InteractionFactory#callWithinInteractionContext(InteractionContextSnapshot, java.util.concurrent.Callable)}.
+ *
+ * @see InteractionContextPropagatingExecutorService
+ * @since 2.0
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class InteractionContextSnapshot {
+
+    @Getter private final @NonNull IsisInteraction interaction;
+    @Getter private final @NonNull Can<AuthenticationLayer> authenticationLayers;
+
+    /**
+     * @param authenticationStack - the owning thread's authentication layer stack, bottom first
+     * (non-empty)
+     */
+    public static InteractionContextSnapshot of(final @NonNull List<AuthenticationLayer> authenticationStack) {
+        final Can<AuthenticationLayer> layers = Can.ofCollection(authenticationStack);
+        return new InteractionContextSnapshot(
+                layers.getFirstOrFail().getInteraction(),
+                layers);
+    }
+
+}
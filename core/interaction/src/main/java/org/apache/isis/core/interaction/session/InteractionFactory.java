@@ -19,7 +19,9 @@
 
 package org.apache.isis.core.interaction.session;
 
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.isis.commons.functional.ThrowingRunnable;
 import org.apache.isis.core.security.authentication.Authentication;
@@ -118,5 +120,57 @@ public interface InteractionFactory {
      */
     void closeSessionStack();
 
+    // -- PROPAGATION ACROSS THREADS
+
+    /**
+     * @return a snapshot of the current thread's {@link AuthenticationLayer} stack, for the
+     * current interaction to be attached to other threads; empty if not within an interaction
+     */
+    Optional<InteractionContextSnapshot> currentInteractionContextSnapshot();
+
+    /**
+     * Executes a block of code attached to the interaction as captured by given {@code snapshot},
+     * typically on a worker thread. The interaction's {@link AuthenticationLayer}s are shared with
+     * the owning thread, whereas interaction-scoped beans (not being thread-safe) are not: the block
+     * gets its own instances, destroyed once it completes.
+     * <p>
+     * Transactions are bound to threads, hence the block never participates in the owning
+     * thread's transaction: instead it runs within its own transaction(s), that are committed
+     * on successful completion and rolled back otherwise. If the calling thread already is
+     * within the very interaction captured (eg. with caller-runs policies or fork-join pools),
+     * the block simply runs in place.
+     * <p>
+     * The owning thread is in charge of the interaction's lifecycle and must await completion of
+     * any propagated work, before closing the interaction; the block itself must not close it (eg.
+     * using {@link #closeSessionStack()}).
+     *
+     * @param snapshot (non-null)
+     * @param callable (non-null)
+     * @throws IllegalStateException if the captured interaction has already been closed or the
+     * calling thread is within another interaction
+     */
+    <R> R callWithinInteractionContext(@NonNull InteractionContextSnapshot snapshot, @NonNull Callable<R> callable);
+
+    /**
+     * Variant of {@link #callWithinInteractionContext(InteractionContextSnapshot, Callable)} that takes a runnable.
+     * @param snapshot (non-null)
+     * @param runnable (non-null)
+     */
+    default void runWithinInteractionContext(
+            final @NonNull InteractionContextSnapshot snapshot,
+            final @NonNull ThrowingRunnable runnable) {
+        callWithinInteractionContext(snapshot, ThrowingRunnable.toCallable(runnable));
+    }
+
+    /**
+     * @param delegate (non-null)
+     * @return an {@link ExecutorService} that attaches any tasks submitted from within an
+     * interaction to that same interaction, as per
+     * {@link #callWithinInteractionContext(InteractionContextSnapshot, Callable)}
+     */
+    default ExecutorService withInteractionContextPropagation(final @NonNull ExecutorService delegate) {
+        return InteractionContextPropagatingExecutorService.of(this, delegate);
+    }
+
 
 }
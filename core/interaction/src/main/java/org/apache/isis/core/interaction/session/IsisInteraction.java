@@ -66,7 +66,7 @@ public UUID getInteractionId() {
 
     @Setter private Runnable onClose;
 
-    private boolean closed = false;
+    @Getter private volatile boolean closed = false;
 
     /** Do not use, is called by the framework internally. */
     public void close() {
@@ -0,0 +1,151 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.interaction.scope;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.apache.isis.core.interaction.session.InteractionTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class InteractionScopeTest {
+
+    private InteractionScope interactionScope;
+    private ExecutorService worker;
+    private AtomicInteger destroyed;
+
+    @BeforeEach
+    void setUp() {
+        val interactionTracker = Mockito.mock(InteractionTracker.class);
+        when(interactionTracker.isInInteraction()).thenReturn(true);
+
+        interactionScope = new InteractionScope();
+        ReflectionTestUtils.setField(interactionScope, "isisInteractionTracker", interactionTracker);
+
+        worker = Executors.newSingleThreadExecutor();
+        destroyed = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdownNow();
+    }
+
+    @Test
+    void same_bean_within_interaction() {
+        interactionScope.onTopLevelInteractionOpened();
+
+        assertSame(bean(), bean());
+
+        interactionScope.onTopLevelInteractionClosing();
+        assertEquals(1, destroyed.get());
+    }
+
+    @Test
+    void beans_are_not_created_once_closed() {
+        interactionScope.onTopLevelInteractionOpened();
+        bean();
+        interactionScope.onTopLevelInteractionClosing();
+
+        assertThrows(IllegalStateException.class, this::bean);
+        // also not re-created by the failed attempt
+        assertThrows(IllegalStateException.class, this::bean);
+    }
+
+    @Test
+    void attached_thread_gets_its_own_beans() throws Exception {
+        interactionScope.onTopLevelInteractionOpened();
+        val ownerBean = bean();
+
+        val workerBean = worker.submit(()->{
+            interactionScope.onTopLevelInteractionOpened();
+            try {
+                return bean();
+            } finally {
+                interactionScope.onTopLevelInteractionClosing();
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        assertNotSame(ownerBean, workerBean);
+        // the worker's bean is destroyed on detach, the owner's one is still in use
+        assertEquals(1, destroyed.get());
+        assertSame(ownerBean, bean());
+
+        interactionScope.onTopLevelInteractionClosing();
+        assertEquals(2, destroyed.get());
+    }
+
+    @Test
+    void closing_owner_while_attached_thread_is_running() throws Exception {
+        interactionScope.onTopLevelInteractionOpened();
+        bean();
+
+        val attached = new CountDownLatch(1);
+        val ownerClosed = new CountDownLatch(1);
+        val workerResult = worker.submit(()->{
+            interactionScope.onTopLevelInteractionOpened();
+            try {
+                val before = bean();
+                attached.countDown();
+                ownerClosed.await(5, TimeUnit.SECONDS);
+                return before == bean();
+            } finally {
+                interactionScope.onTopLevelInteractionClosing();
+            }
+        });
+
+        attached.await(5, TimeUnit.SECONDS);
+        interactionScope.onTopLevelInteractionClosing();
+        assertEquals(1, destroyed.get());
+        ownerClosed.countDown();
+
+        assertEquals(true, workerResult.get(5, TimeUnit.SECONDS));
+        assertEquals(2, destroyed.get());
+        assertThrows(IllegalStateException.class, this::bean);
+    }
+
+    // -- HELPER
+
+    private Object bean() {
+        final ObjectFactory<Object> objectFactory = ()->{
+            val bean = new Object();
+            interactionScope.registerDestructionCallback("bean", destroyed::incrementAndGet);
+            return bean;
+        };
+        return interactionScope.get("bean", objectFactory);
+    }
+
+}
@@ -19,19 +19,17 @@
 
 package org.apache.isis.core.metamodel.facetapi;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import org.apache.isis.commons.collections.Can;
-import org.apache.isis.commons.internal.base._Lazy;
 import org.apache.isis.commons.internal.collections._Maps;
 import org.apache.isis.commons.internal.collections._Maps.AliasMap;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
 import org.apache.isis.core.metamodel.context.MetaModelContextAware;
 
-import static org.apache.isis.commons.internal.base._Casts.uncheckedCast;
-
 import lombok.Getter;
 import lombok.Setter;
 import lombok.val;
@@ -47,11 +45,18 @@ public class FacetHolderImpl implements FacetHolder, MetaModelContextAware {
     private final Map<Class<? extends Facet>, Facet> facetsByType = _Maps.newHashMap();
     private final Object $lock = new Object();
 
+    /**
+     * Immutable lookup structure, built from {@link #facetsByType} on demand;
+     * reads are not synchronized, any modification invalidates (nulls) it.
+     * <p>
+     * Once the metamodel is fully introspected (and locked), facet holders no longer change,
+     * hence the lookup table is built only once.
+     */
+    private volatile FacetLookupTable lookupTable;
+
     @Override
     public boolean containsFacet(Class<? extends Facet> facetType) {
-        synchronized($lock) {
-            return snapshot.get().containsKey(facetType);
-        }
+        return lookupTable().contains(facetType);
     }
 
     @Override
@@ -59,30 +64,24 @@ public void addFacet(Facet facet) {
         synchronized($lock) {
             val changed = addFacetOrKeepExisting(facetsByType, facet);
             if(changed) {
-                snapshot.clear(); //invalidate
+                lookupTable = null; //invalidate
             }
         }
     }
 
     @Override
     public <T extends Facet> T getFacet(Class<T> facetType) {
-        synchronized($lock) {
-            return uncheckedCast(snapshot.get().get(facetType));
-        }
+        return lookupTable().get(facetType);
     }
 
     @Override
     public Stream<Facet> streamFacets() {
-        synchronized($lock) {
-            return snapshot.get().values().stream(); // consumers should play nice and don't take too long
-        }
+        return lookupTable().stream();
     }
 
     @Override
     public int getFacetCount() {
-        synchronized($lock) {
-            return snapshot.get().size();
-        }
+        return lookupTable().size();
     }
 
     @Override
@@ -102,11 +101,23 @@ public void addOrReplaceFacet(Facet facet) {
 
     // -- HELPER
 
-    private final _Lazy<Map<Class<? extends Facet>, Facet>> snapshot = _Lazy.threadSafe(this::snapshot);
+    private FacetLookupTable lookupTable() {
+        val lookupTable = this.lookupTable;
+        if(lookupTable!=null) {
+            return lookupTable;
+        }
+        synchronized($lock) {
+            if(this.lookupTable==null) {
+                this.lookupTable = createLookupTable();
+            }
+            return this.lookupTable;
+        }
+    }
 
     // collect all facet information provided with the top-level facets (contributed facets and aliases)
-    private Map<Class<? extends Facet>, Facet> snapshot() {
+    private FacetLookupTable createLookupTable() {
         val snapshot = _Maps.<Class<? extends Facet>, Facet>newAliasMap(HashMap::new);
+        val aliasTypes = new ArrayList<Class<? extends Facet>>();
         facetsByType.values().forEach(topLevelFacet->{
 
             snapshot.remap(
@@ -114,11 +125,20 @@ private Map<Class<? extends Facet>, Facet> snapshot() {
                     Can.ofNullable(topLevelFacet.facetAliasType()),
                     topLevelFacet);
 
+            if(topLevelFacet.facetAliasType()!=null) {
+                aliasTypes.add(topLevelFacet.facetAliasType());
+            }
+
             // honor contributed facets via recursive lookup
             collectChildren(snapshot, topLevelFacet);
 
         });
-        return snapshot;
+
+        // flatten, such that alias types are regular lookup keys
+        val facetsByTypeOrAlias = new HashMap<Class<? extends Facet>, Facet>(snapshot);
+        aliasTypes.forEach(aliasType->
+            facetsByTypeOrAlias.putIfAbsent(aliasType, snapshot.get(aliasType)));
+        return FacetLookupTable.of(facetsByTypeOrAlias, snapshot.values());
     }
 
     private void collectChildren(AliasMap<Class<? extends Facet>, Facet> target, Facet parentFacet) {
@@ -145,7 +165,7 @@ private boolean addFacetOrKeepExisting(
     }
 
     private void remove(Facet topLevelFacet) {
-        snapshot.clear(); //invalidate
+        lookupTable = null; //invalidate
         facetsByType.remove(topLevelFacet.facetType());
     }
 
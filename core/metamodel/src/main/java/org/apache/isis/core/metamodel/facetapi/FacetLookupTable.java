@@ -0,0 +1,129 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facetapi;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.isis.commons.internal.base._Casts;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Immutable facet lookup structure, as used by {@link FacetHolderImpl}.
+ * <p>
+ * Each facet type is assigned a dense (JVM wide) integer id on first use,
+ * which then serves as the hash into a small open-addressing table. Reads
+ * require no synchronization.
+ *
+ * @since 2.0
+ */
+final class FacetLookupTable {
+
+    static final FacetLookupTable EMPTY = new FacetLookupTable(new int[1], new Facet[1], new Facet[0]);
+
+    private static final AtomicInteger nextTypeId = new AtomicInteger(1); // zero is reserved for empty slots
+
+    private static final ClassValue<Integer> typeIds = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(final Class<?> facetType) {
+            return nextTypeId.getAndIncrement();
+        }
+    };
+
+    static int typeIdOf(final @NonNull Class<?> facetType) {
+        return typeIds.get(facetType);
+    }
+
+    /**
+     * @param facetsByType - lookup keys (facet types and alias types) to facets
+     * @param facets - the distinct facets, in order of traversal
+     */
+    static FacetLookupTable of(
+            final @NonNull Map<Class<? extends Facet>, Facet> facetsByType,
+            final @NonNull Collection<Facet> facets) {
+
+        if(facetsByType.isEmpty()) {
+            return EMPTY;
+        }
+
+        // capacity is a power of 2, at least twice the number of keys, to keep probe sequences short
+        val capacity = Integer.highestOneBit(Math.max(1, facetsByType.size() * 2 - 1)) << 1;
+        val mask = capacity - 1;
+        val typeIdsBySlot = new int[capacity];
+        val facetsBySlot = new Facet[capacity];
+
+        facetsByType.forEach((facetType, facet)->{
+            if(facet==null) {
+                return;
+            }
+            val typeId = typeIdOf(facetType);
+            int slot = typeId & mask;
+            while(typeIdsBySlot[slot]!=0) {
+                slot = (slot + 1) & mask;
+            }
+            typeIdsBySlot[slot] = typeId;
+            facetsBySlot[slot] = facet;
+        });
+
+        return new FacetLookupTable(typeIdsBySlot, facetsBySlot, facets.toArray(new Facet[0]));
+    }
+
+    private final int[] typeIdsBySlot;
+    private final Facet[] facetsBySlot;
+    private final Facet[] facets;
+    private final int mask;
+
+    private FacetLookupTable(final int[] typeIdsBySlot, final Facet[] facetsBySlot, final Facet[] facets) {
+        this.typeIdsBySlot = typeIdsBySlot;
+        this.facetsBySlot = facetsBySlot;
+        this.facets = facets;
+        this.mask = typeIdsBySlot.length - 1;
+    }
+
+    <T extends Facet> T get(final Class<T> facetType) {
+        val typeId = typeIdOf(facetType);
+        int slot = typeId & mask;
+        int candidate;
+        while((candidate = typeIdsBySlot[slot])!=0) {
+            if(candidate == typeId) {
+                return _Casts.uncheckedCast(facetsBySlot[slot]);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    boolean contains(final Class<? extends Facet> facetType) {
+        return get(facetType)!=null;
+    }
+
+    Stream<Facet> stream() {
+        return Arrays.stream(facets);
+    }
+
+    int size() {
+        return facets.length;
+    }
+
+}
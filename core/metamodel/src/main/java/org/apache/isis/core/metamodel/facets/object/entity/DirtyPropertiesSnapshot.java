@@ -0,0 +1,52 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.object.entity;
+
+import org.apache.isis.commons.collections.Can;
+
+/**
+ * Pre-modification state of an entity, as captured by the persistence mechanism when the entity
+ * is about to be dirtied, that later on tells which of its properties have actually been modified.
+ * <p>
+ * Allows entity change tracking to be driven by the persistence mechanism's own dirty field tracking,
+ * such that only modified properties need to be captured.
+ *
+ * @see EntityFacet#snapshotForChangeTracking(org.apache.isis.core.metamodel.spec.ManagedObject)
+ * @since 2.0
+ */
+public interface DirtyPropertiesSnapshot {
+
+    /**
+     * The ids of those properties that have been modified since this snapshot was taken
+     * (as of now); may also include properties that have been modified and reset since.
+     */
+    Can<String> getDirtyPropertyIds();
+
+    /**
+     * Whether the pre-modification value of given property was captured by this snapshot.
+     */
+    boolean isCaptured(String propertyId);
+
+    /**
+     * The pre-modification value (pojo) of given property, as captured by this snapshot.
+     * @see #isCaptured(String)
+     */
+    Object getPreValue(String propertyId);
+
+}
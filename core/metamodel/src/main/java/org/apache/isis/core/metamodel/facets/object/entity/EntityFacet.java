@@ -20,8 +20,11 @@
 package org.apache.isis.core.metamodel.facets.object.entity;
 
 import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryRange;
 import org.apache.isis.applib.services.repository.EntityState;
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.core.metamodel.facetapi.Facet;
@@ -37,8 +40,111 @@ public interface EntityFacet extends Facet {
     String identifierFor(ObjectSpecification spec, Object pojo);
 
     ManagedObject fetchByIdentifier(ObjectSpecification spec, String identifier);
+
+    /**
+     * Bulk variant of {@link #fetchByIdentifier(ObjectSpecification, String)}, returning the
+     * entities in the order of the given identifiers.
+     * <p>
+     * Implementations are encouraged to resolve all identifiers with a single (batched)
+     * primary-key query, answering the instances already managed by the persistence context. The default
+     * implementation resolves the identifiers one by one.
+     *
+     * @throws org.apache.isis.applib.exceptions.unrecoverable.ObjectNotFoundException
+     *      if any of the identifiers cannot be resolved
+     */
+    default Can<ManagedObject> fetchByIdentifiers(ObjectSpecification spec, Can<String> identifiers) {
+        return identifiers.map(identifier->fetchByIdentifier(spec, identifier));
+    }
+
     Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query);
 
+    /**
+     * Variant of {@link #fetchByQuery(ObjectSpecification, Query)}, that has the persistence store
+     * order the matching entities by given (persistent) property, before applying the query's range;
+     * as required for paging through sorted results.
+     * <p>
+     * Returns empty if not supported for given query or property (the default), in which case
+     * the caller has to fall back to fetching all matching entities and ordering these in memory.
+     */
+    default Optional<Can<ManagedObject>> fetchByQuery(
+            ObjectSpecification spec, Query<?> query, String orderByPropertyId, boolean ascending) {
+        return Optional.empty();
+    }
+
+    /**
+     * The number of entities matching given {@link Query}, disregarding its range.
+     * <p>
+     * Implementations are encouraged to issue a count query; the default implementation
+     * fetches all matching entities.
+     */
+    default long countByQuery(ObjectSpecification spec, Query<?> query) {
+        return fetchByQuery(spec, query.withRange(QueryRange.unconstrained())).size();
+    }
+
+    /**
+     * Streams the results of given {@link Query}, honoring its range, executing the query only once:
+     * via a single {@link #streamByCursor(ObjectSpecification, Query, int) cursor} if supported,
+     * otherwise by {@link #fetchByQuery(ObjectSpecification, Query) fetching} all matching entities.
+     * <p>
+     * Once the stream moves past (up to) {@code batchSize} entities, these are
+     * {@link #evictAll(Can) evicted} from the persistence context, hence - given a cursor - memory
+     * consumption is bounded by the batch size.
+     * <p>
+     * The returned {@link Stream} should be closed after use (eg. using try-with-resources).
+     *
+     * @param batchSize - (positive) number of entities to fetch per round-trip and to evict at once
+     */
+    default Stream<ManagedObject> streamByQuery(ObjectSpecification spec, Query<?> query, int batchSize) {
+        return EntityFacet_batchedQuery.stream(this, spec, query, batchSize);
+    }
+
+    /**
+     * Optionally opens a single (forward-only) cursor over the results of given {@link Query}, honoring
+     * its range, that fetches these from the persistence store in round-trips of (up to) {@code fetchSize}
+     * each, rather than all at once. Closing the returned {@link Stream} releases the cursor.
+     * <p>
+     * Returns empty if not supported for given query (the default), or if there is no transaction in
+     * progress, that could keep the cursor open.
+     *
+     * @see #streamByQuery(ObjectSpecification, Query, int)
+     */
+    default Optional<Stream<ManagedObject>> streamByCursor(ObjectSpecification spec, Query<?> query, int fetchSize) {
+        return Optional.empty();
+    }
+
+    /**
+     * Releases given entities from the persistence context (if supported),
+     * such that these can be garbage collected.
+     * <p>
+     * Entities with pending changes are not affected (JDO) or lose these changes (JPA),
+     * hence this is intended for read-only bulk processing only.
+     */
+    default void evictAll(Can<ManagedObject> entities) {
+        // no-op by default
+    }
+
+    /**
+     * Optionally, the optimistic locking version of given entity, as managed by the persistence
+     * mechanism, which changes with every committed update.
+     * <p>
+     * Returns empty if the entity's type is not versioned (or not supported).
+     */
+    default Optional<Object> versionOf(Object pojo) {
+        return Optional.empty();
+    }
+
+    /**
+     * Optionally captures the (pre-modification) state of given entity, that is about to be dirtied,
+     * such that - once the transaction completes - only its actually modified properties need to be
+     * considered for change publishing.
+     * <p>
+     * Returns empty if not supported by the persistence mechanism, in which case the values of all
+     * persistent properties are captured via the metamodel.
+     */
+    default Optional<DirtyPropertiesSnapshot> snapshotForChangeTracking(ManagedObject entity) {
+        return Optional.empty();
+    }
+
     void persist(ObjectSpecification spec, Object pojo);
 
     void refresh(Object pojo);
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.object.entity;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Iterates over the results of a {@link Query}, as provided by a single cursor via
+ * {@link EntityFacet#streamByCursor(ObjectSpecification, Query, int)}; or if not supported, by a single
+ * {@link EntityFacet#fetchByQuery(ObjectSpecification, Query)}. Either way the query is executed only once,
+ * such that no results are duplicated or missed (as would be the case when fetching consecutive ranges
+ * of a query without a total ordering), nor are skipped results re-read over and over.
+ * <p>
+ * Once iterated past a batch, the entities of that batch are passed to {@link EntityFacet#evictAll(Can)},
+ * such that these can be released from the persistence context.
+ *
+ * @since 2.0
+ */
+final class EntityFacet_batchedQuery implements Iterator<ManagedObject>, AutoCloseable {
+
+    static Stream<ManagedObject> stream(
+            final @NonNull EntityFacet entityFacet,
+            final @NonNull ObjectSpecification spec,
+            final @NonNull Query<?> query,
+            final int batchSize) {
+
+        if(batchSize<1) {
+            throw new IllegalArgumentException(String.format("batchSize must be positive, got %d", batchSize));
+        }
+
+        val cursor = entityFacet.streamByCursor(spec, query, batchSize)
+                .orElseGet(()->entityFacet.fetchByQuery(spec, query).stream());
+
+        val batchedQuery = new EntityFacet_batchedQuery(entityFacet, cursor, batchSize);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(batchedQuery, Spliterator.ORDERED | Spliterator.NONNULL),
+                false)
+                .onClose(batchedQuery::close);
+    }
+
+    private final EntityFacet entityFacet;
+    private final Stream<ManagedObject> cursor;
+    private final Iterator<ManagedObject> cursorIterator;
+    private final int batchSize;
+
+    private boolean closed = false;
+    private List<ManagedObject> currentBatch = new ArrayList<>();
+
+    private EntityFacet_batchedQuery(
+            final EntityFacet entityFacet,
+            final Stream<ManagedObject> cursor,
+            final int batchSize) {
+        this.entityFacet = entityFacet;
+        this.cursor = cursor;
+        this.cursorIterator = cursor.iterator();
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(closed) {
+            return false;
+        }
+        if(!cursorIterator.hasNext()) {
+            releaseCurrentBatch();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ManagedObject next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if(currentBatch.size()>=batchSize) {
+            releaseCurrentBatch();
+        }
+        val next = cursorIterator.next();
+        currentBatch.add(next);
+        return next;
+    }
+
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        try {
+            releaseCurrentBatch();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // -- HELPER
+
+    private void releaseCurrentBatch() {
+        if(currentBatch.isEmpty()) {
+            return;
+        }
+        val batch = Can.ofCollection(currentBatch);
+        currentBatch = new ArrayList<>();
+        entityFacet.evictAll(batch);
+    }
+
+}
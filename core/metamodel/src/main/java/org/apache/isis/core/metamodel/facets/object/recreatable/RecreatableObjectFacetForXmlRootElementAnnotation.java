@@ -19,14 +19,21 @@
 
 package org.apache.isis.core.metamodel.facets.object.recreatable;
 
+import org.apache.isis.applib.exceptions.unrecoverable.ObjectNotFoundException;
 import org.apache.isis.applib.services.jaxb.JaxbService;
 import org.apache.isis.applib.services.urlencoding.UrlEncodingService;
+import org.apache.isis.applib.services.urlencoding.ViewModelMementoStore;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facets.PostConstructMethodCache;
 
 public class RecreatableObjectFacetForXmlRootElementAnnotation
 extends RecreatableObjectFacetAbstract {
 
+    /**
+     * Prefix of tokens issued by the {@link ViewModelMementoStore}, not part of the url-safe base64 alphabet,
+     * hence distinguishes tokens from (url-encoded) XML mementos.
+     */
+    static final String TOKEN_PREFIX = "~";
 
     public RecreatableObjectFacetForXmlRootElementAnnotation(
             final FacetHolder holder,
@@ -38,19 +45,31 @@ public RecreatableObjectFacetForXmlRootElementAnnotation(
     @Override
     protected Object doInstantiate(final Class<?> viewModelClass, final String mementoStr) {
 
-        final String xmlStr = getUrlEncodingService().decodeToString(mementoStr);
+        final String encoded = mementoStr.startsWith(TOKEN_PREFIX)
+                ? getViewModelMementoStore().lookup(mementoStr.substring(TOKEN_PREFIX.length()))
+                        .orElseThrow(()->new ObjectNotFoundException(
+                                String.format("memento of view model %s has expired: %s",
+                                        viewModelClass.getName(), mementoStr)))
+                : mementoStr;
+        final String xmlStr = getUrlEncodingService().decodeToString(encoded);
         final Object viewModelPojo = getJaxbService().fromXml(viewModelClass, xmlStr);
 
         return viewModelPojo;
     }
 
+    /**
+     * If the {@link ViewModelMementoStore} is enabled, a token rather than the (url-encoded) XML; note that this
+     * becomes the view model's bookmark everywhere, including persisted and published commands and executions.
+     */
     @Override
     public String memento(final Object pojo) {
 
         final String xml = getJaxbService().toXml(pojo);
         final String encoded = getUrlEncodingService().encodeString(xml);
 
-        return encoded;
+        return isViewModelMementoStoreEnabled()
+                ? TOKEN_PREFIX + getViewModelMementoStore().store(encoded)
+                : encoded;
     }
 
     @Override
@@ -79,4 +98,12 @@ private UrlEncodingService getUrlEncodingService() {
         return getServiceRegistry().lookupServiceElseFail(UrlEncodingService.class);
     }
 
+    private boolean isViewModelMementoStoreEnabled() {
+        return getConfiguration().getCore().getRuntimeServices().getViewModelMementoStore().isEnabled();
+    }
+
+    private ViewModelMementoStore getViewModelMementoStore() {
+        return getServiceRegistry().lookupServiceElseFail(ViewModelMementoStore.class);
+    }
+
 }
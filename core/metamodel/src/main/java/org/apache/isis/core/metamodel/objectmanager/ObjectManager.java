@@ -19,12 +19,15 @@
 package org.apache.isis.core.metamodel.objectmanager;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
+import org.apache.isis.applib.query.QueryRange;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
+import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
 import org.apache.isis.core.metamodel.objectmanager.create.ObjectCreator;
 import org.apache.isis.core.metamodel.objectmanager.detach.ObjectDetacher;
 import org.apache.isis.core.metamodel.objectmanager.identify.ObjectBookmarker;
@@ -76,10 +79,75 @@ public default ManagedObject loadObject(ObjectLoader.Request objectLoadRequest)
         return getObjectLoader().loadObject(objectLoadRequest);
     }
 
+    /**
+     * Loads the instances identified by given bookmarks, batching the lookups per logical type.
+     * @param bookmarks
+     * @see ObjectLoader#loadObjects(Can)
+     */
+    public default Can<ManagedObject> loadObjects(Can<Bookmark> bookmarks) {
+        return getObjectLoader().loadObjects(bookmarks);
+    }
+
     public default Can<ManagedObject> queryObjects(ObjectBulkLoader.Request objectQuery) {
         return getObjectBulkLoader().loadObject(objectQuery);
     }
 
+    /**
+     * Variant of {@link #queryObjects(ObjectBulkLoader.Request)}, that has the persistence store order the
+     * matching entities by given property, before applying the query's range.
+     * <p>
+     * Returns empty if not supported for given request, in which case ordering has to happen in memory.
+     * @param objectQuery
+     * @param orderByPropertyId
+     * @param ascending
+     * @see EntityFacet#fetchByQuery(ObjectSpecification, org.apache.isis.applib.query.Query, String, boolean)
+     */
+    public default Optional<Can<ManagedObject>> queryObjectsOrderedBy(
+            final ObjectBulkLoader.Request objectQuery,
+            final String orderByPropertyId,
+            final boolean ascending) {
+        val spec = objectQuery.getObjectSpecification();
+        if(spec==null
+                || !spec.isEntity()) {
+            return Optional.empty();
+        }
+        val serviceInjector = getMetaModelContext().getServiceInjector();
+        return spec.lookupFacet(EntityFacet.class)
+                .flatMap(entityFacet->entityFacet.fetchByQuery(
+                        spec, objectQuery.getQuery(), orderByPropertyId, ascending))
+                .map(entities->{
+                    entities.forEach(entity->serviceInjector.injectServicesInto(entity.getPojo()));
+                    return entities;
+                });
+    }
+
+    /**
+     * Returns the number of objects matching given request, disregarding the query's range.
+     * @param objectQuery
+     * @see EntityFacet#countByQuery(ObjectSpecification, org.apache.isis.applib.query.Query)
+     */
+    public default long countObjects(final ObjectBulkLoader.Request objectQuery) {
+        val spec = objectQuery.getObjectSpecification();
+        val entityFacet = spec!=null
+                ? spec.getFacet(EntityFacet.class)
+                : null;
+        return entityFacet!=null
+                ? entityFacet.countByQuery(spec, objectQuery.getQuery())
+                : queryObjects(ObjectBulkLoader.Request.of(
+                        spec, objectQuery.getQuery().withRange(QueryRange.unconstrained())))
+                    .size();
+    }
+
+    /**
+     * Streams the objects matching given request, fetching these in batches of given size.
+     * The returned {@link Stream} should be closed after use (eg. using try-with-resources).
+     * @param objectQuery
+     * @param batchSize
+     */
+    public default Stream<ManagedObject> streamObjects(ObjectBulkLoader.Request objectQuery, int batchSize) {
+        return getObjectBulkLoader().streamObjects(objectQuery, batchSize);
+    }
+
     /**
      * Returns an object identifier for the instance.
      * @param managedObject
@@ -19,6 +19,13 @@
 
 package org.apache.isis.core.metamodel.objectmanager.load;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.handler.ChainOfResponsibility;
 import org.apache.isis.commons.internal.collections._Lists;
 import org.apache.isis.commons.internal.exceptions._Exceptions;
@@ -37,6 +44,16 @@ public interface ObjectLoader {
 
     ManagedObject loadObject(Request objectLoadRequest);
 
+    /**
+     * Bulk variant of {@link #loadObject(Request)}, resolving given {@code bookmarks}
+     * grouped by their logical type, such that for entities a single (batched) primary-key
+     * query is issued per type.
+     *
+     * @return the objects in the order of the given {@code bookmarks}, where bookmarks that cannot
+     *      be resolved (eg. of unknown logical type) map to {@link ManagedObject#unspecified()}
+     */
+    Can<ManagedObject> loadObjects(Can<Bookmark> bookmarks);
+
     // -- REQUEST (VALUE) TYPE
 
     @Value(staticConstructor = "of")
@@ -52,13 +69,23 @@ public static class Request {
         MetaModelContextAware,
         ChainOfResponsibility.Handler<ObjectLoader.Request, ManagedObject> {
 
+        /**
+         * Bulk variant of {@link #handle(Object)}, by default handling the identifiers one by one.
+         * @return the objects in the order of the given {@code objectIdentifiers}, same size
+         */
+        default Can<ManagedObject> handleBulk(ObjectSpecification spec, Can<String> objectIdentifiers) {
+            return objectIdentifiers.map(objectIdentifier->
+                Optional.ofNullable(handle(ObjectLoader.Request.of(spec, objectIdentifier)))
+                .orElseGet(ManagedObject::unspecified));
+        }
+
     }
 
     // -- FACTORY
 
     public static ObjectLoader createDefault(MetaModelContext metaModelContext) {
 
-        val chainOfHandlers = _Lists.of(
+        final List<ObjectLoader.Handler> chainOfHandlers = _Lists.of(
                 new ObjectLoader_builtinHandlers.GuardAgainstNull(),
                 new ObjectLoader_builtinHandlers.LoadService(),
                 new ObjectLoader_builtinHandlers.LoadValue(),
@@ -70,10 +97,54 @@ public static ObjectLoader createDefault(MetaModelContext metaModelContext) {
 
         val chainOfRespo = ChainOfResponsibility.of(chainOfHandlers);
 
-        return request -> chainOfRespo
-                .handle(request)
-                .orElseThrow(()->_Exceptions.unrecoverableFormatted(
-                        "ObjectLoader failed to handle request %s", request));
+        return new ObjectLoader() {
+
+            @Override
+            public ManagedObject loadObject(Request request) {
+                return chainOfRespo
+                        .handle(request)
+                        .orElseThrow(()->_Exceptions.unrecoverableFormatted(
+                                "ObjectLoader failed to handle request %s", request));
+            }
+
+            @Override
+            public Can<ManagedObject> loadObjects(Can<Bookmark> bookmarks) {
+
+                // group bookmark indices by logical type, preserving order of first appearance
+                val indicesByLogicalTypeName = new LinkedHashMap<String, List<Integer>>();
+                for(int i=0; i<bookmarks.size(); ++i) {
+                    val bookmark = bookmarks.getElseFail(i);
+                    indicesByLogicalTypeName
+                        .computeIfAbsent(bookmark.getLogicalTypeName(), __->new ArrayList<>())
+                        .add(i);
+                }
+
+                val specLoader = metaModelContext.getSpecificationLoader();
+                val objects = new ManagedObject[bookmarks.size()];
+
+                indicesByLogicalTypeName.forEach((logicalTypeName, indices)->{
+
+                    val spec = specLoader.specForLogicalTypeName(logicalTypeName).orElse(null);
+                    val identifiers = Can.ofCollection(
+                            _Lists.map(indices, index->bookmarks.getElseFail(index).getIdentifier()));
+
+                    val sampleRequest = Request.of(spec, identifiers.getFirstOrFail());
+                    val handler = chainOfHandlers.stream()
+                            .filter(h->h.isHandling(sampleRequest))
+                            .findFirst()
+                            .orElseThrow(()->_Exceptions.unrecoverableFormatted(
+                                    "ObjectLoader failed to handle request %s", sampleRequest));
+
+                    val loaded = handler.handleBulk(spec, identifiers);
+                    for(int i=0; i<indices.size(); ++i) {
+                        objects[indices.get(i)] = loaded.get(i).orElseGet(ManagedObject::unspecified);
+                    }
+                });
+
+                return Can.ofArray(objects);
+            }
+
+        };
 
     }
 
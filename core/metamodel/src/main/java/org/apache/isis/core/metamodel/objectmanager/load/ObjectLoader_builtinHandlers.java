@@ -226,6 +226,18 @@ public ManagedObject handle(ObjectLoader.Request objectLoadRequest) {
             return entity;
         }
 
+        @Override
+        public Can<ManagedObject> handleBulk(ObjectSpecification spec, Can<String> objectIdentifiers) {
+
+            val entityFacet = spec.getFacet(EntityFacet.class);
+            if(entityFacet==null) {
+                throw _Exceptions.illegalArgument(
+                        "ObjectSpecification is missing an EntityFacet: %s", spec);
+            }
+
+            return entityFacet.fetchByIdentifiers(spec, objectIdentifiers);
+        }
+
     }
 
     // -- UNKNOWN LOAD REQUEST
@@ -19,6 +19,9 @@
 
 package org.apache.isis.core.metamodel.objectmanager.query;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.handler.ChainOfResponsibility;
@@ -26,6 +29,7 @@
 import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
 import org.apache.isis.core.metamodel.context.MetaModelContextAware;
+import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 
@@ -39,6 +43,13 @@ public interface ObjectBulkLoader {
 
     Can<ManagedObject> loadObject(Request objectQuery);
 
+    /**
+     * Streams the objects matching given request, fetching these in batches of given size.
+     * The returned {@link Stream} should be closed after use (eg. using try-with-resources).
+     * @see EntityFacet#streamByQuery(ObjectSpecification, Query, int)
+     */
+    Stream<ManagedObject> streamObjects(Request objectQuery, int batchSize);
+
     // -- REQUEST (VALUE) TYPE
 
     @Value(staticConstructor = "of")
@@ -53,13 +64,21 @@ public static class Request {
     extends
         MetaModelContextAware,
         ChainOfResponsibility.Handler<ObjectBulkLoader.Request, Can<ManagedObject>> {
+
+        /**
+         * Streaming variant of {@link #handle(Object)}, by default not streaming at all.
+         */
+        default Stream<ManagedObject> handleStreaming(ObjectBulkLoader.Request objectQuery, int batchSize) {
+            return handle(objectQuery).stream();
+        }
+
     }
 
     // -- FACTORY
 
     public static ObjectBulkLoader createDefault(MetaModelContext metaModelContext) {
 
-        val chainOfHandlers = _Lists.of(
+        final List<ObjectBulkLoader.Handler> chainOfHandlers = _Lists.of(
                 new ObjectBulkLoader_builtinHandlers.GuardAgainstNull(),
                 new ObjectBulkLoader_builtinHandlers.BulkLoadEntity(),
                 new ObjectBulkLoader_builtinHandlers.LoadOther());
@@ -68,10 +87,27 @@ public static ObjectBulkLoader createDefault(MetaModelContext metaModelContext)
 
         val chainOfRespo = ChainOfResponsibility.of(chainOfHandlers);
 
-        return request -> chainOfRespo
-                .handle(request)
-                .orElseThrow(()->_Exceptions.unrecoverableFormatted(
-                        "ObjectBulkLoader failed to handle request %s", request));
+        return new ObjectBulkLoader() {
+
+            @Override
+            public Can<ManagedObject> loadObject(Request request) {
+                return chainOfRespo
+                        .handle(request)
+                        .orElseThrow(()->_Exceptions.unrecoverableFormatted(
+                                "ObjectBulkLoader failed to handle request %s", request));
+            }
+
+            @Override
+            public Stream<ManagedObject> streamObjects(Request request, int batchSize) {
+                return chainOfHandlers.stream()
+                        .filter(h->h.isHandling(request))
+                        .findFirst()
+                        .map(h->h.handleStreaming(request, batchSize))
+                        .orElseThrow(()->_Exceptions.unrecoverableFormatted(
+                                "ObjectBulkLoader failed to handle request %s", request));
+            }
+
+        };
     }
 
 }
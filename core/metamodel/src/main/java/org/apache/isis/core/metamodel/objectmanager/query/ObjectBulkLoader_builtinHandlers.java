@@ -18,6 +18,8 @@
  */
 package org.apache.isis.core.metamodel.objectmanager.query;
 
+import java.util.stream.Stream;
+
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
@@ -98,6 +100,22 @@ public Can<ManagedObject> handle(ObjectBulkLoader.Request objectQuery) {
             return entities;
         }
 
+        @Override
+        public Stream<ManagedObject> handleStreaming(ObjectBulkLoader.Request objectQuery, int batchSize) {
+
+            val spec = objectQuery.getObjectSpecification();
+            val entityFacet = spec.getFacet(EntityFacet.class);
+            if(entityFacet==null) {
+                throw _Exceptions.illegalArgument(
+                        "ObjectSpecification is missing an EntityFacet: %s", spec.getCorrespondingClass());
+            }
+
+            val serviceInjector = metaModelContext.getServiceInjector();
+
+            return entityFacet.streamByQuery(spec, objectQuery.getQuery(), batchSize)
+                    .peek(entity->serviceInjector.injectServicesInto(entity.getPojo()));
+        }
+
     }
 
     // -- UNKNOWN LOAD REQUEST
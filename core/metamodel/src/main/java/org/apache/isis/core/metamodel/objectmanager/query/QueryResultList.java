@@ -0,0 +1,83 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.objectmanager.query;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+import javax.annotation.Nullable;
+
+import org.apache.isis.applib.query.Query;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Unmodifiable {@link List} of the results of a {@link Query}, that remembers the query it originates from.
+ * <p>
+ * Allows for viewers to re-issue the query (eg. with a different range or ordering)
+ * rather than to hold on to all the results, as when paging through a table.
+ *
+ * @since 2.0
+ */
+public final class QueryResultList<T>
+extends AbstractList<T>
+implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Getter private final @NonNull Query<T> query;
+    private final @NonNull List<T> results;
+
+    private QueryResultList(final @NonNull Query<T> query, final @NonNull List<T> results) {
+        this.query = query;
+        this.results = results;
+    }
+
+    /**
+     * @param query - the query the results originate from
+     * @param results - expected to be unmodifiable
+     */
+    public static <T> QueryResultList<T> of(final @NonNull Query<T> query, final @NonNull List<T> results) {
+        return new QueryResultList<>(query, results);
+    }
+
+    /**
+     * @return the query the given collection originates from, if any
+     */
+    public static Optional<Query<?>> originatingQuery(final @Nullable Object collection) {
+        return collection instanceof QueryResultList
+                ? Optional.of(((QueryResultList<?>) collection).getQuery())
+                : Optional.empty();
+    }
+
+    @Override
+    public T get(final int index) {
+        return results.get(index);
+    }
+
+    @Override
+    public int size() {
+        return results.size();
+    }
+
+}
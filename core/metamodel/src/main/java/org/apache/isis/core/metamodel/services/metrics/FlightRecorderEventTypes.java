@@ -0,0 +1,186 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.services.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.metamodel.services.metrics.FlightRecorderEvents.Span;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The <code>jdk.jfr</code> event types backing {@link FlightRecorderEvents}; only ever loaded if the
+ * runtime provides that API.
+ *
+ * @since 2.0
+ */
+final class FlightRecorderEventTypes {
+
+    private FlightRecorderEventTypes() {}
+
+    static Span beginInteraction() {
+        return begin(new InteractionEvent());
+    }
+
+    static Span beginActionInvocation() {
+        return begin(new ActionInvocationEvent());
+    }
+
+    static Span beginPropertyEdit() {
+        return begin(new PropertyEditEvent());
+    }
+
+    static Span beginEntityFlush() {
+        return begin(new EntityFlushEvent());
+    }
+
+    static Span beginSpecificationIntrospection() {
+        return begin(new SpecificationIntrospectionEvent());
+    }
+
+    // -- EVENT TYPES
+
+    @Category("Apache Isis")
+    @StackTrace(false)
+    static abstract class IsisEvent extends Event {
+
+        @Label("Interaction Id")
+        String interactionId;
+
+        @Label("Logical Type")
+        String logicalType;
+
+        @Label("Member Id")
+        String memberId;
+
+        @Label("User")
+        String user;
+
+        @Label("Entities Loaded")
+        long entitiesLoaded;
+
+        @Label("Entities Dirtied")
+        long entitiesDirtied;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("isis.Interaction")
+    @Label("Interaction")
+    @Description("Top-level interaction, from entering until leaving its transactional boundary")
+    static final class InteractionEvent extends IsisEvent {
+    }
+
+    @Name("isis.ActionInvocation")
+    @Label("Action Invocation")
+    static final class ActionInvocationEvent extends IsisEvent {
+    }
+
+    @Name("isis.PropertyEdit")
+    @Label("Property Edit")
+    static final class PropertyEditEvent extends IsisEvent {
+    }
+
+    @Name("isis.EntityFlush")
+    @Label("Entity Flush")
+    @Description("Publishing of entity changes, before the transaction completes")
+    static final class EntityFlushEvent extends IsisEvent {
+    }
+
+    @Name("isis.SpecificationIntrospection")
+    @Label("Specification Introspection")
+    static final class SpecificationIntrospectionEvent extends IsisEvent {
+    }
+
+    // -- SPAN
+
+    private static Span begin(final IsisEvent event) {
+        if(!event.isEnabled()) {
+            return Span.NOOP;
+        }
+        event.begin();
+        return new EventSpan(event);
+    }
+
+    @RequiredArgsConstructor
+    private static final class EventSpan implements Span {
+
+        private final IsisEvent event;
+
+        @Override
+        public boolean isRecording() {
+            return true;
+        }
+
+        @Override
+        public Span interactionId(final Object interactionId) {
+            event.interactionId = interactionId != null ? interactionId.toString() : null;
+            return this;
+        }
+
+        @Override
+        public Span member(final Identifier memberId) {
+            event.logicalType = memberId.getLogicalTypeName();
+            event.memberId = memberId.getMemberLogicalName();
+            return this;
+        }
+
+        @Override
+        public Span logicalType(final String logicalTypeName) {
+            event.logicalType = logicalTypeName;
+            return this;
+        }
+
+        @Override
+        public Span user(final String userName) {
+            event.user = userName;
+            return this;
+        }
+
+        @Override
+        public Span entityCounts(final long loaded, final long dirtied) {
+            event.entitiesLoaded = loaded;
+            event.entitiesDirtied = dirtied;
+            return this;
+        }
+
+        @Override
+        public Span failed(final boolean failed) {
+            event.failed = failed;
+            return this;
+        }
+
+        @Override
+        public void end() {
+            event.end();
+            if(event.shouldCommit()) {
+                event.commit();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.services.metrics;
+
+import org.apache.isis.applib.Identifier;
+
+/**
+ * JDK Flight Recorder events for the interaction lifecycle: interactions, action invocations,
+ * property edits, entity flushes and specification introspection.
+ *
+ * <p>
+ *     Call sites {@link #beginInteraction() begin} a {@link Span}, populate it and finally {@link Span#end() end}
+ *     it. Unless a recording is in progress that has the particular event enabled (or if the JVM does not
+ *     provide the <code>jdk.jfr</code> API at all), the span is {@link Span#NOOP}; so there is no cost other than
+ *     that check when not recording. Call sites that need to compute any of the fields can guard by
+ *     {@link Span#isRecording()}.
+ * </p>
+ *
+ * <p>
+ *     The recording settings bundled as {@link #SETTINGS_RESOURCE} enable these events along with those
+ *     of the JDK that relate to garbage collection, lock contention, thread parking and socket I/O, so that
+ *     framework phases can be correlated with these in JDK Mission Control. Copy it to the file-system, then
+ *     start the application with eg. <code>-XX:StartFlightRecording=settings=/path/to/isis.jfc</code>.
+ * </p>
+ *
+ * @since 2.0
+ */
+public final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {}
+
+    /**
+     * Class-path resource of the bundled recording settings.
+     */
+    public static final String SETTINGS_RESOURCE = "/org/apache/isis/core/metamodel/services/metrics/isis.jfc";
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    /**
+     * An event in progress.
+     */
+    public static interface Span {
+
+        /**
+         * Records nothing.
+         */
+        Span NOOP = new Span() {
+            @Override public boolean isRecording() { return false; }
+            @Override public Span interactionId(final Object interactionId) { return this; }
+            @Override public Span member(final Identifier memberId) { return this; }
+            @Override public Span logicalType(final String logicalTypeName) { return this; }
+            @Override public Span user(final String userName) { return this; }
+            @Override public Span entityCounts(final long loaded, final long dirtied) { return this; }
+            @Override public Span failed(final boolean failed) { return this; }
+            @Override public void end() {}
+        };
+
+        boolean isRecording();
+
+        Span interactionId(Object interactionId);
+
+        /**
+         * Sets the logical type and member id from given {@link Identifier}.
+         */
+        Span member(Identifier memberId);
+
+        Span logicalType(String logicalTypeName);
+
+        Span user(String userName);
+
+        Span entityCounts(long loaded, long dirtied);
+
+        Span failed(boolean failed);
+
+        /**
+         * Ends the event and commits it, unless below the recording's threshold.
+         */
+        void end();
+    }
+
+    // -- FACTORIES
+
+    public static Span beginInteraction() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginInteraction() : Span.NOOP;
+    }
+
+    public static Span beginActionInvocation() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginActionInvocation() : Span.NOOP;
+    }
+
+    public static Span beginPropertyEdit() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginPropertyEdit() : Span.NOOP;
+    }
+
+    public static Span beginEntityFlush() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginEntityFlush() : Span.NOOP;
+    }
+
+    public static Span beginSpecificationIntrospection() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginSpecificationIntrospection() : Span.NOOP;
+    }
+
+    // -- HELPER
+
+    /**
+     * The <code>jdk.jfr</code> API is not available on all Java 8 runtimes, in which case
+     * {@link FlightRecorderEventTypes} must never be loaded.
+     */
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.services.metrics;
+
+import org.apache.isis.applib.Identifier;
+
+/**
+ * SPI to record timings and counts of the framework's hot paths, for an optional metrics module to publish
+ * (eg. to a Micrometer <code>MeterRegistry</code>).
+ *
+ * <p>
+ *     Call sites look up the (single) implementation once, falling back to {@link #NOOP} if there is none.
+ *     Timings are only taken if {@link #isEnabled()}, so there is no overhead (beyond that check) otherwise.
+ *     Implementations are called on the hot path, hence must not block.
+ * </p>
+ *
+ * @since 2.0
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Records nothing.
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {};
+
+    static enum Check {
+        VISIBILITY,
+        USABILITY,
+        VALIDITY
+    }
+
+    /**
+     * Whether any timings are to be taken at all.
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    default void recordActionInvocation(Identifier actionId, long durationNanos, boolean failed) {
+    }
+
+    default void recordPropertyEdit(Identifier propertyId, long durationNanos, boolean failed) {
+    }
+
+    /**
+     * Time taken to evaluate whether a member is visible, usable, or whether proposed arguments are valid.
+     */
+    default void recordCheck(Check check, Identifier memberId, long durationNanos) {
+    }
+
+    /**
+     * A query was submitted through the <code>RepositoryService</code>.
+     */
+    default void recordQuery(Class<?> resultType) {
+    }
+
+    default void recordEntityLoaded(Class<?> entityType) {
+    }
+
+    /**
+     * Time taken by a subscriber (eg. <code>ExecutionSubscriber</code>) to consume a published event,
+     * or a batch thereof if delivered asynchronously.
+     */
+    default void recordSubscriberPublishing(Class<?> subscriberType, long durationNanos) {
+    }
+
+    /**
+     * Time taken to introspect the specification of given type (up to the state requested), including
+     * that of any other types it triggers to be introspected.
+     */
+    default void recordSpecificationLoading(Class<?> type, long durationNanos) {
+    }
+
+    /**
+     * Time taken to create (and validate) the metamodel on start-up.
+     */
+    default void recordMetaModelCreation(long durationNanos) {
+    }
+
+}
@@ -0,0 +1,315 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.springframework.core.env.EnumerablePropertySource;
+
+import org.apache.isis.applib.services.metamodel.BeanSort;
+import org.apache.isis.commons.internal.exceptions._Exceptions;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Persistent outcome of a successful metamodel creation, as used by {@link SpecificationLoaderDefault}
+ * to speed up subsequent application starts.
+ * <p>
+ * Records the types (and their {@link BeanSort}) known to the metamodel once introspected and
+ * validated, keyed by a fingerprint of the bytes of all these classes (and of the introspectable ones),
+ * the programming model and the configuration. A snapshot is only ever written if validation passed.
+ * <p>
+ * Only validation is skipped on reuse; introspection still runs on every start.
+ * <p>
+ * The file is versioned binary, read via a memory mapped buffer:
+ * <pre>
+ * int magic, int format-version, int fingerprint-length, byte[] fingerprint,
+ * int type-count, (string class-name, string bean-sort)*
+ * </pre>
+ * with strings written as int byte-count, followed by their UTF-8 bytes.
+ *
+ * @since 2.0
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class MetaModelSnapshot {
+
+    static final String FILE_NAME = "metamodel.snapshot";
+
+    private static final int MAGIC = 0x4953_4d4d; // ISMM
+    private static final int FORMAT_VERSION = 1;
+
+    @Getter private final @NonNull byte[] fingerprint;
+
+    /**
+     * bean sort by class name, in order of class name
+     */
+    @Getter private final @NonNull Map<String, BeanSort> beanSortByClassName;
+
+    static MetaModelSnapshot of(
+            final @NonNull byte[] fingerprint,
+            final @NonNull Map<String, BeanSort> beanSortByClassName) {
+        return new MetaModelSnapshot(fingerprint, beanSortByClassName);
+    }
+
+    // -- FINGERPRINT
+
+    /**
+     * SHA-256 over the snapshot format version, the framework version, the bytes of given types (including
+     * their super-classes and interfaces, apart from the JDK's), the bytes of the programming model's
+     * components (its facet factories, validators and post-processors) and the configuration (all
+     * {@code isis.*} properties).
+     *
+     * @param types - the introspectable types, as well as any other types known to the metamodel (eg. as
+     *      recorded by a snapshot), so that changes to any of them are noticed
+     * @return empty if the framework version is unknown (eg. when not running from a released jar) or if
+     *      the bytes of any of the types cannot be read, hence changes would go unnoticed
+     */
+    static Optional<byte[]> fingerprint(
+            final @NonNull Stream<Class<?>> types,
+            final @NonNull ProgrammingModel programmingModel,
+            final @NonNull IsisConfiguration isisConfiguration) {
+        return fingerprint(types, programmingModel, isisConfiguration,
+                MetaModelSnapshot.class.getPackage().getImplementationVersion());
+    }
+
+    static Optional<byte[]> fingerprint(
+            final @NonNull Stream<Class<?>> types,
+            final @NonNull ProgrammingModel programmingModel,
+            final @NonNull IsisConfiguration isisConfiguration,
+            final @Nullable String frameworkVersion) {
+
+        if(frameworkVersion == null) {
+            return Optional.empty(); // changes to the framework itself would go unnoticed
+        }
+
+        val hierarchies = new TreeSet<Class<?>>(Comparator.comparing(Class::getName));
+        types.forEach(type->addHierarchy(hierarchies, type));
+        Stream.of(
+                programmingModel.streamFactories(),
+                programmingModel.streamValidators(),
+                programmingModel.streamPostProcessors())
+        .flatMap(stream->stream)
+        .forEach(component->addHierarchy(hierarchies, component.getClass()));
+
+        val digest = sha256();
+        digest.update(intToBytes(FORMAT_VERSION));
+        updateUtf8(digest, frameworkVersion);
+        updateConfiguration(digest, isisConfiguration);
+
+        val buffer = new byte[8 * 1024];
+        for(val type : hierarchies) {
+            updateUtf8(digest, type.getName());
+            val classLoader = type.getClassLoader();
+            if(classLoader == null) {
+                return Optional.empty();
+            }
+            try(val input = classLoader.getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+                if(input == null) {
+                    return Optional.empty();
+                }
+                int read;
+                while((read = input.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(digest.digest());
+    }
+
+    boolean matches(final byte[] fingerprint) {
+        return MessageDigest.isEqual(this.fingerprint, fingerprint);
+    }
+
+    // -- READ/WRITE
+
+    /**
+     * @return empty if there is no such file, or if its format is not supported
+     * @throws IOException if the file is corrupted
+     */
+    static Optional<MetaModelSnapshot> read(final @NonNull Path file) throws IOException {
+        if(!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try(val channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            val buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.remaining() < 8
+                    || buffer.getInt() != MAGIC
+                    || buffer.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            val fingerprint = new byte[checkedLength(buffer)];
+            buffer.get(fingerprint);
+            val typeCount = checkedLength(buffer);
+            val beanSortByClassName = new LinkedHashMap<String, BeanSort>(typeCount * 2);
+            for(int i = 0; i < typeCount; ++i) {
+                val className = readUtf8(buffer);
+                val beanSort = BeanSort.valueOf(readUtf8(buffer));
+                beanSortByClassName.put(className, beanSort);
+            }
+            return Optional.of(of(fingerprint, beanSortByClassName));
+        } catch (RuntimeException e) {
+            throw new IOException("corrupted metamodel snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Writes to a temporary file first, which then replaces any existing snapshot.
+     */
+    void write(final @NonNull Path file) throws IOException {
+        val bytes = new ByteArrayOutputStream();
+        try(val output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(fingerprint.length);
+            output.write(fingerprint);
+            output.writeInt(beanSortByClassName.size());
+            for(val entry : beanSortByClassName.entrySet()) {
+                writeUtf8(output, entry.getKey());
+                writeUtf8(output, entry.getValue().name());
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        val tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tempFile, bytes.toByteArray());
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // -- HELPER
+
+    private static void addHierarchy(final Set<Class<?>> hierarchies, final @Nullable Class<?> type) {
+        if(type == null
+                || type.isPrimitive()
+                || isJdkType(type)) {
+            return;
+        }
+        if(type.isArray()) {
+            addHierarchy(hierarchies, type.getComponentType());
+            return;
+        }
+        if(!hierarchies.add(type)) {
+            return;
+        }
+        addHierarchy(hierarchies, type.getSuperclass());
+        for(val interfaceType : type.getInterfaces()) {
+            addHierarchy(hierarchies, interfaceType);
+        }
+    }
+
+    /**
+     * Not only the metamodel configuration drives the metamodel (eg. {@code isis.applib.*} does too),
+     * hence any {@code isis.*} property is considered.
+     */
+    private static void updateConfiguration(final MessageDigest digest, final IsisConfiguration isisConfiguration) {
+        updateUtf8(digest, isisConfiguration.getCore().getMetaModel().toString());
+        updateUtf8(digest, isisConfiguration.getApplib().toString());
+        val environment = isisConfiguration.getEnvironment();
+        if(environment == null) {
+            return;
+        }
+        val propertyNames = new TreeSet<String>();
+        environment.getPropertySources().forEach(propertySource->{
+            if(propertySource instanceof EnumerablePropertySource) {
+                for(val propertyName : ((EnumerablePropertySource<?>) propertySource).getPropertyNames()) {
+                    if(propertyName.startsWith("isis.")) {
+                        propertyNames.add(propertyName);
+                    }
+                }
+            }
+        });
+        propertyNames.forEach(propertyName->{
+            updateUtf8(digest, propertyName);
+            updateUtf8(digest, String.valueOf(environment.getProperty(propertyName)));
+        });
+    }
+
+    private static boolean isJdkType(final Class<?> cls) {
+        val name = cls.getName();
+        return name.startsWith("java.")
+                || name.startsWith("javax.")
+                || cls.getClassLoader() == null; // bootstrap
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw _Exceptions.unrecoverable(e);
+        }
+    }
+
+    private static void updateUtf8(final MessageDigest digest, final String string) {
+        val bytes = string.getBytes(StandardCharsets.UTF_8);
+        digest.update(intToBytes(bytes.length));
+        digest.update(bytes);
+    }
+
+    private static byte[] intToBytes(final int value) {
+        return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    private static int checkedLength(final ByteBuffer buffer) {
+        val length = buffer.getInt();
+        if(length < 0
+                || length > buffer.remaining()) {
+            throw new IllegalStateException("invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void writeUtf8(final DataOutputStream output, final String string) throws IOException {
+        val bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readUtf8(final ByteBuffer buffer) {
+        val bytes = new byte[checkedLength(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
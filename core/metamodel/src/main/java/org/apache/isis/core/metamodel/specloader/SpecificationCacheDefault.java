@@ -21,76 +21,117 @@
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
 
 import org.apache.isis.commons.collections.Can;
-import org.apache.isis.commons.internal.collections._Maps;
 import org.apache.isis.commons.internal.collections.snapshot._VersionedList;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.val;
 
-
+/**
+ * Reads are lock-free. Creation of specifications happens outside of any lock,
+ * concurrent requests for the same class join the one in-flight creation,
+ * while different classes can be created concurrently.
+ */
 class SpecificationCacheDefault<T extends ObjectSpecification> implements SpecificationCache<T> {
 
-    private final Map<Class<?>, T> specByClass = _Maps.newHashMap();
+    private final Map<Class<?>, T> specByClass = new ConcurrentHashMap<>();
+
+    // creations in progress, per class
+    private final Map<Class<?>, InFlight<T>> inFlightByClass = new ConcurrentHashMap<>();
 
     // optimization: specialized list to keep track of any additions to the cache fast
     private final _VersionedList<T> vList = new _VersionedList<>();
 
+    // guards structural modifications of specByClass and vList
+    private final Object writeLock = new Object();
+
+    // memoized result of snapshotSpecs(), invalidated on any structural modification
+    private volatile Can<T> snapshot;
+
     @Override
     public Optional<T> lookup(Class<?> cls) {
-        synchronized(this) {
-            return Optional.ofNullable(specByClass.get(cls));
-        }
+        return Optional.ofNullable(specByClass.get(cls));
     }
 
     @Override
     public T computeIfAbsent(
             Class<?> cls,
             Function<Class<?>, T> mappingFunction) {
-        synchronized(this) {
-            T spec = specByClass.get(cls);
-            if(spec==null) {
-                spec = mappingFunction.apply(cls);
-                internalPut(spec);
 
-//debug
-//                if(cls.getSimpleName().equals("MarkupStream")) {
-//                    System.out.println("!!! MarkupStream");
-//                }
+        val spec = specByClass.get(cls);
+        if(spec!=null) {
+            return spec;
+        }
 
+        val newInFlight = new InFlight<T>(Thread.currentThread());
+        val inFlight = inFlightByClass.putIfAbsent(cls, newInFlight);
+
+        if(inFlight!=null) {
+            if(inFlight.owner == Thread.currentThread()) {
+                // re-entrant call from within the mapping function for the same class
+                return mappingFunction.apply(cls);
             }
-            return spec;
+            return inFlight.join();
+        }
+
+        try {
+            // double check, the spec might have been put just before we registered
+            T newSpec = specByClass.get(cls);
+            if(newSpec==null) {
+                newSpec = mappingFunction.apply(cls);
+                internalPut(newSpec);
+            }
+            newInFlight.future.complete(newSpec);
+            return newSpec;
+        } catch (Throwable e) {
+            newInFlight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightByClass.remove(cls, newInFlight);
         }
     }
 
     @Override
     public void clear() {
-        synchronized(this) {
+        synchronized(writeLock) {
             specByClass.clear();
             vList.clear();
+            snapshot = null;
         }
     }
 
     @Override
     public Can<T> snapshotSpecs() {
-        synchronized(this) {
-            return Can.ofCollection(specByClass.values());
+        val snapshot = this.snapshot;
+        if(snapshot!=null) {
+            return snapshot;
+        }
+        synchronized(writeLock) {
+            if(this.snapshot==null) {
+                this.snapshot = Can.ofCollection(specByClass.values());
+            }
+            return this.snapshot;
         }
     }
 
     @Override
     public T remove(@NonNull Class<?> cls) {
-        synchronized(this) {
+        synchronized(writeLock) {
             final T removed = specByClass.remove(cls);
             if(removed!=null) {
                 vList.clear(); // invalidate
                 vList.addAll(specByClass.values());
+                snapshot = null;
             }
             return removed;
         }
@@ -107,17 +148,39 @@ public void forEach(Consumer<T> onSpec, boolean shouldRunConcurrent) {
 
     // -- HELPER
 
-    @Nullable
     private void internalPut(@Nullable T spec) {
         if(spec==null) {
             return;
         }
         val cls = spec.getCorrespondingClass();
-        val existing = specByClass.put(cls, spec);
-        if(existing==null) {
-            vList.add(spec); // add to vList only if we don't have it already
+        synchronized(writeLock) {
+            val existing = specByClass.put(cls, spec);
+            if(existing==null) {
+                vList.add(spec); // add to vList only if we don't have it already
+            }
+            snapshot = null;
         }
     }
 
+    @RequiredArgsConstructor
+    private static final class InFlight<T> {
+        private final Thread owner;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        T join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                if(cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if(cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
 
 }
@@ -106,6 +106,28 @@ public interface SpecificationLoader {
 
     void reloadSpecification(Class<?> domainType);
 
+    /**
+     * Whether the metamodel has been fully introspected (which only ever happens in full introspection mode),
+     * after which it is considered locked.
+     */
+    boolean isMetamodelFullyIntrospected();
+
+    /**
+     * Whether remaining types are still being introspected in the background
+     * (as per {@link org.apache.isis.core.config.metamodel.specloader.IntrospectionMode#LAZY_WITH_WARM_UP}),
+     * in which case metamodel validation is deferred: {@link #getOrAssessValidationResult()} waits for the
+     * warm-up to complete, whereas {@link #getValidationResult()} is provisionally empty.
+     */
+    default boolean isMetamodelWarmUpInProgress() {
+        return false;
+    }
+
+    /**
+     * Changes whenever specifications are added, reloaded or disposed of; allows for callers to cache
+     * what they derive from the metamodel, as long as this version has not changed.
+     */
+    long getMetamodelVersion();
+
     /**
      * Return the specification for the specified class of object.
      *
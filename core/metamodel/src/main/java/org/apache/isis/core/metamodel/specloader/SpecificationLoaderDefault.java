@@ -18,14 +18,27 @@
  */
 package org.apache.isis.core.metamodel.specloader;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
@@ -67,6 +80,7 @@
 import org.apache.isis.core.metamodel.services.classsubstitutor.ClassSubstitutorDefault;
 import org.apache.isis.core.metamodel.services.classsubstitutor.ClassSubstitutorForCollections;
 import org.apache.isis.core.metamodel.services.classsubstitutor.ClassSubstitutorRegistry;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.specloader.facetprocessor.FacetProcessor;
 import org.apache.isis.core.metamodel.specloader.postprocessor.PostProcessor;
@@ -127,11 +141,13 @@ public class SpecificationLoaderDefault implements SpecificationLoader {
 
     /**
      * We only ever mark the meta-model as fully introspected if in {@link #isFullIntrospect() full}
-     * introspection mode.
+     * introspection mode, or once background warm-up has completed.
      */
     @Getter @Setter
     private boolean metamodelFullyIntrospected = false;
 
+    private final AtomicLong metamodelVersion = new AtomicLong();
+
     @Inject
     public SpecificationLoaderDefault(
             final ProgrammingModelService programmingModelService,
@@ -270,6 +286,21 @@ public void createMetaModel() {
 
         });
 
+        val metaModelSnapshot = isisConfiguration.getCore().getMetaModel().getSnapshot().isEnabled()
+                ? readMetaModelSnapshot()
+                : Optional.<MetaModelSnapshot>empty();
+
+        metaModelSnapshot.ifPresent(recorded->{
+            log.info(" - priming {} types from metamodel snapshot", recorded.getBeanSortByClassName().size());
+            recorded.getBeanSortByClassName().forEach((className, sort)->{
+                val spec = primeSpecification(ClassUtil.forNameElseNull(className), sort);
+                if(spec!=null
+                        && !knownSpecs.contains(spec)) {
+                    knownSpecs.add(spec);
+                }
+            });
+        });
+
         //XXX[ISIS-2382] when parallel introspecting, make sure we have the mixins before their holders
 
         SpecificationLoaderDefault_debug.logBefore(log, cache, knownSpecs);
@@ -302,32 +333,83 @@ public void createMetaModel() {
             introspect(snapshot.filter(x->!x.getBeanSort().isMixin()), IntrospectionState.FULLY_INTROSPECTED);
         }
 
-        log.info(" - running remaining validators");
-        _Blackhole.consume(getOrAssessValidationResult()); // as a side effect memoizes the validation result
+        if(IntrospectionMode.isWarmUp(isisConfiguration)) {
+            log.info(" - deferring validation until background warm-up has completed");
+            startWarmUp(()->validate(metaModelSnapshot));
+        } else {
+            validate(metaModelSnapshot);
+        }
 
         stopWatch.stop();
         log.info("Metamodel created in " + stopWatch.getMillis() + " ms.");
 
+        serviceRegistry.lookupService(MetricsRecorder.class)
+        .filter(MetricsRecorder::isEnabled)
+        .ifPresent(metricsRecorder->metricsRecorder.recordMetaModelCreation(stopWatch.getNanos()));
+
         if(isFullIntrospect()) {
             setMetamodelFullyIntrospected(true);
         }
     }
 
+    private void validate(final Optional<MetaModelSnapshot> metaModelSnapshot) {
+
+        // failures might also have been raised during introspection, in which case we validate in full
+        if(metaModelSnapshot.isPresent()
+                && !isisConfiguration.getCore().getMetaModel().getSnapshot().isVerify()
+                && !validationFailures.hasFailures()) {
+            log.info(" - reusing validation outcome from metamodel snapshot");
+            validationResult.set(validationFailures); // empty, snapshots only record successful validation
+        } else {
+            log.info(" - running remaining validators");
+            _Blackhole.consume(validationResult.get()); // as a side effect memoizes the validation result
+        }
+
+        if(isisConfiguration.getCore().getMetaModel().getSnapshot().isEnabled()) {
+            updateMetaModelSnapshot(metaModelSnapshot);
+        }
+    }
+
+    /**
+     * While warm-up is in progress, validation is deferred, and the result is provisionally empty,
+     * such that viewers don't block (they pick up the actual result, once warm-up has completed).
+     */
     @Override
     public Optional<ValidationFailures> getValidationResult() {
+        if(isMetamodelWarmUpInProgress()) {
+            return Optional.of(noValidationFailures);
+        }
         return validationResult.getMemoized();
     }
 
+    /**
+     * While warm-up is in progress, validation is deferred, hence waits for the warm-up to complete, such
+     * that callers never pass unvalidated. (Except for the warm-up threads themselves, which would otherwise
+     * wait for themselves; these see a provisionally empty result.)
+     */
     @Override
     public ValidationFailures getOrAssessValidationResult() {
+        if(isMetamodelWarmUpInProgress()) {
+            if(Thread.currentThread() instanceof WarmUpThread) {
+                return noValidationFailures;
+            }
+            awaitWarmUp();
+        }
         return validationResult.get();
     }
 
+    @Override
+    public boolean isMetamodelWarmUpInProgress() {
+        return warmUpExecutor != null;
+    }
+
     @Override
     public void disposeMetaModel() {
+        cancelWarmUp();
         logicalTypeResolver.clear();
         cache.clear();
         validationResult.clear();
+        metamodelVersion.incrementAndGet();
         log.info("Metamodel disposed.");
     }
 
@@ -354,6 +436,12 @@ private boolean isFullIntrospect() {
     public void reloadSpecification(Class<?> domainType) {
         invalidateCache(domainType);
         loadSpecification(domainType, IntrospectionState.FULLY_INTROSPECTED);
+        metamodelVersion.incrementAndGet();
+    }
+
+    @Override
+    public long getMetamodelVersion() {
+        return metamodelVersion.get();
     }
 
     @Override
@@ -515,6 +603,236 @@ private ValidationFailures collectFailuresFromMetaModel() {
     }
 
 
+    // -- SNAPSHOT
+
+    private Path metaModelSnapshotFile() {
+        return Paths.get(isisConfiguration.getCore().getMetaModel().getSnapshot().getDirectory())
+                .resolve(MetaModelSnapshot.FILE_NAME);
+    }
+
+    /**
+     * @return the snapshot, provided none of the types it recorded (nor the introspectable ones, the
+     * programming model or the configuration) have changed since
+     */
+    private Optional<MetaModelSnapshot> readMetaModelSnapshot() {
+        val file = metaModelSnapshotFile();
+        try {
+            val snapshot = MetaModelSnapshot.read(file).orElse(null);
+            if(snapshot == null) {
+                return Optional.empty();
+            }
+            val recordedTypes = _Lists.<Class<?>>newArrayList();
+            for(val className : snapshot.getBeanSortByClassName().keySet()) {
+                if(className.startsWith("[")) {
+                    continue; // arrays cannot be loaded by name, hence are not fingerprinted
+                }
+                val recordedType = ClassUtil.forNameElseNull(className);
+                if(recordedType == null) {
+                    log.info(" - metamodel snapshot {} is outdated, type {} no longer exists", file, className);
+                    return Optional.empty();
+                }
+                recordedTypes.add(recordedType);
+            }
+            val fingerprint = metaModelFingerprint(recordedTypes.stream()).orElse(null);
+            if(fingerprint == null) {
+                log.info(" - metamodel snapshot {} cannot be verified (unknown framework version or "
+                        + "unreadable types), ignoring it", file);
+                return Optional.empty();
+            }
+            if(!snapshot.matches(fingerprint)) {
+                log.info(" - metamodel snapshot {} is outdated", file);
+                return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            log.warn("failed to read metamodel snapshot {}, ignoring it", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param knownTypes - types known to the metamodel, in addition to the introspectable ones
+     */
+    private Optional<byte[]> metaModelFingerprint(final Stream<Class<?>> knownTypes) {
+        return MetaModelSnapshot.fingerprint(
+                Stream.concat(
+                        isisBeanTypeRegistry.streamIntrospectableTypes()
+                            .map(IsisBeanMetaData::getCorrespondingClass),
+                        knownTypes),
+                programmingModel,
+                isisConfiguration);
+    }
+
+    // -- WARM-UP
+
+    // provisional validation result while warm-up is in progress
+    private final ValidationFailures noValidationFailures = new ValidationFailures();
+
+    // non-null while warm-up is in progress
+    private volatile ExecutorService warmUpExecutor;
+    // completes once warm-up has ended (completed, failed or cancelled)
+    private volatile CompletableFuture<Void> warmUpCompletion = CompletableFuture.completedFuture(null);
+
+    /**
+     * Introspects all types known so far in the background, on low priority threads: mixins before
+     * their holders, and super-types before their sub-types. Request threads that need a spec currently
+     * being introspected join that in-flight introspection.
+     * Once done, sweeps all types (including any discovered meanwhile), then runs {@code onCompleted},
+     * and reports the validation result.
+     */
+    private void startWarmUp(final Runnable onCompleted) {
+        val threadCount = isisConfiguration.getCore().getMetaModel().getIntrospector().getWarmUpThreads();
+        val threadIndex = new AtomicInteger();
+        val executor = Executors.newFixedThreadPool(threadCount, runnable->{
+            val thread = new WarmUpThread(runnable, "isis-metamodel-warm-up-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        val completion = new CompletableFuture<Void>();
+        this.warmUpCompletion = completion;
+        this.warmUpExecutor = executor;
+
+        val stopWatch = _Timing.now();
+        val specs = cache.snapshotSpecs().stream()
+                .sorted(Comparator.<ObjectSpecification, Boolean>comparing(spec->!spec.getBeanSort().isMixin())
+                        .thenComparingInt(spec->typeHierarchyDepth(spec.getCorrespondingClass())))
+                .collect(Collectors.toList());
+
+        log.info(" - warming up {} types in the background", specs.size());
+
+        val tasks = specs.stream()
+                .map(spec->CompletableFuture.runAsync(()->warmUp(spec), executor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(tasks)
+        .whenCompleteAsync((__, ___)->{
+            try {
+                if(this.warmUpExecutor != executor) {
+                    return; // cancelled
+                }
+                cache.snapshotSpecs().forEach(this::warmUp);
+
+                onCompleted.run();
+                setMetamodelFullyIntrospected(true);
+                this.warmUpExecutor = null;
+
+                stopWatch.stop();
+                log.info("Metamodel warm-up completed in {} ms.", stopWatch.getMillis());
+                reportValidationResult(validationResult.get());
+            } catch (Throwable e) {
+                log.error("Metamodel warm-up failed", e);
+                this.warmUpExecutor = null;
+            } finally {
+                completion.complete(null);
+                executor.shutdown();
+            }
+        }, executor);
+    }
+
+    private void awaitWarmUp() {
+        try {
+            warmUpCompletion.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw _Exceptions.unrecoverable("interrupted while waiting for metamodel warm-up to complete", e);
+        } catch (ExecutionException e) {
+            throw _Exceptions.unrecoverable("metamodel warm-up failed", e.getCause());
+        }
+    }
+
+    private void warmUp(final ObjectSpecification spec) {
+        try {
+            spec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
+        } catch (Throwable e) {
+            log.error("failed to introspect {} during metamodel warm-up", spec.getCorrespondingClass().getName(), e);
+        }
+    }
+
+    private void cancelWarmUp() {
+        val executor = this.warmUpExecutor;
+        this.warmUpExecutor = null;
+        if(executor != null) {
+            executor.shutdownNow();
+        }
+        // the executor no longer runs the completion stage, so release any waiting callers here
+        warmUpCompletion.complete(null);
+    }
+
+    private static class WarmUpThread extends Thread {
+        WarmUpThread(final Runnable runnable, final String name) {
+            super(runnable, name);
+        }
+    }
+
+    private static int typeHierarchyDepth(final Class<?> cls) {
+        int depth = 0;
+        for(Class<?> superclass = cls.getSuperclass(); superclass != null; superclass = superclass.getSuperclass()) {
+            ++depth;
+        }
+        return depth;
+    }
+
+    private static void reportValidationResult(final ValidationFailures validationResult) {
+        if(validationResult.getNumberOfFailures()==0) {
+            log.info("Validation PASSED");
+        } else {
+            log.error("### Validation FAILED, failure count: {}", validationResult.getNumberOfFailures());
+            validationResult.forEach(failure->{
+                log.error("# " + failure.getMessage());
+            });
+        }
+    }
+
+    /**
+     * Records the current metamodel, unless validation failed or the matching snapshot is unchanged.
+     * If in verify mode, logs any discrepancy between the snapshot and the metamodel just created.
+     */
+    private void updateMetaModelSnapshot(final Optional<MetaModelSnapshot> snapshot) {
+
+        val validationFailures = validationResult.get();
+
+        val beanSortByClassName = new TreeMap<String, BeanSort>();
+        cache.snapshotSpecs()
+        .forEach(spec->beanSortByClassName.put(spec.getCorrespondingClass().getName(), spec.getBeanSort()));
+
+        if(snapshot.isPresent()) {
+            if(!isisConfiguration.getCore().getMetaModel().getSnapshot().isVerify()) {
+                return; // unchanged
+            }
+            if(validationFailures.hasFailures()) {
+                log.warn("metamodel snapshot verification: snapshot recorded successful validation, "
+                        + "but full validation found {} failure(s)", validationFailures.getNumberOfFailures());
+            }
+            if(!snapshot.get().getBeanSortByClassName().equals(beanSortByClassName)) {
+                log.warn("metamodel snapshot verification: snapshot recorded {} types, "
+                        + "but full introspection resulted in {} types (or differing bean sorts)",
+                        snapshot.get().getBeanSortByClassName().size(),
+                        beanSortByClassName.size());
+            }
+        }
+
+        if(validationFailures.hasFailures()) {
+            return; // only ever record successful validation
+        }
+
+        val fingerprint = metaModelFingerprint(cache.snapshotSpecs().stream()
+                .map(ObjectSpecification::getCorrespondingClass)
+                .filter(type->!type.isArray())) // as when read
+                .orElse(null);
+        if(fingerprint == null) {
+            return; // changes could not be detected
+        }
+
+        val file = metaModelSnapshotFile();
+        try {
+            MetaModelSnapshot.of(fingerprint, beanSortByClassName).write(file);
+            log.info(" - metamodel snapshot written to {}", file);
+        } catch (IOException e) {
+            log.warn("failed to write metamodel snapshot {}", file, e);
+        }
+    }
+
     // -- HELPER
 
     @Nullable
@@ -545,6 +863,7 @@ private ObjectSpecification _loadSpecification(
         final ObjectSpecification spec = cache.computeIfAbsent(substitutedType, __->{
             val newSpec = createSpecification(substitutedType, beanClassifier.apply(substitutedType));
             logicalTypeResolver.register(newSpec);
+            metamodelVersion.incrementAndGet();
             return newSpec;
         });
 
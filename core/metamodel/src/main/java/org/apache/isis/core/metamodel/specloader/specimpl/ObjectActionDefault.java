@@ -56,6 +56,7 @@
 import org.apache.isis.core.metamodel.interactions.UsabilityContext;
 import org.apache.isis.core.metamodel.interactions.VisibilityContext;
 import org.apache.isis.core.metamodel.interactions.managed.ActionInteractionHead;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ActionType;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -270,6 +271,9 @@ public Consent isArgumentSetValid(
             final Can<ManagedObject> proposedArguments,
             final InteractionInitiatedBy interactionInitiatedBy) {
 
+        val metricsRecorder = getMetricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+
         final InteractionResultSet resultSet = new InteractionResultSet();
 
         validateArgumentsIndividually(head, proposedArguments, interactionInitiatedBy, resultSet);
@@ -278,6 +282,9 @@ public Consent isArgumentSetValid(
             validateArgumentSet(head, proposedArguments, interactionInitiatedBy, resultSet);
         }
 
+        if(metricsRecorder.isEnabled()) {
+            metricsRecorder.recordCheck(MetricsRecorder.Check.VALIDITY, getIdentifier(), System.nanoTime() - startedAtNanos);
+        }
         return resultSet.createConsent();
     }
 
@@ -49,6 +49,7 @@
 import org.apache.isis.core.metamodel.interactions.UsabilityContext;
 import org.apache.isis.core.metamodel.interactions.VisibilityContext;
 import org.apache.isis.core.metamodel.services.command.CommandDtoFactory;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
@@ -179,8 +180,16 @@ public Consent isVisible(
             final InteractionInitiatedBy interactionInitiatedBy,
             final Where where) {
 
+        val metricsRecorder = getMetricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+
         val visibilityContext = createVisibleInteractionContext(target, interactionInitiatedBy, where);
-        return InteractionUtils.isVisibleResult(this, visibilityContext).createConsent();
+        val consent = InteractionUtils.isVisibleResult(this, visibilityContext).createConsent();
+
+        if(metricsRecorder.isEnabled()) {
+            metricsRecorder.recordCheck(MetricsRecorder.Check.VISIBILITY, getIdentifier(), System.nanoTime() - startedAtNanos);
+        }
+        return consent;
     }
 
     // -- Disabled (or enabled)
@@ -209,8 +218,32 @@ public Consent isUsable(
             final InteractionInitiatedBy interactionInitiatedBy,
             final Where where) {
 
+        val metricsRecorder = getMetricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+
         val usabilityContext = createUsableInteractionContext(target, interactionInitiatedBy, where);
-        return InteractionUtils.isUsableResult(this, usabilityContext).createConsent();
+        val consent = InteractionUtils.isUsableResult(this, usabilityContext).createConsent();
+
+        if(metricsRecorder.isEnabled()) {
+            metricsRecorder.recordCheck(MetricsRecorder.Check.USABILITY, getIdentifier(), System.nanoTime() - startedAtNanos);
+        }
+        return consent;
+    }
+
+    // -- METRICS
+
+    private MetricsRecorder metricsRecorder; // lazily looked up, benign race
+
+    /**
+     * Not API.
+     */
+    protected final MetricsRecorder getMetricsRecorder() {
+        val recorder = metricsRecorder;
+        if(recorder != null) {
+            return recorder;
+        }
+        return metricsRecorder = getServiceRegistry().lookupService(MetricsRecorder.class)
+                .orElse(MetricsRecorder.NOOP);
     }
 
     // -- isAssociation, isAction
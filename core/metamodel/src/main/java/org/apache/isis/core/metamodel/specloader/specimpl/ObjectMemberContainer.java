@@ -41,7 +41,7 @@
  * Responsibility: member lookup and streaming with support for inheritance,
  * based on access to declared members, super-classes and interfaces.
  * <p>
- * TODO performance: add memoization
+ * Memoization is provided by {@link ObjectSpecificationAbstract}, once the type-hierarchy is fully introspected.
  * <p>
  * TODO future extensions should also search the interfaces,
  * but avoid doing redundant work when walking the type-hierarchy;
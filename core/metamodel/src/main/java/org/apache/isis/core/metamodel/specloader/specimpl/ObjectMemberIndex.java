@@ -0,0 +1,222 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.collections.ImmutableEnumSet;
+import org.apache.isis.core.metamodel.spec.ActionType;
+import org.apache.isis.core.metamodel.spec.feature.MixedIn;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Immutable snapshot of the members declared by an {@link ObjectSpecificationAbstract},
+ * as used for member streaming and lookup.
+ * <p>
+ * Members are pre-partitioned into arrays for every combination of {@link MixedIn}
+ * and {@link ActionType}(s), and are indexed by id. Also memoizes members with
+ * inheritance considered, once these are known to be stable.
+ *
+ * @since 2.0
+ */
+final class ObjectMemberIndex {
+
+    private static final int MIXED_IN_COUNT = MixedIn.values().length;
+    private static final int ACTION_TYPES_COMBINATIONS = 1 << ActionType.values().length;
+
+    static ObjectMemberIndex of(
+            final int modCount,
+            final @NonNull Can<ObjectAssociation> associations,
+            final @NonNull Can<ObjectAction> actions) {
+        return new ObjectMemberIndex(modCount, associations, actions);
+    }
+
+    /**
+     * Modification count of the owning spec's members, this index was built from.
+     */
+    @Getter private final int modCount;
+
+    // [MixedIn.ordinal()]
+    private final ObjectAssociation[][] associationsByMixedIn;
+    // [bitmask of ActionType ordinals][MixedIn.ordinal()]
+    private final ObjectAction[][][] actionsByTypesAndMixedIn;
+
+    private final Map<String, ObjectAssociation> associationsById;
+    // candidates in order of ActionType, then member order
+    private final Map<String, ObjectAction[]> actionsById;
+
+    // inheritance considered, populated on demand
+    private final AtomicReferenceArray<ObjectAssociation[]> inheritedAssociationsByMixedIn =
+            new AtomicReferenceArray<>(MIXED_IN_COUNT);
+    private final AtomicReferenceArray<ObjectAction[]> inheritedActionsByTypesAndMixedIn =
+            new AtomicReferenceArray<>(ACTION_TYPES_COMBINATIONS * MIXED_IN_COUNT);
+
+    private ObjectMemberIndex(
+            final int modCount,
+            final Can<ObjectAssociation> associations,
+            final Can<ObjectAction> actions) {
+
+        this.modCount = modCount;
+
+        this.associationsByMixedIn = new ObjectAssociation[MIXED_IN_COUNT][];
+        this.associationsByMixedIn[MixedIn.INCLUDED.ordinal()] = associations
+                .toArray(new ObjectAssociation[0]);
+        this.associationsByMixedIn[MixedIn.EXCLUDED.ordinal()] = associations.stream()
+                .filter(MixedIn::isNotMixedIn)
+                .toArray(ObjectAssociation[]::new);
+
+        this.associationsById = new HashMap<>();
+        associations.forEach(association->
+            associationsById.putIfAbsent(association.getId(), association));
+
+        this.actionsByTypesAndMixedIn = new ObjectAction[ACTION_TYPES_COMBINATIONS][MIXED_IN_COUNT][];
+        for(int typesMask = 0; typesMask < ACTION_TYPES_COMBINATIONS; ++typesMask) {
+            for(val mixedIn : MixedIn.values()) {
+                actionsByTypesAndMixedIn[typesMask][mixedIn.ordinal()] =
+                        collectActions(actions, typesMask, mixedIn);
+            }
+        }
+
+        val candidatesById = new HashMap<String, List<ObjectAction>>();
+        for(val action : actionsByTypesAndMixedIn[ACTION_TYPES_COMBINATIONS - 1][MixedIn.INCLUDED.ordinal()]) {
+            val identityString = action.getIdentifier().getMemberNameAndParameterClassNamesIdentityString();
+            val logicalName = action.getIdentifier().getMemberLogicalName();
+            candidatesById.computeIfAbsent(identityString, __->new ArrayList<>()).add(action);
+            if(!logicalName.equals(identityString)) {
+                candidatesById.computeIfAbsent(logicalName, __->new ArrayList<>()).add(action);
+            }
+        }
+        this.actionsById = new HashMap<>(candidatesById.size() * 2);
+        candidatesById.forEach((id, candidates)->
+            actionsById.put(id, candidates.toArray(new ObjectAction[0])));
+    }
+
+    // -- DECLARED
+
+    ObjectAssociation[] getDeclaredAssociations(final @NonNull MixedIn mixedIn) {
+        return associationsByMixedIn[mixedIn.ordinal()];
+    }
+
+    Optional<ObjectAssociation> getDeclaredAssociation(final @Nullable String id) {
+        return id == null
+                ? Optional.empty()
+                : Optional.ofNullable(associationsById.get(id));
+    }
+
+    ObjectAction[] getDeclaredActions(
+            final @NonNull ImmutableEnumSet<ActionType> actionTypes,
+            final @NonNull MixedIn mixedIn) {
+        return actionsByTypesAndMixedIn[typesMask(actionTypes)][mixedIn.ordinal()];
+    }
+
+    /**
+     * @param id - either the member's identity string (including parameter types)
+     *      or its logical name
+     * @param type - any if {@code null}
+     */
+    Optional<ObjectAction> getDeclaredAction(final @Nullable String id, final @Nullable ActionType type) {
+        val candidates = id == null
+                ? null
+                : actionsById.get(id);
+        if(candidates == null) {
+            return Optional.empty();
+        }
+        for(val candidate : candidates) {
+            if(type == null
+                    || candidate.getType() == type) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // -- INHERITED (MEMOIZED)
+
+    @Nullable
+    ObjectAssociation[] getInheritedAssociations(final @NonNull MixedIn mixedIn) {
+        return inheritedAssociationsByMixedIn.get(mixedIn.ordinal());
+    }
+
+    void putInheritedAssociations(final @NonNull MixedIn mixedIn, final ObjectAssociation[] associations) {
+        inheritedAssociationsByMixedIn.set(mixedIn.ordinal(), associations);
+    }
+
+    @Nullable
+    ObjectAction[] getInheritedActions(
+            final @NonNull ImmutableEnumSet<ActionType> actionTypes,
+            final @NonNull MixedIn mixedIn) {
+        return inheritedActionsByTypesAndMixedIn.get(slot(actionTypes, mixedIn));
+    }
+
+    void putInheritedActions(
+            final @NonNull ImmutableEnumSet<ActionType> actionTypes,
+            final @NonNull MixedIn mixedIn,
+            final ObjectAction[] actions) {
+        inheritedActionsByTypesAndMixedIn.set(slot(actionTypes, mixedIn), actions);
+    }
+
+    // -- HELPER
+
+    private static int typesMask(final ImmutableEnumSet<ActionType> actionTypes) {
+        int typesMask = 0;
+        for(val actionType : actionTypes) {
+            typesMask |= 1 << actionType.ordinal();
+        }
+        return typesMask;
+    }
+
+    private static int slot(final ImmutableEnumSet<ActionType> actionTypes, final MixedIn mixedIn) {
+        return typesMask(actionTypes) * MIXED_IN_COUNT + mixedIn.ordinal();
+    }
+
+    // in order of ActionType, then member order; same as streaming the actions per type
+    private static ObjectAction[] collectActions(
+            final Can<ObjectAction> actions,
+            final int typesMask,
+            final MixedIn mixedIn) {
+        val collected = new ArrayList<ObjectAction>();
+        for(val actionType : ActionType.values()) {
+            if((typesMask & (1 << actionType.ordinal())) == 0) {
+                continue;
+            }
+            actions.forEach(action->{
+                if(action.getType() == actionType
+                        && (mixedIn.isIncluded()
+                                || MixedIn.isNotMixedIn(action))) {
+                    collected.add(action);
+                }
+            });
+        }
+        return collected.toArray(new ObjectAction[0]);
+    }
+
+}
@@ -20,13 +20,16 @@
 package org.apache.isis.core.metamodel.specloader.specimpl;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
 import javax.enterprise.inject.Vetoed;
 
 import org.apache.isis.applib.Identifier;
@@ -38,12 +41,9 @@
 import org.apache.isis.commons.internal.base._NullSafe;
 import org.apache.isis.commons.internal.base._Strings;
 import org.apache.isis.commons.internal.collections._Lists;
-import org.apache.isis.commons.internal.collections._Multimaps;
-import org.apache.isis.commons.internal.collections._Multimaps.ListMultimap;
 import org.apache.isis.commons.internal.collections._Sets;
 import org.apache.isis.commons.internal.collections._Streams;
 import org.apache.isis.commons.internal.exceptions._Exceptions;
-import org.apache.isis.commons.internal.functions._Predicates;
 import org.apache.isis.core.config.beans.IsisBeanTypeRegistry;
 import org.apache.isis.core.metamodel.commons.ClassExtensions;
 import org.apache.isis.core.metamodel.consent.Consent;
@@ -70,6 +70,8 @@
 import org.apache.isis.core.metamodel.interactions.InteractionUtils;
 import org.apache.isis.core.metamodel.interactions.ObjectTitleContext;
 import org.apache.isis.core.metamodel.interactions.ObjectValidityContext;
+import org.apache.isis.core.metamodel.services.metrics.FlightRecorderEvents;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ActionType;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -80,8 +82,6 @@
 import org.apache.isis.core.metamodel.specloader.facetprocessor.FacetProcessor;
 import org.apache.isis.core.metamodel.specloader.postprocessor.PostProcessor;
 
-import static org.apache.isis.commons.internal.base._NullSafe.stream;
-
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.val;
@@ -149,9 +149,13 @@ public Can<ObjectSpecification> snapshot() {
     private final _Lazy<Can<ObjectAction>> unmodifiableActions =
             _Lazy.threadSafe(()->Can.ofCollection(objectActions));
 
-    // partitions and caches objectActions by type; updated in sortCacheAndUpdateActions()
-    private final ListMultimap<ActionType, ObjectAction> objectActionsByType =
-            _Multimaps.newConcurrentListMultimap();
+    // -- MEMBER INDEX
+
+    // incremented whenever associations or actions are updated
+    private final AtomicInteger memberModCount = new AtomicInteger();
+
+    // partitions and indexes associations and actions; rebuilt on demand when outdated
+    private volatile ObjectMemberIndex memberIndex;
 
     // -- INTERFACES
 
@@ -183,7 +187,14 @@ public Can<ObjectSpecification> snapshot() {
     private NavigableParentFacet navigableParentFacet;
     private CssClassFacet cssClassFacet;
 
-    private IntrospectionState introspectionState = IntrospectionState.NOT_INTROSPECTED;
+    private volatile IntrospectionState introspectionState = IntrospectionState.NOT_INTROSPECTED;
+
+    // the thread currently introspecting this spec, if any; guarded by introspectionLock
+    private Thread introspectingThread;
+    private final Object introspectionLock = new Object();
+
+    // number of specs the current thread is introspecting (nested)
+    private static final ThreadLocal<int[]> introspectionDepth = ThreadLocal.withInitial(()->new int[1]);
 
 
     // -- Constructor
@@ -255,6 +266,12 @@ public String getFullIdentifier() {
         return fullName;
     }
 
+    /**
+     * @implNote If another thread is already introspecting this spec, waits for that in-flight introspection
+     * to complete rather than duplicating it. Threads that are themselves in the middle of introspecting
+     * (other) specs never wait, as that could dead-lock on cyclic type dependencies; as on re-entrant calls,
+     * these see the spec in its current state of introspection instead.
+     */
     @Override
     public void introspectUpTo(final IntrospectionState upTo) {
 
@@ -262,6 +279,62 @@ public void introspectUpTo(final IntrospectionState upTo) {
             return; // optimization
         }
 
+        val currentThread = Thread.currentThread();
+        val depth = introspectionDepth.get();
+
+        synchronized(introspectionLock) {
+            boolean interrupted = false;
+            while(introspectingThread != null
+                    && introspectingThread != currentThread
+                    && depth[0] == 0) {
+                try {
+                    introspectionLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if(interrupted) {
+                currentThread.interrupt();
+            }
+            if(!isLessThan(upTo)
+                    || introspectingThread != null) {
+                return; // completed by the other thread, or re-entrant call
+            }
+            introspectingThread = currentThread;
+        }
+
+        val metricsRecorder = getMetricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+        val flightRecorderEvent = FlightRecorderEvents.beginSpecificationIntrospection();
+
+        final boolean revalidate;
+        ++depth[0];
+        try {
+            revalidate = introspectUpToWhileOwned(upTo);
+        } finally {
+            if(metricsRecorder.isEnabled()) {
+                metricsRecorder.recordSpecificationLoading(getCorrespondingClass(), System.nanoTime() - startedAtNanos);
+            }
+            if(flightRecorderEvent.isRecording()) {
+                flightRecorderEvent.logicalType(getLogicalTypeName()).end();
+            }
+            --depth[0];
+            synchronized(introspectionLock) {
+                introspectingThread = null;
+                introspectionLock.notifyAll();
+            }
+        }
+
+        if(revalidate) {
+            getSpecificationLoader().validateLater(this);
+        }
+    }
+
+    /**
+     * @return whether to revalidate
+     */
+    private boolean introspectUpToWhileOwned(final IntrospectionState upTo) {
+
         if(log.isDebugEnabled()) {
             log.debug("introspectingUpTo: {}, {}", getFullIdentifier(), upTo);
         }
@@ -307,15 +380,26 @@ public void introspectUpTo(final IntrospectionState upTo) {
             throw _Exceptions.unexpectedCodeReach();
         }
 
-        if(revalidate) {
-            getSpecificationLoader().validateLater(this);
-        }
+        return revalidate;
     }
 
     boolean isLessThan(IntrospectionState upTo) {
         return this.introspectionState.compareTo(upTo) < 0;
     }
 
+    // -- METRICS
+
+    private MetricsRecorder metricsRecorder; // lazily looked up, benign race
+
+    private MetricsRecorder getMetricsRecorder() {
+        val recorder = metricsRecorder;
+        if(recorder != null) {
+            return recorder;
+        }
+        return metricsRecorder = getServiceRegistry().lookupService(MetricsRecorder.class)
+                .orElse(MetricsRecorder.NOOP);
+    }
+
     protected abstract void introspectTypeHierarchy();
     protected abstract void introspectMembers();
 
@@ -366,6 +450,7 @@ protected void sortAndUpdateAssociations(final List<ObjectAssociation> associati
             this.associations.clear();
             this.associations.addAll(orderedAssociations);
             unmodifiableAssociations.clear(); // invalidate
+            memberModCount.incrementAndGet(); // invalidate member index
         }
     }
 
@@ -375,14 +460,7 @@ protected void sortCacheAndUpdateActions(final List<ObjectAction> objectActions)
             this.objectActions.clear();
             this.objectActions.addAll(orderedActions);
             unmodifiableActions.clear(); // invalidate
-
-            for (val actionType : ActionType.values()) {
-                val objectActionForType = objectActionsByType.getOrElseNew(actionType);
-                objectActionForType.clear();
-                objectActions.stream()
-                .filter(ObjectAction.Predicates.ofActionType(actionType))
-                .forEach(objectActionForType::add);
-            }
+            memberModCount.incrementAndGet(); // invalidate member index
         }
     }
 
@@ -671,16 +749,23 @@ public Stream<ObjectAssociation> streamDeclaredAssociations(final MixedIn contri
 
         if(contributed.isIncluded()) {
             createMixedInAssociations(); // only if not already
-            synchronized(unmodifiableAssociations) {
-                return stream(unmodifiableAssociations.get());
-            }
         }
 
-        synchronized(unmodifiableAssociations) {
-            return stream(unmodifiableAssociations.get())
-                    .filter(MixedIn::isNotMixedIn);
-        }
+        return Arrays.stream(memberIndex().getDeclaredAssociations(contributed));
+    }
 
+    @Override
+    public Stream<ObjectAssociation> streamAssociations(final MixedIn contributed) {
+        val cached = memberIndex().getInheritedAssociations(contributed);
+        if(cached != null) {
+            return Arrays.stream(cached);
+        }
+        val associations = super.streamAssociations(contributed)
+                .toArray(ObjectAssociation[]::new);
+        if(isMemberIndexStable()) {
+            memberIndex().putInheritedAssociations(contributed, associations);
+        }
+        return Arrays.stream(associations);
     }
 
     @Override
@@ -701,9 +786,17 @@ public Optional<? extends ObjectMember> getMember(final String memberId) {
     @Override
     public Optional<ObjectAssociation> getDeclaredAssociation(final String id) {
         introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
-        return streamDeclaredAssociations(MixedIn.INCLUDED)
-                .filter(objectAssociation->objectAssociation.getId().equals(id))
-                .findFirst();
+        createMixedInAssociations(); // only if not already
+        return memberIndex().getDeclaredAssociation(id);
+    }
+
+    @Override
+    public Optional<ObjectAction> getDeclaredAction(
+            final @Nullable String id,
+            final @Nullable ActionType type) {
+        introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
+        createMixedInActions(); // only if not already
+        return memberIndex().getDeclaredAction(id, type);
     }
 
     @Override
@@ -724,11 +817,61 @@ public Stream<ObjectAction> streamDeclaredActions(
             createMixedInActions(); // only if not already
         }
 
-        return actionTypes.stream()
-                .flatMap(actionType->stream(objectActionsByType.get(actionType)))
-                .filter(mixedIn.isIncluded()
-                        ? _Predicates.alwaysTrue()
-                        : MixedIn::isNotMixedIn);
+        return Arrays.stream(memberIndex().getDeclaredActions(actionTypes, mixedIn));
+    }
+
+    /**
+     * Memoized once the type hierarchy is fully introspected.
+     * (The variant taking an {@code onActionOverloaded} callback is not memoized.)
+     */
+    @Override
+    public Stream<ObjectAction> streamActions(
+            final ImmutableEnumSet<ActionType> actionTypes,
+            final MixedIn mixedIn) {
+        val cached = memberIndex().getInheritedActions(actionTypes, mixedIn);
+        if(cached != null) {
+            return Arrays.stream(cached);
+        }
+        val actions = super.streamActions(actionTypes, mixedIn, __->{})
+                .toArray(ObjectAction[]::new);
+        if(isMemberIndexStable()) {
+            memberIndex().putInheritedActions(actionTypes, mixedIn, actions);
+        }
+        return Arrays.stream(actions);
+    }
+
+    // -- MEMBER INDEX
+
+    private ObjectMemberIndex memberIndex() {
+        val modCount = memberModCount.get();
+        val memberIndex = this.memberIndex;
+        if(memberIndex != null
+                && memberIndex.getModCount() == modCount) {
+            return memberIndex;
+        }
+        // racing threads might both build the index, which is harmless
+        val newMemberIndex = ObjectMemberIndex.of(
+                modCount,
+                unmodifiableAssociations.get(),
+                unmodifiableActions.get());
+        this.memberIndex = newMemberIndex;
+        return newMemberIndex;
+    }
+
+    /**
+     * Whether this and all its super-types are fully introspected,
+     * such that members with inheritance considered can be memoized.
+     * (Mixed-in members are added to each type in the hierarchy before these are streamed.)
+     */
+    private boolean isMemberIndexStable() {
+        if(introspectionState != IntrospectionState.FULLY_INTROSPECTED) {
+            return false;
+        }
+        if(superclassSpec == null) {
+            return true;
+        }
+        return superclassSpec instanceof ObjectSpecificationAbstract
+                && ((ObjectSpecificationAbstract) superclassSpec).isMemberIndexStable();
     }
 
     // -- mixin associations (properties and collections)
@@ -884,14 +1027,17 @@ public boolean isParented() {
 
     // -- GUARDS
 
-    private boolean contributeeAndMixedInAssociationsAdded;
-    private boolean contributeeAndMixedInActionsAdded;
+    private volatile boolean contributeeAndMixedInAssociationsAdded;
+    private volatile boolean contributeeAndMixedInActionsAdded;
 
     private void createMixedInActions() {
         // update our list of actions if requesting for contributed actions
         // and they have not yet been added
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
+        if(contributeeAndMixedInActionsAdded) {
+            return; // optimization, skip locking
+        }
         synchronized (unmodifiableActions) {
             if(!contributeeAndMixedInActionsAdded) {
                 val actions = _Lists.newArrayList(this.objectActions);
@@ -907,6 +1053,9 @@ private void createMixedInActions() {
     private void createMixedInAssociations() {
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
+        if(contributeeAndMixedInAssociationsAdded) {
+            return; // optimization, skip locking
+        }
         synchronized (unmodifiableAssociations) {
             if(!contributeeAndMixedInAssociationsAdded) {
                 val associations = _Lists.newArrayList(this.associations);
@@ -48,6 +48,7 @@
 import org.apache.isis.core.metamodel.interactions.UsabilityContext;
 import org.apache.isis.core.metamodel.interactions.ValidityContext;
 import org.apache.isis.core.metamodel.interactions.VisibilityContext;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ManagedObjects.EntityUtil;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -113,7 +114,16 @@ public Consent isAssociationValid(
             final ManagedObject ownerAdapter,
             final ManagedObject proposedAdapter,
             final InteractionInitiatedBy interactionInitiatedBy) {
-        return isAssociationValidResult(ownerAdapter, proposedAdapter, interactionInitiatedBy).createConsent();
+
+        val metricsRecorder = getMetricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+
+        val consent = isAssociationValidResult(ownerAdapter, proposedAdapter, interactionInitiatedBy).createConsent();
+
+        if(metricsRecorder.isEnabled()) {
+            metricsRecorder.recordCheck(MetricsRecorder.Check.VALIDITY, getIdentifier(), System.nanoTime() - startedAtNanos);
+        }
+        return consent;
     }
 
     private InteractionResult isAssociationValidResult(
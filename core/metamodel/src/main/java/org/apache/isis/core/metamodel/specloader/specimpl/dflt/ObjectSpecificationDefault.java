@@ -25,10 +25,7 @@
 import java.util.Optional;
 import java.util.function.BiConsumer;
 
-import javax.annotation.Nullable;
-
 import org.apache.isis.applib.services.metamodel.BeanSort;
-import org.apache.isis.commons.collections.ImmutableEnumSet;
 import org.apache.isis.commons.internal.base._Lazy;
 import org.apache.isis.commons.internal.collections._Lists;
 import org.apache.isis.commons.internal.collections._Maps;
@@ -49,7 +46,6 @@
 import org.apache.isis.core.metamodel.postprocessors.all.i18n.NamedFacetTranslated;
 import org.apache.isis.core.metamodel.postprocessors.all.i18n.PluralFacetTranslated;
 import org.apache.isis.core.metamodel.services.classsubstitutor.ClassSubstitutorRegistry;
-import org.apache.isis.core.metamodel.spec.ActionType;
 import org.apache.isis.core.metamodel.spec.ElementSpecificationProvider;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -267,29 +263,6 @@ public String getManagedBeanName() {
         return nameIfIsManagedBean;
     }
 
-    // -- getObjectAction
-
-    @Override
-    public Optional<ObjectAction> getDeclaredAction(
-            final @Nullable String id,
-            final @Nullable ActionType type) {
-
-        introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
-
-        return id == null
-                ? Optional.empty()
-                : streamDeclaredActions(
-                        type==null
-                            ? ActionType.ANY
-                            : ImmutableEnumSet.of(type),
-                        MixedIn.INCLUDED)
-                    .filter(action->
-                        id.equals(action.getIdentifier().getMemberNameAndParameterClassNamesIdentityString())
-                                || id.equals(action.getIdentifier().getMemberLogicalName())
-                    )
-                    .findFirst();
-    }
-
     @Override
     public Optional<? extends ObjectMember> getMember(final Method method) {
         introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
@@ -0,0 +1,170 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facetapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import lombok.val;
+
+class FacetHolderImplTest {
+
+    static interface FooFacet extends Facet {}
+    static interface BarFacet extends Facet {}
+    static interface BazFacet extends Facet {}
+    static interface QuxFacet extends Facet {}
+    static interface NotAddedFacet extends Facet {}
+
+    // enough distinct facet types to have the lookup table grow a couple of times
+    static interface Facet01 extends Facet {}
+    static interface Facet02 extends Facet {}
+    static interface Facet03 extends Facet {}
+    static interface Facet04 extends Facet {}
+    static interface Facet05 extends Facet {}
+    static interface Facet06 extends Facet {}
+    static interface Facet07 extends Facet {}
+    static interface Facet08 extends Facet {}
+    static interface Facet09 extends Facet {}
+    static interface Facet10 extends Facet {}
+    static interface Facet11 extends Facet {}
+    static interface Facet12 extends Facet {}
+    static interface Facet13 extends Facet {}
+    static interface Facet14 extends Facet {}
+    static interface Facet15 extends Facet {}
+    static interface Facet16 extends Facet {}
+    static interface Facet17 extends Facet {}
+
+    static class ConcreteFacet extends FacetAbstract {
+        ConcreteFacet(final Class<? extends Facet> facetType, final FacetHolder holder) {
+            super(facetType, holder, Derivation.NOT_DERIVED);
+        }
+    }
+
+    private FacetHolderImpl facetHolder;
+
+    @BeforeEach
+    void setUp() {
+        facetHolder = new FacetHolderImpl();
+    }
+
+    @Test
+    void emptyHolder() {
+        assertEquals(0, facetHolder.getFacetCount());
+        assertNull(facetHolder.getFacet(FooFacet.class));
+        assertFalse(facetHolder.containsFacet(FooFacet.class));
+        assertEquals(0L, facetHolder.streamFacets().count());
+    }
+
+    @Test
+    void lookupAfterAdding() {
+        val fooFacet = new ConcreteFacet(FooFacet.class, facetHolder);
+        val barFacet = new ConcreteFacet(BarFacet.class, facetHolder);
+        val bazFacet = new ConcreteFacet(BazFacet.class, facetHolder);
+        facetHolder.addFacet(fooFacet);
+        facetHolder.addFacet(barFacet);
+
+        assertSame(fooFacet, facetHolder.getFacet(FooFacet.class));
+        assertSame(barFacet, facetHolder.getFacet(BarFacet.class));
+        assertFalse(facetHolder.containsFacet(NotAddedFacet.class));
+        assertEquals(2, facetHolder.getFacetCount());
+
+        // adding after a lookup must invalidate the lookup table
+        facetHolder.addFacet(bazFacet);
+
+        assertSame(bazFacet, facetHolder.getFacet(BazFacet.class));
+        assertTrue(facetHolder.containsFacet(FooFacet.class));
+        assertEquals(3, facetHolder.getFacetCount());
+        assertEquals(3L, facetHolder.streamFacets().count());
+    }
+
+    @Test
+    void lookupAfterReplacing() {
+        val fooFacet = new ConcreteFacet(FooFacet.class, facetHolder);
+        val quxFacet = new ConcreteFacet(QuxFacet.class, facetHolder);
+        facetHolder.addFacet(fooFacet);
+        facetHolder.addFacet(quxFacet);
+
+        assertSame(fooFacet, facetHolder.getFacet(FooFacet.class));
+
+        val fooFacet2 = new ConcreteFacet(FooFacet.class, facetHolder);
+        facetHolder.addOrReplaceFacet(fooFacet2);
+
+        assertSame(fooFacet2, facetHolder.getFacet(FooFacet.class));
+        assertSame(quxFacet, facetHolder.getFacet(QuxFacet.class));
+        assertEquals(2, facetHolder.getFacetCount());
+    }
+
+    @Test
+    void lookupByAliasType() {
+        val fooFacet = new ConcreteFacet(FooFacet.class, facetHolder);
+        fooFacet.setFacetAliasType(QuxFacet.class);
+        facetHolder.addFacet(fooFacet);
+
+        assertSame(fooFacet, facetHolder.getFacet(FooFacet.class));
+        assertSame(fooFacet, facetHolder.getFacet(QuxFacet.class));
+        assertTrue(facetHolder.containsFacet(QuxFacet.class));
+        assertFalse(facetHolder.containsFacet(NotAddedFacet.class));
+
+        // the alias is a lookup key only, not another facet
+        assertEquals(1, facetHolder.getFacetCount());
+        assertEquals(1L, facetHolder.streamFacets().count());
+
+        // a facet registered under the alias type itself takes precedence over the alias
+        val quxFacet = new ConcreteFacet(QuxFacet.class, facetHolder);
+        facetHolder.addFacet(quxFacet);
+
+        assertSame(quxFacet, facetHolder.getFacet(QuxFacet.class));
+        assertSame(fooFacet, facetHolder.getFacet(FooFacet.class));
+        assertEquals(2, facetHolder.getFacetCount());
+    }
+
+    @Test
+    void lookupWhileTableGrows() {
+        val facetTypes = Arrays.<Class<? extends Facet>>asList(
+                Facet01.class, Facet02.class, Facet03.class, Facet04.class, Facet05.class, Facet06.class,
+                Facet07.class, Facet08.class, Facet09.class, Facet10.class, Facet11.class, Facet12.class,
+                Facet13.class, Facet14.class, Facet15.class, Facet16.class, Facet17.class);
+        final List<Facet> added = new ArrayList<>();
+
+        for(val facetType : facetTypes) {
+            val facet = new ConcreteFacet(facetType, facetHolder);
+            facetHolder.addFacet(facet);
+            added.add(facet);
+
+            // each lookup rebuilds the table, sized for all the facets added so far
+            for(int i = 0; i < added.size(); ++i) {
+                assertSame(added.get(i), facetHolder.getFacet(facetTypes.get(i)));
+            }
+            assertFalse(facetHolder.containsFacet(NotAddedFacet.class));
+            assertEquals(added.size(), facetHolder.getFacetCount());
+        }
+        assertEquals(facetTypes.size(), facetHolder.streamFacets().count());
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.object.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+
+import lombok.val;
+
+class EntityFacet_batchedQueryTest {
+
+    private List<ManagedObject> entities;
+    private List<Can<ManagedObject>> evicted;
+    private ObjectSpecification spec;
+    private EntityFacet entityFacet;
+
+    @BeforeEach
+    void setUp() {
+        entities = IntStream.range(0, 25)
+                .mapToObj(i->Mockito.mock(ManagedObject.class))
+                .collect(Collectors.toList());
+        evicted = new ArrayList<>();
+        spec = Mockito.mock(ObjectSpecification.class);
+        entityFacet = Mockito.mock(EntityFacet.class, Mockito.CALLS_REAL_METHODS);
+
+        when(entityFacet.fetchByQuery(ArgumentMatchers.any(), ArgumentMatchers.any()))
+        .thenAnswer(invocation->{
+            final Query<?> query = invocation.getArgument(1);
+            val range = query.getRange();
+            val from = (int) Math.min(range.getStart(), entities.size());
+            val to = range.hasLimit()
+                    ? (int) Math.min(range.getEnd(), entities.size())
+                    : entities.size();
+            return Can.ofCollection(entities.subList(from, to));
+        });
+
+        Mockito.doAnswer(invocation->evicted.add(invocation.getArgument(0)))
+        .when(entityFacet).evictAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    void streamingAll_withoutCursor_shouldQueryOnce_andEvictInBatches() {
+
+        final List<ManagedObject> streamed;
+        try(val stream = entityFacet.streamByQuery(spec, Query.allInstances(Object.class), 10)) {
+            streamed = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(entities, streamed);
+        verify(entityFacet, times(1)).fetchByQuery(ArgumentMatchers.any(), ArgumentMatchers.any());
+        assertEquals(3, evicted.size());
+        assertEquals(Arrays.asList(10, 10, 5), evicted.stream().map(Can::size).collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamingRange_withoutCursor_shouldHonorStartAndLimit() {
+
+        final List<ManagedObject> streamed;
+        try(val stream = entityFacet.streamByQuery(spec, Query.allInstances(Object.class).withRange(5, 12), 10)) {
+            streamed = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(entities.subList(5, 17), streamed);
+        verify(entityFacet, times(1)).fetchByQuery(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void streamingAll_withCursor_shouldNotFetch_andCloseCursor() {
+
+        val cursorClosed = new AtomicBoolean();
+        when(entityFacet.streamByCursor(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.eq(10)))
+        .thenAnswer(invocation->Optional.of(entities.stream().onClose(()->cursorClosed.set(true))));
+
+        final List<ManagedObject> streamed;
+        try(val stream = entityFacet.streamByQuery(spec, Query.allInstances(Object.class), 10)) {
+            streamed = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(entities, streamed);
+        verify(entityFacet, never()).fetchByQuery(ArgumentMatchers.any(), ArgumentMatchers.any());
+        assertEquals(25, evicted.stream().mapToInt(Can::size).sum());
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void closingEarly_shouldEvictCurrentBatch_andCloseCursor() {
+
+        val cursorClosed = new AtomicBoolean();
+        when(entityFacet.streamByCursor(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+        .thenAnswer(invocation->Optional.of(entities.stream().onClose(()->cursorClosed.set(true))));
+
+        try(val stream = entityFacet.streamByQuery(spec, Query.allInstances(Object.class), 10)) {
+            assertEquals(3L, stream.limit(3).count());
+        }
+
+        assertEquals(1, evicted.size());
+        assertEquals(3, evicted.get(0).size());
+        assertTrue(cursorClosed.get());
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.objectmanager.query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.apache.isis.applib.query.Query;
+
+import lombok.val;
+
+class QueryResultListTest {
+
+    private final Query<String> query = Query.allInstances(String.class);
+
+    @Test
+    void remembersOriginatingQuery() {
+        val results = QueryResultList.of(query, Collections.unmodifiableList(Arrays.asList("a", "b")));
+
+        assertSame(query, QueryResultList.originatingQuery(results).orElse(null));
+        assertEquals(Arrays.asList("a", "b"), results);
+    }
+
+    @Test
+    void noOriginatingQuery_whenPlainList() {
+        assertFalse(QueryResultList.originatingQuery(Arrays.asList("a", "b")).isPresent());
+        assertFalse(QueryResultList.originatingQuery(null).isPresent());
+    }
+
+    @Test
+    void isUnmodifiable() {
+        final List<String> results = QueryResultList.of(query, Collections.singletonList("a"));
+
+        assertThrows(UnsupportedOperationException.class, ()->results.add("b"));
+        assertThrows(UnsupportedOperationException.class, ()->results.remove(0));
+    }
+
+}
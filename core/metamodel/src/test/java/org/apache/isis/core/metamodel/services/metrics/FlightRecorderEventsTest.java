@@ -0,0 +1,100 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.services.metrics;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.id.LogicalType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import lombok.val;
+
+class FlightRecorderEventsTest {
+
+    static class Customer {}
+
+    @TempDir Path tempDir;
+
+    @Test
+    void whenNotRecording_spansAreNoop() {
+        assertSame(FlightRecorderEvents.Span.NOOP, FlightRecorderEvents.beginActionInvocation());
+        assertFalse(FlightRecorderEvents.beginInteraction().isRecording());
+    }
+
+    @Test
+    void whenRecording_eventsAreCommittedWithTheirFields() throws IOException {
+        val placeOrder = Identifier.actionIdentifier(LogicalType.fqcn(Customer.class), "placeOrder");
+        val file = tempDir.resolve("test.jfr");
+
+        try(val recording = new Recording()) {
+            recording.enable("isis.ActionInvocation").withoutThreshold();
+            recording.start();
+
+            val span = FlightRecorderEvents.beginActionInvocation();
+            assertTrue(span.isRecording());
+            span.member(placeOrder)
+                .user("sven")
+                .failed(true)
+                .end();
+
+            // not enabled by the recording
+            assertFalse(FlightRecorderEvents.beginPropertyEdit().isRecording());
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        val events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        val event = events.get(0);
+        assertEquals("isis.ActionInvocation", event.getEventType().getName());
+        assertEquals(placeOrder.getLogicalTypeName(), event.getString("logicalType"));
+        assertEquals("placeOrder", event.getString("memberId"));
+        assertEquals("sven", event.getString("user"));
+        assertTrue(event.getBoolean("failed"));
+    }
+
+    @Test
+    void bundledSettings_areValid() throws IOException, ParseException {
+        try(val reader = new InputStreamReader(
+                FlightRecorderEvents.class.getResourceAsStream(FlightRecorderEvents.SETTINGS_RESOURCE),
+                StandardCharsets.UTF_8)) {
+            val configuration = Configuration.create(reader);
+            assertEquals("true", configuration.getSettings().get("isis.Interaction#enabled"));
+            assertEquals("true", configuration.getSettings().get("isis.EntityFlush#enabled"));
+        }
+    }
+
+}
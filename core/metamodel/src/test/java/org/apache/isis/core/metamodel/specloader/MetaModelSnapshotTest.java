@@ -0,0 +1,158 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import org.apache.isis.applib.services.metamodel.BeanSort;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class MetaModelSnapshotTest {
+
+    interface Named {}
+    static class Customer implements Named {}
+    static class Order {}
+
+    @TempDir Path tempDir;
+
+    private ProgrammingModel programmingModel;
+    private IsisConfiguration isisConfiguration;
+
+    @BeforeEach
+    void setUp() {
+        programmingModel = Mockito.mock(ProgrammingModel.class);
+        when(programmingModel.streamFactories()).thenAnswer(__->Stream.empty());
+        when(programmingModel.streamValidators()).thenAnswer(__->Stream.empty());
+        when(programmingModel.streamPostProcessors()).thenAnswer(__->Stream.empty());
+        isisConfiguration = new IsisConfiguration(null);
+    }
+
+    @Test
+    void fingerprint_isStable_andDependsOnTypesAndConfiguration() {
+        val fingerprint1 = fingerprint(Customer.class, Order.class);
+        val fingerprint2 = fingerprint(Order.class, Customer.class);
+        val fingerprint3 = fingerprint(Customer.class);
+
+        assertTrue(MetaModelSnapshot.of(fingerprint1, new TreeMap<>()).matches(fingerprint2));
+        assertFalse(MetaModelSnapshot.of(fingerprint1, new TreeMap<>()).matches(fingerprint3));
+
+        isisConfiguration.getCore().getMetaModel().getIntrospector().setParallelize(true);
+        val fingerprint4 = fingerprint(Customer.class, Order.class);
+        assertFalse(MetaModelSnapshot.of(fingerprint1, new TreeMap<>()).matches(fingerprint4));
+    }
+
+    @Test
+    void fingerprint_dependsOnAnyIsisProperty() {
+        val environment = new StandardEnvironment();
+        val properties = new HashMap<String, Object>();
+        properties.put("isis.applib.annotation.action.explicit", "false");
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        isisConfiguration = new IsisConfiguration(environment);
+        val fingerprint1 = fingerprint(Customer.class);
+
+        properties.put("isis.applib.annotation.action.explicit", "true");
+        val fingerprint2 = fingerprint(Customer.class);
+
+        properties.put("spring.application.name", "unrelated");
+        val fingerprint3 = fingerprint(Customer.class);
+
+        assertFalse(MetaModelSnapshot.of(fingerprint1, new TreeMap<>()).matches(fingerprint2));
+        assertTrue(MetaModelSnapshot.of(fingerprint2, new TreeMap<>()).matches(fingerprint3));
+    }
+
+    @Test
+    void fingerprint_dependsOnFrameworkVersion_andIsEmptyIfUnknown() {
+        val fingerprint1 = MetaModelSnapshot.fingerprint(Stream.of(Customer.class), programmingModel, isisConfiguration, "1.0");
+        val fingerprint2 = MetaModelSnapshot.fingerprint(Stream.of(Customer.class), programmingModel, isisConfiguration, "1.1");
+
+        assertFalse(MetaModelSnapshot.of(fingerprint1.get(), new TreeMap<>()).matches(fingerprint2.get()));
+        assertFalse(MetaModelSnapshot.fingerprint(Stream.of(Customer.class), programmingModel, isisConfiguration, null)
+                .isPresent());
+    }
+
+    @Test
+    void fingerprint_coversInterfaces_andSkipsPrimitivesArraysAndJdkTypes() {
+        val fingerprint1 = fingerprint(Customer.class);
+        val fingerprint2 = fingerprint(Customer.class, Named.class, int.class, String[].class, Order[].class);
+        val fingerprint3 = fingerprint(Customer.class, Order.class);
+
+        // Named is reached via Customer anyway, Order via its array type
+        assertFalse(MetaModelSnapshot.of(fingerprint1, new TreeMap<>()).matches(fingerprint2));
+        assertTrue(MetaModelSnapshot.of(fingerprint2, new TreeMap<>()).matches(fingerprint3));
+    }
+
+    @Test
+    void writeThenRead() throws IOException {
+        val beanSortByClassName = new TreeMap<String, BeanSort>();
+        beanSortByClassName.put(Customer.class.getName(), BeanSort.ENTITY);
+        beanSortByClassName.put(Order.class.getName(), BeanSort.VIEW_MODEL);
+        val fingerprint = fingerprint(Customer.class, Order.class);
+
+        val file = tempDir.resolve("sub").resolve(MetaModelSnapshot.FILE_NAME);
+        MetaModelSnapshot.of(fingerprint, beanSortByClassName).write(file);
+
+        val snapshot = MetaModelSnapshot.read(file).get();
+        assertTrue(snapshot.matches(fingerprint));
+        assertEquals(beanSortByClassName, snapshot.getBeanSortByClassName());
+    }
+
+    @Test
+    void read_whenMissingOrForeignOrCorrupted() throws IOException {
+        val file = tempDir.resolve(MetaModelSnapshot.FILE_NAME);
+        assertFalse(MetaModelSnapshot.read(file).isPresent());
+
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertFalse(MetaModelSnapshot.read(file).isPresent());
+
+        MetaModelSnapshot.of(fingerprint(Customer.class), new TreeMap<>()).write(file);
+        val bytes = Files.readAllBytes(file);
+        val truncated = new byte[bytes.length - 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(file, truncated);
+        assertThrows(IOException.class, ()->MetaModelSnapshot.read(file));
+    }
+
+    // -- HELPER
+
+    private byte[] fingerprint(final Class<?>... types) {
+        return MetaModelSnapshot.fingerprint(Stream.of(types), programmingModel, isisConfiguration, "test").get();
+    }
+
+}
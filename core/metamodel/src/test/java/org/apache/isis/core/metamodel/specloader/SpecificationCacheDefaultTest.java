@@ -18,6 +18,17 @@
  */
 package org.apache.isis.core.metamodel.specloader;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 import org.jmock.Expectations;
 import org.jmock.auto.Mock;
 import org.junit.After;
@@ -33,6 +44,7 @@
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import lombok.val;
@@ -107,6 +119,91 @@ public void allSpecs_whenCached() {
         assertThat(allSpecs.size(), is(2));
     }
 
+    @Test
+    public void allSpecs_whenRemovedAfterSnapshot() {
+        specificationCache.computeIfAbsent(Customer.class, __->customerSpec);
+        specificationCache.computeIfAbsent(Order.class, __->orderSpec);
+
+        assertThat(specificationCache.snapshotSpecs().size(), is(2));
+
+        specificationCache.remove(Order.class);
+
+        val allSpecs = specificationCache.snapshotSpecs();
+
+        assertThat(allSpecs.size(), is(1));
+        assertSame(customerSpec, allSpecs.getFirstOrFail());
+    }
+
+    @Test
+    public void computeIfAbsent_whenCached_shouldNotRecompute() {
+        specificationCache.computeIfAbsent(Customer.class, __->customerSpec);
+
+        val spec = specificationCache.computeIfAbsent(Customer.class, __->{
+            throw new AssertionError("should not be called");
+        });
+
+        assertSame(customerSpec, spec);
+    }
+
+    @Test
+    public void computeIfAbsent_whenConcurrent_shouldJoinInFlightComputation() throws Exception {
+        val computationCount = new AtomicInteger();
+        val joiners = new Joiners(JOINER_COUNT);
+        try {
+            // computed by the test thread, while all joiners wait for it
+            val spec = specificationCache.computeIfAbsent(Customer.class, __->{
+                computationCount.incrementAndGet();
+                joiners.start(___->{
+                    computationCount.incrementAndGet();
+                    return orderSpec;
+                });
+                joiners.awaitWaiting();
+                return customerSpec;
+            });
+
+            assertSame(customerSpec, spec);
+            for(val joined : joiners.results) {
+                assertSame(customerSpec, joined.get(5, TimeUnit.SECONDS));
+            }
+            assertThat(computationCount.get(), is(1));
+            assertThat(specificationCache.snapshotSpecs().size(), is(1));
+        } finally {
+            joiners.executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void computeIfAbsent_whenConcurrentAndFailing_shouldFailJoiners_andAllowRetry() throws Exception {
+        val joiners = new Joiners(JOINER_COUNT);
+        val failure = new IllegalStateException("failed to create spec");
+        try {
+            try {
+                specificationCache.computeIfAbsent(Customer.class, __->{
+                    joiners.start(___->orderSpec);
+                    joiners.awaitWaiting();
+                    throw failure;
+                });
+                fail("expected failure");
+            } catch (IllegalStateException e) {
+                assertSame(failure, e);
+            }
+
+            for(val joined : joiners.results) {
+                try {
+                    joined.get(5, TimeUnit.SECONDS);
+                    fail("expected failure");
+                } catch (ExecutionException e) {
+                    assertSame(failure, e.getCause());
+                }
+            }
+        } finally {
+            joiners.executor.shutdownNow();
+        }
+
+        // no longer in-flight, so computed anew
+        assertSame(customerSpec, specificationCache.computeIfAbsent(Customer.class, __->customerSpec));
+    }
+
     @Test
     public void getByObjectType_whenNotSet() {
         val type = logicalTypeResolver.lookup(cus.getLogicalTypeName());
@@ -123,4 +220,43 @@ public void getByObjectType_whenSet() {
         assertSame(objectSpec, customerSpec);
     }
 
+    // -- HELPER
+
+    private static final int JOINER_COUNT = 4;
+
+    /**
+     * Threads that each request the customer spec, started while its computation is in-flight.
+     */
+    private class Joiners {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final List<Future<ObjectSpecification>> results = new ArrayList<>();
+        final ExecutorService executor;
+
+        Joiners(final int count) {
+            executor = Executors.newFixedThreadPool(count, runnable->{
+                val thread = new Thread(runnable);
+                thread.setDaemon(true);
+                threads.add(thread);
+                return thread;
+            });
+        }
+
+        void start(final Function<Class<?>, ObjectSpecification> mappingFunction) {
+            for(int i = 0; i < JOINER_COUNT; ++i) {
+                results.add(executor.submit(()->specificationCache.computeIfAbsent(Customer.class, mappingFunction)));
+            }
+        }
+
+        void awaitWaiting() {
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while(threads.size() < JOINER_COUNT
+                    || !threads.stream().allMatch(thread->thread.getState() == Thread.State.WAITING)) {
+                if(System.nanoTime() > deadline) {
+                    throw new AssertionError("expected all joiners to wait for the in-flight computation");
+                }
+                Thread.yield();
+            }
+        }
+    }
+
 }
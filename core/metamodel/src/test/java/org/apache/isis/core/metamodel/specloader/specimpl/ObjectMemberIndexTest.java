@@ -0,0 +1,149 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.id.LogicalType;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.collections.ImmutableEnumSet;
+import org.apache.isis.core.metamodel.spec.ActionType;
+import org.apache.isis.core.metamodel.spec.feature.MixedIn;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class ObjectMemberIndexTest {
+
+    static class Customer {}
+
+    private ObjectAssociation name;
+    private ObjectAssociation orders;
+    private ObjectAction placeOrder;
+    private ObjectAction resetPassword;
+    private ObjectAction mixedInAction;
+
+    private ObjectMemberIndex memberIndex;
+
+    @BeforeEach
+    void setUp() {
+        name = association("name", false);
+        orders = association("orders", true);
+        placeOrder = action("placeOrder", ActionType.USER, false, String.class);
+        resetPassword = action("resetPassword", ActionType.PROTOTYPE, false);
+        mixedInAction = action("mixedIn", ActionType.USER, true);
+
+        memberIndex = ObjectMemberIndex.of(
+                1,
+                Can.ofCollection(Arrays.asList(name, orders)),
+                Can.ofCollection(Arrays.asList(resetPassword, placeOrder, mixedInAction)));
+    }
+
+    @Test
+    void declaredAssociations() {
+        assertArrayEquals(new ObjectAssociation[] {name, orders},
+                memberIndex.getDeclaredAssociations(MixedIn.INCLUDED));
+        assertArrayEquals(new ObjectAssociation[] {name},
+                memberIndex.getDeclaredAssociations(MixedIn.EXCLUDED));
+
+        assertSame(orders, memberIndex.getDeclaredAssociation("orders").get());
+        assertFalse(memberIndex.getDeclaredAssociation("unknown").isPresent());
+        assertFalse(memberIndex.getDeclaredAssociation(null).isPresent());
+    }
+
+    @Test
+    void declaredActions_areOrderedByActionTypeThenMemberOrder() {
+        assertArrayEquals(new ObjectAction[] {placeOrder, mixedInAction, resetPassword},
+                memberIndex.getDeclaredActions(ActionType.ANY, MixedIn.INCLUDED));
+        assertArrayEquals(new ObjectAction[] {placeOrder, resetPassword},
+                memberIndex.getDeclaredActions(ActionType.ANY, MixedIn.EXCLUDED));
+        assertArrayEquals(new ObjectAction[] {placeOrder},
+                memberIndex.getDeclaredActions(ActionType.USER_ONLY, MixedIn.EXCLUDED));
+        assertEquals(0,
+                memberIndex.getDeclaredActions(
+                        ImmutableEnumSet.noneOf(ActionType.class),
+                        MixedIn.INCLUDED).length);
+    }
+
+    @Test
+    void declaredAction_byLogicalNameOrIdentityString() {
+        assertSame(placeOrder, memberIndex.getDeclaredAction("placeOrder", null).get());
+        assertSame(placeOrder, memberIndex.getDeclaredAction("placeOrder(java.lang.String)", null).get());
+        assertSame(placeOrder, memberIndex.getDeclaredAction("placeOrder", ActionType.USER).get());
+        assertFalse(memberIndex.getDeclaredAction("placeOrder", ActionType.PROTOTYPE).isPresent());
+        assertSame(resetPassword, memberIndex.getDeclaredAction("resetPassword()", ActionType.PROTOTYPE).get());
+        assertFalse(memberIndex.getDeclaredAction("unknown", null).isPresent());
+        assertFalse(memberIndex.getDeclaredAction(null, null).isPresent());
+    }
+
+    @Test
+    void inheritedMembers_areMemoizedPerCombination() {
+        assertNull(memberIndex.getInheritedAssociations(MixedIn.INCLUDED));
+        assertNull(memberIndex.getInheritedActions(ActionType.USER_ONLY, MixedIn.INCLUDED));
+
+        val associations = new ObjectAssociation[] {name};
+        val actions = new ObjectAction[] {placeOrder};
+        memberIndex.putInheritedAssociations(MixedIn.INCLUDED, associations);
+        memberIndex.putInheritedActions(ActionType.USER_ONLY, MixedIn.INCLUDED, actions);
+
+        assertSame(associations, memberIndex.getInheritedAssociations(MixedIn.INCLUDED));
+        assertNull(memberIndex.getInheritedAssociations(MixedIn.EXCLUDED));
+        assertSame(actions, memberIndex.getInheritedActions(ActionType.USER_ONLY, MixedIn.INCLUDED));
+        assertNull(memberIndex.getInheritedActions(ActionType.USER_ONLY, MixedIn.EXCLUDED));
+        assertNull(memberIndex.getInheritedActions(ActionType.ANY, MixedIn.INCLUDED));
+    }
+
+    // -- HELPER
+
+    private static ObjectAssociation association(final String id, final boolean mixedIn) {
+        val association = mixedIn
+                ? Mockito.mock(ObjectAssociation.class, Mockito.withSettings().extraInterfaces(MixedInMember.class))
+                : Mockito.mock(ObjectAssociation.class);
+        when(association.getId()).thenReturn(id);
+        return association;
+    }
+
+    private static ObjectAction action(
+            final String id,
+            final ActionType type,
+            final boolean mixedIn,
+            final Class<?>... parameterTypes) {
+        val action = mixedIn
+                ? Mockito.mock(ObjectAction.class, Mockito.withSettings().extraInterfaces(MixedInMember.class))
+                : Mockito.mock(ObjectAction.class);
+        when(action.getType()).thenReturn(type);
+        when(action.getIdentifier()).thenReturn(
+                Identifier.actionIdentifier(LogicalType.fqcn(Customer.class), id, parameterTypes));
+        return action;
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.services.metamodel.BeanSort;
+import org.apache.isis.applib.services.registry.ServiceRegistry;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.context.MetaModelContext;
+import org.apache.isis.core.metamodel.services.classsubstitutor.ClassSubstitutorRegistry;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.metamodel.specloader.facetprocessor.FacetProcessor;
+import org.apache.isis.core.metamodel.specloader.postprocessor.PostProcessor;
+import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class ObjectSpecificationAbstractTest_introspectUpTo {
+
+    static class Customer {}
+    static class Order {}
+
+    private MetaModelContext metaModelContext;
+
+    @BeforeEach
+    void setUp() {
+        metaModelContext = Mockito.mock(MetaModelContext.class);
+        when(metaModelContext.getConfiguration()).thenReturn(new IsisConfiguration(null));
+        when(metaModelContext.getServiceRegistry()).thenReturn(Mockito.mock(ServiceRegistry.class));
+        when(metaModelContext.getSpecificationLoader()).thenReturn(Mockito.mock(SpecificationLoader.class));
+    }
+
+    @Test
+    void concurrentCallers_shouldJoinInFlightIntrospection() throws InterruptedException {
+        val customerSpec = new SpecUnderTest(Customer.class);
+        customerSpec.blockMembersIntrospection();
+
+        val first = introspectInBackground(customerSpec);
+        customerSpec.awaitMembersIntrospectionStarted();
+
+        val second = introspectInBackground(customerSpec);
+        awaitWaiting(second);
+        assertTrue(customerSpec.isLessThan(IntrospectionState.FULLY_INTROSPECTED));
+
+        customerSpec.releaseMembersIntrospection();
+        first.join(5_000L);
+        second.join(5_000L);
+
+        assertFalse(first.isAlive());
+        assertFalse(second.isAlive());
+        assertFalse(customerSpec.isLessThan(IntrospectionState.FULLY_INTROSPECTED));
+        assertEquals(1, customerSpec.typeHierarchyIntrospectionCount.get());
+        assertEquals(1, customerSpec.membersIntrospectionCount.get());
+    }
+
+    @Test
+    void reentrantCall_shouldNotWait() {
+        val customerSpec = new SpecUnderTest(Customer.class);
+        customerSpec.onMembersIntrospection = ()->customerSpec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), ()->
+            customerSpec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED));
+
+        assertFalse(customerSpec.isLessThan(IntrospectionState.FULLY_INTROSPECTED));
+        assertEquals(1, customerSpec.membersIntrospectionCount.get());
+    }
+
+    @Test
+    void callerIntrospectingOtherSpec_shouldNotWait_soAsToNotDeadlockOnCyclicDependencies()
+            throws InterruptedException {
+        val customerSpec = new SpecUnderTest(Customer.class);
+        customerSpec.blockMembersIntrospection();
+        val orderSpec = new SpecUnderTest(Order.class);
+        val customerStateSeenByOrder = new IntrospectionState[1];
+        orderSpec.onMembersIntrospection = ()->{
+            customerSpec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
+            customerStateSeenByOrder[0] = customerSpec.introspectionState();
+        };
+
+        val first = introspectInBackground(customerSpec);
+        try {
+            customerSpec.awaitMembersIntrospectionStarted();
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), ()->
+                orderSpec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED));
+
+            assertEquals(IntrospectionState.MEMBERS_BEING_INTROSPECTED, customerStateSeenByOrder[0]);
+            assertFalse(orderSpec.isLessThan(IntrospectionState.FULLY_INTROSPECTED));
+        } finally {
+            customerSpec.releaseMembersIntrospection();
+            first.join(5_000L);
+        }
+        assertEquals(1, customerSpec.membersIntrospectionCount.get());
+    }
+
+    @Test
+    void failedIntrospection_shouldReleaseWaitingCallers() throws InterruptedException {
+        val customerSpec = new SpecUnderTest(Customer.class);
+        customerSpec.blockMembersIntrospection();
+        customerSpec.failMembersIntrospection = true;
+
+        val first = introspectInBackground(customerSpec);
+        customerSpec.awaitMembersIntrospectionStarted();
+        val second = introspectInBackground(customerSpec);
+        awaitWaiting(second);
+
+        customerSpec.releaseMembersIntrospection();
+        first.join(5_000L);
+        second.join(5_000L);
+
+        assertFalse(first.isAlive());
+        assertFalse(second.isAlive());
+        assertEquals(1, customerSpec.membersIntrospectionCount.get());
+    }
+
+    @Test
+    void failedIntrospection_shouldRestoreIntrospectionDepth() throws InterruptedException {
+        val orderSpec = new SpecUnderTest(Order.class);
+        orderSpec.failMembersIntrospection = true;
+        assertThrows(IllegalStateException.class, ()->
+            orderSpec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED));
+
+        val customerSpec = new SpecUnderTest(Customer.class);
+        customerSpec.blockMembersIntrospection();
+        val first = introspectInBackground(customerSpec);
+        customerSpec.awaitMembersIntrospectionStarted();
+
+        val testThread = Thread.currentThread();
+        val releaser = new Thread(()->{
+            try {
+                awaitWaiting(testThread);
+            } catch (InterruptedException | AssertionError e) {
+                // fall through, the assertion below fails
+            }
+            customerSpec.releaseMembersIntrospection();
+        });
+        releaser.setDaemon(true);
+        releaser.start();
+
+        // if the depth had not been restored, would not wait, but see the spec still being introspected
+        customerSpec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
+
+        assertFalse(customerSpec.isLessThan(IntrospectionState.FULLY_INTROSPECTED));
+        first.join(5_000L);
+        releaser.join(5_000L);
+    }
+
+    // -- HELPER
+
+    private class SpecUnderTest extends ObjectSpecificationDefault {
+
+        final AtomicInteger typeHierarchyIntrospectionCount = new AtomicInteger();
+        final AtomicInteger membersIntrospectionCount = new AtomicInteger();
+        final CountDownLatch membersIntrospectionStarted = new CountDownLatch(1);
+        volatile CountDownLatch membersIntrospectionReleased = new CountDownLatch(0);
+        volatile Runnable onMembersIntrospection = ()->{};
+        volatile boolean failMembersIntrospection;
+
+        SpecUnderTest(final Class<?> correspondingClass) {
+            super(correspondingClass, BeanSort.VIEW_MODEL, metaModelContext,
+                    Mockito.mock(FacetProcessor.class), null,
+                    Mockito.mock(PostProcessor.class), Mockito.mock(ClassSubstitutorRegistry.class));
+        }
+
+        void blockMembersIntrospection() {
+            membersIntrospectionReleased = new CountDownLatch(1);
+        }
+
+        void releaseMembersIntrospection() {
+            membersIntrospectionReleased.countDown();
+        }
+
+        void awaitMembersIntrospectionStarted() throws InterruptedException {
+            assertTrue(membersIntrospectionStarted.await(5, TimeUnit.SECONDS));
+        }
+
+        IntrospectionState introspectionState() {
+            return Stream.of(IntrospectionState.values())
+                    .filter(state->!isLessThan(state))
+                    .reduce((a, b)->b)
+                    .orElseThrow(IllegalStateException::new);
+        }
+
+        @Override
+        protected void introspectTypeHierarchy() {
+            typeHierarchyIntrospectionCount.incrementAndGet();
+        }
+
+        @Override
+        protected void introspectMembers() {
+            membersIntrospectionCount.incrementAndGet();
+            membersIntrospectionStarted.countDown();
+            try {
+                assertTrue(membersIntrospectionReleased.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            onMembersIntrospection.run();
+            if(failMembersIntrospection) {
+                throw new IllegalStateException("failed to introspect " + getFullIdentifier());
+            }
+        }
+    }
+
+    private static Thread introspectInBackground(final ObjectSpecificationAbstract spec) {
+        val thread = new Thread(()->{
+            try {
+                spec.introspectUpTo(IntrospectionState.FULLY_INTROSPECTED);
+            } catch (IllegalStateException e) {
+                // expected, if so configured
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(final Thread thread) throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "expected thread to wait for the in-flight introspection");
+            Thread.sleep(1L);
+        }
+    }
+
+}
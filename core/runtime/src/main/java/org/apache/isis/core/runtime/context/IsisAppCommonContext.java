@@ -26,6 +26,7 @@
 import org.apache.isis.applib.services.inject.ServiceInjector;
 import org.apache.isis.applib.services.menu.MenuBarsService;
 import org.apache.isis.applib.services.registry.ServiceRegistry;
+import org.apache.isis.commons.collections.Can;
 import org.apache.isis.core.config.IsisConfiguration;
 import org.apache.isis.core.config.viewer.wicket.WebAppContextPath;
 import org.apache.isis.core.interaction.session.InteractionTracker;
@@ -116,6 +117,10 @@ public ManagedObject reconstructObject(ObjectMemento memento) {
         return getMementoService().reconstructObject(memento);
     }
 
+    public Can<ManagedObject> reconstructObjects(Can<ObjectMemento> mementos) {
+        return getMementoService().reconstructObjects(mementos);
+    }
+
     // -- COMMON CONTEXT PROVIDER INTERFACE
 
     public static interface Provider {
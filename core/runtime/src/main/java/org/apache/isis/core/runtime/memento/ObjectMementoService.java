@@ -20,6 +20,7 @@
 
 import org.apache.isis.applib.id.LogicalType;
 import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.commons.collections.Can;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 
 import lombok.NonNull;
@@ -39,6 +40,16 @@ public interface ObjectMementoService {
 
     ManagedObject reconstructObject(ObjectMemento memento);
 
+    /**
+     * Bulk variant of {@link #reconstructObject(ObjectMemento)}, by default reconstructing the
+     * objects one by one; implementations are encouraged to load entities in bulk.
+     * @return the objects in the order of the given {@code mementos}, skipping those that cannot be
+     *      reconstructed
+     */
+    default Can<ManagedObject> reconstructObjects(Can<ObjectMemento> mementos) {
+        return mementos.map(this::reconstructObject);
+    }
+
     ObjectMemento mementoForParameter(@NonNull ManagedObject paramAdapter);
 
 
@@ -44,11 +44,13 @@
 import org.apache.isis.core.runtimeservices.menubars.MenuBarsLoaderServiceDefault;
 import org.apache.isis.core.runtimeservices.menubars.bootstrap3.MenuBarsServiceBS3;
 import org.apache.isis.core.runtimeservices.message.MessageServiceDefault;
+import org.apache.isis.core.runtimeservices.publish.AsyncPublishingPipeline;
 import org.apache.isis.core.runtimeservices.publish.CommandPublisherDefault;
 import org.apache.isis.core.runtimeservices.publish.EntityChangesPublisherDefault;
 import org.apache.isis.core.runtimeservices.publish.EntityPropertyChangePublisherDefault;
 import org.apache.isis.core.runtimeservices.publish.ExecutionPublisherDefault;
 import org.apache.isis.core.runtimeservices.queryresultscache.QueryResultsCacheDefault;
+import org.apache.isis.core.runtimeservices.queryresultscache.QueryResultsCacheShared;
 import org.apache.isis.core.runtimeservices.recognizer.ExceptionRecognizerServiceDefault;
 import org.apache.isis.core.runtimeservices.recognizer.dae.ExceptionRecognizerForDataAccessException;
 import org.apache.isis.core.runtimeservices.repository.RepositoryServiceDefault;
@@ -58,6 +60,7 @@
 import org.apache.isis.core.runtimeservices.sudo.SudoServiceDefault;
 import org.apache.isis.core.runtimeservices.transaction.TransactionServiceSpring;
 import org.apache.isis.core.runtimeservices.urlencoding.UrlEncodingServiceWithCompression;
+import org.apache.isis.core.runtimeservices.urlencoding.ViewModelMementoStoreInMemory;
 import org.apache.isis.core.runtimeservices.user.ImpersonateMenuAdvisorDefault;
 import org.apache.isis.core.runtimeservices.user.ImpersonatedUserHolderDefault;
 import org.apache.isis.core.runtimeservices.user.UserServiceDefault;
@@ -73,6 +76,7 @@
         IsisModuleCoreCodegenByteBuddy.class,
 
         // @Service's
+        AsyncPublishingPipeline.class,
         BookmarkServiceDefault.class,
         EntityChangesPublisherDefault.class,
         EntityPropertyChangePublisherDefault.class,
@@ -98,11 +102,13 @@
         MenuBarsServiceBS3.class,
         MessageServiceDefault.class,
         QueryResultsCacheDefault.class,
+        QueryResultsCacheShared.class,
         ScratchpadDefault.class,
         SudoServiceDefault.class,
         TransactionServiceSpring.class,
         UrlEncodingServiceWithCompression.class,
         UserServiceDefault.class,
+        ViewModelMementoStoreInMemory.class,
         WrapperFactoryDefault.class,
         XmlServiceDefault.class,
         XmlSnapshotServiceDefault.class,
@@ -59,6 +59,8 @@
 import org.apache.isis.core.metamodel.objectmanager.ObjectManager;
 import org.apache.isis.core.metamodel.services.events.MetamodelEventService;
 import org.apache.isis.core.metamodel.services.ixn.InteractionDtoFactory;
+import org.apache.isis.core.metamodel.services.metrics.FlightRecorderEvents;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.services.publishing.ExecutionPublisher;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ManagedObjects;
@@ -92,6 +94,7 @@
     private final @Getter Provider<ExecutionPublisher> executionPublisher;
     private final @Getter MetamodelEventService metamodelEventService;
     private final @Getter TransactionService transactionService;
+    private final Optional<MetricsRecorder> metricsRecorderIfAny;
 
     @Override
     public Optional<InteractionInternal> getInteraction() {
@@ -144,6 +147,10 @@ public ManagedObject invokeAction(
                 actionExecutorFactory.createExecutor(
                         owningAction, head, argumentAdapters);
 
+        val metricsRecorder = metricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+        val flightRecorderEvent = FlightRecorderEvents.beginActionInvocation();
+
         // sets up startedAt and completedAt on the execution, also manages the execution call graph
         interaction.execute(memberExecution, actionInvocation, clockService, metricsService.get(), command);
 
@@ -151,6 +158,17 @@ public ManagedObject invokeAction(
         final Execution<ActionInvocationDto, ?> priorExecution =
                 _Casts.uncheckedCast(interaction.getPriorExecution());
 
+        if(metricsRecorder.isEnabled()) {
+            metricsRecorder.recordActionInvocation(
+                    actionId, System.nanoTime() - startedAtNanos, priorExecution.getThrew() != null);
+        }
+        flightRecorderEvent
+            .interactionId(interaction.getInteractionId())
+            .member(actionId)
+            .user(command.getUsername())
+            .failed(priorExecution.getThrew() != null)
+            .end();
+
         val executionExceptionIfAny = priorExecution.getThrew();
 
         // TODO: should also sync DTO's 'threw' attribute here...?
@@ -216,12 +234,27 @@ public ManagedObject setOrClearProperty(
                 .createExecutor(owningProperty, head, newValueAdapter,
                         interactionInitiatedBy, editingVariant);
 
+        val metricsRecorder = metricsRecorder();
+        val startedAtNanos = metricsRecorder.isEnabled() ? System.nanoTime() : 0L;
+        val flightRecorderEvent = FlightRecorderEvents.beginPropertyEdit();
+
         // sets up startedAt and completedAt on the execution, also manages the execution call graph
         val targetPojo = interaction.execute(executor, propertyEdit, clockService, metricsService.get(), command);
 
         // handle any exceptions
         final Execution<?, ?> priorExecution = interaction.getPriorExecution();
 
+        if(metricsRecorder.isEnabled()) {
+            metricsRecorder.recordPropertyEdit(
+                    propertyId, System.nanoTime() - startedAtNanos, priorExecution.getThrew() != null);
+        }
+        flightRecorderEvent
+            .interactionId(interaction.getInteractionId())
+            .member(propertyId)
+            .user(command.getUsername())
+            .failed(priorExecution.getThrew() != null)
+            .end();
+
         // TODO: should also sync DTO's 'threw' attribute here...?
 
         val executionExceptionIfAny = priorExecution.getThrew();
@@ -245,6 +278,10 @@ public ManagedObject setOrClearProperty(
 
     // -- HELPER
 
+    private MetricsRecorder metricsRecorder() {
+        return metricsRecorderIfAny.orElse(MetricsRecorder.NOOP);
+    }
+
     private static String targetNameFor(ObjectAction owningAction, ManagedObject mixedInAdapter) {
         return ObjectAction.Util.targetNameFor(owningAction, mixedInAdapter)
                 .orElseGet(()->CommandUtil.targetMemberNameFor(owningAction));
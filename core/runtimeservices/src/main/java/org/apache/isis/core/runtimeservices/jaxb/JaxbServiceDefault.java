@@ -18,6 +18,7 @@
  */
 package org.apache.isis.core.runtimeservices.jaxb;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -65,6 +66,7 @@ protected JAXBContext jaxbContextForObject(final @NonNull Object domainObject) {
         if(domainObject instanceof DomainObjectList) {
             val domainClass = domainObject.getClass();
             val domainObjectList = (DomainObjectList) domainObject;
+            val useCache = true;
             try {
                 val elementType = specificationLoader
                         .specForType(_Context.loadClass(domainObjectList.getElementTypeFqcn()))
@@ -73,9 +75,9 @@ protected JAXBContext jaxbContextForObject(final @NonNull Object domainObject) {
                 if (elementType!=null
                         && elementType.getAnnotation(XmlJavaTypeAdapter.class) == null) {
 
-                    return JAXBContext.newInstance(domainClass, elementType);
+                    return _Xml.jaxbContextFor(Arrays.<Class<?>>asList(domainClass, elementType), useCache);
                 } else {
-                    return JAXBContext.newInstance(domainClass);
+                    return _Xml.jaxbContextFor(domainClass, useCache);
                 }
             } catch (Exception e) {
                 throw _Xml.verboseException("obtaining JAXBContext for a DomainObjectList", domainClass, e);
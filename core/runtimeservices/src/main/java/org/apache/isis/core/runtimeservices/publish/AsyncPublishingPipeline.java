@@ -0,0 +1,200 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.publish;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.applib.services.publishing.spi.AsyncSubscriber;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Asynchronous, batched delivery of published events to those subscribers that opted in by implementing
+ * {@link AsyncSubscriber}, as used by {@link ExecutionPublisherDefault}, {@link CommandPublisherDefault} and
+ * {@link EntityChangesPublisherDefault}.
+ * <p>
+ * Each such subscriber gets its own bounded queue and dispatcher thread, so a slow subscriber neither adds
+ * to the latency of interactions nor holds up other subscribers. Events are delivered in the order published,
+ * hence also in order per interaction.
+ * <p>
+ * On shutdown, queued events are flushed to their subscribers before the application context closes.
+ *
+ * @since 2.0
+ */
+@Service
+@Named("isis.runtimeservices.AsyncPublishingPipeline")
+@Order(OrderPrecedence.MIDPOINT)
+@Qualifier("Default")
+@Log4j2
+public class AsyncPublishingPipeline {
+
+    private final IsisConfiguration.Core.RuntimeServices.Publishing.Async config;
+    private final MetricsRecorder metricsRecorder;
+    private final Map<ChannelKey, _AsyncPublishingChannel<?>> channels = new ConcurrentHashMap<>();
+
+    @Inject
+    public AsyncPublishingPipeline(
+            final IsisConfiguration isisConfiguration,
+            final Optional<MetricsRecorder> metricsRecorderIfAny) {
+        this.config = isisConfiguration.getCore().getRuntimeServices().getPublishing().getAsync();
+        this.metricsRecorder = metricsRecorderIfAny.orElse(MetricsRecorder.NOOP);
+    }
+
+    /**
+     * @param kind - distinguishes the SPIs of subscribers that implement more than one
+     * @param subscriber - to deliver to
+     * @param singleDelivery - the subscriber's callback for synchronous delivery
+     * @param batchDelivery - the subscriber's batch callback for asynchronous delivery
+     * @return a consumer that either delivers synchronously or enqueues for asynchronous delivery,
+     * depending on whether the subscriber {@link #isAsync(Object) opted in}, timing the subscriber's
+     * callbacks if metrics are enabled
+     */
+    public <S, T> Consumer<T> notifierFor(
+            final @NonNull String kind,
+            final @NonNull S subscriber,
+            final @NonNull BiConsumer<S, T> singleDelivery,
+            final @NonNull BiConsumer<S, List<T>> batchDelivery) {
+        if(isAsync(subscriber)) {
+            return channelFor(kind, subscriber, timed(batchDelivery));
+        }
+        val delivery = timed(singleDelivery);
+        return event->delivery.accept(subscriber, event);
+    }
+
+    /**
+     * @return whether given subscriber opted in to asynchronous delivery
+     */
+    public boolean isAsync(final @NonNull Object subscriber) {
+        return subscriber instanceof AsyncSubscriber
+                && ((AsyncSubscriber) subscriber).isAsyncDeliveryEnabled();
+    }
+
+    /**
+     * @param kind - distinguishes the SPIs of subscribers that implement more than one
+     * @param subscriber - to deliver to
+     * @param batchDelivery - the subscriber's batch callback
+     * @return a consumer that enqueues events for asynchronous delivery to the subscriber
+     */
+    public <S, T> Consumer<T> channelFor(
+            final @NonNull String kind,
+            final @NonNull S subscriber,
+            final @NonNull BiConsumer<S, List<T>> batchDelivery) {
+
+        @SuppressWarnings("unchecked")
+        final _AsyncPublishingChannel<T> channel = (_AsyncPublishingChannel<T>) channels.computeIfAbsent(
+                new ChannelKey(kind, subscriber),
+                key->{
+                    final String name = kind + "-" + subscriber.getClass().getSimpleName();
+                    log.info("starting asynchronous delivery for {}", name);
+                    return new _AsyncPublishingChannel<T>(
+                            name,
+                            events->batchDelivery.accept(subscriber, events),
+                            config.getQueueCapacity(),
+                            config.getBatchSize(),
+                            config.getBackpressure());
+                });
+        return channel::publish;
+    }
+
+    // -- METRICS
+
+    @Value
+    public static class ChannelStats {
+        private final String name;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long publishedCount;
+        private final long deliveredCount;
+        private final long droppedCount;
+        private final long failedCount;
+        private final long lastLagMillis;
+        private final long maxLagMillis;
+    }
+
+    /**
+     * @return queue-depth, lag and delivery counters, one per subscriber with asynchronous delivery
+     */
+    public Can<ChannelStats> getChannelStats() {
+        return Can.ofCollection(channels.values())
+                .map(channel->new ChannelStats(
+                        channel.getName(),
+                        channel.getQueueDepth(),
+                        channel.getQueueCapacity(),
+                        channel.getPublishedCount(),
+                        channel.getDeliveredCount(),
+                        channel.getDroppedCount(),
+                        channel.getFailedCount(),
+                        channel.getLastLagMillis(),
+                        channel.getMaxLagMillis()));
+    }
+
+    // -- SHUTDOWN
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        val deadline = System.currentTimeMillis() + config.getShutdownTimeout().toMillis();
+        channels.values().forEach(channel->{
+            channel.close(deadline - System.currentTimeMillis());
+            log.info("flushed asynchronous delivery for {}", channel.getName());
+        });
+    }
+
+    // -- HELPER
+
+    private <S, T> BiConsumer<S, T> timed(final BiConsumer<S, T> delivery) {
+        if(!metricsRecorder.isEnabled()) {
+            return delivery;
+        }
+        return (subscriber, payload)->{
+            val startedAtNanos = System.nanoTime();
+            try {
+                delivery.accept(subscriber, payload);
+            } finally {
+                metricsRecorder.recordSubscriberPublishing(subscriber.getClass(), System.nanoTime() - startedAtNanos);
+            }
+        };
+    }
+
+    @Value
+    private static class ChannelKey {
+        private final String kind;
+        private final Object subscriber;
+    }
+
+}
@@ -19,6 +19,7 @@
 package org.apache.isis.core.runtimeservices.publish;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
@@ -54,13 +55,16 @@ public class CommandPublisherDefault implements CommandPublisher {
 
     private final List<CommandSubscriber> subscribers;
     private final InteractionTracker iaTracker;
+    private final AsyncPublishingPipeline asyncPublishingPipeline;
 
     private Can<CommandSubscriber> enabledSubscribers = Can.empty();
+    private Can<Consumer<Command>> notifiers = Can.empty();
 
     @PostConstruct
     public void init() {
         enabledSubscribers = Can.ofCollection(subscribers)
                 .filter(HasEnabling::isEnabled);
+        notifiers = enabledSubscribers.map(this::notifierFor);
     }
 
     @Override
@@ -74,7 +78,7 @@ public void complete(final @NonNull Command command) {
 
         if(canPublish(command)) {
             log.debug("about to PUBLISH command: {} to {}", command, enabledSubscribers);
-            enabledSubscribers.forEach(subscriber -> subscriber.onCompleted(command));
+            notifiers.forEach(notifier -> notifier.accept(command));
         }
 
         _Xray.exitPublishing(handle);
@@ -82,6 +86,11 @@ public void complete(final @NonNull Command command) {
 
     // -- HELPER
 
+    private Consumer<Command> notifierFor(final CommandSubscriber subscriber) {
+        return asyncPublishingPipeline.notifierFor(
+                "command", subscriber, CommandSubscriber::onCompleted, CommandSubscriber::onCommandsCompleted);
+    }
+
     private boolean canPublish(final Command command) {
         return enabledSubscribers.isNotEmpty()
                 && command.isPublishingEnabled()
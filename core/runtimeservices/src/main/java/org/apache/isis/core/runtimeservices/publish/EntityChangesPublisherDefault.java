@@ -20,6 +20,7 @@
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
@@ -59,13 +60,16 @@ public class EntityChangesPublisherDefault implements EntityChangesPublisher {
     private final ClockService clockService;
     private final UserService userService;
     private final InteractionTracker iaTracker;
+    private final AsyncPublishingPipeline asyncPublishingPipeline;
 
     private Can<EntityChangesSubscriber> enabledSubscribers = Can.empty();
+    private Can<Consumer<EntityChanges>> notifiers = Can.empty();
 
     @PostConstruct
     public void init() {
         enabledSubscribers = Can.ofCollection(subscribers)
                 .filter(HasEnabling::isEnabled);
+        notifiers = enabledSubscribers.map(this::notifierFor);
     }
 
     @Override
@@ -79,9 +83,7 @@ public void publishChangingEntities(HasEnlistedEntityChanges hasEnlistedEntityCh
                 ()->getCannotPublishReason(payload));
 
         payload.ifPresent(entityChanges->{
-            for (val subscriber : enabledSubscribers) {
-                subscriber.onChanging(entityChanges);
-            }
+            notifiers.forEach(notifier->notifier.accept(entityChanges));
         });
 
         _Xray.exitPublishing(handle);
@@ -89,6 +91,11 @@ public void publishChangingEntities(HasEnlistedEntityChanges hasEnlistedEntityCh
 
     // -- HELPER
 
+    private Consumer<EntityChanges> notifierFor(final EntityChangesSubscriber subscriber) {
+        return asyncPublishingPipeline.notifierFor(
+                "entity-changes", subscriber, EntityChangesSubscriber::onChanging, EntityChangesSubscriber::onEntitiesChanging);
+    }
+
     private Optional<EntityChanges> getPayload(HasEnlistedEntityChanges hasEnlistedEntityChanges) {
         return enabledSubscribers.isEmpty()
                 ? Optional.empty()
@@ -19,6 +19,7 @@
 package org.apache.isis.core.runtimeservices.publish;
 
 import java.util.List;
+import java.util.Optional;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
@@ -40,6 +41,7 @@
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.having.HasEnabling;
 import org.apache.isis.core.interaction.session.InteractionTracker;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.transaction.changetracking.EntityPropertyChangePublisher;
 import org.apache.isis.core.transaction.changetracking.HasEnlistedEntityPropertyChanges;
 
@@ -61,6 +63,7 @@ public class EntityPropertyChangePublisherDefault implements EntityPropertyChang
     private final ClockService clockService;
     private final TransactionService transactionService;
     private final InteractionTracker iaTracker;
+    private final Optional<MetricsRecorder> metricsRecorderIfAny;
 
     private Can<EntityPropertyChangeSubscriber> enabledSubscribers = Can.empty();
 
@@ -82,9 +85,16 @@ public void publishChangedProperties(
                 ()->getCannotPublishReason(payload)
                 );
 
+        val metricsRecorder = metricsRecorderIfAny.orElse(MetricsRecorder.NOOP);
         payload.forEach(propertyChange->{
             for (val subscriber : enabledSubscribers) {
-                subscriber.onChanging(propertyChange);
+                if(metricsRecorder.isEnabled()) {
+                    val startedAtNanos = System.nanoTime();
+                    subscriber.onChanging(propertyChange);
+                    metricsRecorder.recordSubscriberPublishing(subscriber.getClass(), System.nanoTime() - startedAtNanos);
+                } else {
+                    subscriber.onChanging(propertyChange);
+                }
             }
         });
 
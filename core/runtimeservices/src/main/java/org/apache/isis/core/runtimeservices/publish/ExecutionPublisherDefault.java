@@ -21,6 +21,7 @@
 
 import java.util.List;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -58,13 +59,16 @@
 
     private final List<ExecutionSubscriber> subscribers;
     private final InteractionTracker iaTracker;
+    private final AsyncPublishingPipeline asyncPublishingPipeline;
 
     private Can<ExecutionSubscriber> enabledSubscribers = Can.empty();
+    private Can<Consumer<Execution<?,?>>> notifiers = Can.empty();
 
     @PostConstruct
     public void init() {
         enabledSubscribers = Can.ofCollection(subscribers)
                 .filter(HasEnabling::isEnabled);
+        notifiers = enabledSubscribers.map(this::notifierFor);
     }
 
     @Override
@@ -98,15 +102,18 @@ private void notifySubscribers(final Execution<?,?> execution) {
                 this::getCannotPublishReason);
 
         if(canPublish()) {
-            for (val subscriber : enabledSubscribers) {
-                subscriber.onExecution(execution);
-            }
+            notifiers.forEach(notifier->notifier.accept(execution));
         }
 
         _Xray.exitPublishing(handle);
 
     }
 
+    private Consumer<Execution<?,?>> notifierFor(final ExecutionSubscriber subscriber) {
+        return asyncPublishingPipeline.notifierFor(
+                "execution", subscriber, ExecutionSubscriber::onExecution, ExecutionSubscriber::onExecutions);
+    }
+
     private final LongAdder suppressionRequestCounter = new LongAdder();
 
     private boolean canPublish() {
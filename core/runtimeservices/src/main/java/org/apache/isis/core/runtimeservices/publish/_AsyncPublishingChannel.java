@@ -0,0 +1,269 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.publish;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.isis.core.config.IsisConfiguration.Core.RuntimeServices.Publishing.Async.Backpressure;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Bounded queue of events for a single subscriber, drained in batches by a dedicated dispatcher thread.
+ * <p>
+ * Batches are taken off the queue and delivered while holding the delivery lock, so that events are
+ * delivered in the order enqueued, also when the publishing thread has to help out with delivery
+ * ({@link Backpressure#CALLER_RUNS}) or once the channel has been closed.
+ *
+ * @since 2.0
+ */
+@Log4j2
+final class _AsyncPublishingChannel<T> {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    @Getter private final @NonNull String name;
+    private final @NonNull Consumer<List<T>> batchDelivery;
+    private final @NonNull Backpressure backpressure;
+    private final int batchSize;
+    @Getter private final int queueCapacity;
+
+    private final BlockingQueue<Envelope<T>> queue;
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    private final Thread dispatcher;
+    private volatile boolean closed = false;
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private volatile long lastLagNanos = 0L;
+    private volatile long maxLagNanos = 0L;
+
+    _AsyncPublishingChannel(
+            final @NonNull String name,
+            final @NonNull Consumer<List<T>> batchDelivery,
+            final int queueCapacity,
+            final int batchSize,
+            final @NonNull Backpressure backpressure) {
+        this.name = name;
+        this.batchDelivery = batchDelivery;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.backpressure = backpressure;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dispatcher = new Thread(this::dispatch, "isis-async-publishing-" + name);
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Enqueues given event for asynchronous delivery, applying the configured {@link Backpressure}
+     * if the queue is full. Once closed, delivers on the calling thread instead.
+     */
+    void publish(final @NonNull T event) {
+        publishedCount.increment();
+        val envelope = new Envelope<T>(event, System.nanoTime());
+        if(closed) {
+            deliverInPlace(envelope);
+            return;
+        }
+        if(!queue.offer(envelope)) {
+            switch (backpressure) {
+            case DROP:
+                droppedCount.increment();
+                if(log.isDebugEnabled()) {
+                    log.debug("queue of {} is full, dropping event", name);
+                }
+                return;
+            case CALLER_RUNS:
+                do {
+                    deliverBatch();
+                } while(!queue.offer(envelope));
+                break;
+            case BLOCK:
+            default:
+                try {
+                    queue.put(envelope);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    deliverInPlace(envelope);
+                    return;
+                }
+                break;
+            }
+        }
+        if(closed) {
+            // closed concurrently, so the dispatcher might not pick this up anymore
+            flush();
+        }
+    }
+
+    /**
+     * Stops the dispatcher, waiting at most given timeout for it to deliver what is queued; any remaining
+     * events are then delivered on the calling thread, as are any events published afterwards.
+     */
+    void close(final long timeoutMillis) {
+        closed = true;
+        try {
+            dispatcher.join(Math.max(1L, timeoutMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(dispatcher.isAlive()) {
+            log.warn("dispatcher of {} did not complete within {}ms, delivering remaining {} events in place",
+                    name, timeoutMillis, queue.size());
+        }
+        flush();
+    }
+
+    // -- METRICS
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    long getPublishedCount() {
+        return publishedCount.longValue();
+    }
+
+    long getDeliveredCount() {
+        return deliveredCount.longValue();
+    }
+
+    long getDroppedCount() {
+        return droppedCount.longValue();
+    }
+
+    long getFailedCount() {
+        return failedCount.longValue();
+    }
+
+    /**
+     * @return time the oldest event of the most recently delivered batch had been waiting in the queue
+     */
+    long getLastLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastLagNanos);
+    }
+
+    long getMaxLagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLagNanos);
+    }
+
+    // -- HELPER
+
+    private void dispatch() {
+        while(!closed || !queue.isEmpty()) {
+            try {
+                awaitAndDeliverBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void awaitAndDeliverBatch() throws InterruptedException {
+        deliveryLock.lockInterruptibly();
+        try {
+            val first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if(first != null) {
+                deliverBatchStartingWith(first);
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    private void deliverBatch() {
+        deliveryLock.lock();
+        try {
+            val first = queue.poll();
+            if(first != null) {
+                deliverBatchStartingWith(first);
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    private void flush() {
+        while(!queue.isEmpty()) {
+            deliverBatch();
+        }
+    }
+
+    /**
+     * Takes given event together with whatever else is queued (up to the batch size)
+     * and delivers these as a batch; to be called while holding the delivery lock.
+     */
+    private void deliverBatchStartingWith(final Envelope<T> first) {
+        val envelopes = new ArrayList<Envelope<T>>(Math.min(batchSize, queue.size() + 1));
+        envelopes.add(first);
+        queue.drainTo(envelopes, batchSize - 1);
+        deliver(envelopes);
+    }
+
+    private void deliverInPlace(final Envelope<T> envelope) {
+        deliveryLock.lock();
+        try {
+            val envelopes = new ArrayList<Envelope<T>>(queue.size() + 1);
+            queue.drainTo(envelopes); // preserve order with respect to anything still queued
+            envelopes.add(envelope);
+            deliver(envelopes);
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    private void deliver(final List<Envelope<T>> envelopes) {
+        val lagNanos = System.nanoTime() - envelopes.get(0).getEnqueuedAtNanos();
+        lastLagNanos = lagNanos;
+        if(lagNanos > maxLagNanos) {
+            maxLagNanos = lagNanos;
+        }
+        val events = new ArrayList<T>(envelopes.size());
+        envelopes.forEach(envelope->events.add(envelope.getEvent()));
+        try {
+            batchDelivery.accept(events);
+            deliveredCount.add(events.size());
+        } catch (Exception e) {
+            failedCount.add(events.size());
+            log.error("failed to deliver batch of {} events to {}", events.size(), name, e);
+        }
+    }
+
+    @Value
+    private static class Envelope<T> {
+        private final T event;
+        private final long enqueuedAtNanos;
+    }
+
+}
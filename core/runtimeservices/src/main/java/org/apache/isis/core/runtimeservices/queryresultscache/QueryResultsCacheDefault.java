@@ -19,6 +19,7 @@
 package org.apache.isis.core.runtimeservices.queryresultscache;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 import javax.inject.Named;
@@ -39,9 +40,11 @@
 import org.apache.isis.applib.services.queryresultscache.MethodReferences.Call5;
 import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheControl;
 import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
+import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.internal.base._Casts;
 import org.apache.isis.commons.internal.base._NullSafe;
 import org.apache.isis.commons.internal.collections._Maps;
+import org.apache.isis.core.transaction.changetracking.EntityChangeTracker;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -53,6 +56,11 @@
  * repository call many times within a loop - to be performance tuned.  The
  * benefit is that the algorithm of the business logic can remain easy to
  * understand.
+ *
+ * <p>
+ * Queries executed via {@link #executeShared(Callable, Class[], Class, String, Object...)} are optionally
+ * backed by an application scoped {@link QueryResultsCacheShared}.
+ * </p>
  */
 @Service
 @Named("isis.runtimeservices.QueryResultsCacheDefault")
@@ -140,14 +148,63 @@ public <T> T execute(
         return executeWithCaching(callable, cacheKey);
     }
 
+    @Override
+    public <T> T executeShared(
+            final Callable<T> callable,
+            final Class<?>[] dependentTypes,
+            final Class<?> callingClass,
+            final String methodName,
+            final Object... keys) {
+        if(_NullSafe.isEmpty(dependentTypes)) {
+            throw new IllegalArgumentException(
+                    String.format("%s#%s: a shared query must declare the entity types it depends on",
+                            callingClass.getName(), methodName));
+        }
+        if(isIgnoreCache()) {
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        final Key cacheKey = new Key(callingClass, methodName, keys);
+        return executeWithCaching(callable, cacheKey, Can.ofArray(dependentTypes));
+    }
+
     private <T> T executeWithCaching(final Callable<T> callable, final Key cacheKey) {
+        return executeWithCaching(callable, cacheKey, Can.empty());
+    }
+
+    /**
+     * @param dependentTypes - if empty, the result is not shared with other interactions
+     */
+    private <T> T executeWithCaching(final Callable<T> callable, final Key cacheKey, final Can<Class<?>> dependentTypes) {
         try {
             final Value<?> cacheValue = cache.get(cacheKey);
             logHitOrMiss(cacheKey, cacheValue);
             if(cacheValue != null) {
+                recognizeLookup(true);
                 return _Casts.uncheckedCast(cacheValue.getResult());
             }
 
+            // not yet cached for this interaction, so consult the shared cache (if enabled)...
+            final Optional<Key> sharedKey = dependentTypes.isEmpty()
+                    ? Optional.empty()
+                    : sharedCacheKeyFor(cacheKey);
+            if(sharedKey.isPresent()) {
+                final Optional<Value<?>> sharedValue = queryResultsCacheShared.lookup(sharedKey.get());
+                if(sharedValue.isPresent()) {
+                    recognizeLookup(true);
+                    final T result = _Casts.uncheckedCast(sharedValue.get().getResult());
+                    put(cacheKey, result);
+                    return result;
+                }
+            }
+            recognizeLookup(false);
+            final long generation = sharedKey.isPresent()
+                    ? queryResultsCacheShared.currentGeneration()
+                    : 0L;
+
             // cache miss, so get the result...
             T result = callable.call();
 
@@ -159,6 +216,12 @@ private <T> T executeWithCaching(final Callable<T> callable, final Key cacheKey)
             // note: there's no need for thread-safety synchronization... remember that QueryResultsCache is @RequestScoped
             put(cacheKey, result);
 
+            // results that might reflect changes not yet committed must not be shared
+            if(sharedKey.isPresent()
+                    && !hasEnlistedEntities()) {
+                queryResultsCacheShared.put(sharedKey.get(), result, dependentTypes, generation);
+            }
+
             return result;
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -197,6 +260,30 @@ public void destroy() throws Exception {
 
     // -- HELPER
 
+    @Autowired(required = false)
+    protected QueryResultsCacheShared queryResultsCacheShared;
+
+    @Autowired(required = false)
+    protected EntityChangeTracker entityChangeTracker;
+
+    private Optional<Key> sharedCacheKeyFor(final Key cacheKey) {
+        return queryResultsCacheShared != null
+                && entityChangeTracker != null
+                ? queryResultsCacheShared.sharedKeyFor(cacheKey)
+                : Optional.empty();
+    }
+
+    private boolean hasEnlistedEntities() {
+        return entityChangeTracker == null
+                || entityChangeTracker.hasEnlistedEntities();
+    }
+
+    private void recognizeLookup(final boolean hit) {
+        if(entityChangeTracker != null) {
+            entityChangeTracker.recognizeQueryResultsCacheLookup(hit);
+        }
+    }
+
     @Autowired(required = false)
     protected List<QueryResultsCacheControl> cacheControl;
 
@@ -0,0 +1,340 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.queryresultscache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.applib.exceptions.unrecoverable.ObjectNotFoundException;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+import org.apache.isis.applib.services.user.UserService;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.internal.base._NullSafe;
+import org.apache.isis.commons.internal.collections._Lists;
+import org.apache.isis.commons.internal.collections._Sets;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.objectmanager.ObjectManager;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ManagedObjects;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Application scoped (second-level) cache backing {@link QueryResultsCacheDefault}, enabled via
+ * {@code isis.core.runtime-services.query-results-cache.shared.enabled}.
+ * <p>
+ * Entities are never shared across interactions directly: these are held by their {@link Bookmark} and
+ * re-attached to the current interaction with a single bulk load per entity type, when served from cache.
+ * Only query arguments and results made up of value types, entities and lists or sets thereof are shareable.
+ * <p>
+ * Sharing is opt-in per query, see {@link QueryResultsCache#executeShared(java.util.concurrent.Callable, Class[], Class, String, Object...)},
+ * and is limited to interactions of the same user with the same roles; as any tenancy or row-level filtering
+ * is derived from these.
+ * <p>
+ * Entries are invalidated per entity type, once a transaction that created, updated or deleted
+ * entities of that type has committed; an entry depends on the entity types declared by its query, as well as
+ * the types of any entities in its arguments or result. With JDO, those are the entities enlisted by the
+ * {@code EntityChangeTracker}; with JPA, those reported by the {@code JpaEntityInjectionPointResolver} entity
+ * listener (so entities not listing it are only evicted once expired).
+ *
+ * @since 2.0
+ */
+@Service
+@Named("isis.runtimeservices.QueryResultsCacheShared")
+@Order(OrderPrecedence.MIDPOINT)
+@Qualifier("Default")
+@Log4j2
+public class QueryResultsCacheShared {
+
+    private final ObjectManager objectManager;
+    private final UserService userService;
+    private final boolean enabled;
+    private final _SharedQueryResults sharedQueryResults;
+
+    @Inject
+    public QueryResultsCacheShared(
+            final IsisConfiguration isisConfiguration,
+            final ObjectManager objectManager,
+            final UserService userService) {
+        this.objectManager = objectManager;
+        this.userService = userService;
+        val config = isisConfiguration.getCore().getRuntimeServices().getQueryResultsCache().getShared();
+        this.enabled = config.isEnabled();
+        this.sharedQueryResults = new _SharedQueryResults(
+                config.getMaxSize(),
+                config.getTimeToLive().toNanos(),
+                System::nanoTime);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return a key that is shareable across interactions of the current user (with the user's name and roles
+     * prepended, entity arguments replaced by their bookmarks), or empty if disabled, if there is no current user
+     * or if any of the arguments is not shareable
+     */
+    Optional<Key> sharedKeyFor(final @NonNull Key key) {
+        if(!enabled) {
+            return Optional.empty();
+        }
+        val userContext = userService.currentUser()
+                .map(user->UserContext.of(
+                        user.getName(),
+                        user.streamRoleNames().collect(Collectors.toCollection(TreeSet::new))))
+                .orElse(null);
+        if(userContext == null) {
+            return Optional.empty();
+        }
+        val keys = _NullSafe.stream(key.getKeys()).collect(Collectors.toList());
+        val sharedKeys = new Object[keys.size() + 1];
+        sharedKeys[0] = userContext;
+        for (int i = 0; i < keys.size(); i++) {
+            val memento = dehydrate(keys.get(i), null);
+            if(!memento.isPresent()) {
+                return Optional.empty();
+            }
+            sharedKeys[i + 1] = memento.get();
+        }
+        return Optional.of(new Key(key.getCallingClass(), key.getMethodName(), sharedKeys));
+    }
+
+    /**
+     * To be captured before executing the query, and passed on to {@link #put(Key, Object, long)}.
+     */
+    long currentGeneration() {
+        return sharedQueryResults.currentGeneration();
+    }
+
+    /**
+     * @return the cached result (re-attached to the current interaction), if any
+     */
+    Optional<QueryResultsCache.Value<?>> lookup(final @NonNull Key sharedKey) {
+        val memento = sharedQueryResults.get(sharedKey).orElse(null);
+        if(memento == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new QueryResultsCache.Value<>(rehydrate(memento)));
+        } catch (ObjectNotFoundException e) {
+            // entity removed, but not (yet) invalidated, eg. when deleted by another application
+            log.debug("discarding stale entry {}", sharedKey);
+            sharedQueryResults.remove(sharedKey);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param dependentTypes - as declared by the query, not empty
+     */
+    void put(
+            final @NonNull Key sharedKey,
+            final @Nullable Object result,
+            final @NonNull Can<Class<?>> dependentTypes,
+            final long generationAtQueryStart) {
+        if(dependentTypes.isEmpty()) {
+            throw new IllegalArgumentException("shared query results must depend on at least one entity type");
+        }
+        val dependsOn = _Sets.<Class<?>>newLinkedHashSet();
+        dependentTypes.forEach(dependsOn::add);
+        dehydrate(result, dependsOn)
+        .ifPresent(memento->{
+            _NullSafe.stream(sharedKey.getKeys())
+            .filter(EntityRef.class::isInstance)
+            .map(EntityRef.class::cast)
+            .forEach(entityRef->dependsOn.add(entityRef.getEntityType()));
+            log.debug("PUT (shared): {}", sharedKey);
+            sharedQueryResults.put(sharedKey, memento, Can.ofCollection(dependsOn), generationAtQueryStart);
+        });
+    }
+
+    @EventListener(EntityTypesCommittedEvent.class)
+    public void onEntityTypesCommitted(final EntityTypesCommittedEvent event) {
+        if(!enabled) {
+            return;
+        }
+        log.debug("invalidating shared query results depending on {}", event.getEntityTypes());
+        sharedQueryResults.invalidate(event.getEntityTypes());
+    }
+
+    // -- STATISTICS
+
+    public long getHitCount() {
+        return sharedQueryResults.getHitCount().longValue();
+    }
+
+    public long getMissCount() {
+        return sharedQueryResults.getMissCount().longValue();
+    }
+
+    public long getEvictionCount() {
+        return sharedQueryResults.getEvictionCount().longValue();
+    }
+
+    public int size() {
+        return sharedQueryResults.size();
+    }
+
+    public void clear() {
+        sharedQueryResults.clear();
+    }
+
+    // -- MEMENTOS
+
+    /** placeholder for a null result, as the store does not hold nulls */
+    private static enum NullResult {
+        INSTANCE
+    }
+
+    @Value(staticConstructor = "of")
+    private static class UserContext {
+        private final @NonNull String userName;
+        private final @NonNull SortedSet<String> roleNames;
+    }
+
+    @Value(staticConstructor = "of")
+    private static class EntityRef {
+        private final @NonNull Class<?> entityType;
+        private final @NonNull Bookmark bookmark;
+    }
+
+    @Value(staticConstructor = "of")
+    private static class CollectionMemento {
+        private final boolean set;
+        private final @NonNull List<Object> elements;
+    }
+
+    /**
+     * @param dependsOn if not {@code null}, collects the types of any entities encountered
+     * @return empty if not shareable
+     */
+    private Optional<Object> dehydrate(final @Nullable Object pojo, final @Nullable Set<Class<?>> dependsOn) {
+        if(pojo == null) {
+            return Optional.of(NullResult.INSTANCE);
+        }
+        if(pojo instanceof List
+                || pojo instanceof Set) {
+            val elements = _Lists.<Object>newArrayList();
+            for(val element : (Collection<?>) pojo) {
+                if(element == null) {
+                    elements.add(NullResult.INSTANCE);
+                    continue;
+                }
+                val memento = dehydrateScalar(element, dependsOn);
+                if(!memento.isPresent()) {
+                    return Optional.empty();
+                }
+                elements.add(memento.get());
+            }
+            return Optional.of(CollectionMemento.of(pojo instanceof Set, elements));
+        }
+        return dehydrateScalar(pojo, dependsOn);
+    }
+
+    private Optional<Object> dehydrateScalar(final @NonNull Object pojo, final @Nullable Set<Class<?>> dependsOn) {
+        val spec = objectManager.specForPojo(pojo).orElse(null);
+        if(spec == null) {
+            return Optional.empty();
+        }
+        if(spec.isValue()) {
+            return Optional.of(pojo);
+        }
+        if(!spec.isEntity()) {
+            return Optional.empty();
+        }
+        val entity = ManagedObject.of(spec, pojo);
+        if(!ManagedObjects.EntityUtil.isAttached(entity)) {
+            return Optional.empty();
+        }
+        val entityType = spec.getCorrespondingClass();
+        if(dependsOn != null) {
+            dependsOn.add(entityType);
+        }
+        return ManagedObjects.bookmark(entity)
+                .map(bookmark->EntityRef.of(entityType, bookmark));
+    }
+
+    private Object rehydrate(final @NonNull Object memento) {
+        if(memento instanceof CollectionMemento) {
+            val collectionMemento = (CollectionMemento) memento;
+            val pojos = rehydrateAll(collectionMemento.getElements());
+            return collectionMemento.isSet()
+                    ? new LinkedHashSet<>(pojos)
+                    : pojos;
+        }
+        return rehydrateAll(_Lists.singleton(memento)).get(0);
+    }
+
+    /**
+     * Re-attaches all entities with a single bulk load per entity type.
+     */
+    private List<Object> rehydrateAll(final @NonNull List<Object> mementos) {
+        val bookmarks = mementos.stream()
+                .filter(EntityRef.class::isInstance)
+                .map(EntityRef.class::cast)
+                .map(EntityRef::getBookmark)
+                .collect(Can.toCan());
+
+        val entities = bookmarks.isEmpty()
+                ? Can.<ManagedObject>empty()
+                : objectManager.loadObjects(bookmarks);
+
+        val entityIterator = entities.iterator();
+        val pojos = new ArrayList<Object>(mementos.size());
+        for(val memento : mementos) {
+            if(memento == NullResult.INSTANCE) {
+                pojos.add(null);
+            } else if(memento instanceof EntityRef) {
+                val entity = entityIterator.next();
+                if(ManagedObjects.isNullOrUnspecifiedOrEmpty(entity)) {
+                    throw new ObjectNotFoundException(""+((EntityRef)memento).getBookmark());
+                }
+                pojos.add(entity.getPojo());
+            } else {
+                pojos.add(memento);
+            }
+        }
+        return pojos;
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.queryresultscache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.internal.collections._Maps;
+import org.apache.isis.commons.internal.collections._Sets;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Bounded, least-recently-used store of (already dehydrated) query results, that supports invalidation by
+ * entity type and a time-to-live.
+ * <p>
+ * Thread-safe, all access is serialized on the store itself.
+ *
+ * @since 2.0
+ */
+final class _SharedQueryResults {
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        final Object memento;
+        final Set<Class<?>> dependsOn; // empty means depends on any entity type
+        final long expiresAtNanos;
+    }
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<Class<?>, Set<Key>> keysByDependency = _Maps.newHashMap();
+    private final Set<Key> keysDependingOnAny = _Sets.newHashSet();
+
+    /**
+     * Incremented on every invalidation; allows to detect whether an invalidation occurred while a query
+     * was executed, in which case its result must not be cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Getter private final LongAdder hitCount = new LongAdder();
+    @Getter private final LongAdder missCount = new LongAdder();
+    @Getter private final LongAdder evictionCount = new LongAdder();
+
+    _SharedQueryResults(final int maxSize, final long timeToLiveNanos, final @NonNull LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, /*accessOrder*/true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if(size() <= _SharedQueryResults.this.maxSize) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                evictionCount.increment();
+                return true;
+            }
+        };
+    }
+
+    long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return the memento cached for given {@code key}, if any and not expired
+     */
+    synchronized Optional<Object> get(final @NonNull Key key) {
+        val entry = entries.get(key);
+        if(entry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        if(nanoClock.getAsLong() - entry.expiresAtNanos >= 0) {
+            remove(key);
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        return Optional.of(entry.memento);
+    }
+
+    /**
+     * Caches given {@code memento}, unless an invalidation occurred since {@code generationAtQueryStart}.
+     * @param dependsOn the entity types the memento depends on, empty if on any
+     */
+    synchronized void put(
+            final @NonNull Key key,
+            final @NonNull Object memento,
+            final @NonNull Can<Class<?>> dependsOn,
+            final long generationAtQueryStart) {
+
+        if(generation.get() != generationAtQueryStart) {
+            return; // stale, as computed concurrently to an invalidation
+        }
+        val entry = new Entry(memento, dependsOn.toSet(), nanoClock.getAsLong() + timeToLiveNanos);
+        val previous = entries.put(key, entry);
+        if(previous != null) {
+            unindex(key, previous);
+        }
+        index(key, entry);
+    }
+
+    synchronized void remove(final @NonNull Key key) {
+        val entry = entries.remove(key);
+        if(entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    /**
+     * Removes all entries that depend on any of given (changed) entity types,
+     * that is on any of these types, their sub- or their super-types;
+     * also removes all entries that depend on any entity type.
+     */
+    synchronized void invalidate(final @NonNull Can<Class<?>> changedTypes) {
+        generation.incrementAndGet();
+        if(changedTypes.isEmpty()) {
+            return;
+        }
+        val keysToRemove = _Sets.<Key>newHashSet(keysDependingOnAny);
+        keysByDependency.forEach((dependency, keys)->{
+            if(changedTypes.stream().anyMatch(changedType->
+                    dependency.isAssignableFrom(changedType)
+                    || changedType.isAssignableFrom(dependency))) {
+                keysToRemove.addAll(keys);
+            }
+        });
+        keysToRemove.forEach(this::remove);
+    }
+
+    synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        keysByDependency.clear();
+        keysDependingOnAny.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // -- HELPER
+
+    private void index(final Key key, final Entry entry) {
+        if(entry.dependsOn.isEmpty()) {
+            keysDependingOnAny.add(key);
+            return;
+        }
+        entry.dependsOn.forEach(dependency->
+            keysByDependency.computeIfAbsent(dependency, __->_Sets.newHashSet()).add(key));
+    }
+
+    private void unindex(final Key key, final Entry entry) {
+        if(entry.dependsOn.isEmpty()) {
+            keysDependingOnAny.remove(key);
+            return;
+        }
+        entry.dependsOn.forEach(dependency->{
+            val keys = keysByDependency.get(dependency);
+            if(keys != null) {
+                keys.remove(key);
+                if(keys.isEmpty()) {
+                    keysByDependency.remove(dependency);
+                }
+            }
+        });
+    }
+
+}
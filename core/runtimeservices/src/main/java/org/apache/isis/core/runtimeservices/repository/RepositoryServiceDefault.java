@@ -25,6 +25,7 @@
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
@@ -51,6 +52,8 @@
 import org.apache.isis.core.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.objectmanager.ObjectManager;
 import org.apache.isis.core.metamodel.objectmanager.query.ObjectBulkLoader;
+import org.apache.isis.core.metamodel.objectmanager.query.QueryResultList;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ManagedObjects;
 import org.apache.isis.core.metamodel.spec.ManagedObjects.EntityUtil;
 import org.apache.isis.core.metamodel.spec.ManagedObjects.UnwrapUtil;
@@ -71,13 +74,19 @@ public class RepositoryServiceDefault implements RepositoryService {
     @Inject private TransactionService transactionService;
     @Inject private IsisConfiguration isisConfiguration;
     @Inject private ObjectManager objectManager;
+    @Inject private Optional<MetricsRecorder> metricsRecorderIfAny;
 
     private boolean autoFlush;
+    private int streamBatchSize;
+    private MetricsRecorder metricsRecorder;
 
     @PostConstruct
     public void init() {
-        val disableAutoFlush = isisConfiguration.getCore().getRuntimeServices().getRepositoryService().isDisableAutoFlush();
+        val repositoryServiceConfig = isisConfiguration.getCore().getRuntimeServices().getRepositoryService();
+        val disableAutoFlush = repositoryServiceConfig.isDisableAutoFlush();
         this.autoFlush = !disableAutoFlush;
+        this.streamBatchSize = repositoryServiceConfig.getStreamBatchSize();
+        this.metricsRecorder = metricsRecorderIfAny.orElse(MetricsRecorder.NOOP);
     }
 
     @Override
@@ -176,9 +185,39 @@ <T> List<T> submitQuery(final Query<T> query) {
             return Collections.emptyList();
         }
 
+        metricsRecorder.recordQuery(resultTypeSpec.getCorrespondingClass());
+
         val queryRequest = ObjectBulkLoader.Request.of(resultTypeSpec, query);
         val allMatching = objectManager.queryObjects(queryRequest);
-        return _Casts.uncheckedCast(UnwrapUtil.multipleAsList(allMatching));
+        // remembers the query, so that viewers can page through the results by re-issuing it
+        return QueryResultList.of(query, _Casts.uncheckedCast(UnwrapUtil.multipleAsList(allMatching)));
+    }
+
+    @Override
+    public <T> Stream<T> streamInstances(final Class<T> type) {
+        return streamMatches(Query.<T>allInstances(type));
+    }
+
+    @Override
+    public <T> Stream<T> streamMatches(final Query<T> query) {
+        if(autoFlush) {
+            transactionService.flushTransaction();
+        }
+        val resultTypeSpec = objectManager.getMetaModelContext()
+                .getSpecificationLoader()
+                .specForType(query.getResultType())
+                .orElse(null);
+
+        if(resultTypeSpec==null) {
+            return Stream.empty();
+        }
+
+        metricsRecorder.recordQuery(resultTypeSpec.getCorrespondingClass());
+
+        val queryRequest = ObjectBulkLoader.Request.of(resultTypeSpec, query);
+        return objectManager.streamObjects(queryRequest, streamBatchSize)
+                .map(UnwrapUtil::single)
+                .map(_Casts::<T>uncheckedCast);
     }
 
     @Override
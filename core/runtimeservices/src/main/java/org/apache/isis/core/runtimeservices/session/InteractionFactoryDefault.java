@@ -61,10 +61,12 @@
 import org.apache.isis.core.interaction.scope.InteractionScopeBeanFactoryPostProcessor;
 import org.apache.isis.core.interaction.scope.InteractionScopeLifecycleHandler;
 import org.apache.isis.core.interaction.session.AuthenticationLayer;
+import org.apache.isis.core.interaction.session.InteractionContextSnapshot;
 import org.apache.isis.core.interaction.session.InteractionFactory;
 import org.apache.isis.core.interaction.session.InteractionTracker;
 import org.apache.isis.core.interaction.session.IsisInteraction;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
+import org.apache.isis.core.metamodel.services.metrics.FlightRecorderEvents;
 import org.apache.isis.core.metamodel.services.publishing.CommandPublisher;
 import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
 import org.apache.isis.core.runtime.events.MetamodelEventService;
@@ -133,7 +135,9 @@ public void init(ContextRefreshedEvent event) {
         taskList.submit(_ConcurrentContext.forkJoin());
         taskList.await();
 
-        { // log any validation failures, experimental code however, not sure how to best propagate failures
+        // unless deferred until warm-up has completed, in which case the SpecificationLoader reports the result
+        if(!specificationLoader.isMetamodelWarmUpInProgress()) {
+            // log any validation failures, experimental code however, not sure how to best propagate failures
             val validationResult = specificationLoader.getOrAssessValidationResult();
             if(validationResult.getNumberOfFailures()==0) {
                 log.info("Validation PASSED");
@@ -299,10 +303,77 @@ public void runAnonymous(@NonNull final ThrowingRunnable runnable) {
         runAuthenticated(new AnonymousSession(), runnable);
     }
 
+    // -- PROPAGATION ACROSS THREADS
+
+    @Override
+    public Optional<InteractionContextSnapshot> currentInteractionContextSnapshot() {
+        val stack = authenticationStack.get();
+        return stack.isEmpty()
+                ? Optional.empty()
+                : Optional.of(InteractionContextSnapshot.of(stack));
+    }
+
+    @Override
+    @SneakyThrows
+    public <R> R callWithinInteractionContext(
+            @NonNull final InteractionContextSnapshot snapshot,
+            @NonNull final Callable<R> callable) {
+
+        val interaction = snapshot.getInteraction();
+        val stack = authenticationStack.get();
+
+        if(!stack.isEmpty()) {
+            if(stack.firstElement().getInteraction() == interaction) {
+                // already within the captured interaction (eg. caller-runs), so nothing to attach
+                return callable.call();
+            }
+            throw _Exceptions.illegalState("cannot attach interaction %s to %s, "
+                    + "as it already is within interaction %s",
+                    interaction.getInteractionId(),
+                    _Probe.currentThreadId(),
+                    interactionId.get());
+        }
+
+        if(interaction.isClosed()) {
+            throw _Exceptions.illegalState("cannot attach interaction %s to %s, "
+                    + "as it has already been closed by its owning thread",
+                    interaction.getInteractionId(),
+                    _Probe.currentThreadId());
+        }
+
+        snapshot.getAuthenticationLayers().forEach(stack::push);
+        interactionId.set(interaction.getInteractionId());
+        attachedLayerCount.set(stack.size());
+        // interaction-scoped beans are confined to threads, so this one gets its own
+        interactionScopeLifecycleHandler.onTopLevelInteractionOpened();
+
+        log.debug("attached interaction (conversation-id={}, total-layers-on-stack={}, {})",
+                interactionId.get(),
+                stack.size(),
+                _Probe.currentThreadId());
+
+        try {
+            return txBoundaryHandler.callWithinTransactionalBoundary(callable);
+        } finally {
+            // detach only, the owning thread is in charge of closing the interaction
+            interactionScopeLifecycleHandler.onTopLevelInteractionClosing();
+            authenticationStack.remove();
+            interactionId.remove();
+            attachedLayerCount.remove();
+        }
+    }
+
     // -- CONVERSATION ID
 
     private final ThreadLocal<UUID> interactionId = ThreadLocal.withInitial(()->null);
 
+    // number of authentication layers attached from another thread's interaction, if any
+    private final ThreadLocal<Integer> attachedLayerCount = ThreadLocal.withInitial(()->0);
+
+    // the top-level interaction's flight recorder event, if recording
+    private final ThreadLocal<FlightRecorderEvents.Span> interactionFlightRecorderEvent =
+            ThreadLocal.withInitial(()->FlightRecorderEvents.Span.NOOP);
+
     @Override
     public Optional<UUID> getInteractionId() {
         return Optional.ofNullable(interactionId.get());
@@ -316,20 +387,29 @@ private boolean isInBaseLayer() {
 
     private void postSessionOpened(IsisInteraction interaction) {
         interactionId.set(interaction.getInteractionId());
+        interactionScopeLifecycleHandler.onTopLevelInteractionOpened();
+        val flightRecorderEvent = FlightRecorderEvents.beginInteraction();
+        if(flightRecorderEvent.isRecording()) {
+            interactionFlightRecorderEvent.set(flightRecorderEvent
+                    .interactionId(interaction.getInteractionId())
+                    .user(authenticationStack.get().firstElement().getAuthentication().getUserName()));
+        }
         interactionScopeAwareBeans.forEach(bean->bean.beforeEnteringTransactionalBoundary(interaction));
         txBoundaryHandler.onOpen(interaction);
         val isSynchronizationActive = TransactionSynchronizationManager.isSynchronizationActive();
         interactionScopeAwareBeans.forEach(bean->bean.afterEnteringTransactionalBoundary(interaction, isSynchronizationActive));
-        interactionScopeLifecycleHandler.onTopLevelInteractionOpened();
     }
 
     private void preSessionClosed(IsisInteraction interaction) {
         completeAndPublishCurrentCommand();
-        interactionScopeLifecycleHandler.onTopLevelInteractionClosing(); // cleanup the isis-session scope
         val isSynchronizationActive = TransactionSynchronizationManager.isSynchronizationActive();
         interactionScopeAwareBeans.forEach(bean->bean.beforeLeavingTransactionalBoundary(interaction, isSynchronizationActive));
         txBoundaryHandler.onClose(interaction);
         interactionScopeAwareBeans.forEach(bean->bean.afterLeavingTransactionalBoundary(interaction));
+        // cleanup the isis-session scope, only once committed (as the commit uses scoped beans)
+        interactionScopeLifecycleHandler.onTopLevelInteractionClosing();
+        interactionFlightRecorderEvent.get().end();
+        interactionFlightRecorderEvent.remove();
         interaction.close(); // do this last
     }
 
@@ -341,6 +421,13 @@ private void closeSessionStackDownToStackSize(int downToStackSize) {
                 authenticationStack.get().size(),
                 _Probe.currentThreadId());
 
+        if(downToStackSize < attachedLayerCount.get()) {
+            throw _Exceptions.illegalState("cannot close interaction %s from %s, "
+                    + "as it is attached; its owning thread is in charge of closing it",
+                    interactionId.get(),
+                    _Probe.currentThreadId());
+        }
+
         val stack = authenticationStack.get();
         while(stack.size()>downToStackSize) {
         	if(isInBaseLayer()) {
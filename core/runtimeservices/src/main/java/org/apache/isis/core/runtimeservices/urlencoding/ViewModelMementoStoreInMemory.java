@@ -0,0 +1,140 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.urlencoding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.applib.services.urlencoding.ViewModelMementoStore;
+import org.apache.isis.commons.internal.exceptions._Exceptions;
+import org.apache.isis.core.config.IsisConfiguration;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Default {@link ViewModelMementoStore}, holding mementos in-memory, bounded by
+ * {@code isis.core.runtime-services.view-model-memento-store.max-size} (least recently used are evicted first)
+ * and by {@code isis.core.runtime-services.view-model-memento-store.time-to-live} since last use.
+ * <p>
+ * Tokens are the (url-safe base64 encoded) first 128 bits of the memento's SHA-256 digest, hence 22 characters,
+ * independent of the memento's size.
+ * <p>
+ * Thread-safe, all access is serialized on the store itself.
+ *
+ * @since 2.0
+ */
+@Service
+@Named("isis.runtimeservices.ViewModelMementoStoreInMemory")
+@Order(OrderPrecedence.LATE)
+@Qualifier("InMemory")
+public class ViewModelMementoStoreInMemory implements ViewModelMementoStore {
+
+    private static final int TOKEN_BYTES = 16;
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        final String memento;
+        long expiresAtNanos;
+    }
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    @Inject
+    public ViewModelMementoStoreInMemory(final IsisConfiguration isisConfiguration) {
+        this(isisConfiguration.getCore().getRuntimeServices().getViewModelMementoStore().getMaxSize(),
+             isisConfiguration.getCore().getRuntimeServices().getViewModelMementoStore().getTimeToLive().toNanos(),
+             System::nanoTime);
+    }
+
+    ViewModelMementoStoreInMemory(final int maxSize, final long timeToLiveNanos, final @NonNull LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, /*accessOrder*/true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > ViewModelMementoStoreInMemory.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String store(final @NonNull String memento) {
+        val token = tokenFor(memento);
+        synchronized (this) {
+            entries.computeIfAbsent(token, __->new Entry(memento))
+                .expiresAtNanos = nanoClock.getAsLong() + timeToLiveNanos;
+        }
+        return token;
+    }
+
+    @Override
+    public synchronized Optional<String> lookup(final @NonNull String token) {
+        val entry = entries.get(token);
+        if(entry == null) {
+            return Optional.empty();
+        }
+        val now = nanoClock.getAsLong();
+        if(now - entry.expiresAtNanos >= 0) {
+            entries.remove(token);
+            return Optional.empty();
+        }
+        entry.expiresAtNanos = now + timeToLiveNanos;
+        return Optional.of(entry.memento);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // -- HELPER
+
+    private static String tokenFor(final String memento) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256")
+                    .digest(memento.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOf(digest, TOKEN_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw _Exceptions.unrecoverable(e);
+        }
+    }
+
+}
@@ -99,6 +99,7 @@
 import org.apache.isis.core.runtimeservices.wrapper.dispatchers.InteractionEventDispatcher;
 import org.apache.isis.core.runtimeservices.wrapper.dispatchers.InteractionEventDispatcherTypeSafe;
 import org.apache.isis.core.runtimeservices.wrapper.handlers.DomainObjectInvocationHandler;
+import org.apache.isis.core.runtimeservices.wrapper.handlers.MethodDispatchTables;
 import org.apache.isis.core.runtimeservices.wrapper.handlers.ProxyContextHandler;
 import org.apache.isis.core.runtimeservices.wrapper.proxy.ProxyCreator;
 import org.apache.isis.core.security.authentication.Authentication;
@@ -133,12 +134,13 @@ public class WrapperFactoryDefault implements WrapperFactory {
     private final Map<Class<? extends InteractionEvent>, InteractionEventDispatcher>
         dispatchersByEventClass = new HashMap<>();
     private ProxyContextHandler proxyContextHandler;
+    private final MethodDispatchTables dispatchTables = new MethodDispatchTables();
 
     @PostConstruct
     public void init() {
 
         val proxyCreator = new ProxyCreator(proxyFactoryService);
-        proxyContextHandler = new ProxyContextHandler(proxyCreator);
+        proxyContextHandler = new ProxyContextHandler(proxyCreator, dispatchTables);
 
         putDispatcher(ObjectTitleEvent.class, InteractionListener::objectTitleRead);
         putDispatcher(PropertyVisibilityEvent.class, InteractionListener::propertyVisible);
@@ -285,7 +287,8 @@ public Object invoke(Object proxy, Method method, Object[] args) throws Throwabl
                             null, // mixeeAdapter ignored
                             targetAdapter,
                             control().withNoExecute(),
-                            null);
+                            null,
+                            dispatchTables);
                     doih.invoke(null, method, args);
                 }
 
@@ -334,7 +337,8 @@ public Object invoke(Object proxy, Method method, Object[] args) throws Throwabl
                             mixeeAdapter,
                             mixinAdapter,
                             control().withNoExecute(),
-                            null);
+                            null,
+                            dispatchTables);
                     doih.invoke(null, method, args);
                 }
 
@@ -23,7 +23,6 @@
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
 import org.apache.isis.applib.annotation.Where;
 import org.apache.isis.applib.exceptions.recoverable.InteractionException;
@@ -47,22 +46,17 @@
 import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
 import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
-import org.apache.isis.core.metamodel.facets.ImperativeFacet;
-import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
 import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
-import org.apache.isis.core.metamodel.facets.object.mixin.MixinFacet;
 import org.apache.isis.core.metamodel.interactions.managed.ActionInteractionHead;
 import org.apache.isis.core.metamodel.objectmanager.ObjectManager;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ManagedObjects.EntityUtil;
 import org.apache.isis.core.metamodel.spec.ManagedObjects.UnwrapUtil;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
-import org.apache.isis.core.metamodel.spec.feature.MixedIn;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
 import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
 import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
 import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
-import org.apache.isis.core.metamodel.specloader.specimpl.MixedInMember;
 
 import lombok.SneakyThrows;
 import lombok.val;
@@ -97,13 +91,16 @@
 
     private final EntityFacet entityFacet;
     private final ManagedObject mixeeAdapter;
+    private final ObjectSpecification targetSpec;
+    private final MethodDispatchTables.Table dispatchTable;
 
     public DomainObjectInvocationHandler(
             final T domainObject,
             final ManagedObject mixeeAdapter, // ignored if not handling a mixin
             final ManagedObject targetAdapter,
             final SyncControl syncControl,
-            final ProxyContextHandler proxyContextHandler) {
+            final ProxyContextHandler proxyContextHandler,
+            final MethodDispatchTables dispatchTables) {
         super(targetAdapter.getSpecification().getMetaModelContext(), domainObject, syncControl);
 
         this.mmContext = targetAdapter.getSpecification().getMetaModelContext();
@@ -130,6 +127,8 @@ public DomainObjectInvocationHandler(
                 .getFacet(EntityFacet.class);
 
         this.mixeeAdapter = mixeeAdapter;
+        this.targetSpec = targetAdapter.getSpecification();
+        this.dispatchTable = dispatchTables.tableFor(targetSpec);
     }
 
     /**
@@ -150,15 +149,13 @@ public Object invoke(final Object proxyObjectUnused, final Method method, final
             return delegate(method, args);
         }
 
-        final ManagedObject targetAdapter = getObjectManager().adapt(getDelegate());
+        // the spec of the delegate does not change, hence need not be looked up again
+        final ManagedObject targetAdapter = ManagedObject.of(targetSpec, getDelegate());
 
         if (method.equals(titleMethod)) {
             return handleTitleMethod(targetAdapter);
         }
 
-
-        final ObjectSpecification targetSpec = targetAdapter.getSpecification();
-
         // save method, through the proxy
         if (method.equals(__isis_saveMethod)) {
             return handleSaveMethod(targetAdapter, targetSpec);
@@ -172,108 +169,54 @@ public Object invoke(final Object proxyObjectUnused, final Method method, final
             return getSyncControl().getExecutionModes();
         }
 
-        val objectMember = targetSpec.getMemberElseFail(method);
-        val memberName = objectMember.getName();
-
-        val intent = ImperativeFacet.Util.getIntent(objectMember, method);
-        if(intent == Intent.CHECK_IF_HIDDEN || intent == Intent.CHECK_IF_DISABLED) {
-            throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'", memberName));
-        }
+        val dispatch = dispatchTable.dispatchFor(method);
+        val memberName = dispatch.getMemberName();
 
-        if (intent == Intent.DEFAULTS || intent == Intent.CHOICES_OR_AUTOCOMPLETE) {
+        switch (dispatch.getKind()) {
+        case UNSUPPORTED:
+            throw dispatch.unsupportedOperation();
+        case DELEGATE:
             return method.invoke(getDelegate(), args);
+        case PROPERTY_GETTER:
+            return handleGetterMethodOnProperty(targetAdapter, args, dispatch.getProperty());
+        case PROPERTY_SETTER:
+            return handleSetterMethodOnProperty(targetAdapter, args, dispatch.getProperty());
+        case COLLECTION_GETTER:
+            return handleGetterMethodOnCollection(targetAdapter, args, dispatch.getCollection(), memberName);
+        case ACTION:
+        default:
+            break;
         }
 
-        if (objectMember.isOneToOneAssociation()) {
-
-            if (intent == Intent.CHECK_IF_VALID || intent == Intent.MODIFY_PROPERTY_SUPPORTING) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method for '%s'; use only property accessor/mutator", memberName));
-            }
-
-            final OneToOneAssociation otoa = (OneToOneAssociation) objectMember;
-
-            if (intent == Intent.ACCESSOR) {
-                return handleGetterMethodOnProperty(targetAdapter, args, otoa);
-            }
-
-            if (intent == Intent.MODIFY_PROPERTY || intent == Intent.INITIALIZATION) {
-                return handleSetterMethodOnProperty(targetAdapter, args, otoa);
-            }
-        }
-        if (objectMember.isOneToManyAssociation()) {
-
-            if (intent == Intent.CHECK_IF_VALID) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'; use only collection accessor/mutator", memberName));
-            }
-
-            final OneToManyAssociation otma = (OneToManyAssociation) objectMember;
-            if (intent == Intent.ACCESSOR) {
-                return handleGetterMethodOnCollection(targetAdapter, args, otma, memberName);
-            }
-        }
+        val objectAction = dispatch.getAction();
 
-        if (objectMember instanceof ObjectAction) {
+        if(dispatchTable.isMixin()) {
 
-            if (intent == Intent.CHECK_IF_VALID) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'; use only the 'invoke' method", memberName));
+            if (mixeeAdapter == null) {
+                throw _Exceptions.illegalState(
+                        "Missing the required mixeeAdapter for action '%s'",
+                        objectAction.getId());
             }
+            final ObjectMember mixinMember = dispatch.mixinMemberFor(mixeeAdapter.getSpecification());
 
-            val objectAction = (ObjectAction) objectMember;
-
-
-            val mixinFacet = targetSpec.getFacet(MixinFacet.class);
-            if(mixinFacet != null) {
-
-                if (mixeeAdapter == null) {
-                    throw _Exceptions.illegalState(
-                            "Missing the required mixeeAdapter for action '%s'",
-                            objectAction.getId());
+            if (mixinMember != null) {
+                if(mixinMember instanceof ObjectAction) {
+                    return handleActionMethod(mixeeAdapter, args, (ObjectAction)mixinMember);
+                }
+                if(mixinMember instanceof OneToOneAssociation) {
+                    return handleGetterMethodOnProperty(mixeeAdapter, new Object[0], (OneToOneAssociation)mixinMember);
                 }
-                final ObjectMember mixinMember = determineMixinMember(mixeeAdapter, objectAction);
-
-                if (mixinMember != null) {
-                    if(mixinMember instanceof ObjectAction) {
-                        return handleActionMethod(mixeeAdapter, args, (ObjectAction)mixinMember);
-                    }
-                    if(mixinMember instanceof OneToOneAssociation) {
-                        return handleGetterMethodOnProperty(mixeeAdapter, new Object[0], (OneToOneAssociation)mixinMember);
-                    }
-                    if(mixinMember instanceof OneToManyAssociation) {
-                        return handleGetterMethodOnCollection(mixeeAdapter, new Object[0], (OneToManyAssociation)mixinMember, memberName);
-                    }
-                } else {
-                    throw _Exceptions.illegalState(String.format(
-                            "Could not locate mixin member for action '%s' on spec '%s'", objectAction.getId(), targetSpec));
+                if(mixinMember instanceof OneToManyAssociation) {
+                    return handleGetterMethodOnCollection(mixeeAdapter, new Object[0], (OneToManyAssociation)mixinMember, memberName);
                 }
+            } else {
+                throw _Exceptions.illegalState(String.format(
+                        "Could not locate mixin member for action '%s' on spec '%s'", objectAction.getId(), targetSpec));
             }
-
-            // this is just a regular non-mixin action.
-            return handleActionMethod(targetAdapter, args, objectAction);
         }
 
-        throw new UnsupportedOperationException(String.format("Unknown member type '%s'", objectMember));
-    }
-
-    private static ObjectMember determineMixinMember(
-            final ManagedObject domainObjectAdapter,
-            final ObjectAction objectAction) {
-
-        if(domainObjectAdapter == null) {
-            return null;
-        }
-        val specification = domainObjectAdapter.getSpecification();
-        val objectActions = specification.streamAnyActions(MixedIn.INCLUDED);
-        val objectAssociations = specification.streamAssociations(MixedIn.INCLUDED);
-
-        final Stream<ObjectMember> objectMembers = Stream.concat(objectActions, objectAssociations);
-        return objectMembers
-                .filter(MixedInMember.class::isInstance)
-                .map(MixedInMember.class::cast)
-                .filter(mixedInMember->mixedInMember.hasMixinAction(objectAction))
-                .findFirst()
-                .orElse(null);
-
-        // throw new RuntimeException("Unable to find the mixed-in action corresponding to " + objectAction.getIdentifier().toFullIdentityString());
+        // this is just a regular non-mixin action.
+        return handleActionMethod(targetAdapter, args, objectAction);
     }
 
     public InteractionInitiatedBy getInteractionInitiatedBy() {
@@ -0,0 +1,225 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.wrapper.handlers;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.apache.isis.commons.internal.collections._Maps;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
+import org.apache.isis.core.metamodel.facets.object.mixin.MixinFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.MixedIn;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
+import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.metamodel.specloader.specimpl.MixedInMember;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Holds a dispatch table per {@link ObjectSpecification}, that maps the methods invoked on wrapped domain objects
+ * to the member (and the kind of interaction) they resolve to, as used by {@link DomainObjectInvocationHandler}.
+ * <p>
+ * Each table is populated lazily, once per method, so the metamodel lookups (member, its {@link Intent} and for
+ * mixins the mixed-in member of the mixee) are not repeated on every invocation.
+ * Methods that do not resolve are not recorded, so fail on every invocation.
+ *
+ * @since 2.0
+ */
+public final class MethodDispatchTables {
+
+    private final Map<ObjectSpecification, Table> tableBySpec = _Maps.newConcurrentHashMap();
+
+    Table tableFor(final @NonNull ObjectSpecification spec) {
+        val table = tableBySpec.get(spec);
+        return table != null
+                ? table
+                : tableBySpec.computeIfAbsent(spec, Table::new);
+    }
+
+    // -- TABLE
+
+    static final class Table {
+
+        private final ObjectSpecification spec;
+        @Getter private final boolean mixin;
+        private final Map<Method, Dispatch> dispatchByMethod = _Maps.newConcurrentHashMap();
+
+        private Table(final ObjectSpecification spec) {
+            this.spec = spec;
+            this.mixin = spec.getFacet(MixinFacet.class) != null;
+        }
+
+        /**
+         * @throws UnsupportedOperationException if the method does not correspond to any member
+         */
+        Dispatch dispatchFor(final @NonNull Method method) {
+            val dispatch = dispatchByMethod.get(method);
+            return dispatch != null
+                    ? dispatch
+                    : dispatchByMethod.computeIfAbsent(method, this::resolve);
+        }
+
+        private Dispatch resolve(final Method method) {
+            val objectMember = spec.getMemberElseFail(method);
+            val memberName = objectMember.getName();
+
+            val intent = ImperativeFacet.Util.getIntent(objectMember, method);
+            if(intent == Intent.CHECK_IF_HIDDEN || intent == Intent.CHECK_IF_DISABLED) {
+                return Dispatch.unsupported(objectMember,
+                        String.format("Cannot invoke supporting method '%s'", memberName));
+            }
+
+            if (intent == Intent.DEFAULTS || intent == Intent.CHOICES_OR_AUTOCOMPLETE) {
+                return new Dispatch(DispatchKind.DELEGATE, objectMember, null);
+            }
+
+            if (objectMember.isOneToOneAssociation()) {
+
+                if (intent == Intent.CHECK_IF_VALID || intent == Intent.MODIFY_PROPERTY_SUPPORTING) {
+                    return Dispatch.unsupported(objectMember,
+                            String.format("Cannot invoke supporting method for '%s'; use only property accessor/mutator", memberName));
+                }
+                if (intent == Intent.ACCESSOR) {
+                    return new Dispatch(DispatchKind.PROPERTY_GETTER, objectMember, null);
+                }
+                if (intent == Intent.MODIFY_PROPERTY || intent == Intent.INITIALIZATION) {
+                    return new Dispatch(DispatchKind.PROPERTY_SETTER, objectMember, null);
+                }
+            }
+            if (objectMember.isOneToManyAssociation()) {
+
+                if (intent == Intent.CHECK_IF_VALID) {
+                    return Dispatch.unsupported(objectMember,
+                            String.format("Cannot invoke supporting method '%s'; use only collection accessor/mutator", memberName));
+                }
+                if (intent == Intent.ACCESSOR) {
+                    return new Dispatch(DispatchKind.COLLECTION_GETTER, objectMember, null);
+                }
+            }
+
+            if (objectMember instanceof ObjectAction) {
+
+                if (intent == Intent.CHECK_IF_VALID) {
+                    return Dispatch.unsupported(objectMember,
+                            String.format("Cannot invoke supporting method '%s'; use only the 'invoke' method", memberName));
+                }
+                return new Dispatch(DispatchKind.ACTION, objectMember, null);
+            }
+
+            return Dispatch.unsupported(objectMember,
+                    String.format("Unknown member type '%s'", objectMember));
+        }
+
+    }
+
+    // -- DISPATCH
+
+    static enum DispatchKind {
+        /** the method is not to be invoked through the wrapper */
+        UNSUPPORTED,
+        /** the method is invoked on the wrapped object directly, eg. defaults and choices */
+        DELEGATE,
+        PROPERTY_GETTER,
+        PROPERTY_SETTER,
+        COLLECTION_GETTER,
+        ACTION
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    static final class Dispatch {
+
+        @Getter private final @NonNull DispatchKind kind;
+        @Getter private final @NonNull ObjectMember member;
+        private final @Nullable String unsupportedMessage;
+
+        /**
+         * mixed-in members (of the action of a mixin) by mixee specification
+         */
+        private final Map<ObjectSpecification, ObjectMember> mixinMemberByMixeeSpec = _Maps.newConcurrentHashMap();
+
+        private static Dispatch unsupported(final ObjectMember member, final String message) {
+            return new Dispatch(DispatchKind.UNSUPPORTED, member, message);
+        }
+
+        UnsupportedOperationException unsupportedOperation() {
+            return new UnsupportedOperationException(unsupportedMessage);
+        }
+
+        String getMemberName() {
+            return member.getName();
+        }
+
+        OneToOneAssociation getProperty() {
+            return (OneToOneAssociation) member;
+        }
+
+        OneToManyAssociation getCollection() {
+            return (OneToManyAssociation) member;
+        }
+
+        ObjectAction getAction() {
+            return (ObjectAction) member;
+        }
+
+        /**
+         * @return the member of given mixee, that mixes in this dispatch's (mixin) action, if any
+         */
+        @Nullable
+        ObjectMember mixinMemberFor(final @NonNull ObjectSpecification mixeeSpec) {
+            val mixinMember = mixinMemberByMixeeSpec.get(mixeeSpec);
+            if(mixinMember != null) {
+                return mixinMember;
+            }
+            val determined = determineMixinMember(mixeeSpec, getAction());
+            if(determined != null) {
+                mixinMemberByMixeeSpec.put(mixeeSpec, determined);
+            }
+            return determined;
+        }
+
+        private static ObjectMember determineMixinMember(
+                final ObjectSpecification mixeeSpec,
+                final ObjectAction objectAction) {
+
+            val objectActions = mixeeSpec.streamAnyActions(MixedIn.INCLUDED);
+            val objectAssociations = mixeeSpec.streamAssociations(MixedIn.INCLUDED);
+
+            final Stream<ObjectMember> objectMembers = Stream.concat(objectActions, objectAssociations);
+            return objectMembers
+                    .filter(MixedInMember.class::isInstance)
+                    .map(MixedInMember.class::cast)
+                    .filter(mixedInMember->mixedInMember.hasMixinAction(objectAction))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+    }
+
+}
@@ -35,6 +35,7 @@
 public class ProxyContextHandler {
 
     @NonNull private final ProxyCreator proxyCreator;
+    @NonNull private final MethodDispatchTables dispatchTables;
 
     public <T> T proxy(
             T domainObject,
@@ -46,7 +47,8 @@ public <T> T proxy(
                 null, // mixeeAdapter ignored
                 adapter,
                 syncControl,
-                this);
+                this,
+                dispatchTables);
 
         return proxyCreator.instantiateProxy(invocationHandler);
     }
@@ -62,7 +64,8 @@ public <T> T mixinProxy(
                 mixeeAdapter,
                 mixinAdapter,
                 syncControl,
-                this);
+                this,
+                dispatchTables);
 
         return proxyCreator.instantiateProxy(invocationHandler);
     }
@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.publish;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.isis.core.config.IsisConfiguration.Core.RuntimeServices.Publishing.Async.Backpressure;
+
+class AsyncPublishingChannelTest {
+
+    final List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+    final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    _AsyncPublishingChannel<Integer> channel;
+
+    @AfterEach
+    void tearDown() {
+        if(channel != null) {
+            channel.close(1000L);
+        }
+    }
+
+    @Test
+    void delivers_in_order_and_in_batches_flushing_on_close() {
+        channel = newChannel(10_000, 16, Backpressure.BLOCK, null);
+
+        publish(1000);
+        channel.close(5000L);
+
+        assertEquals(range(1000), delivered);
+        assertEquals(1000L, channel.getDeliveredCount());
+        assertEquals(0, channel.getQueueDepth());
+        assertTrue(batchSizes.stream().allMatch(size->size <= 16));
+    }
+
+    @Test
+    void drops_when_full() throws InterruptedException {
+        final CountDownLatch gate = new CountDownLatch(1);
+        channel = newChannel(2, 1, Backpressure.DROP, gate);
+
+        publish(10);
+        // at most one in delivery, two queued
+        assertTrue(channel.getDroppedCount() >= 7);
+
+        gate.countDown();
+        channel.close(5000L);
+        assertEquals(10L, channel.getDeliveredCount() + channel.getDroppedCount());
+    }
+
+    @Test
+    void caller_runs_preserves_order() {
+        channel = newChannel(4, 2, Backpressure.CALLER_RUNS, null);
+
+        publish(500);
+        channel.close(5000L);
+
+        assertEquals(range(500), delivered);
+        assertEquals(0L, channel.getDroppedCount());
+    }
+
+    @Test
+    void delivers_in_place_once_closed() {
+        channel = newChannel(4, 2, Backpressure.BLOCK, null);
+        channel.close(1000L);
+
+        channel.publish(42);
+
+        assertEquals(Collections.singletonList(42), delivered);
+    }
+
+    // -- HELPER
+
+    private _AsyncPublishingChannel<Integer> newChannel(
+            final int capacity,
+            final int batchSize,
+            final Backpressure backpressure,
+            final CountDownLatch gate) {
+        return new _AsyncPublishingChannel<>("test", events->{
+            if(gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batchSizes.add(events.size());
+            delivered.addAll(events);
+        }, capacity, batchSize, backpressure);
+    }
+
+    private void publish(final int count) {
+        IntStream.range(0, count).forEach(channel::publish);
+    }
+
+    private static List<Integer> range(final int count) {
+        return IntStream.range(0, count).boxed().collect(Collectors.toList());
+    }
+
+}
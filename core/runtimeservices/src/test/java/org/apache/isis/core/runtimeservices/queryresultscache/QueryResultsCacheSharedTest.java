@@ -0,0 +1,125 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.queryresultscache;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+import org.apache.isis.applib.services.user.UserMemento;
+import org.apache.isis.applib.services.user.UserService;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.objectmanager.ObjectManager;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class QueryResultsCacheSharedTest {
+
+    static class Customer {}
+    static class Order {}
+
+    private UserService userService;
+    private QueryResultsCacheShared queryResultsCacheShared;
+
+    @BeforeEach
+    void setUp() {
+        val valueSpec = Mockito.mock(ObjectSpecification.class);
+        when(valueSpec.isValue()).thenReturn(true);
+        val objectManager = Mockito.mock(ObjectManager.class);
+        when(objectManager.specForPojo(any())).thenReturn(Optional.of(valueSpec));
+
+        userService = Mockito.mock(UserService.class);
+
+        val isisConfiguration = new IsisConfiguration(null);
+        isisConfiguration.getCore().getRuntimeServices().getQueryResultsCache().getShared().setEnabled(true);
+
+        queryResultsCacheShared = new QueryResultsCacheShared(isisConfiguration, objectManager, userService);
+    }
+
+    @Test
+    void not_shared_without_a_current_user() {
+        when(userService.currentUser()).thenReturn(Optional.empty());
+
+        assertFalse(queryResultsCacheShared.sharedKeyFor(key("fred")).isPresent());
+    }
+
+    @Test
+    void shared_keys_are_specific_to_user_and_roles() {
+        val fred = sharedKeyAs(UserMemento.ofNameAndRoleNames("fred", "clerk"));
+        val fredAgain = sharedKeyAs(UserMemento.ofNameAndRoleNames("fred", "clerk"));
+        val fredAsAdmin = sharedKeyAs(UserMemento.ofNameAndRoleNames("fred", "clerk", "admin"));
+        val mary = sharedKeyAs(UserMemento.ofNameAndRoleNames("mary", "clerk"));
+
+        assertEquals(fred, fredAgain);
+        assertNotEquals(fred, fredAsAdmin);
+        assertNotEquals(fred, mary);
+    }
+
+    @Test
+    void empty_results_are_invalidated_by_declared_types() {
+        val sharedKey = sharedKeyAs(UserMemento.ofName("fred"));
+        queryResultsCacheShared.put(sharedKey, Collections.emptyList(),
+                Can.ofSingleton(Customer.class), queryResultsCacheShared.currentGeneration());
+        assertTrue(queryResultsCacheShared.lookup(sharedKey).isPresent());
+
+        queryResultsCacheShared.onEntityTypesCommitted(committed(Order.class));
+        assertTrue(queryResultsCacheShared.lookup(sharedKey).isPresent());
+
+        queryResultsCacheShared.onEntityTypesCommitted(committed(Customer.class));
+        assertFalse(queryResultsCacheShared.lookup(sharedKey).isPresent());
+    }
+
+    @Test
+    void requires_declared_types() {
+        val sharedKey = sharedKeyAs(UserMemento.ofName("fred"));
+        assertThrows(IllegalArgumentException.class, ()->
+            queryResultsCacheShared.put(sharedKey, "result", Can.empty(), queryResultsCacheShared.currentGeneration()));
+    }
+
+    // -- HELPER
+
+    private static Key key(final String arg) {
+        return new Key(QueryResultsCacheSharedTest.class, "findByName", arg);
+    }
+
+    private Key sharedKeyAs(final UserMemento user) {
+        when(userService.currentUser()).thenReturn(Optional.of(user));
+        return queryResultsCacheShared.sharedKeyFor(key("fred")).get();
+    }
+
+    private static EntityTypesCommittedEvent committed(final Class<?> entityType) {
+        return EntityTypesCommittedEvent.of(Can.ofSingleton(entityType));
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.queryresultscache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+import org.apache.isis.commons.collections.Can;
+
+class SharedQueryResultsTest {
+
+    static class Customer {}
+    static class PremiumCustomer extends Customer {}
+    static class Order {}
+
+    AtomicLong clock;
+    _SharedQueryResults sharedQueryResults;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        sharedQueryResults = new _SharedQueryResults(3, 100L, clock::get);
+    }
+
+    @Test
+    void invalidates_by_entity_type_including_sub_and_super_types() {
+        put(key("customers"), Customer.class);
+        put(key("premium"), PremiumCustomer.class);
+        put(key("orders"), Order.class);
+
+        sharedQueryResults.invalidate(Can.ofSingleton(PremiumCustomer.class));
+
+        assertFalse(sharedQueryResults.get(key("customers")).isPresent());
+        assertFalse(sharedQueryResults.get(key("premium")).isPresent());
+        assertTrue(sharedQueryResults.get(key("orders")).isPresent());
+    }
+
+    @Test
+    void entries_without_dependencies_are_invalidated_by_any_type() {
+        put(key("count"));
+        put(key("orders"), Order.class);
+
+        sharedQueryResults.invalidate(Can.ofSingleton(Customer.class));
+
+        assertFalse(sharedQueryResults.get(key("count")).isPresent());
+        assertTrue(sharedQueryResults.get(key("orders")).isPresent());
+    }
+
+    @Test
+    void evicts_least_recently_used() {
+        put(key("a"), Order.class);
+        put(key("b"), Order.class);
+        put(key("c"), Order.class);
+        sharedQueryResults.get(key("a")); // touch
+        put(key("d"), Order.class);
+
+        assertEquals(3, sharedQueryResults.size());
+        assertEquals(1, sharedQueryResults.getEvictionCount().longValue());
+        assertTrue(sharedQueryResults.get(key("a")).isPresent());
+        assertFalse(sharedQueryResults.get(key("b")).isPresent());
+    }
+
+    @Test
+    void expires_after_time_to_live() {
+        put(key("a"), Order.class);
+        clock.addAndGet(99L);
+        assertTrue(sharedQueryResults.get(key("a")).isPresent());
+        clock.addAndGet(1L);
+        assertFalse(sharedQueryResults.get(key("a")).isPresent());
+        assertEquals(0, sharedQueryResults.size());
+    }
+
+    @Test
+    void discards_results_computed_concurrently_to_an_invalidation() {
+        final long generation = sharedQueryResults.currentGeneration();
+        sharedQueryResults.invalidate(Can.ofSingleton(Customer.class));
+        sharedQueryResults.put(key("a"), "result", Can.ofSingleton(Order.class), generation);
+
+        assertFalse(sharedQueryResults.get(key("a")).isPresent());
+    }
+
+    // -- HELPER
+
+    private static Key key(final String methodName) {
+        return new Key(SharedQueryResultsTest.class, methodName);
+    }
+
+    private void put(final Key key, final Class<?>... dependsOn) {
+        sharedQueryResults.put(key, "result", Can.ofArray(dependsOn), sharedQueryResults.currentGeneration());
+    }
+
+}
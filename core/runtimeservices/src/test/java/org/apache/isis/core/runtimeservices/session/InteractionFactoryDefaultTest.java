@@ -0,0 +1,149 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.session;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.apache.isis.applib.services.clock.ClockService;
+import org.apache.isis.core.interaction.integration.InteractionAwareTransactionalBoundaryHandler;
+import org.apache.isis.core.interaction.scope.InteractionScopeLifecycleHandler;
+import org.apache.isis.core.interaction.session.IsisInteraction;
+import org.apache.isis.core.metamodel.services.publishing.CommandPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import lombok.val;
+
+class InteractionFactoryDefaultTest {
+
+    private InteractionFactoryDefault interactionFactory;
+    private InteractionScopeLifecycleHandler interactionScopeLifecycleHandler;
+    private ExecutorService worker;
+
+    @BeforeEach
+    void setUp() {
+        interactionFactory = new InteractionFactoryDefault();
+        interactionFactory.txBoundaryHandler =
+                new InteractionAwareTransactionalBoundaryHandler(Collections.emptyList());
+        interactionFactory.commandPublisher = Mockito.mock(CommandPublisher.class);
+        interactionFactory.clockService = Mockito.mock(ClockService.class);
+        interactionFactory.interactionScopeAwareBeans = Collections.emptyList();
+
+        interactionScopeLifecycleHandler = Mockito.mock(InteractionScopeLifecycleHandler.class);
+        ReflectionTestUtils.setField(interactionFactory,
+                "interactionScopeLifecycleHandler", interactionScopeLifecycleHandler);
+
+        worker = interactionFactory.withInteractionContextPropagation(Executors.newSingleThreadExecutor());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdownNow();
+        interactionFactory.closeSessionStack();
+    }
+
+    @Test
+    void interaction_is_propagated_to_worker() throws Exception {
+        val authentication = new AnonymousSession();
+        interactionFactory.openInteraction(authentication);
+        val interaction = interactionFactory.currentInteractionElseFail();
+
+        val seenByWorker = worker.submit(()->interactionFactory.currentInteractionElseFail())
+                .get(5, TimeUnit.SECONDS);
+        val authenticationSeenByWorker = worker.submit(()->interactionFactory.currentAuthenticationElseFail())
+                .get(5, TimeUnit.SECONDS);
+        val interactionIdSeenByWorker = worker.submit(()->interactionFactory.getInteractionId().orElse(null))
+                .get(5, TimeUnit.SECONDS);
+
+        assertSame(interaction, seenByWorker);
+        assertSame(authentication, authenticationSeenByWorker);
+        assertEquals(interaction.getInteractionId(), interactionIdSeenByWorker);
+    }
+
+    @Test
+    void worker_is_detached_and_gets_its_own_scope() throws Exception {
+        interactionFactory.openInteraction(new AnonymousSession());
+
+        val inInteraction = worker.submit(()->interactionFactory.isInInteraction()).get(5, TimeUnit.SECONDS);
+        assertTrue(inInteraction);
+
+        val snapshot = interactionFactory.currentInteractionContextSnapshot()
+                .orElseThrow(IllegalStateException::new);
+        interactionFactory.closeSessionStack();
+        // submitted from outside of any interaction, so runs as is on the (same) worker thread
+        val inInteractionAfterDetach = worker.submit(()->interactionFactory.isInInteraction()).get(5, TimeUnit.SECONDS);
+        assertFalse(inInteractionAfterDetach);
+
+        // owner opened and closed its scope, the worker (attached once) did the same
+        val inOrder = inOrder(interactionScopeLifecycleHandler);
+        inOrder.verify(interactionScopeLifecycleHandler).onTopLevelInteractionOpened();
+        inOrder.verify(interactionScopeLifecycleHandler).onTopLevelInteractionOpened();
+        inOrder.verify(interactionScopeLifecycleHandler).onTopLevelInteractionClosing();
+        inOrder.verify(interactionScopeLifecycleHandler).onTopLevelInteractionClosing();
+        assertTrue(snapshot.getInteraction().isClosed());
+    }
+
+    @Test
+    void worker_cannot_close_the_interaction() throws Exception {
+        interactionFactory.openInteraction(new AnonymousSession());
+        val interaction = (IsisInteraction) interactionFactory.currentInteractionElseFail();
+
+        val failure = assertThrows(ExecutionException.class, ()->
+            worker.submit(()->interactionFactory.closeSessionStack()).get(5, TimeUnit.SECONDS));
+
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertFalse(interaction.isClosed());
+        assertTrue(interactionFactory.isInInteraction());
+        verify(interactionScopeLifecycleHandler, times(1)).onTopLevelInteractionClosing(); // the worker's only
+    }
+
+    @Test
+    void cannot_attach_once_closed() {
+        interactionFactory.openInteraction(new AnonymousSession());
+        val snapshot = interactionFactory.currentInteractionContextSnapshot()
+                .orElseThrow(IllegalStateException::new);
+        interactionFactory.closeSessionStack();
+
+        // as if the task was still queued, when the owner closed the interaction
+        val failure = assertThrows(ExecutionException.class, ()->
+            worker.submit(()->
+                interactionFactory.callWithinInteractionContext(snapshot, ()->"not to be run"))
+            .get(5, TimeUnit.SECONDS));
+
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.urlencoding;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import lombok.val;
+
+class ViewModelMementoStoreInMemoryTest {
+
+    AtomicLong clock;
+    ViewModelMementoStoreInMemory store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        store = new ViewModelMementoStoreInMemory(2, 100L, clock::get);
+    }
+
+    @Test
+    void tokens_are_short_url_safe_and_deterministic() {
+        val memento = "H4sIAAAAAAAAA" + new String(new char[10_000]).replace('\0', 'x');
+        val token = store.store(memento);
+
+        assertEquals(22, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(token, store.store(memento));
+        assertNotEquals(token, store.store(memento + "y"));
+        assertEquals(memento, store.lookup(token).get());
+    }
+
+    @Test
+    void evicts_least_recently_used() {
+        val a = store.store("a");
+        val b = store.store("b");
+        store.lookup(a); // touch
+        store.store("c");
+
+        assertEquals(2, store.size());
+        assertTrue(store.lookup(a).isPresent());
+        assertFalse(store.lookup(b).isPresent());
+    }
+
+    @Test
+    void expires_after_time_to_live_since_last_use() {
+        val a = store.store("a");
+        clock.set(99L);
+        assertTrue(store.lookup(a).isPresent()); // extends
+        clock.set(198L);
+        assertTrue(store.lookup(a).isPresent());
+        clock.set(298L);
+        assertFalse(store.lookup(a).isPresent());
+        assertEquals(0, store.size());
+    }
+
+}
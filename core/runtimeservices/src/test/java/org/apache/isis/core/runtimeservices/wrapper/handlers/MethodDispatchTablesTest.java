@@ -0,0 +1,137 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtimeservices.wrapper.handlers;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.runtimeservices.wrapper.handlers.MethodDispatchTables.DispatchKind;
+
+import lombok.val;
+
+class MethodDispatchTablesTest {
+
+    public static class Customer {
+        public String getName() { return null; }
+        public void setName(final String name) {}
+        public String disableName() { return null; }
+        public void unknown() {}
+    }
+
+    private ObjectSpecification spec;
+    private OneToOneAssociation nameProperty;
+    private Method getName;
+    private Method setName;
+    private Method disableName;
+    private Method unknown;
+
+    private MethodDispatchTables dispatchTables;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        getName = Customer.class.getMethod("getName");
+        setName = Customer.class.getMethod("setName", String.class);
+        disableName = Customer.class.getMethod("disableName");
+        unknown = Customer.class.getMethod("unknown");
+
+        nameProperty = Mockito.mock(OneToOneAssociation.class);
+        when(nameProperty.getName()).thenReturn("name");
+        when(nameProperty.isOneToOneAssociation()).thenReturn(true);
+        when(nameProperty.streamFacets()).thenAnswer(__->Stream.of(
+                imperativeFacet(getName, Intent.ACCESSOR),
+                imperativeFacet(setName, Intent.MODIFY_PROPERTY),
+                imperativeFacet(disableName, Intent.CHECK_IF_DISABLED)));
+
+        spec = Mockito.mock(ObjectSpecification.class);
+        when(spec.getMember(any(Method.class))).thenAnswer(invocation->
+            invocation.getArgument(0).equals(unknown)
+                ? Optional.empty()
+                : Optional.of(nameProperty));
+        when(spec.getMemberElseFail(any(Method.class))).thenCallRealMethod();
+
+        dispatchTables = new MethodDispatchTables();
+    }
+
+    @Test
+    void tableIsHeldPerSpec() {
+        val table = dispatchTables.tableFor(spec);
+        assertSame(table, dispatchTables.tableFor(spec));
+        assertFalse(table.isMixin());
+    }
+
+    @Test
+    void methodsAreResolvedOnce() {
+        val table = dispatchTables.tableFor(spec);
+
+        val getter = table.dispatchFor(getName);
+        assertEquals(DispatchKind.PROPERTY_GETTER, getter.getKind());
+        assertSame(nameProperty, getter.getProperty());
+        assertSame(getter, table.dispatchFor(getName));
+
+        assertEquals(DispatchKind.PROPERTY_SETTER, table.dispatchFor(setName).getKind());
+
+        verify(spec, times(1)).getMember(getName);
+        verify(spec, times(1)).getMember(setName);
+    }
+
+    @Test
+    void supportingMethodsAreUnsupported() {
+        val dispatch = dispatchTables.tableFor(spec).dispatchFor(disableName);
+        assertEquals(DispatchKind.UNSUPPORTED, dispatch.getKind());
+        assertEquals("Cannot invoke supporting method 'name'", dispatch.unsupportedOperation().getMessage());
+    }
+
+    @Test
+    void unknownMethodsAreNotRecorded() {
+        val table = dispatchTables.tableFor(spec);
+        assertThrows(UnsupportedOperationException.class, ()->table.dispatchFor(unknown));
+        assertThrows(UnsupportedOperationException.class, ()->table.dispatchFor(unknown));
+        verify(spec, times(2)).getMember(unknown);
+    }
+
+    // -- HELPER
+
+    private static Facet imperativeFacet(final Method method, final Intent intent) {
+        val facet = Mockito.mock(Facet.class, Mockito.withSettings().extraInterfaces(ImperativeFacet.class));
+        when(((ImperativeFacet)facet).getMethods()).thenReturn(Collections.singletonList(method));
+        when(((ImperativeFacet)facet).getIntent(method)).thenReturn(intent);
+        return facet;
+    }
+
+}
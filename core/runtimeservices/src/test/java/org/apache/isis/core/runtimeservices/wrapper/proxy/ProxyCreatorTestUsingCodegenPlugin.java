@@ -18,6 +18,7 @@
  */
 package org.apache.isis.core.runtimeservices.wrapper.proxy;
 
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.Set;
@@ -29,6 +30,8 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.isis.core.codegen.bytebuddy.services.ProxyFactoryServiceByteBuddy;
@@ -36,11 +39,13 @@
 
 class ProxyCreatorTestUsingCodegenPlugin {
 
+    private ProxyFactoryServiceByteBuddy proxyFactoryService;
     private ProxyCreator proxyCreator;
 
     @BeforeEach
     void setUp() throws Exception {
-        proxyCreator = new ProxyCreator(new ProxyFactoryServiceByteBuddy());
+        proxyFactoryService = new ProxyFactoryServiceByteBuddy();
+        proxyCreator = new ProxyCreator(proxyFactoryService);
     }
 
     public static class Employee {
@@ -100,4 +105,42 @@ void proxyShouldDelegateCalls() {
 
     }
 
+    @Test
+    void proxyClassShouldBeReused_withHandlerPerInstance() {
+
+        final DelegatingInvocationHandlerForTest handler1 = new DelegatingInvocationHandlerForTest();
+        final DelegatingInvocationHandlerForTest handler2 = new DelegatingInvocationHandlerForTest();
+
+        final Employee proxy1 = proxyCreator.instantiateProxy(handler1);
+        final Employee proxy2 = proxyCreator.instantiateProxy(handler2);
+
+        assertNotSame(proxy1, proxy2);
+        assertSame(proxy1.getClass(), proxy2.getClass());
+        assertEquals(1, proxyFactoryService.getProxyClassCount());
+
+        proxy2.getName();
+
+        assertFalse(handler1.wasInvoked("getName"));
+        assertTrue(handler2.wasInvoked("getName"));
+    }
+
+    @Test
+    void repeatedProxyCreation_shouldNotLoadAdditionalClasses() {
+
+        proxyCreator.instantiateProxy(new DelegatingInvocationHandlerForTest()); // warm up
+
+        final long loadedClassCountBefore = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+
+        for(int i=0; i<1000; ++i) {
+            proxyCreator.instantiateProxy(new DelegatingInvocationHandlerForTest());
+        }
+
+        final long loadedClassCountAfter = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+
+        assertEquals(1, proxyFactoryService.getProxyClassCount());
+        // allow for some unrelated class loading (eg. by the JVM or the test framework), but not one per proxy
+        assertTrue(loadedClassCountAfter - loadedClassCountBefore < 100,
+                String.format("loaded %d additional classes", loadedClassCountAfter - loadedClassCountBefore));
+    }
+
 }
@@ -74,5 +74,18 @@ public interface EntityChangeTracker {
      */
     void recognizeUpdating(ManagedObject entity);
 
+    /**
+     * Whether any entity was enlisted (created, updated or deleted) within the current transaction,
+     * in other words, whether query results might reflect changes not yet committed.
+     */
+    boolean hasEnlistedEntities();
+
+    /**
+     * Metrics support: for the {@link org.apache.isis.applib.services.queryresultscache.QueryResultsCache}
+     * to report whether a lookup was served from cache.
+     */
+    default void recognizeQueryResultsCacheLookup(boolean hit) {
+    }
+
 }
 
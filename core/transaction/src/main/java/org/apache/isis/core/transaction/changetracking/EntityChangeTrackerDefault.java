@@ -67,17 +67,27 @@
 import org.apache.isis.core.metamodel.facets.object.callbacks.UpdatedLifecycleEventFacet;
 import org.apache.isis.core.metamodel.facets.object.callbacks.UpdatingCallbackFacet;
 import org.apache.isis.core.metamodel.facets.object.callbacks.UpdatingLifecycleEventFacet;
+import org.apache.isis.core.metamodel.facets.object.entity.DirtyPropertiesSnapshot;
+import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
 import org.apache.isis.core.metamodel.facets.object.publish.entitychange.EntityChangePublishingFacet;
+import org.apache.isis.core.metamodel.services.metrics.FlightRecorderEvents;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ManagedObjects;
 import org.apache.isis.core.metamodel.spec.feature.MixedIn;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.security.authentication.Authentication;
 import org.apache.isis.core.security.authentication.AuthenticationContext;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
 import org.apache.isis.core.transaction.changetracking.events.IsisTransactionPlaceholder;
+import org.apache.isis.core.transaction.events.TransactionAfterCompletionEvent;
 import org.apache.isis.core.transaction.events.TransactionBeforeCompletionEvent;
 
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Value;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
 
@@ -103,6 +113,7 @@
     @Inject private EventBusService eventBusService;
     @Inject private Provider<InteractionContext> interactionContextProvider;
     @Inject private Provider<AuthenticationContext> authenticationContextProvider;
+    @Inject private Optional<MetricsRecorder> metricsRecorderIfAny;
 
 
     /**
@@ -117,9 +128,34 @@
     private final _Lazy<Set<_PropertyChangeRecord>> entityPropertyChangeRecordsForPublishing
         = _Lazy.threadSafe(this::capturePostValuesAndDrain);
 
+    /**
+     * Contains pre-modification snapshots of updated entities, as captured by the persistence mechanism;
+     * these are only turned into change records for the actually modified properties,
+     * when triggered by internal call to {@link #snapshotPropertyChangeRecords()}.
+     */
+    private final Map<Bookmark, DirtyPropertiesRecord> dirtyPropertiesRecords = _Maps.newLinkedHashMap();
+
+    @Value(staticConstructor = "of")
+    private static class DirtyPropertiesRecord {
+        private final @NonNull ManagedObject entity;
+        private final @NonNull DirtyPropertiesSnapshot snapshot;
+    }
+
     @Getter(AccessLevel.PACKAGE)
     private final Map<Bookmark, EntityChangeKind> changeKindByEnlistedAdapter = _Maps.newLinkedHashMap();
 
+    /**
+     * Contains the types of all entities that were enlisted (created, updated or deleted), regardless of whether
+     * these are enabled for change publishing; used for cache invalidation once the transaction has committed.
+     */
+    private final Set<Class<?>> enlistedEntityTypes = _Sets.newLinkedHashSet();
+
+    /**
+     * Snapshot of {@link #enlistedEntityTypes}, taken before transaction completion,
+     * to be announced after the transaction has committed.
+     */
+    private Can<Class<?>> completingEntityTypes = Can.empty();
+
     private boolean isEnlisted(final @NonNull ManagedObject adapter) {
         return ManagedObjects.bookmark(adapter)
         .map(changeKindByEnlistedAdapter::containsKey)
@@ -139,6 +175,10 @@ private void enlistUpdatingInternal(final @NonNull ManagedObject adapter) {
             return;
         }
         enlistForChangeKindPublishing(adapter, EntityChangeKind.UPDATE);
+        if(enlistForDirtyPropertiesPublishing(adapter)) {
+            return;
+        }
+        // fallback, in case not supported by the persistence mechanism
         enlistForPreAndPostValuePublishing(adapter, _PropertyChangeRecord::updatePreValue);
     }
 
@@ -148,7 +188,16 @@ private void enlistDeletingInternal(final @NonNull ManagedObject adapter) {
         }
         final boolean enlisted = enlistForChangeKindPublishing(adapter, EntityChangeKind.DELETE);
         if(enlisted) {
-            enlistForPreAndPostValuePublishing(adapter, _PropertyChangeRecord::updatePreValue);
+            // if already enlisted for update, pre-values are taken from the snapshot (if captured)
+            val dirtyPropertiesRecord = dirtyPropertiesRecords.remove(ManagedObjects.bookmarkElseFail(adapter));
+            enlistForPreAndPostValuePublishing(adapter, record->{
+                if(dirtyPropertiesRecord!=null
+                        && dirtyPropertiesRecord.getSnapshot().isCaptured(record.getPropertyId())) {
+                    record.setPreValue(dirtyPropertiesRecord.getSnapshot().getPreValue(record.getPropertyId()));
+                } else {
+                    record.updatePreValue();
+                }
+            });
         }
     }
 
@@ -181,13 +230,41 @@ private boolean isEntityEnabledForChangePublishing(final @NonNull ManagedObject
      */
     @EventListener(value = TransactionBeforeCompletionEvent.class)
     public void onTransactionCompleting(TransactionBeforeCompletionEvent event) {
+        val flightRecorderEvent = FlightRecorderEvents.beginEntityFlush();
+        if(flightRecorderEvent.isRecording()) {
+            flightRecorderEvent
+            .interactionId(interactionContextProvider.get().currentInteraction()
+                    .map(Interaction::getInteractionId)
+                    .orElse(null))
+            .user(authenticationContextProvider.get().currentAuthentication()
+                    .map(Authentication::getUserName)
+                    .orElse(null))
+            .entityCounts(numberEntitiesLoaded(), numberEntitiesDirtied());
+        }
         try {
             doPublish();
         } finally {
             postPublishing();
+            flightRecorderEvent.end();
         }
     }
 
+    /**
+     * TRANSACTION END BOUNDARY
+     * @apiNote intended to be called after transaction completion by the framework internally
+     */
+    @EventListener(value = TransactionAfterCompletionEvent.class)
+    public void onTransactionCompleted(TransactionAfterCompletionEvent event) {
+        val entityTypes = completingEntityTypes;
+        completingEntityTypes = Can.empty();
+        if(entityTypes.isEmpty()
+                || event.isRolledBack()) {
+            return;
+        }
+        // also announced for the UNKNOWN completion status, it's safer to invalidate caches in that case
+        eventBusService.post(EntityTypesCommittedEvent.of(entityTypes));
+    }
+
     private void doPublish() {
         _Xray.publish(this, interactionContextProvider, authenticationContextProvider);
 
@@ -198,11 +275,16 @@ private void doPublish() {
 
     private void postPublishing() {
         log.debug("purging entity change records");
+        completingEntityTypes = Can.ofCollection(enlistedEntityTypes);
+        enlistedEntityTypes.clear();
         entityPropertyChangeRecords.clear();
+        dirtyPropertiesRecords.clear();
         changeKindByEnlistedAdapter.clear();
         entityPropertyChangeRecordsForPublishing.clear();
         entityChangeEventCount.reset();
         numberEntitiesLoaded.reset();
+        numberQueryResultsCacheHits.reset();
+        numberQueryResultsCacheMisses.reset();
     }
 
     private void enableCommandPublishing() {
@@ -282,12 +364,66 @@ private void enlistForPreAndPostValuePublishing(
         });
     }
 
+    /**
+     * Enlists given entity for having its actually modified properties captured on transaction completion,
+     * provided the persistence mechanism supports dirty property tracking.
+     * @return whether enlisted (or already enlisted) by this means
+     */
+    private boolean enlistForDirtyPropertiesPublishing(final ManagedObject entity) {
+        val bookmark = ManagedObjects.bookmarkElseFail(entity);
+        if(dirtyPropertiesRecords.containsKey(bookmark)) {
+            return true; // already enlisted
+        }
+        if(changeKindByEnlistedAdapter.get(bookmark) == EntityChangeKind.CREATE) {
+            return false; // all properties are already enlisted as NEW
+        }
+        val entityFacet = entity.getSpecification().getFacet(EntityFacet.class);
+        if(entityFacet==null) {
+            return false;
+        }
+        return entityFacet.snapshotForChangeTracking(entity)
+        .map(snapshot->{
+            log.debug("enlist entity's dirty properties for publishing {}", entity);
+            dirtyPropertiesRecords.put(bookmark, DirtyPropertiesRecord.of(entity, snapshot));
+            return true;
+        })
+        .orElse(false);
+    }
+
+    /**
+     * Turns the snapshots of updated entities into change records, only for the actually modified properties.
+     */
+    private void enlistDirtyProperties() {
+        dirtyPropertiesRecords.values().forEach(dirtyPropertiesRecord->{
+            val entity = dirtyPropertiesRecord.getEntity();
+            val snapshot = dirtyPropertiesRecord.getSnapshot();
+            snapshot.getDirtyPropertyIds().stream()
+            .filter(snapshot::isCaptured)
+            .map(entity.getSpecification()::getAssociation)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .filter(ObjectAssociation::isOneToOneAssociation)
+            .map(OneToOneAssociation.class::cast)
+            .filter(property->!property.isNotPersisted())
+            .filter(property->!property.isMixedIn())
+            .map(property->_PropertyChangeRecord.of(entity, property))
+            .filter(record->!entityPropertyChangeRecords.contains(record)) // already enlisted, so ignore
+            .forEach(record->{
+                record.setPreValue(snapshot.getPreValue(record.getPropertyId()));
+                entityPropertyChangeRecords.add(record);
+            });
+        });
+        dirtyPropertiesRecords.clear();
+    }
+
     /**
      * For any enlisted Object Properties collects those, that are meant for publishing,
      * then clears enlisted objects.
      */
     private Set<_PropertyChangeRecord> capturePostValuesAndDrain() {
 
+        enlistDirtyProperties();
+
         val records = entityPropertyChangeRecords.stream()
                 .peek(managedProperty->managedProperty.updatePostValue()) // set post values, which have been left empty up to now
                 .filter(managedProperty->managedProperty.getPreAndPostValue().shouldPublish())
@@ -311,6 +447,16 @@ public int numberEntitiesDirtied() {
         return changeKindByEnlistedAdapter.size();
     }
 
+    @Override
+    public int numberQueryResultsCacheHits() {
+        return Math.toIntExact(numberQueryResultsCacheHits.longValue());
+    }
+
+    @Override
+    public int numberQueryResultsCacheMisses() {
+        return Math.toIntExact(numberQueryResultsCacheMisses.longValue());
+    }
+
     int propertyChangeRecordCount() {
         return snapshotPropertyChangeRecords().size();
     }
@@ -320,6 +466,7 @@ int propertyChangeRecordCount() {
     @Override
     public void enlistCreated(ManagedObject entity) {
         _Xray.enlistCreated(entity, interactionContextProvider, authenticationContextProvider);
+        enlistedEntityTypes.add(entity.getSpecification().getCorrespondingClass());
         val hasAlreadyBeenEnlisted = isEnlisted(entity);
         enlistCreatedInternal(entity);
 
@@ -332,6 +479,7 @@ public void enlistCreated(ManagedObject entity) {
     @Override
     public void enlistDeleting(ManagedObject entity) {
         _Xray.enlistDeleting(entity, interactionContextProvider, authenticationContextProvider);
+        enlistedEntityTypes.add(entity.getSpecification().getCorrespondingClass());
         enlistDeletingInternal(entity);
         CallbackFacet.Util.callCallback(entity, RemovingCallbackFacet.class);
         postLifecycleEventIfRequired(entity, RemovingLifecycleEventFacet.class);
@@ -340,6 +488,7 @@ public void enlistDeleting(ManagedObject entity) {
     @Override
     public void enlistUpdating(ManagedObject entity) {
         _Xray.enlistUpdating(entity, interactionContextProvider, authenticationContextProvider);
+        enlistedEntityTypes.add(entity.getSpecification().getCorrespondingClass());
         val hasAlreadyBeenEnlisted = isEnlisted(entity);
         // we call this come what may;
         // additional properties may now have been changed, and the changeKind for publishing might also be modified
@@ -358,6 +507,8 @@ public void recognizeLoaded(ManagedObject entity) {
         CallbackFacet.Util.callCallback(entity, LoadedCallbackFacet.class);
         postLifecycleEventIfRequired(entity, LoadedLifecycleEventFacet.class);
         numberEntitiesLoaded.increment();
+        metricsRecorderIfAny.ifPresent(metricsRecorder->
+                metricsRecorder.recordEntityLoaded(entity.getSpecification().getCorrespondingClass()));
     }
 
     @Override
@@ -374,8 +525,24 @@ public void recognizeUpdating(ManagedObject entity) {
         postLifecycleEventIfRequired(entity, UpdatedLifecycleEventFacet.class);
     }
 
+    @Override
+    public boolean hasEnlistedEntities() {
+        return !enlistedEntityTypes.isEmpty();
+    }
+
+    @Override
+    public void recognizeQueryResultsCacheLookup(boolean hit) {
+        if(hit) {
+            numberQueryResultsCacheHits.increment();
+        } else {
+            numberQueryResultsCacheMisses.increment();
+        }
+    }
+
     private final LongAdder numberEntitiesLoaded = new LongAdder();
     private final LongAdder entityChangeEventCount = new LongAdder();
+    private final LongAdder numberQueryResultsCacheHits = new LongAdder();
+    private final LongAdder numberQueryResultsCacheMisses = new LongAdder();
     private final AtomicBoolean persitentChangesEncountered = new AtomicBoolean();
 
     //  -- HELPER
@@ -0,0 +1,43 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.transaction.changetracking.events;
+
+import org.apache.isis.commons.collections.Can;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Fired after a transaction was committed (or completed with unknown outcome),
+ * that enlisted at least one entity as created, updated or deleted (or, with JPA, that flushed at least one
+ * such entity listing the {@code JpaEntityInjectionPointResolver}).
+ * <p>
+ * Allows application scoped caches to invalidate any entries that depend on those entity types.
+ *
+ * @since 2.0
+ */
+@Value(staticConstructor = "of")
+public class EntityTypesCommittedEvent {
+
+    /**
+     * The (distinct) entity types that were created, updated or deleted within the transaction.
+     */
+    private final @NonNull Can<Class<?>> entityTypes;
+
+}
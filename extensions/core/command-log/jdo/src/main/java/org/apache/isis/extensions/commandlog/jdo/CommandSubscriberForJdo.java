@@ -31,6 +31,7 @@
 import org.apache.isis.applib.util.JaxbUtil;
 import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdo;
 import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdoRepository;
+import org.apache.isis.extensions.commandlog.jdo.writebehind.CommandLogWriteBehind;
 
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -48,6 +49,7 @@
 public class CommandSubscriberForJdo implements CommandSubscriber {
 
     @Inject final CommandJdoRepository commandJdoRepository;
+    @Inject final CommandLogWriteBehind commandLogWriteBehind;
 
     @Override
     public void onCompleted(Command command) {
@@ -56,6 +58,11 @@ public void onCompleted(Command command) {
             return;
         }
 
+        if(commandLogWriteBehind.isEnabled()) {
+            commandLogWriteBehind.submit(command);
+            return;
+        }
+
         val existingCommandJdoIfAny =
                 commandJdoRepository.findByInteractionId(command.getInteractionId());
         if(existingCommandJdoIfAny.isPresent()) {
@@ -88,6 +88,11 @@
             value="SELECT "
                     + "FROM " + CommandJdo.FQCN
                     + " WHERE interactionIdStr == :interactionIdStr "),
+    @javax.jdo.annotations.Query(
+            name="findByInteractionIdStrIn",
+            value="SELECT "
+                    + "FROM " + CommandJdo.FQCN
+                    + " WHERE :interactionIdStrs.contains(interactionIdStr) "),
     @javax.jdo.annotations.Query(
             name="findByParent",
             value="SELECT "
@@ -23,10 +23,12 @@
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -111,6 +113,20 @@ public Optional<CommandJdo> findByInteractionId(final UUID interactionId) {
                     .withParameter("interactionIdStr", interactionId.toString()));
     }
 
+    /**
+     * Finds those commands that exist for any of the given interaction ids, with a single query.
+     */
+    public List<CommandJdo> findByInteractionIds(final Collection<UUID> interactionIds) {
+        if(interactionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repositoryService().allMatches(
+                Query.named(CommandJdo.class, "findByInteractionIdStrIn")
+                    .withParameter("interactionIdStrs", interactionIds.stream()
+                            .map(UUID::toString)
+                            .collect(Collectors.toList())));
+    }
+
     @Override
     public List<CommandJdo> findByParent(final CommandModel parent) {
         return repositoryService().allMatches(
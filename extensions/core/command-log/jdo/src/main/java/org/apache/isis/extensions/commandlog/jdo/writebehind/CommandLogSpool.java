@@ -0,0 +1,226 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.commandlog.jdo.writebehind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Local append-only file of records not yet persisted, together with an offset file that marks
+ * up to where records have been persisted (committed).
+ * <p>
+ * Each record is framed by its length and CRC32, so that a record torn by a crash while being
+ * appended is detected (and discarded) when the spool is opened. Once all records are committed, the
+ * spool is truncated.
+ *
+ * @since 2.0
+ */
+@Log4j2
+final class CommandLogSpool implements AutoCloseable {
+
+    static final String SPOOL_FILE_NAME = "commands.spool";
+    static final String DEAD_LETTER_FILE_NAME = "commands.dead-letter";
+
+    private static final int HEADER_LENGTH = Integer.BYTES + Long.BYTES;
+
+    @Value
+    static class Entry {
+        private final byte[] payload;
+        /** offset just past this entry, to be {@link CommandLogSpool#commit(long) committed} once persisted */
+        private final long endOffset;
+    }
+
+    private final Path offsetFile;
+    private final boolean syncOnAppend;
+    private final FileChannel channel;
+    private long committedOffset;
+
+    /**
+     * Offset just past the last intact record found when opening; records from the committed offset up to
+     * this one are to be recovered.
+     */
+    @Getter private final long recoveryEndOffset;
+
+    CommandLogSpool(
+            final @NonNull Path directory,
+            final @NonNull String fileName,
+            final boolean syncOnAppend) throws IOException {
+        Files.createDirectories(directory);
+        this.offsetFile = directory.resolve(fileName + ".offset");
+        this.syncOnAppend = syncOnAppend;
+        this.channel = FileChannel.open(directory.resolve(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        val committed = Files.exists(offsetFile)
+                ? Long.parseLong(new String(Files.readAllBytes(offsetFile), StandardCharsets.US_ASCII).trim())
+                : 0L;
+        this.committedOffset = Math.min(committed, channel.size());
+        this.recoveryEndOffset = discardTornTail();
+    }
+
+    synchronized long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    /**
+     * Reads (at most) the given number of records, starting at given offset and not beyond the
+     * {@link #getRecoveryEndOffset() recovery end offset}; so memory consumption does not depend on the
+     * size of the spool.
+     *
+     * @param fromOffset - either the {@link #getCommittedOffset() committed offset}, or the end offset of
+     *      a previously read record
+     * @return the records in the order appended, empty once the recovery end offset is reached
+     */
+    synchronized List<Entry> readUncommitted(final long fromOffset, final int maxEntries) throws IOException {
+        val entries = new ArrayList<Entry>();
+        long position = fromOffset;
+        while(entries.size() < maxEntries
+                && position < recoveryEndOffset) {
+            val payload = readIntact(position, recoveryEndOffset);
+            if(payload == null) {
+                throw new IOException("command log spool corrupted at offset " + position);
+            }
+            position += HEADER_LENGTH + payload.length;
+            entries.add(new Entry(payload, position));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the offset just past the appended record
+     */
+    synchronized long append(final byte[] payload) throws IOException {
+        val record = ByteBuffer.allocate(HEADER_LENGTH + payload.length);
+        record.putInt(payload.length);
+        record.putLong(crcOf(payload));
+        record.put(payload);
+        record.flip();
+        long position = channel.size();
+        while(record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        if(syncOnAppend) {
+            channel.force(false);
+        }
+        return position;
+    }
+
+    /**
+     * Marks all records up to given offset as persisted; truncates the spool if that covers all records.
+     */
+    synchronized void commit(final long endOffset) throws IOException {
+        if(endOffset <= committedOffset) {
+            return;
+        }
+        committedOffset = endOffset == channel.size()
+                ? 0L
+                : endOffset;
+        writeOffset(committedOffset);
+        if(committedOffset == 0L) {
+            channel.truncate(0L);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    // -- HELPER
+
+    /**
+     * Scans the uncommitted records (one at a time), truncating the spool after the last intact one.
+     * @return the offset just past the last intact record
+     */
+    private long discardTornTail() throws IOException {
+        val size = channel.size();
+        long position = committedOffset;
+        byte[] payload;
+        while((payload = readIntact(position, size)) != null) {
+            position += HEADER_LENGTH + payload.length;
+        }
+        if(position < size) {
+            log.warn("discarding {} bytes of incomplete record(s) at the end of the command log spool",
+                    size - position);
+            channel.truncate(position);
+        }
+        return position;
+    }
+
+    /**
+     * @return the payload of the record at given position, or {@code null} if incomplete or corrupted
+     */
+    private byte[] readIntact(final long position, final long limit) throws IOException {
+        if(position + HEADER_LENGTH > limit) {
+            return null;
+        }
+        val header = ByteBuffer.allocate(HEADER_LENGTH);
+        readFully(header, position);
+        header.flip();
+        val length = header.getInt();
+        val checksum = header.getLong();
+        if(length < 0
+                || position + HEADER_LENGTH + length > limit) {
+            return null;
+        }
+        val payload = ByteBuffer.allocate(length);
+        readFully(payload, position + HEADER_LENGTH);
+        return crcOf(payload.array()) == checksum
+                ? payload.array()
+                : null;
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long readPosition = position;
+        while(buffer.hasRemaining()) {
+            val read = channel.read(buffer, readPosition);
+            if(read < 0) {
+                throw new IOException("unexpected end of command log spool at offset " + readPosition);
+            }
+            readPosition += read;
+        }
+    }
+
+    private void writeOffset(final long offset) throws IOException {
+        val tmp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        Files.write(tmp, Long.toString(offset).getBytes(StandardCharsets.US_ASCII));
+        Files.move(tmp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long crcOf(final byte[] bytes) {
+        val crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+}
@@ -0,0 +1,462 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.commandlog.jdo.writebehind;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.applib.services.xactn.TransactionService;
+import org.apache.isis.commons.internal.exceptions._Exceptions;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.interaction.session.InteractionFactory;
+import org.apache.isis.core.metamodel.events.MetamodelEvent;
+import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdo;
+import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdoRepository;
+
+import lombok.Value;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Write-behind for {@link org.apache.isis.extensions.commandlog.jdo.CommandSubscriberForJdo}, enabled using
+ * {@code isis.extensions.command-log.write-behind.enabled}.
+ * <p>
+ * Completed commands are appended to a local spool file on the thread of the interaction, then persisted
+ * by a background writer in batches, each within a single transaction (and so flushed to the database
+ * in one go). Commands still in the spool when the application stopped are persisted on startup, by the
+ * writer (in batches read from the spool, so the number of them is not limited by the queue's capacity).
+ * <p>
+ * Persisting is idempotent: commands already present (by interaction id) are skipped.
+ * <p>
+ * A batch that fails is split, to isolate the failing command(s). A command that still fails after
+ * {@code isis.extensions.command-log.write-behind.max-attempts} attempts (while the database is otherwise
+ * available) is moved to the {@code commands.dead-letter} file in the spool directory, as is one that can no
+ * longer be read from the spool.
+ * <p>
+ * Should the writer fail, it is restarted (after a back-off), starting with the batch it was writing.
+ * Should the queue be full (for longer than {@code isis.extensions.command-log.write-behind.queue-offer-timeout}),
+ * the command is instead persisted synchronously, within the transaction of the interaction.
+ *
+ * @since 2.0
+ */
+@Service
+@Named("isis.ext.commandLog.CommandLogWriteBehind")
+@Order(OrderPrecedence.MIDPOINT)
+@Qualifier("Default")
+@Log4j2
+public class CommandLogWriteBehind {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private static final long RETRY_BACKOFF_MILLIS = 1000L;
+
+    private final CommandJdoRepository commandJdoRepository;
+    private final TransactionService transactionService;
+    private final InteractionFactory interactionFactory;
+    private final IsisConfiguration.Extensions.CommandLog.WriteBehind config;
+
+    private final BlockingQueue<Pending> queue;
+    private CommandLogSpool spool;
+    private CommandLogSpool deadLetterSpool;
+    private Thread writer;
+    private volatile boolean stopping = false;
+
+    // accessed by the writer thread only
+    private boolean recoveryCompleted = false;
+    private List<Pending> inHand; // the batch being written, to be retried first should the writer fail
+
+    @Inject
+    public CommandLogWriteBehind(
+            final IsisConfiguration isisConfiguration,
+            final CommandJdoRepository commandJdoRepository,
+            final TransactionService transactionService,
+            final InteractionFactory interactionFactory) {
+        this.config = isisConfiguration.getExtensions().getCommandLog().getWriteBehind();
+        this.commandJdoRepository = commandJdoRepository;
+        this.transactionService = transactionService;
+        this.interactionFactory = interactionFactory;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Spools the completed command and queues it for the background writer; if the queue remains full,
+     * persists it synchronously instead.
+     */
+    public void submit(final Command command) {
+        submit(CommandRecord.of(command));
+    }
+
+    void submit(final CommandRecord record) {
+        final Pending pending;
+        try {
+            pending = new Pending(record, spool().append(record.toBytes()));
+        } catch (IOException e) {
+            throw _Exceptions.unrecoverable("failed to spool command " + record.getInteractionId(), e);
+        }
+        try {
+            if(queue.offer(pending, config.getQueueOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        persistSynchronously(pending);
+    }
+
+    // -- LIFECYCLE
+
+    @EventListener(MetamodelEvent.class)
+    public void onMetamodelEvent(final MetamodelEvent event) {
+        if(!event.isPostMetamodel()
+                || !isEnabled()) {
+            return;
+        }
+        try {
+            spool(); // discards any torn record at the end, before new ones are appended
+        } catch (IOException e) {
+            throw _Exceptions.unrecoverable("failed to open command log spool", e);
+        }
+        startWriter();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        stopping = true;
+        if(writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        close(spool);
+        close(deadLetterSpool);
+    }
+
+    // -- HELPER
+
+    private synchronized CommandLogSpool spool() throws IOException {
+        if(spool == null) {
+            spool = new CommandLogSpool(
+                    Paths.get(config.getSpoolDirectory()),
+                    CommandLogSpool.SPOOL_FILE_NAME,
+                    config.isSyncOnAppend());
+        }
+        return spool;
+    }
+
+    private synchronized CommandLogSpool deadLetterSpool() throws IOException {
+        if(deadLetterSpool == null) {
+            deadLetterSpool = new CommandLogSpool(
+                    Paths.get(config.getSpoolDirectory()),
+                    CommandLogSpool.DEAD_LETTER_FILE_NAME,
+                    true);
+        }
+        return deadLetterSpool;
+    }
+
+    private synchronized void startWriter() {
+        if(writer != null) {
+            return;
+        }
+        writer = new Thread(this::superviseWriter, "isis-command-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Restarts the writer (after a back-off) for as long as it fails, rather than leaving the commands
+     * queued meanwhile to pile up.
+     */
+    private void superviseWriter() {
+        while(true) {
+            try {
+                write();
+                return;
+            } catch (Exception e) {
+                if(stopping) {
+                    log.error("command log writer failed while stopping; remaining commands are recovered "
+                            + "on next startup", e);
+                    return;
+                }
+                log.error("command log writer failed; restarting in {}ms", RETRY_BACKOFF_MILLIS, e);
+                sleep(RETRY_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        if(!recoveryCompleted) {
+            if(!recover()) {
+                return;
+            }
+            recoveryCompleted = true;
+        }
+        // taken from the queue before the writer failed, so is written before those after it
+        if(inHand != null
+                && !persistElseDeadLetter(inHand)) {
+            return;
+        }
+        inHand = null;
+        while(!stopping || !queue.isEmpty()) {
+            final Pending first;
+            try {
+                first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if(first == null) {
+                continue;
+            }
+            val batch = new ArrayList<Pending>(config.getBatchSize());
+            batch.add(first);
+            queue.drainTo(batch, config.getBatchSize() - 1);
+            inHand = batch;
+            if(!persistElseDeadLetter(batch)) {
+                return; // remains in the spool, so is persisted on next startup
+            }
+            inHand = null;
+        }
+    }
+
+    /**
+     * Persists the commands left in the spool by a previous run, reading them a batch at a time; those
+     * submitted meanwhile are appended after them, so are committed to the spool in order.
+     * <p>
+     * Resumes from the spool's committed offset, so may be restarted should it fail.
+     * @return whether completed (otherwise stopping)
+     */
+    private boolean recover() throws IOException {
+        int recovered = 0;
+        long position = spool().getCommittedOffset();
+        List<CommandLogSpool.Entry> entries;
+        while(!(entries = spool().readUncommitted(position, config.getBatchSize())).isEmpty()) {
+            val batch = new ArrayList<Pending>(entries.size());
+            for (final CommandLogSpool.Entry entry : entries) {
+                final CommandRecord record;
+                try {
+                    record = CommandRecord.fromBytes(entry.getPayload());
+                } catch (RuntimeException e) {
+                    // those before it are committed to the spool first, so as to commit in order
+                    if(!batch.isEmpty()
+                            && !persistElseDeadLetter(batch)) {
+                        return false;
+                    }
+                    batch.clear();
+                    deadLetter(entry.getPayload(), entry.getEndOffset());
+                    log.error("moved unreadable command to the dead-letter spool", e);
+                    continue;
+                }
+                batch.add(new Pending(record, entry.getEndOffset()));
+            }
+            if(!batch.isEmpty()
+                    && !persistElseDeadLetter(batch)) {
+                return false;
+            }
+            position = entries.get(entries.size() - 1).getEndOffset();
+            recovered += entries.size();
+        }
+        if(recovered > 0) {
+            log.info("recovered {} command(s) from spool", recovered);
+        }
+        return true;
+    }
+
+    /**
+     * Persists the batch; if that fails, splits it in halves, so that the commands not at fault are persisted
+     * regardless. A single command that fails is retried, and moved to the dead-letter spool once
+     * {@code maxAttempts} have failed while the database is otherwise available.
+     * @return whether persisted or dead-lettered (otherwise stopping)
+     */
+    private boolean persistElseDeadLetter(final List<Pending> batch) {
+        if(persist(batch)) {
+            return true;
+        }
+        if(batch.size() > 1) {
+            val half = batch.size() / 2;
+            return persistElseDeadLetter(batch.subList(0, half))
+                    && persistElseDeadLetter(batch.subList(half, batch.size()));
+        }
+        int attempts = 1;
+        while(!stopping) {
+            if(attempts >= config.getMaxAttempts()
+                    && isDatabaseAvailable()) {
+                return deadLetter(batch.get(0));
+            }
+            sleep(RETRY_BACKOFF_MILLIS);
+            if(persist(batch)) {
+                return true;
+            }
+            attempts++;
+        }
+        return false;
+    }
+
+    /**
+     * Persists the batch within a single transaction and commits it to the spool.
+     * @return whether successful
+     */
+    private boolean persist(final List<Pending> batch) {
+        try {
+            interactionFactory.runAnonymous(()->
+                transactionService.runWithinCurrentTransactionElseCreateNew(()->persistWithinTransaction(batch))
+                .optionalElseFail());
+            spool().commit(batch.get(batch.size() - 1).getEndOffset());
+            return true;
+        } catch (Exception e) {
+            log.error("failed to persist batch of {} command(s)", batch.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Persists the command within the transaction of the interaction (as if write-behind were disabled),
+     * without committing it to the spool: the writer commits past it along with the commands queued after it,
+     * else it is recovered on next startup, when persisting it again is a no-op.
+     */
+    private void persistSynchronously(final Pending pending) {
+        val interactionId = pending.getRecord().getInteractionId();
+        log.warn("could not queue command {} for the writer; persisting it synchronously", interactionId);
+        try {
+            transactionService.runWithinCurrentTransactionElseCreateNew(()->
+                persistWithinTransaction(Collections.singletonList(pending)))
+            .optionalElseFail();
+        } catch (Exception e) {
+            log.error("failed to persist command {}; moving it to the dead-letter spool", interactionId, e);
+            try {
+                deadLetterSpool().append(pending.getRecord().toBytes());
+            } catch (IOException ex) {
+                throw _Exceptions.unrecoverable("failed to dead-letter command " + interactionId, ex);
+            }
+        }
+    }
+
+    private void persistWithinTransaction(final List<Pending> batch) {
+        // prefetches (with a single query) those already persisted, along with any parents
+        val interactionIds = new LinkedHashSet<UUID>();
+        for (final Pending pending : batch) {
+            val record = pending.getRecord();
+            interactionIds.add(UUID.fromString(record.getInteractionId()));
+            if(record.getParentInteractionId() != null) {
+                interactionIds.add(UUID.fromString(record.getParentInteractionId()));
+            }
+        }
+        val persistedByInteractionId = new HashMap<String, CommandJdo>();
+        for (final CommandJdo commandJdo : commandJdoRepository.findByInteractionIds(interactionIds)) {
+            persistedByInteractionId.put(commandJdo.getInteractionIdStr(), commandJdo);
+        }
+
+        // parents are expected to precede their children, possibly within the same batch
+        for (final Pending pending : batch) {
+            val record = pending.getRecord();
+            if(persistedByInteractionId.containsKey(record.getInteractionId())) {
+                continue; // already persisted, eg. when recovered from the spool
+            }
+            val commandJdo = record.toCommandJdo();
+            val parentInteractionId = record.getParentInteractionId();
+            if(parentInteractionId != null) {
+                commandJdo.setParent(persistedByInteractionId.get(parentInteractionId));
+            }
+            commandJdoRepository.persist(commandJdo);
+            persistedByInteractionId.put(record.getInteractionId(), commandJdo);
+        }
+    }
+
+    /**
+     * Distinguishes a command at fault from the database being unavailable, in which case the command
+     * should rather be retried.
+     */
+    private boolean isDatabaseAvailable() {
+        try {
+            interactionFactory.runAnonymous(()->
+                transactionService.runWithinCurrentTransactionElseCreateNew(()->
+                    commandJdoRepository.findByInteractionIds(Collections.singleton(UUID.randomUUID())))
+                .optionalElseFail());
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean deadLetter(final Pending pending) {
+        val interactionId = pending.getRecord().getInteractionId();
+        try {
+            deadLetter(pending.getRecord().toBytes(), pending.getEndOffset());
+            log.error("moved command {} to the dead-letter spool, after {} failed attempt(s)",
+                    interactionId, config.getMaxAttempts());
+            return true;
+        } catch (IOException e) {
+            throw _Exceptions.unrecoverable("failed to dead-letter command " + interactionId, e);
+        }
+    }
+
+    private void deadLetter(final byte[] payload, final long endOffset) throws IOException {
+        deadLetterSpool().append(payload);
+        spool().commit(endOffset);
+    }
+
+    private static void close(final CommandLogSpool spool) {
+        if(spool == null) {
+            return;
+        }
+        try {
+            spool.close();
+        } catch (IOException e) {
+            log.warn("failed to close command log spool", e);
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Value
+    private static class Pending {
+        private final CommandRecord record;
+        private final long endOffset;
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.commandlog.jdo.writebehind;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.apache.isis.applib.jaxb.JavaSqlXMLGregorianCalendarMarshalling;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.applib.util.schema.CommandDtoUtils;
+import org.apache.isis.commons.internal.exceptions._Exceptions;
+import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdo;
+import org.apache.isis.extensions.commandlog.model.command.ReplayState;
+import org.apache.isis.schema.cmd.v2.CommandDto;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+/**
+ * Snapshot of a completed {@link Command}, holding everything required to persist it as a {@link CommandJdo}
+ * after the interaction that executed it has completed.
+ * <p>
+ * Serialized as GZIP compressed binary, for the spool file.
+ *
+ * @since 2.0
+ */
+@Value
+class CommandRecord {
+
+    private final @NonNull String interactionId;
+    private final @Nullable String parentInteractionId;
+    private final @NonNull CommandDto commandDto;
+    private final @Nullable Timestamp startedAt;
+    private final @Nullable Timestamp completedAt;
+    private final @Nullable Bookmark result;
+    private final @Nullable String exception;
+
+    static CommandRecord of(final @NonNull Command command) {
+        val parent = command.getParent();
+        val exception = command.getException();
+        return new CommandRecord(
+                command.getInteractionId().toString(),
+                parent != null ? parent.getInteractionId().toString() : null,
+                command.getCommandDto(),
+                command.getStartedAt(),
+                command.getCompletedAt(),
+                command.getResult(),
+                exception != null ? _Exceptions.asStacktrace(exception) : null);
+    }
+
+    /**
+     * As per {@link CommandJdo#CommandJdo(Command)}, but without the parent, which is to be set by the caller.
+     */
+    CommandJdo toCommandJdo() {
+        val commandJdo = new CommandJdo();
+
+        commandJdo.setInteractionIdStr(interactionId);
+        commandJdo.setUsername(commandDto.getUser());
+        commandJdo.setTimestamp(JavaSqlXMLGregorianCalendarMarshalling.toTimestamp(commandDto.getTimestamp()));
+
+        commandJdo.setCommandDto(commandDto);
+        commandJdo.setTarget(Bookmark.forOidDto(commandDto.getTargets().getOid().get(0)));
+        commandJdo.setLogicalMemberIdentifier(commandDto.getMember().getLogicalMemberIdentifier());
+
+        commandJdo.setStartedAt(startedAt);
+        commandJdo.setCompletedAt(completedAt);
+
+        commandJdo.setResult(result);
+        commandJdo.setException(exception);
+
+        commandJdo.setReplayState(ReplayState.UNDEFINED);
+        return commandJdo;
+    }
+
+    // -- SERIALIZATION
+
+    byte[] toBytes() {
+        val bytes = new ByteArrayOutputStream();
+        try(final DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            writeString(out, interactionId);
+            writeString(out, parentInteractionId);
+            writeTimestamp(out, startedAt);
+            writeTimestamp(out, completedAt);
+            writeString(out, result != null ? result.stringify() : null);
+            writeString(out, exception);
+            writeString(out, CommandDtoUtils.toXml(commandDto));
+        } catch (IOException e) {
+            throw _Exceptions.unrecoverable("failed to serialize command " + interactionId, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CommandRecord fromBytes(final byte[] bytes) {
+        try(final DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+            val interactionId = readString(in);
+            val parentInteractionId = readString(in);
+            val startedAt = readTimestamp(in);
+            val completedAt = readTimestamp(in);
+            val result = Bookmark.parse(readString(in)).orElse(null);
+            val exception = readString(in);
+            val commandDto = CommandDtoUtils.fromXml(readString(in));
+            return new CommandRecord(
+                    interactionId, parentInteractionId, commandDto, startedAt, completedAt, result, exception);
+        } catch (IOException e) {
+            throw _Exceptions.unrecoverable("failed to deserialize command", e);
+        }
+    }
+
+    // -- HELPER
+
+    private static void writeString(final DataOutputStream out, final @Nullable String str) throws IOException {
+        if(str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        val utf8 = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static @Nullable String readString(final DataInputStream in) throws IOException {
+        val length = in.readInt();
+        if(length < 0) {
+            return null;
+        }
+        val utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTimestamp(final DataOutputStream out, final @Nullable Timestamp timestamp) throws IOException {
+        out.writeBoolean(timestamp != null);
+        if(timestamp != null) {
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        }
+    }
+
+    private static @Nullable Timestamp readTimestamp(final DataInputStream in) throws IOException {
+        if(!in.readBoolean()) {
+            return null;
+        }
+        val timestamp = new Timestamp(in.readLong());
+        timestamp.setNanos(in.readInt());
+        return timestamp;
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.commandlog.jdo.writebehind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.val;
+
+class CommandLogSpoolTest {
+
+    private static final String FILE_NAME = CommandLogSpool.SPOOL_FILE_NAME;
+
+    @TempDir Path directory;
+
+    @Test
+    void appended_records_are_read_back_in_order() throws IOException {
+        try(val spool = open()) {
+            val first = spool.append(bytes("a"));
+            val second = spool.append(bytes("bb"));
+
+            assertThat(first).isLessThan(second);
+        }
+        try(val spool = open()) {
+            val entries = spool.readUncommitted(spool.getCommittedOffset(), 10);
+
+            assertThat(payloadsOf(entries)).containsExactly("a", "bb");
+            assertThat(entries.get(1).getEndOffset()).isEqualTo(spool.getRecoveryEndOffset());
+        }
+    }
+
+    @Test
+    void reads_are_bounded_by_max_entries() throws IOException {
+        try(val spool = open()) {
+            spool.append(bytes("a"));
+            spool.append(bytes("b"));
+            spool.append(bytes("c"));
+        }
+        try(val spool = open()) {
+            val firstChunk = spool.readUncommitted(spool.getCommittedOffset(), 2);
+            val secondChunk = spool.readUncommitted(firstChunk.get(1).getEndOffset(), 2);
+            val thirdChunk = spool.readUncommitted(secondChunk.get(0).getEndOffset(), 2);
+
+            assertThat(payloadsOf(firstChunk)).containsExactly("a", "b");
+            assertThat(payloadsOf(secondChunk)).containsExactly("c");
+            assertThat(thirdChunk).isEmpty();
+        }
+    }
+
+    @Test
+    void torn_tail_is_truncated_on_open() throws IOException {
+        long intactEndOffset;
+        try(val spool = open()) {
+            spool.append(bytes("a"));
+            intactEndOffset = spool.append(bytes("bb"));
+        }
+        // simulate a crash part-way through appending a record
+        try(val channel = FileChannel.open(spoolFile(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            val header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + 1);
+            header.putInt(100).putLong(0L).put((byte) 'c').flip();
+            channel.write(header);
+        }
+
+        try(val spool = open()) {
+            assertThat(spool.getRecoveryEndOffset()).isEqualTo(intactEndOffset);
+            assertThat(Files.size(spoolFile())).isEqualTo(intactEndOffset);
+            assertThat(payloadsOf(spool.readUncommitted(spool.getCommittedOffset(), 10)))
+                .containsExactly("a", "bb");
+        }
+    }
+
+    @Test
+    void record_failing_its_crc_and_all_after_it_are_discarded() throws IOException {
+        long firstEndOffset;
+        try(val spool = open()) {
+            firstEndOffset = spool.append(bytes("a"));
+            spool.append(bytes("b"));
+            spool.append(bytes("c"));
+        }
+        // corrupt the payload of the second record
+        try(val channel = FileChannel.open(spoolFile(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("x")), firstEndOffset + Integer.BYTES + Long.BYTES);
+        }
+
+        try(val spool = open()) {
+            assertThat(spool.getRecoveryEndOffset()).isEqualTo(firstEndOffset);
+            assertThat(payloadsOf(spool.readUncommitted(spool.getCommittedOffset(), 10)))
+                .containsExactly("a");
+        }
+    }
+
+    @Test
+    void committed_records_are_not_read_back() throws IOException {
+        try(val spool = open()) {
+            val first = spool.append(bytes("a"));
+            spool.append(bytes("b"));
+            spool.commit(first);
+
+            assertThat(spool.getCommittedOffset()).isEqualTo(first);
+        }
+        try(val spool = open()) {
+            assertThat(payloadsOf(spool.readUncommitted(spool.getCommittedOffset(), 10)))
+                .containsExactly("b");
+        }
+    }
+
+    @Test
+    void committing_all_records_truncates_the_spool() throws IOException {
+        try(val spool = open()) {
+            spool.append(bytes("a"));
+            val last = spool.append(bytes("b"));
+            spool.commit(last);
+
+            assertThat(spool.getCommittedOffset()).isZero();
+            assertThat(Files.size(spoolFile())).isZero();
+        }
+        try(val spool = open()) {
+            assertThat(spool.readUncommitted(spool.getCommittedOffset(), 10)).isEmpty();
+
+            // appends start over from the beginning
+            val endOffset = spool.append(bytes("c"));
+            assertThat(endOffset).isEqualTo(Files.size(spoolFile()));
+        }
+    }
+
+    @Test
+    void commit_does_not_go_backwards() throws IOException {
+        try(val spool = open()) {
+            val first = spool.append(bytes("a"));
+            val second = spool.append(bytes("b"));
+            spool.append(bytes("c"));
+            spool.commit(second);
+            spool.commit(first);
+
+            assertThat(spool.getCommittedOffset()).isEqualTo(second);
+        }
+    }
+
+    // -- HELPER
+
+    private CommandLogSpool open() throws IOException {
+        return new CommandLogSpool(directory, FILE_NAME, false);
+    }
+
+    private Path spoolFile() {
+        return directory.resolve(FILE_NAME);
+    }
+
+    private static byte[] bytes(final String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloadsOf(final List<CommandLogSpool.Entry> entries) {
+        return entries.stream()
+                .map(entry->new String(entry.getPayload(), StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,347 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.commandlog.jdo.writebehind;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.services.xactn.TransactionService;
+import org.apache.isis.commons.functional.Result;
+import org.apache.isis.commons.functional.ThrowingRunnable;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.interaction.session.InteractionFactory;
+import org.apache.isis.core.metamodel.events.MetamodelEvent;
+import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdo;
+import org.apache.isis.extensions.commandlog.jdo.entities.CommandJdoRepository;
+import org.apache.isis.schema.cmd.v2.ActionDto;
+import org.apache.isis.schema.cmd.v2.CommandDto;
+import org.apache.isis.schema.common.v2.OidDto;
+import org.apache.isis.schema.common.v2.OidsDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class CommandLogWriteBehindTest {
+
+    @TempDir Path spoolDirectory;
+
+    private IsisConfiguration.Extensions.CommandLog.WriteBehind config;
+    private CommandJdoRepository commandJdoRepository;
+    private TransactionService transactionService;
+    private InteractionFactory interactionFactory;
+    private CommandLogWriteBehind writeBehind;
+
+    // the (fake) database, updated only by transactions that succeed
+    private final List<CommandJdo> database = new ArrayList<>();
+    private final List<String> failingInteractionIds = new ArrayList<>();
+    private final List<String> transactionThreadNames = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        val isisConfiguration = new IsisConfiguration(null);
+        config = isisConfiguration.getExtensions().getCommandLog().getWriteBehind();
+        config.setEnabled(true);
+        config.setSpoolDirectory(spoolDirectory.toString());
+        config.setSyncOnAppend(false);
+        config.setBatchSize(10);
+        config.setMaxAttempts(1);
+
+        commandJdoRepository = Mockito.mock(CommandJdoRepository.class);
+        transactionService = Mockito.mock(TransactionService.class);
+        interactionFactory = Mockito.mock(InteractionFactory.class);
+
+        doAnswer(invocation->{
+            ((ThrowingRunnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(interactionFactory).runAnonymous(any());
+
+        when(transactionService.runWithinCurrentTransactionElseCreateNew(any()))
+        .thenAnswer(invocation->runTransaction(invocation.getArgument(0)));
+
+        when(commandJdoRepository.findByInteractionIds(any()))
+        .thenAnswer(invocation->findByInteractionIds(invocation.getArgument(0)));
+
+        doAnswer(invocation->{
+            persist(invocation.getArgument(0));
+            return null;
+        }).when(commandJdoRepository).persist(any());
+
+        writeBehind = newWriteBehind(isisConfiguration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.shutdown();
+    }
+
+    @Test
+    void failing_command_is_isolated_from_the_rest_of_its_batch_and_dead_lettered() throws Exception {
+        val ids = interactionIds(4);
+        failingInteractionIds.add(ids.get(2));
+        for (final String id : ids) {
+            writeBehind.submit(record(id, null)); // all queued before the writer starts, so a single batch
+        }
+
+        startWriter();
+        await(()->persistedInteractionIds().size() == 3);
+        writeBehind.shutdown();
+
+        assertThat(persistedInteractionIds()).containsExactly(ids.get(0), ids.get(1), ids.get(3));
+        assertThat(deadLetteredInteractionIds()).containsExactly(ids.get(2));
+        assertThat(uncommittedInSpool()).isZero();
+    }
+
+    @Test
+    void commands_already_persisted_are_skipped_when_recovered() throws Exception {
+        val ids = interactionIds(2);
+        val alreadyPersisted = record(ids.get(0), null).toCommandJdo();
+        synchronized (this) {
+            database.add(alreadyPersisted);
+        }
+        spool(record(ids.get(0), null), record(ids.get(1), ids.get(0)));
+
+        startWriter();
+        await(()->persistedInteractionIds().size() == 2);
+        writeBehind.shutdown();
+
+        assertThat(persistedInteractionIds()).containsExactly(ids.get(0), ids.get(1));
+        assertThat(persisted(ids.get(1)).getParent()).isSameAs(alreadyPersisted);
+        assertThat(uncommittedInSpool()).isZero();
+    }
+
+    @Test
+    void recovered_commands_are_persisted_before_those_submitted_meanwhile() throws Exception {
+        config.setBatchSize(1); // so recovery takes several transactions
+        val ids = interactionIds(5);
+        spool(record(ids.get(0), null), record(ids.get(1), null), record(ids.get(2), null));
+
+        startWriter();
+        writeBehind.submit(record(ids.get(3), null));
+        writeBehind.submit(record(ids.get(4), null));
+        await(()->persistedInteractionIds().size() == 5);
+        writeBehind.shutdown();
+
+        assertThat(persistedInteractionIds()).containsExactlyElementsOf(ids);
+        assertThat(uncommittedInSpool()).isZero();
+    }
+
+    @Test
+    void unreadable_command_is_dead_lettered_when_recovered() throws Exception {
+        val ids = interactionIds(2);
+        try(val spool = openSpool(CommandLogSpool.SPOOL_FILE_NAME)) {
+            spool.append(record(ids.get(0), null).toBytes());
+            spool.append("not a command".getBytes(StandardCharsets.UTF_8));
+            spool.append(record(ids.get(1), null).toBytes());
+        }
+
+        startWriter();
+        await(()->persistedInteractionIds().size() == 2);
+        writeBehind.shutdown();
+
+        assertThat(persistedInteractionIds()).containsExactly(ids.get(0), ids.get(1));
+        try(val deadLetterSpool = openSpool(CommandLogSpool.DEAD_LETTER_FILE_NAME)) {
+            val entries = deadLetterSpool.readUncommitted(0L, 10);
+            assertThat(entries).hasSize(1);
+            assertThat(new String(entries.get(0).getPayload(), StandardCharsets.UTF_8)).isEqualTo("not a command");
+        }
+        assertThat(uncommittedInSpool()).isZero();
+    }
+
+    @Test
+    void writer_is_restarted_after_failing_and_resumes_with_the_batch_in_hand() throws Exception {
+        val ids = interactionIds(2);
+        failingInteractionIds.add(ids.get(0));
+        // dead-lettering fails, for as long as the dead-letter file can't be opened
+        val blocker = Files.createDirectory(spoolDirectory.resolve(CommandLogSpool.DEAD_LETTER_FILE_NAME));
+        writeBehind.submit(record(ids.get(0), null));
+        writeBehind.submit(record(ids.get(1), null));
+
+        startWriter();
+        await(()->transactionCount() >= 3); // the batch, its failing half, then the database check
+        assertThat(persistedInteractionIds()).isEmpty();
+
+        Files.delete(blocker);
+        await(()->persistedInteractionIds().size() == 1);
+        writeBehind.shutdown();
+
+        assertThat(persistedInteractionIds()).containsExactly(ids.get(1));
+        assertThat(deadLetteredInteractionIds()).containsExactly(ids.get(0));
+        assertThat(uncommittedInSpool()).isZero();
+    }
+
+    @Test
+    void command_is_persisted_synchronously_once_the_queue_is_full() throws Exception {
+        val isisConfiguration = new IsisConfiguration(null);
+        val writeBehindConfig = isisConfiguration.getExtensions().getCommandLog().getWriteBehind();
+        writeBehindConfig.setEnabled(true);
+        writeBehindConfig.setSpoolDirectory(spoolDirectory.toString());
+        writeBehindConfig.setQueueCapacity(1);
+        writeBehindConfig.setQueueOfferTimeout(Duration.ofMillis(10));
+        writeBehind = newWriteBehind(isisConfiguration);
+
+        val ids = interactionIds(2);
+        writeBehind.submit(record(ids.get(0), null)); // queued
+        writeBehind.submit(record(ids.get(1), null)); // rather than waiting for the writer
+
+        assertThat(persistedInteractionIds()).containsExactly(ids.get(1));
+        assertThat(transactionThreadNames()).containsExactly(Thread.currentThread().getName());
+
+        startWriter();
+        await(()->persistedInteractionIds().size() == 2);
+        writeBehind.shutdown();
+
+        assertThat(persistedInteractionIds()).containsExactly(ids.get(1), ids.get(0));
+        // not committed to the spool, as not followed by one queued, so is recovered (and skipped) on next startup
+        assertThat(uncommittedInSpool()).isOne();
+    }
+
+    // -- FAKE DATABASE
+
+    private synchronized Result<Void> runTransaction(final ThrowingRunnable runnable) {
+        transactionThreadNames.add(Thread.currentThread().getName());
+        val sizeBefore = database.size();
+        val result = Result.ofVoid(runnable);
+        if(result.isFailure()) {
+            database.subList(sizeBefore, database.size()).clear(); // rolls back
+        }
+        return result;
+    }
+
+    private synchronized List<CommandJdo> findByInteractionIds(final Collection<UUID> interactionIds) {
+        val interactionIdStrs = interactionIds.stream().map(UUID::toString).collect(Collectors.toSet());
+        return database.stream()
+                .filter(commandJdo->interactionIdStrs.contains(commandJdo.getInteractionIdStr()))
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void persist(final CommandJdo commandJdo) {
+        if(failingInteractionIds.contains(commandJdo.getInteractionIdStr())) {
+            throw new IllegalStateException("failed to persist " + commandJdo.getInteractionIdStr());
+        }
+        database.add(commandJdo);
+    }
+
+    private synchronized List<String> persistedInteractionIds() {
+        return database.stream().map(CommandJdo::getInteractionIdStr).collect(Collectors.toList());
+    }
+
+    private synchronized CommandJdo persisted(final String interactionId) {
+        return database.stream()
+                .filter(commandJdo->commandJdo.getInteractionIdStr().equals(interactionId))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private synchronized int transactionCount() {
+        return transactionThreadNames.size();
+    }
+
+    private synchronized List<String> transactionThreadNames() {
+        return new ArrayList<>(transactionThreadNames);
+    }
+
+    // -- HELPER
+
+    private CommandLogWriteBehind newWriteBehind(final IsisConfiguration isisConfiguration) {
+        return new CommandLogWriteBehind(isisConfiguration, commandJdoRepository, transactionService, interactionFactory);
+    }
+
+    private void startWriter() {
+        writeBehind.onMetamodelEvent(MetamodelEvent.AFTER_METAMODEL_LOADED);
+    }
+
+    private CommandLogSpool openSpool(final String fileName) throws IOException {
+        return new CommandLogSpool(spoolDirectory, fileName, false);
+    }
+
+    private void spool(final CommandRecord... records) throws IOException {
+        try(val spool = openSpool(CommandLogSpool.SPOOL_FILE_NAME)) {
+            for (final CommandRecord record : records) {
+                spool.append(record.toBytes());
+            }
+        }
+    }
+
+    private int uncommittedInSpool() throws IOException {
+        try(val spool = openSpool(CommandLogSpool.SPOOL_FILE_NAME)) {
+            return spool.readUncommitted(spool.getCommittedOffset(), Integer.MAX_VALUE).size();
+        }
+    }
+
+    private List<String> deadLetteredInteractionIds() throws IOException {
+        try(val deadLetterSpool = openSpool(CommandLogSpool.DEAD_LETTER_FILE_NAME)) {
+            return deadLetterSpool.readUncommitted(0L, Integer.MAX_VALUE).stream()
+                    .map(entry->CommandRecord.fromBytes(entry.getPayload()).getInteractionId())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> interactionIds(final int count) {
+        val interactionIds = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            interactionIds.add(UUID.randomUUID().toString());
+        }
+        return interactionIds;
+    }
+
+    private static CommandRecord record(final String interactionId, final String parentInteractionId) {
+        val target = new OidDto();
+        target.setType("test.Customer");
+        target.setId("1");
+        val targets = new OidsDto();
+        targets.getOid().add(target);
+        val member = new ActionDto();
+        member.setLogicalMemberIdentifier("test.Customer#placeOrder");
+
+        val commandDto = new CommandDto();
+        commandDto.setInteractionId(interactionId);
+        commandDto.setUser("sven");
+        commandDto.setTargets(targets);
+        commandDto.setMember(member);
+        return new CommandRecord(interactionId, parentInteractionId, commandDto, null, null, null, null);
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        val deadline = System.currentTimeMillis() + 10_000L;
+        while(!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timed out").isLessThan(deadline);
+            Thread.sleep(10L);
+        }
+    }
+
+}
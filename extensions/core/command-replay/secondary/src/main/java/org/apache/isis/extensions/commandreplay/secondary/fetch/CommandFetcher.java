@@ -71,9 +71,27 @@ public List<CommandDto> fetchCommand(
             @Nullable final CommandModel previousHwmIfAny)
             throws StatusException {
 
+        return fetchCommandsSince(previousHwmIfAny != null ? previousHwmIfAny.getInteractionId() : null);
+    }
+
+    /**
+     * Replicates the batch of commands following the command with given interactionId.
+     *
+     * <p>
+     *     Does not require an interaction, so can be called from a background thread
+     *     (in order to prefetch the next batch while the current one is being replayed).
+     * </p>
+     *
+     * @param previousHwmInteractionIdIfAny
+     * @throws StatusException
+     */
+    public List<CommandDto> fetchCommandsSince(
+            @Nullable final UUID previousHwmInteractionIdIfAny)
+            throws StatusException {
+
         log.debug("finding command on primary ...");
 
-        final CommandsDto commandsDto = fetchCommands(previousHwmIfAny);
+        final CommandsDto commandsDto = fetchCommands(previousHwmInteractionIdIfAny);
         return commandsDto != null
                 ? commandsDto.getCommandDto()
                 : Collections.emptyList();
@@ -81,14 +99,12 @@ public List<CommandDto> fetchCommand(
 
     /**
      * @return - the commands, or <tt>null</tt> if none were found
-     * @param previousHwmIfAny
+     * @param transactionId
      * @throws StatusException
      */
-    private CommandsDto fetchCommands(final CommandModel previousHwmIfAny)
+    private CommandsDto fetchCommands(final UUID transactionId)
             throws StatusException {
 
-        final UUID transactionId = previousHwmIfAny != null ? previousHwmIfAny.getInteractionId() : null;
-
         log.debug("finding commands on primary ...");
 
         final URI uri = buildUri(transactionId);
@@ -87,12 +87,19 @@ private void exec(final JobExecutionContext quartzContext) {
                 return;
 
             case OK:
+                val replicateAndRunCommands = new ReplicateAndRunCommands();
                 val newStatus =
-                        isisInteractionFactory.callAuthenticated(authentication, new ReplicateAndRunCommands());
+                        isisInteractionFactory.callAuthenticated(authentication, replicateAndRunCommands);
 
                 if(newStatus != null) {
                     ssh.setSecondaryStatus(newStatus);
                 }
+                ssh.setReplayThroughput(
+                        replicateAndRunCommands.getReplayedCount(),
+                        replicateAndRunCommands.getElapsedMillis());
+                if(replicateAndRunCommands.getReplayedCount() > 0) {
+                    log.info("replay throughput: {} commands/s", String.format("%.1f", ssh.getReplayThroughputPerSecond()));
+                }
                 return;
 
             case REST_CALL_FAILING:
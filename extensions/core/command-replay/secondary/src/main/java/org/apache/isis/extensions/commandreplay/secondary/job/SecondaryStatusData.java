@@ -33,6 +33,8 @@
 class SecondaryStatusData {
 
     private static final String KEY_SECONDARY_STATUS = SecondaryStatusData.class.getCanonicalName();
+    private static final String KEY_REPLAYED_COUNT = KEY_SECONDARY_STATUS + ".replayedCount";
+    private static final String KEY_REPLAY_MILLIS = KEY_SECONDARY_STATUS + ".replayMillis";
 
     private final JobExecutionData jobExecutionData;
 
@@ -53,5 +55,32 @@ void setSecondaryStatus(final SecondaryStatus mode) {
         jobExecutionData.setString(KEY_SECONDARY_STATUS, mode.name());
     }
 
+    /**
+     * Records the throughput of the most recent replay run, that is the number of commands
+     * replayed and the time taken.
+     */
+    void setReplayThroughput(final int replayedCount, final long replayMillis) {
+        jobExecutionData.setString(KEY_REPLAYED_COUNT, Integer.toString(replayedCount));
+        jobExecutionData.setString(KEY_REPLAY_MILLIS, Long.toString(replayMillis));
+    }
+
+    int getReplayedCount() {
+        return Integer.parseInt(jobExecutionData.getString(KEY_REPLAYED_COUNT, "0"));
+    }
+
+    long getReplayMillis() {
+        return Long.parseLong(jobExecutionData.getString(KEY_REPLAY_MILLIS, "0"));
+    }
+
+    /**
+     * @return commands replayed per second by the most recent replay run
+     */
+    double getReplayThroughputPerSecond() {
+        val replayMillis = getReplayMillis();
+        return replayMillis > 0L
+                ? getReplayedCount() * 1000d / replayMillis
+                : 0d;
+    }
+
 }
 
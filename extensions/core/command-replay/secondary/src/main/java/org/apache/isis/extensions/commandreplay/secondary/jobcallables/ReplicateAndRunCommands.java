@@ -18,10 +18,17 @@
  */
 package org.apache.isis.extensions.commandreplay.secondary.jobcallables;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -35,7 +42,11 @@
 import org.apache.isis.extensions.commandreplay.secondary.analysis.CommandReplayAnalysisService;
 import org.apache.isis.extensions.commandreplay.secondary.fetch.CommandFetcher;
 import org.apache.isis.extensions.commandreplay.secondary.spi.ReplayCommandExecutionController;
+import org.apache.isis.schema.cmd.v2.CommandDto;
+import org.apache.isis.schema.cmd.v2.CommandsDto;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
 
@@ -49,6 +60,14 @@
  *     files.
  * </p>
  *
+ * <p>
+ *     While a batch of commands is being replayed, the next batch is already
+ *     fetched from the primary in the background. Each fetched batch is saved
+ *     for replay within a single transaction. Commands are still replayed one
+ *     at a time, in order, each in its own transaction; replay stops at the
+ *     first command that fails.
+ * </p>
+ *
  * @since 2.0 {@index}
  */
 @Log4j2
@@ -61,17 +80,39 @@ public class ReplicateAndRunCommands implements Callable<SecondaryStatus> {
     @Inject CommandReplayAnalysisService analysisService;
     @Inject Optional<ReplayCommandExecutionController> controller;
 
+    /**
+     * The number of commands (including child commands) replayed by this run.
+     */
+    @Getter private int replayedCount;
+
+    /**
+     * The time spent by this run.
+     */
+    @Getter private long elapsedMillis;
+
     @Override
     public SecondaryStatus call() {
+        val startedAt = System.nanoTime();
+        final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable->{
+            final Thread thread = new Thread(runnable, "isis-command-replay-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
         try {
-            doCall();
+            doCall(prefetchExecutor);
             return SecondaryStatus.OK;
         } catch (StatusException e) {
             return e.secondaryStatus;
+        } finally {
+            prefetchExecutor.shutdownNow();
+            elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            if(replayedCount > 0) {
+                log.info("replayed {} command(s) in {}ms", replayedCount, elapsedMillis);
+            }
         }
     }
 
-    private void doCall() throws  StatusException  {
+    private void doCall(final ExecutorService prefetchExecutor) throws  StatusException  {
 
         if(!isRunning()) {
             log.debug("ReplicateAndRunCommands is paused");
@@ -79,6 +120,7 @@ private void doCall() throws  StatusException  {
         }
 
         List<? extends CommandModel> commandsToReplay;
+        Prefetch prefetch = null;
 
         while(isRunning()) {
 
@@ -105,34 +147,57 @@ private void doCall() throws  StatusException  {
                     hwm = commandModelRepository.findMostRecentCompleted().orElse(null);
                 }
 
-                // fetch next command(s) from primary (if any)
-                val commandDtos = commandFetcher.fetchCommand(hwm);
-                commandsToReplay = commandDtos.stream()
-                        .map(dto ->
-                                transactionService.callWithinCurrentTransactionElseCreateNew(
-                                    () -> commandModelRepository.saveForReplay(dto))
-                                .optionalElseFail()
-                                .orElse(null)
-                        )
-                        .collect(Collectors.toList());
-
-                if(commandsToReplay.isEmpty()) {
+                // fetch next command(s) from primary (if any),
+                // using those prefetched if they follow on from the hwm
+                val hwmInteractionId = hwm != null ? hwm.getInteractionId() : null;
+                val commandDtos = prefetch != null
+                                && prefetch.isSince(hwmInteractionId)
+                        ? prefetch.await()
+                        : commandFetcher.fetchCommandsSince(hwmInteractionId);
+                prefetch = null;
+
+                if(commandDtos.isEmpty()) {
                     return; // nothing more to do for now.
                 }
+
+                commandsToReplay = saveForReplay(commandDtos);
+
+                // fetch the batch after this one, while replaying
+                val lastInteractionId = UUID.fromString(commandDtos.get(commandDtos.size() - 1).getInteractionId());
+                prefetch = new Prefetch(
+                        lastInteractionId,
+                        CompletableFuture.supplyAsync(()->fetchCommandsSince(lastInteractionId), prefetchExecutor));
             }
 
-            replay(commandsToReplay);
+            if(!replay(commandsToReplay)) {
+                // will effectively block the running of any further commands
+                // until the issue is fixed.
+                return;
+            }
         }
     }
 
+    /**
+     * Saves the batch of fetched commands for replay, within a single transaction.
+     */
+    private List<? extends CommandModel> saveForReplay(final List<CommandDto> commandDtos) {
+        val commandsDto = new CommandsDto();
+        commandsDto.getCommandDto().addAll(commandDtos);
+        return transactionService.callWithinCurrentTransactionElseCreateNew(
+                    () -> commandModelRepository.saveForReplay(commandsDto))
+                .optionalElseFail()
+                .<List<? extends CommandModel>>map(commands->commands)
+                .orElse(Collections.emptyList());
+    }
+
     /**
      *
      * @param commandsToReplay
-     * @apiNote could return, whether there was a command to process (and so continue)
+     * @return whether all commands replayed successfully (and so continue)
      */
-    private void replay(List<? extends CommandModel> commandsToReplay) {
+    private boolean replay(final List<? extends CommandModel> commandsToReplay) {
 
-        commandsToReplay.forEach(commandModel -> {
+        for (final CommandModel commandModel : commandsToReplay) {
 
             log.info("replaying {}", commandModel.getInteractionId());
 
@@ -143,7 +208,7 @@ private void replay(List<? extends CommandModel> commandsToReplay) {
             if(replayState.isFailed()) {
                 // will effectively block the running of any further commands
                 // until the issue is fixed.
-                return;
+                return false;
             }
 
             //
@@ -151,22 +216,21 @@ private void replay(List<? extends CommandModel> commandsToReplay) {
             //
             val parent = commandModel;
 
-            val childCommands =
+            final List<? extends CommandModel> childCommands =
                     transactionService.callWithinCurrentTransactionElseCreateNew(
                             () -> commandModelRepository.findByParent(parent))
                     .optionalElseFail()
                     .orElse(null);
-            for (val childCommand : childCommands) {
+            for (final CommandModel childCommand : childCommands) {
                 val childReplayState = executeCommandInTranAndAnalyse(childCommand);
                 if(childReplayState.isFailed()) {
                     // give up
-                    return;
+                    return false;
                 }
             }
+        }
 
-        });
-
-
+        return true;
     }
 
     private ReplayState executeCommandInTranAndAnalyse(final CommandModel commandJdo) {
@@ -180,6 +244,8 @@ private ReplayState executeCommandInTranAndAnalyse(final CommandModel commandJdo
             analysisService.analyse(commandJdo);
         });
 
+        replayedCount++;
+
         return commandJdo.getReplayState();
 
     }
@@ -196,4 +262,38 @@ private boolean isRunning() {
 
     }
 
+    // -- PREFETCH
+
+    private List<CommandDto> fetchCommandsSince(final UUID interactionId) {
+        try {
+            return commandFetcher.fetchCommandsSince(interactionId);
+        } catch (StatusException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Prefetch {
+        private final UUID sinceInteractionId;
+        private final CompletableFuture<List<CommandDto>> commandDtos;
+
+        boolean isSince(final UUID interactionId) {
+            return sinceInteractionId.equals(interactionId);
+        }
+
+        List<CommandDto> await() throws StatusException {
+            try {
+                return commandDtos.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StatusException(SecondaryStatus.UNKNOWN_STATE, e);
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof StatusException) {
+                    throw (StatusException) e.getCause();
+                }
+                throw new StatusException(SecondaryStatus.UNKNOWN_STATE, e);
+            }
+        }
+    }
+
 }
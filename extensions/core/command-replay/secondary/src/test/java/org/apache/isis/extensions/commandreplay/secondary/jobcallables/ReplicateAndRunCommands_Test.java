@@ -0,0 +1,191 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.commandreplay.secondary.jobcallables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.services.command.CommandExecutorService;
+import org.apache.isis.applib.services.xactn.TransactionService;
+import org.apache.isis.commons.functional.Result;
+import org.apache.isis.commons.functional.ThrowingRunnable;
+import org.apache.isis.extensions.commandlog.model.command.CommandModel;
+import org.apache.isis.extensions.commandlog.model.command.CommandModelRepository;
+import org.apache.isis.extensions.commandlog.model.command.ReplayState;
+import org.apache.isis.extensions.commandreplay.secondary.SecondaryStatus;
+import org.apache.isis.extensions.commandreplay.secondary.analysis.CommandReplayAnalysisService;
+import org.apache.isis.extensions.commandreplay.secondary.fetch.CommandFetcher;
+import org.apache.isis.schema.cmd.v2.CommandDto;
+import org.apache.isis.schema.cmd.v2.CommandsDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class ReplicateAndRunCommands_Test {
+
+    private final UUID id1 = UUID.randomUUID();
+    private final UUID id2 = UUID.randomUUID();
+    private final UUID id3 = UUID.randomUUID();
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final AtomicInteger savingTransactionCount = new AtomicInteger();
+    private final List<CommandModel> notYetReplayed = new ArrayList<>();
+    private final List<String> prefetchingThreadNames = Collections.synchronizedList(new ArrayList<>());
+    private CommandModel mostRecentReplayed;
+    private UUID failingInteractionId;
+
+    private CommandModelRepository<CommandModel> commandModelRepository;
+    private CommandFetcher commandFetcher;
+    private ReplicateAndRunCommands replicateAndRunCommands;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        val transactionService = Mockito.mock(TransactionService.class);
+        when(transactionService.callWithinCurrentTransactionElseCreateNew(any(Callable.class)))
+        .thenAnswer(invocation->withinTransaction(invocation.<Callable<?>>getArgument(0)));
+        when(transactionService.runWithinCurrentTransactionElseCreateNew(any(ThrowingRunnable.class)))
+        .thenAnswer(invocation->withinTransaction(
+                ThrowingRunnable.toCallable(invocation.<ThrowingRunnable>getArgument(0))));
+
+        commandModelRepository = Mockito.mock(CommandModelRepository.class);
+        when(commandModelRepository.findNotYetReplayed()).thenAnswer(__->new ArrayList<>(notYetReplayed));
+        when(commandModelRepository.findMostRecentReplayed()).thenAnswer(__->Optional.ofNullable(mostRecentReplayed));
+        when(commandModelRepository.findMostRecentCompleted()).thenReturn(Optional.empty());
+        when(commandModelRepository.findByParent(any())).thenReturn(Collections.emptyList());
+        when(commandModelRepository.saveForReplay(any(CommandsDto.class))).thenAnswer(invocation->{
+            assertTrue(inTransaction.get());
+            savingTransactionCount.incrementAndGet();
+            val commands = invocation.<CommandsDto>getArgument(0).getCommandDto().stream()
+                    .map(dto->command(UUID.fromString(dto.getInteractionId())))
+                    .collect(Collectors.toList());
+            notYetReplayed.addAll(commands);
+            return commands;
+        });
+
+        commandFetcher = Mockito.mock(CommandFetcher.class);
+        when(commandFetcher.fetchCommandsSince(null)).thenReturn(commandDtos(id1, id2));
+        when(commandFetcher.fetchCommandsSince(id2)).thenAnswer(__->prefetched(commandDtos(id3)));
+        when(commandFetcher.fetchCommandsSince(id3)).thenAnswer(__->prefetched(Collections.emptyList()));
+
+        val analysisService = Mockito.mock(CommandReplayAnalysisService.class);
+        Mockito.doAnswer(invocation->{
+            val command = invocation.<CommandModel>getArgument(0);
+            notYetReplayed.remove(command);
+            mostRecentReplayed = command;
+            return null;
+        }).when(analysisService).analyse(any());
+
+        replicateAndRunCommands = new ReplicateAndRunCommands();
+        replicateAndRunCommands.transactionService = transactionService;
+        replicateAndRunCommands.commandModelRepository = commandModelRepository;
+        replicateAndRunCommands.commandFetcher = commandFetcher;
+        replicateAndRunCommands.commandExecutorService = Mockito.mock(CommandExecutorService.class);
+        replicateAndRunCommands.analysisService = analysisService;
+        replicateAndRunCommands.controller = Optional.empty();
+    }
+
+    @Test
+    void shouldPrefetchNextBatch_whileReplaying() throws Exception {
+        assertEquals(SecondaryStatus.OK, replicateAndRunCommands.call());
+
+        assertEquals(3, replicateAndRunCommands.getReplayedCount());
+        assertEquals(id3, mostRecentReplayed.getInteractionId());
+
+        // each batch fetched once only, batches following on from the first one in the background
+        verify(commandFetcher, times(1)).fetchCommandsSince(null);
+        verify(commandFetcher, times(1)).fetchCommandsSince(id2);
+        verify(commandFetcher, times(1)).fetchCommandsSince(id3);
+        assertEquals(2, prefetchingThreadNames.size());
+        prefetchingThreadNames.forEach(threadName->assertEquals("isis-command-replay-prefetch", threadName));
+    }
+
+    @Test
+    void shouldSaveEachFetchedBatch_withinSingleTransaction() throws Exception {
+        assertEquals(SecondaryStatus.OK, replicateAndRunCommands.call());
+
+        verify(commandModelRepository, times(2)).saveForReplay(any(CommandsDto.class));
+        verify(commandModelRepository, never()).saveForReplay(any(CommandDto.class));
+        assertEquals(2, savingTransactionCount.get());
+    }
+
+    @Test
+    void shouldStopReplay_atFirstFailure() throws Exception {
+        failingInteractionId = id1;
+
+        assertEquals(SecondaryStatus.OK, replicateAndRunCommands.call());
+
+        assertEquals(1, replicateAndRunCommands.getReplayedCount());
+        assertEquals(id1, mostRecentReplayed.getInteractionId());
+        verify(commandFetcher, never()).fetchCommandsSince(id3);
+    }
+
+    // -- HELPER
+
+    private Result<?> withinTransaction(final Callable<?> callable) {
+        val outer = inTransaction.getAndSet(true);
+        try {
+            return Result.of(callable);
+        } finally {
+            inTransaction.set(outer);
+        }
+    }
+
+    private CommandModel command(final UUID interactionId) {
+        val command = Mockito.mock(CommandModel.class);
+        when(command.getInteractionId()).thenReturn(interactionId);
+        when(command.getReplayState()).thenAnswer(__->interactionId.equals(failingInteractionId)
+                ? ReplayState.FAILED
+                : ReplayState.OK);
+        return command;
+    }
+
+    private List<CommandDto> prefetched(final List<CommandDto> commandDtos) {
+        prefetchingThreadNames.add(Thread.currentThread().getName());
+        return commandDtos;
+    }
+
+    private static List<CommandDto> commandDtos(final UUID... interactionIds) {
+        val commandsDto = new CommandsDto();
+        for(val interactionId : interactionIds) {
+            val commandDto = new CommandDto();
+            commandDto.setInteractionId(interactionId.toString());
+            commandsDto.getCommandDto().add(commandDto);
+        }
+        return commandsDto.getCommandDto();
+    }
+
+}
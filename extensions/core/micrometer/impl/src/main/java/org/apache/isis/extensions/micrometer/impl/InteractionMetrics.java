@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.micrometer.impl;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.applib.services.iactn.Interaction;
+import org.apache.isis.core.interaction.scope.InteractionScopeAware;
+import org.apache.isis.core.transaction.events.TransactionAfterCompletionEvent;
+import org.apache.isis.core.transaction.events.TransactionBeforeCompletionEvent;
+
+import lombok.val;
+
+/**
+ * Times (top-level) interactions, from entering until leaving their transactional boundary, and the
+ * completion of transactions, from before until after their commit (or rollback).
+ *
+ * @since 2.0 {@index}
+ */
+@Service
+@Named("isis.ext.micrometer.InteractionMetrics")
+@Order(OrderPrecedence.MIDPOINT)
+@Qualifier("Micrometer")
+public class InteractionMetrics implements InteractionScopeAware {
+
+    public static final String INTERACTION = "isis.interaction";
+    public static final String TRANSACTION_COMPLETION = "isis.transaction.completion";
+
+    private final Timer interactionTimer;
+    private final Timer committedTimer;
+    private final Timer rolledBackTimer;
+    private final Timer unknownTimer;
+
+    private final Map<UUID, Long> startedAtNanosByInteractionId = new ConcurrentHashMap<>();
+
+    // completion events are posted synchronously, on the thread completing the transaction
+    private final ThreadLocal<Long> completionStartedAtNanos = new ThreadLocal<>();
+
+    @Inject
+    public InteractionMetrics(final MeterRegistry meterRegistry) {
+        this.interactionTimer = Timer.builder(INTERACTION).register(meterRegistry);
+        this.committedTimer = completionTimer(meterRegistry, "committed");
+        this.rolledBackTimer = completionTimer(meterRegistry, "rolled-back");
+        this.unknownTimer = completionTimer(meterRegistry, "unknown");
+    }
+
+    // -- INTERACTION
+
+    @Override
+    public void beforeEnteringTransactionalBoundary(final Interaction interaction) {
+        startedAtNanosByInteractionId.put(interaction.getInteractionId(), System.nanoTime());
+    }
+
+    @Override
+    public void afterLeavingTransactionalBoundary(final Interaction interaction) {
+        val startedAtNanos = startedAtNanosByInteractionId.remove(interaction.getInteractionId());
+        if(startedAtNanos != null) {
+            interactionTimer.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // -- TRANSACTION
+
+    @EventListener(TransactionBeforeCompletionEvent.class)
+    public void onTransactionCompleting(final TransactionBeforeCompletionEvent event) {
+        completionStartedAtNanos.set(System.nanoTime());
+    }
+
+    @EventListener(TransactionAfterCompletionEvent.class)
+    public void onTransactionCompleted(final TransactionAfterCompletionEvent event) {
+        val startedAtNanos = completionStartedAtNanos.get();
+        if(startedAtNanos == null) {
+            return;
+        }
+        completionStartedAtNanos.remove();
+        val timer = event.isCommitted()
+                ? committedTimer
+                : event.isRolledBack()
+                        ? rolledBackTimer
+                        : unknownTimer;
+        timer.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // -- HELPER
+
+    private static Timer completionTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(TRANSACTION_COMPLETION)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+}
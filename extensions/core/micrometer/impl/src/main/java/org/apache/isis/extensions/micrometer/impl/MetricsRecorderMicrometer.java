@@ -0,0 +1,174 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.micrometer.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.val;
+
+/**
+ * Publishes the framework's timings and counts to a Micrometer {@link MeterRegistry}.
+ * <p>
+ * Meters are tagged by member, type or subscriber; as these are bounded by the metamodel, so is the
+ * number of meters. Once registered, meters are cached, so recording does not touch the registry.
+ *
+ * @since 2.0 {@index}
+ */
+@Service
+@Named("isis.ext.micrometer.MetricsRecorderMicrometer")
+@Order(OrderPrecedence.MIDPOINT)
+@Primary
+@Qualifier("Micrometer")
+@RequiredArgsConstructor(onConstructor_ = {@Inject})
+public class MetricsRecorderMicrometer implements MetricsRecorder {
+
+    public static final String ACTION_INVOCATION = "isis.action.invocation";
+    public static final String PROPERTY_EDIT = "isis.property.edit";
+    public static final String MEMBER_CHECK = "isis.member.check";
+    public static final String QUERY = "isis.query";
+    public static final String ENTITY_LOADED = "isis.entity.loaded";
+    public static final String SUBSCRIBER_PUBLISHING = "isis.subscriber.publishing";
+    public static final String SPECIFICATION_LOADING = "isis.specification.loading";
+    public static final String METAMODEL_CREATION = "isis.metamodel.creation";
+
+    private final @NonNull MeterRegistry meterRegistry;
+
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordActionInvocation(final Identifier actionId, final long durationNanos, final boolean failed) {
+        timer(ACTION_INVOCATION, "member", memberNameOf(actionId), "outcome", outcomeOf(failed))
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordPropertyEdit(final Identifier propertyId, final long durationNanos, final boolean failed) {
+        timer(PROPERTY_EDIT, "member", memberNameOf(propertyId), "outcome", outcomeOf(failed))
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordCheck(final Check check, final Identifier memberId, final long durationNanos) {
+        timer(MEMBER_CHECK, "member", memberNameOf(memberId), "check", check.name().toLowerCase())
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordQuery(final Class<?> resultType) {
+        counter(QUERY, "type", resultType.getName()).increment();
+    }
+
+    @Override
+    public void recordEntityLoaded(final Class<?> entityType) {
+        counter(ENTITY_LOADED, "type", entityType.getName()).increment();
+    }
+
+    @Override
+    public void recordSubscriberPublishing(final Class<?> subscriberType, final long durationNanos) {
+        timer(SUBSCRIBER_PUBLISHING, "subscriber", subscriberType.getName(), null, null)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSpecificationLoading(final Class<?> type, final long durationNanos) {
+        timer(SPECIFICATION_LOADING, "type", type.getName(), null, null)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordMetaModelCreation(final long durationNanos) {
+        timer(METAMODEL_CREATION, null, null, null, null)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // -- HELPER
+
+    @Value
+    private static class MeterKey {
+        String name;
+        String tag1;
+        String tag2;
+    }
+
+    Timer timer(
+            final @NonNull String name,
+            final String tagKey1, final String tagValue1,
+            final String tagKey2, final String tagValue2) {
+        val key = new MeterKey(name, tagValue1, tagValue2);
+        val timer = timers.get(key); // fast path, without locking
+        return timer != null
+                ? timer
+                : timers.computeIfAbsent(key, __->{
+                    val builder = Timer.builder(name);
+                    if(tagKey1 != null) {
+                        builder.tag(tagKey1, tagValue1);
+                    }
+                    if(tagKey2 != null) {
+                        builder.tag(tagKey2, tagValue2);
+                    }
+                    return builder.register(meterRegistry);
+                });
+    }
+
+    private Counter counter(final @NonNull String name, final String tagKey, final String tagValue) {
+        val key = new MeterKey(name, tagValue, null);
+        val counter = counters.get(key); // fast path, without locking
+        return counter != null
+                ? counter
+                : counters.computeIfAbsent(key, __->Counter.builder(name)
+                        .tag(tagKey, tagValue)
+                        .register(meterRegistry));
+    }
+
+    private static String memberNameOf(final Identifier memberId) {
+        return memberId.getLogicalIdentityString("#");
+    }
+
+    private static String outcomeOf(final boolean failed) {
+        return failed ? "failure" : "success";
+    }
+
+}
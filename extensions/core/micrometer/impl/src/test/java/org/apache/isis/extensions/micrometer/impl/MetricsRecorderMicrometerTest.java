@@ -0,0 +1,119 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.micrometer.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.id.LogicalType;
+import org.apache.isis.core.metamodel.services.metrics.MetricsRecorder;
+import org.apache.isis.core.transaction.events.TransactionAfterCompletionEvent;
+import org.apache.isis.core.transaction.events.TransactionBeforeCompletionEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import lombok.val;
+
+class MetricsRecorderMicrometerTest {
+
+    static class Customer {}
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsRecorderMicrometer metricsRecorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metricsRecorder = new MetricsRecorderMicrometer(meterRegistry);
+    }
+
+    @Test
+    void actionInvocations_areTimedPerMemberAndOutcome() {
+        val placeOrder = Identifier.actionIdentifier(LogicalType.fqcn(Customer.class), "placeOrder");
+
+        metricsRecorder.recordActionInvocation(placeOrder, TimeUnit.MILLISECONDS.toNanos(3), false);
+        metricsRecorder.recordActionInvocation(placeOrder, TimeUnit.MILLISECONDS.toNanos(5), false);
+        metricsRecorder.recordActionInvocation(placeOrder, TimeUnit.MILLISECONDS.toNanos(7), true);
+
+        val succeeded = meterRegistry.get(MetricsRecorderMicrometer.ACTION_INVOCATION)
+                .tag("member", placeOrder.getLogicalIdentityString("#"))
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(2, succeeded.count());
+        assertEquals(8, succeeded.totalTime(TimeUnit.MILLISECONDS), 0.001);
+
+        val failed = meterRegistry.get(MetricsRecorderMicrometer.ACTION_INVOCATION)
+                .tag("outcome", "failure")
+                .timer();
+        assertEquals(1, failed.count());
+    }
+
+    @Test
+    void checks_areTimedPerMemberAndCheck() {
+        val name = Identifier.propertyOrCollectionIdentifier(LogicalType.fqcn(Customer.class), "name");
+
+        metricsRecorder.recordCheck(MetricsRecorder.Check.VISIBILITY, name, 1_000);
+        metricsRecorder.recordCheck(MetricsRecorder.Check.USABILITY, name, 1_000);
+        metricsRecorder.recordCheck(MetricsRecorder.Check.USABILITY, name, 1_000);
+
+        assertEquals(1, meterRegistry.get(MetricsRecorderMicrometer.MEMBER_CHECK)
+                .tag("check", "visibility").timer().count());
+        assertEquals(2, meterRegistry.get(MetricsRecorderMicrometer.MEMBER_CHECK)
+                .tag("check", "usability").timer().count());
+    }
+
+    @Test
+    void meters_areRegisteredOnce() {
+        val timer = metricsRecorder.timer(MetricsRecorderMicrometer.METAMODEL_CREATION, null, null, null, null);
+        metricsRecorder.recordMetaModelCreation(1_000);
+        metricsRecorder.recordQuery(Customer.class);
+        metricsRecorder.recordQuery(Customer.class);
+        metricsRecorder.recordEntityLoaded(Customer.class);
+
+        assertSame(timer, metricsRecorder.timer(MetricsRecorderMicrometer.METAMODEL_CREATION, null, null, null, null));
+        assertEquals(1, timer.count());
+        assertEquals(2, meterRegistry.get(MetricsRecorderMicrometer.QUERY)
+                .tag("type", Customer.class.getName()).counter().count(), 0.001);
+        assertEquals(1, meterRegistry.get(MetricsRecorderMicrometer.ENTITY_LOADED).counter().count(), 0.001);
+    }
+
+    @Test
+    void transactionCompletion_isTimedPerOutcome() {
+        val interactionMetrics = new InteractionMetrics(meterRegistry);
+
+        interactionMetrics.onTransactionCompleting(TransactionBeforeCompletionEvent.instance());
+        interactionMetrics.onTransactionCompleted(TransactionAfterCompletionEvent.COMMITTED);
+        interactionMetrics.onTransactionCompleting(TransactionBeforeCompletionEvent.instance());
+        interactionMetrics.onTransactionCompleted(TransactionAfterCompletionEvent.ROLLED_BACK);
+        // not preceded by before-completion, hence ignored
+        interactionMetrics.onTransactionCompleted(TransactionAfterCompletionEvent.COMMITTED);
+
+        assertEquals(1, meterRegistry.get(InteractionMetrics.TRANSACTION_COMPLETION)
+                .tag("outcome", "committed").timer().count());
+        assertEquals(1, meterRegistry.get(InteractionMetrics.TRANSACTION_COMPLETION)
+                .tag("outcome", "rolled-back").timer().count());
+    }
+
+}
@@ -44,6 +44,7 @@
 public class AuthorizorSecman implements Authorizor {
 
     @Inject ApplicationUserRepository applicationUserRepository;
+    @Inject AuthorizorSecmanCache authorizorSecmanCache;
 
     @Override
     public boolean isVisible(final Authentication authentication, final Identifier identifier) {
@@ -62,6 +63,13 @@ private boolean grants(
             final Identifier identifier,
             final ApplicationPermissionMode permissionMode) {
 
+        if(authorizorSecmanCache.isEnabled()) {
+            return authorizorSecmanCache.grants(
+                    authentication.getUserName(),
+                    ApplicationFeatureId.fromIdentifier(identifier),
+                    permissionMode);
+        }
+
         return applicationUserRepository
         .findByUsername(authentication.getUserName())
         .map(ApplicationUser::getPermissionSet)
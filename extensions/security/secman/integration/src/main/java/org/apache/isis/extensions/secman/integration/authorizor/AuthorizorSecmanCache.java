@@ -0,0 +1,275 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.secman.integration.authorizor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import org.apache.isis.applib.annotation.OrderPrecedence;
+import org.apache.isis.applib.services.appfeat.ApplicationFeatureId;
+import org.apache.isis.commons.internal.base._NullSafe;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
+import org.apache.isis.extensions.secman.applib.permission.dom.ApplicationPermission;
+import org.apache.isis.extensions.secman.applib.permission.dom.ApplicationPermissionMode;
+import org.apache.isis.extensions.secman.applib.permission.dom.ApplicationPermissionValueSet;
+import org.apache.isis.extensions.secman.applib.role.dom.ApplicationRole;
+import org.apache.isis.extensions.secman.applib.user.dom.ApplicationUser;
+import org.apache.isis.extensions.secman.applib.user.dom.ApplicationUserRepository;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Application scoped cache of the permission decisions made by {@link AuthorizorSecman}.
+ *
+ * <p>
+ *     Users are resolved to their (named) set of roles, and each distinct set of roles to its
+ *     {@link ApplicationPermissionValueSet permission set}, which is compiled only once and thereafter
+ *     memoizes its decisions per feature and mode. Hence, once warmed up, permission checks require
+ *     no repository access at all.
+ * </p>
+ *
+ * <p>
+ *     Everything is discarded as soon as any {@link ApplicationUser}, {@link ApplicationRole} or
+ *     {@link ApplicationPermission} change is committed, and otherwise expires after the configured
+ *     time-to-live. Changes are recognized by the {@link EntityTypesCommittedEvent}, which with JPA is only
+ *     posted for entities listing the {@code JpaEntityInjectionPointResolver} entity listener (as the
+ *     entities of secman's {@code persistence-jpa} module do).
+ * </p>
+ *
+ * <p>
+ *     Opt-in, see {@code isis.extensions.secman.authorizor.cache.enabled}.
+ * </p>
+ *
+ * @since 2.0 {@index}
+ */
+@Service
+@Named("isis.ext.secman.AuthorizorSecmanCache")
+@Order(OrderPrecedence.MIDPOINT)
+@Qualifier("Default")
+@Log4j2
+public class AuthorizorSecmanCache {
+
+    private final ApplicationUserRepository applicationUserRepository;
+    private final boolean enabled;
+    private final long timeToLiveMillis;
+    private final LongSupplier clock;
+
+    private volatile Entries entries = new Entries();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Inject
+    public AuthorizorSecmanCache(
+            final ApplicationUserRepository applicationUserRepository,
+            final IsisConfiguration isisConfiguration) {
+        this(applicationUserRepository, isisConfiguration, System::currentTimeMillis);
+    }
+
+    AuthorizorSecmanCache(
+            final ApplicationUserRepository applicationUserRepository,
+            final IsisConfiguration isisConfiguration,
+            final LongSupplier clock) {
+        val cacheConfig = isisConfiguration.getExtensions().getSecman().getAuthorizor().getCache();
+        this.applicationUserRepository = applicationUserRepository;
+        this.enabled = cacheConfig.isEnabled();
+        this.timeToLiveMillis = cacheConfig.getTimeToLive().toMillis();
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the user of given name is granted given mode of access to given feature,
+     * as per the user's {@link ApplicationUser#getPermissionSet() permission set}.
+     *
+     * @return {@code false} if there is no such user
+     */
+    public boolean grants(
+            final @NonNull String username,
+            final @NonNull ApplicationFeatureId featureId,
+            final @NonNull ApplicationPermissionMode mode) {
+
+        val entries = this.entries; // invalidation swaps the entries, so stick to the ones we started with
+        val now = clock.getAsLong();
+
+        val permissions = entries.permissionsFor(username, now);
+        if(permissions == null) {
+            return false;
+        }
+
+        val decisionKey = DecisionKey.of(featureId, mode);
+        val cached = permissions.decisions.get(decisionKey);
+        if(cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        val granted = permissions.permissionSet.grants(featureId, mode);
+        permissions.decisions.put(decisionKey, granted);
+        return granted;
+    }
+
+    /**
+     * Discards all cached users, permission sets and decisions.
+     */
+    public void invalidateAll() {
+        entries = new Entries();
+    }
+
+    @EventListener(EntityTypesCommittedEvent.class)
+    public void onEntityTypesCommitted(final EntityTypesCommittedEvent event) {
+        val affectsPermissions = event.getEntityTypes().stream()
+                .anyMatch(type->ApplicationUser.class.isAssignableFrom(type)
+                        || ApplicationRole.class.isAssignableFrom(type)
+                        || ApplicationPermission.class.isAssignableFrom(type));
+        if(affectsPermissions) {
+            log.debug("security model changed, invalidating cached permissions");
+            invalidateAll();
+        }
+    }
+
+    // -- METRICS
+
+    /**
+     * Number of permission checks answered from the cache (since startup).
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of permission checks that had to be evaluated (since startup).
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Ratio of permission checks answered from the cache, or {@code 0} if there were none yet.
+     */
+    public double getHitRate() {
+        val hitCount = getHitCount();
+        val total = hitCount + getMissCount();
+        return total == 0L
+                ? 0.
+                : (double) hitCount / total;
+    }
+
+    // -- HELPER
+
+    @Value(staticConstructor = "of")
+    private static class DecisionKey {
+        ApplicationFeatureId featureId;
+        ApplicationPermissionMode mode;
+    }
+
+    @RequiredArgsConstructor
+    private static class CompiledPermissions {
+        private final ApplicationPermissionValueSet permissionSet;
+        private final long compiledAt;
+        private final Map<DecisionKey, Boolean> decisions = new ConcurrentHashMap<>();
+    }
+
+    @RequiredArgsConstructor
+    private static class UserEntry {
+        /** role names, or {@code null} if there is no such user */
+        private final Set<String> roleNames;
+        private final long resolvedAt;
+    }
+
+    private class Entries {
+
+        private final Map<String, UserEntry> usersByName = new ConcurrentHashMap<>();
+        private final Map<Set<String>, CompiledPermissions> permissionsByRoleNames = new ConcurrentHashMap<>();
+
+        /** @return {@code null} if there is no such user */
+        CompiledPermissions permissionsFor(final String username, final long now) {
+
+            // resolved outside of the map's lock, such that repository access neither blocks other users
+            // nor re-enters the map; concurrent callers might resolve the same user twice, the last one wins
+            val current = usersByName.get(username);
+            val userEntry = current != null
+                    && !isExpired(current.resolvedAt, now)
+                    ? current
+                    : resolve(username, now);
+            if(userEntry != current) {
+                usersByName.put(username, userEntry);
+            }
+
+            if(userEntry.roleNames == null) {
+                return null;
+            }
+
+            val cached = permissionsByRoleNames.get(userEntry.roleNames);
+            if(cached != null
+                    && !isExpired(cached.compiledAt, now)) {
+                return cached;
+            }
+
+            // all users with the same set of roles share the same permissions
+            val compiled = applicationUserRepository.findByUsername(username)
+                    .map(ApplicationUser::getPermissionSet)
+                    .map(permissionSet->new CompiledPermissions(permissionSet, now))
+                    .orElse(null);
+            if(compiled != null) {
+                permissionsByRoleNames.put(userEntry.roleNames, compiled);
+            }
+            return compiled;
+        }
+
+        private UserEntry resolve(final String username, final long now) {
+            val roleNames = applicationUserRepository.findByUsername(username)
+                    .map(user->_NullSafe.stream(user.getRoles())
+                            .map(ApplicationRole::getName)
+                            .collect(Collectors.toCollection(TreeSet::new)))
+                    .<Set<String>>map(Collections::unmodifiableSet)
+                    .orElse(null);
+            return new UserEntry(roleNames, now);
+        }
+
+    }
+
+    private boolean isExpired(final long since, final long now) {
+        return now - since >= timeToLiveMillis;
+    }
+
+}
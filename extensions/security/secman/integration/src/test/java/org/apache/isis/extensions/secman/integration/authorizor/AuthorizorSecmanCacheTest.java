@@ -0,0 +1,193 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.extensions.secman.integration.authorizor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.services.appfeat.ApplicationFeatureId;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.config.IsisConfiguration;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
+import org.apache.isis.extensions.secman.applib.permission.dom.ApplicationPermissionMode;
+import org.apache.isis.extensions.secman.applib.permission.dom.ApplicationPermissionValueSet;
+import org.apache.isis.extensions.secman.applib.role.dom.ApplicationRole;
+import org.apache.isis.extensions.secman.applib.user.dom.ApplicationUser;
+import org.apache.isis.extensions.secman.applib.user.dom.ApplicationUserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class AuthorizorSecmanCacheTest {
+
+    private static final ApplicationFeatureId CUSTOMER = ApplicationFeatureId.newType("app.Customer");
+    private static final ApplicationFeatureId ORDER = ApplicationFeatureId.newType("app.Order");
+
+    private ApplicationUserRepository applicationUserRepository;
+    private ApplicationPermissionValueSet adminPermissions;
+    private ApplicationUser sven;
+    private ApplicationUser dick;
+    private AtomicLong clock;
+    private AuthorizorSecmanCache cache;
+
+    @BeforeEach
+    void setUp() {
+        applicationUserRepository = Mockito.mock(ApplicationUserRepository.class);
+
+        adminPermissions = Mockito.mock(ApplicationPermissionValueSet.class);
+        when(adminPermissions.grants(CUSTOMER, ApplicationPermissionMode.CHANGING)).thenReturn(true);
+        when(adminPermissions.grants(ORDER, ApplicationPermissionMode.CHANGING)).thenReturn(false);
+
+        // users of the same set of roles share their permissions
+        sven = user("sven", adminPermissions, "admin", "user");
+        dick = user("dick", adminPermissions, "user", "admin");
+        when(applicationUserRepository.findByUsername(any())).thenReturn(Optional.empty());
+        when(applicationUserRepository.findByUsername("sven")).thenReturn(Optional.of(sven));
+        when(applicationUserRepository.findByUsername("dick")).thenReturn(Optional.of(dick));
+
+        val isisConfiguration = new IsisConfiguration(null);
+        val cacheConfig = isisConfiguration.getExtensions().getSecman().getAuthorizor().getCache();
+        cacheConfig.setEnabled(true);
+        cacheConfig.setTimeToLive(Duration.ofSeconds(30));
+
+        clock = new AtomicLong(1_000L);
+        cache = new AuthorizorSecmanCache(applicationUserRepository, isisConfiguration, clock::get);
+    }
+
+    @Test
+    void shouldBeOptIn() {
+        assertFalse(new AuthorizorSecmanCache(applicationUserRepository, new IsisConfiguration(null)).isEnabled());
+        assertTrue(cache.isEnabled());
+    }
+
+    @Test
+    void grants_shouldCompilePermissionsOncePerRoleSet_andMemoizeDecisions() {
+        for(int i = 0; i < 3; ++i) {
+            assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+            assertTrue(cache.grants("dick", CUSTOMER, ApplicationPermissionMode.CHANGING));
+            assertFalse(cache.grants("sven", ORDER, ApplicationPermissionMode.CHANGING));
+        }
+
+        verify(sven, times(1)).getPermissionSet();
+        verify(dick, Mockito.never()).getPermissionSet();
+        verify(adminPermissions, times(1)).grants(CUSTOMER, ApplicationPermissionMode.CHANGING);
+        verify(adminPermissions, times(1)).grants(ORDER, ApplicationPermissionMode.CHANGING);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(7, cache.getHitCount());
+    }
+
+    @Test
+    void grants_whenNoSuchUser_shouldDeny() {
+        assertFalse(cache.grants("nobody", CUSTOMER, ApplicationPermissionMode.VIEWING));
+    }
+
+    @Test
+    void grants_whenExpired_shouldReload() {
+        assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(29));
+        assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+        verify(applicationUserRepository, times(2)).findByUsername("sven"); // resolve roles, compile permissions
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+        verify(applicationUserRepository, times(4)).findByUsername("sven");
+        verify(adminPermissions, times(2)).grants(CUSTOMER, ApplicationPermissionMode.CHANGING);
+    }
+
+    @Test
+    void onEntityTypesCommitted_shouldInvalidate_onlyIfSecurityModelChanged() {
+        assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+
+        cache.onEntityTypesCommitted(EntityTypesCommittedEvent.of(Can.<Class<?>>ofSingleton(String.class)));
+        assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+        verify(adminPermissions, times(1)).grants(CUSTOMER, ApplicationPermissionMode.CHANGING);
+
+        cache.onEntityTypesCommitted(EntityTypesCommittedEvent.of(Can.<Class<?>>ofSingleton(ApplicationRole.class)));
+        assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+        verify(adminPermissions, times(2)).grants(CUSTOMER, ApplicationPermissionMode.CHANGING);
+    }
+
+    @Test
+    void grants_shouldNotBlockOtherCallers_whileLoading() throws InterruptedException {
+        val loading = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val firstCall = new AtomicBoolean(true);
+        when(applicationUserRepository.findByUsername("sven")).thenAnswer(invocation->{
+            if(firstCall.getAndSet(false)) {
+                loading.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return Optional.of(sven);
+        });
+
+        val slowCaller = new Thread(()->cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+        slowCaller.start();
+        try {
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // would block on the (same) map entry, if the repository were accessed while holding its lock
+            assertTimeoutPreemptively(Duration.ofSeconds(5), ()->{
+                assertTrue(cache.grants("sven", CUSTOMER, ApplicationPermissionMode.CHANGING));
+                assertTrue(cache.grants("dick", CUSTOMER, ApplicationPermissionMode.CHANGING));
+            });
+        } finally {
+            release.countDown();
+            slowCaller.join();
+        }
+    }
+
+    // -- HELPER
+
+    private static ApplicationUser user(
+            final String username,
+            final ApplicationPermissionValueSet permissionSet,
+            final String... roleNames) {
+        val roles = new HashSet<ApplicationRole>();
+        Arrays.stream(roleNames).forEach(roleName->{
+            val role = Mockito.mock(ApplicationRole.class);
+            when(role.getName()).thenReturn(roleName);
+            roles.add(role);
+        });
+        val user = Mockito.mock(ApplicationUser.class);
+        when(user.getUsername()).thenReturn(username);
+        when(user.getRoles()).thenReturn(roles);
+        when(user.getPermissionSet()).thenReturn(permissionSet);
+        return user;
+    }
+
+}
@@ -36,7 +36,7 @@
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.wicket.model.LoadableDetachableModel;
 
 import org.apache.isis.applib.annotation.Where;
@@ -53,6 +53,11 @@ class ExcelFileModel extends LoadableDetachableModel<File> {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * number of rows held in memory while writing, older rows are flushed to disk
+     */
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
     private final EntityCollectionModel model;
 
     public ExcelFileModel(EntityCollectionModel model) {
@@ -68,7 +73,7 @@ static class RowFactory {
         }
 
         public Row newRow() {
-            return sheet.createRow((short) rowNum++);
+            return sheet.createRow(rowNum++);
         }
     }
 
@@ -94,7 +99,9 @@ private Can<OneToOneAssociation> columnProperties() {
     }
 
     private File createFile() throws IOException, FileNotFoundException {
-        try(final Workbook wb = new XSSFWorkbook()) {
+        final SXSSFWorkbook wb = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        wb.setCompressTempFiles(true);
+        try {
             String sheetName = model.getName();
             if(sheetName==null||sheetName.length()==0) sheetName = "Collection";
             final File tempFile = File.createTempFile(ExcelFileModel.class.getCanonicalName(), sheetName + ".xlsx");
@@ -110,7 +117,7 @@ private File createFile() throws IOException, FileNotFoundException {
                 // header row
                 int i=0;
                 for (ObjectAssociation property : columnProperties) {
-                    final Cell cell = row.createCell((short) i++);
+                    final Cell cell = row.createCell(i++);
                     cell.setCellValue(property.getName());
                 }
 
@@ -122,7 +129,7 @@ private File createFile() throws IOException, FileNotFoundException {
                     row = rowFactory.newRow();
                     i=0;
                     for (final ObjectAssociation property : columnProperties) {
-                        final Cell cell = row.createCell((short) i++);
+                        final Cell cell = row.createCell(i++);
                         setCellValue(objectAdapter, property, cell, dateCellStyle);
                     }
                 }
@@ -134,6 +141,9 @@ private File createFile() throws IOException, FileNotFoundException {
 
             }
             return tempFile;
+        } finally {
+            wb.dispose();
+            wb.close();
         }
     }
 
@@ -0,0 +1,208 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jdo.datanucleus.changetracking;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import org.datanucleus.enhancement.Persistable;
+import org.datanucleus.metadata.AbstractClassMetaData;
+import org.datanucleus.metadata.FieldPersistenceModifier;
+import org.datanucleus.state.ObjectProvider;
+
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.internal.collections._Lists;
+import org.apache.isis.core.metamodel.facets.object.entity.DirtyPropertiesSnapshot;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.feature.MixedIn;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Captures the pre-modification values of the (non-container) persistent fields,
+ * directly from the DataNucleus {@link ObjectProvider} (bypassing the metamodel),
+ * and later on tells which of these are dirty, based on the {@link ObjectProvider}'s dirty field
+ * flags, including those flagged prior to an intermediate flush (which resets these flags).
+ * <p>
+ * Fields not yet loaded (eg. those of a non-default fetch group) are loaded when captured, as this is
+ * the last chance to obtain their pre-modification values: the snapshot is taken before the first field
+ * is modified, but it is not known which fields will be.
+ *
+ * @since 2.0
+ */
+@RequiredArgsConstructor
+public final class DnDirtyPropertiesSnapshot implements DirtyPropertiesSnapshot {
+
+    private final @NonNull Persistable pojo;
+    private final @NonNull AbstractClassMetaData classMetaData;
+
+    /** field names by absolute field position, {@code null} if not captured */
+    private final @NonNull String[] fieldNames;
+
+    /** pre-modification values by absolute field position */
+    private final @NonNull Object[] preValues;
+
+    /** fields flagged dirty, as collected before each intermediate flush (which resets the flags) and when asked */
+    private final BitSet dirtyFields = new BitSet();
+
+    /**
+     * Whether the persistent properties of given entity's type are all backed by
+     * a DataNucleus managed field of the same name, as required to map dirty fields to properties.
+     */
+    public static boolean isSupported(final @NonNull ManagedObject entity) {
+        val classMetaData = classMetaData(entity.getPojo()).orElse(null);
+        if(classMetaData == null) {
+            return false;
+        }
+        return entity.getSpecification().streamProperties(MixedIn.EXCLUDED)
+                .filter(property->!property.isNotPersisted())
+                .allMatch(property->classMetaData.getAbsolutePositionOfMember(property.getId()) >= 0);
+    }
+
+    /**
+     * @return empty, if given pojo is not managed by DataNucleus
+     */
+    public static Optional<DirtyPropertiesSnapshot> capture(final @Nullable Object pojo) {
+        val objectProvider = objectProvider(pojo).orElse(null);
+        if(objectProvider == null) {
+            return Optional.empty();
+        }
+        val classMetaData = objectProvider.getClassMetaData();
+        val fieldCount = classMetaData.getAllMemberPositions().length;
+        val fieldNames = new String[fieldCount];
+        val preValues = new Object[fieldCount];
+
+        val loadedFields = new BitSet(fieldCount);
+        for (final int fieldNumber : objectProvider.getLoadedFieldNumbers()) {
+            loadedFields.set(fieldNumber);
+        }
+
+        for (int fieldNumber = 0; fieldNumber < fieldCount; fieldNumber++) {
+            val memberMetaData = classMetaData.getMetaDataForManagedMemberAtAbsolutePosition(fieldNumber);
+            if(memberMetaData == null
+                    || memberMetaData.hasContainer()) {
+                continue; // collections are not considered properties
+            }
+            if(!loadedFields.get(fieldNumber)) {
+                if(memberMetaData.getPersistenceModifier() != FieldPersistenceModifier.PERSISTENT) {
+                    continue; // cannot be loaded
+                }
+                objectProvider.loadField(fieldNumber);
+            }
+            fieldNames[fieldNumber] = memberMetaData.getName();
+            preValues[fieldNumber] = objectProvider.provideField(fieldNumber);
+        }
+
+        val snapshot = new DnDirtyPropertiesSnapshot((Persistable) pojo, classMetaData, fieldNames, preValues);
+        objectProvider.setAssociatedValue(DnDirtyPropertiesSnapshot.class, snapshot);
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * To be called before given pojo is flushed, so its dirty fields (as flagged up to now) are not lost
+     * to any snapshot previously captured.
+     */
+    public static void beforeFlush(final @Nullable Object pojo) {
+        objectProvider(pojo)
+        .ifPresent(objectProvider->{
+            val snapshot = objectProvider.getAssociatedValue(DnDirtyPropertiesSnapshot.class);
+            if(snapshot instanceof DnDirtyPropertiesSnapshot) {
+                ((DnDirtyPropertiesSnapshot) snapshot).collectDirtyFields(objectProvider);
+            }
+        });
+    }
+
+    @Override
+    public Can<String> getDirtyPropertyIds() {
+        val objectProvider = objectProvider(pojo).orElse(null);
+        val dirtyFieldNames = _Lists.<String>newArrayList();
+
+        if(objectProvider == null) {
+            // no longer managed, so cannot tell: consider all captured fields
+            for (val fieldName : fieldNames) {
+                if(fieldName != null) {
+                    dirtyFieldNames.add(fieldName);
+                }
+            }
+            return Can.ofCollection(dirtyFieldNames);
+        }
+
+        collectDirtyFields(objectProvider);
+        dirtyFields.stream()
+        .filter(fieldNumber->fieldNumber < fieldNames.length)
+        .mapToObj(fieldNumber->fieldNames[fieldNumber])
+        .filter(Objects::nonNull) // not a property
+        .forEach(dirtyFieldNames::add);
+        return Can.ofCollection(dirtyFieldNames);
+    }
+
+    @Override
+    public boolean isCaptured(final String propertyId) {
+        return fieldNumberOf(propertyId) >= 0;
+    }
+
+    @Override
+    public Object getPreValue(final String propertyId) {
+        val fieldNumber = fieldNumberOf(propertyId);
+        return fieldNumber >= 0
+                ? preValues[fieldNumber]
+                : null;
+    }
+
+    // -- HELPER
+
+    private void collectDirtyFields(final ObjectProvider<?> objectProvider) {
+        val dirtyFieldNumbers = objectProvider.getDirtyFieldNumbers();
+        if(dirtyFieldNumbers != null) {
+            for (final int fieldNumber : dirtyFieldNumbers) {
+                dirtyFields.set(fieldNumber);
+            }
+        }
+    }
+
+    private int fieldNumberOf(final String propertyId) {
+        val fieldNumber = classMetaData.getAbsolutePositionOfMember(propertyId);
+        return fieldNumber >= 0
+                && fieldNumber < fieldNames.length
+                && fieldNames[fieldNumber] != null
+                ? fieldNumber
+                : -1;
+    }
+
+    private static Optional<ObjectProvider<?>> objectProvider(final @Nullable Object pojo) {
+        if(!(pojo instanceof Persistable)) {
+            return Optional.empty();
+        }
+        val stateManager = ((Persistable) pojo).dnGetStateManager();
+        return stateManager instanceof ObjectProvider
+                ? Optional.of((ObjectProvider<?>) stateManager)
+                : Optional.empty();
+    }
+
+    private static Optional<AbstractClassMetaData> classMetaData(final @Nullable Object pojo) {
+        return objectProvider(pojo)
+                .map(ObjectProvider::getClassMetaData);
+    }
+
+}
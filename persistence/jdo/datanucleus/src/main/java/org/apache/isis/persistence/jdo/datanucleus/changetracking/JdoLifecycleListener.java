@@ -107,6 +107,9 @@ public void preStore(InstanceLifecycleEvent event) {
         if(pojo.dnGetStateManager().isNew(pojo)) {
             val entity = adaptEntity(pojo);
             getEntityChangeTracker().recognizePersisting(entity);
+        } else {
+            // the flush is about to reset the dirty field flags
+            DnDirtyPropertiesSnapshot.beforeFlush(pojo);
         }
     }
 
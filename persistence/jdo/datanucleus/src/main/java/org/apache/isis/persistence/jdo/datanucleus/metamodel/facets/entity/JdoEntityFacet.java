@@ -19,13 +19,26 @@
 package org.apache.isis.persistence.jdo.datanucleus.metamodel.facets.entity;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.inject.Inject;
 import javax.jdo.FetchGroup;
 import javax.jdo.PersistenceManager;
+import javax.jdo.annotations.PersistenceModifier;
+import javax.jdo.metadata.MemberMetadata;
+import javax.jdo.metadata.TypeMetadata;
 
+import org.datanucleus.api.jdo.JDOQuery;
 import org.datanucleus.enhancement.Persistable;
 import org.datanucleus.store.rdbms.RDBMSPropertyNames;
 
@@ -33,6 +46,7 @@
 import org.apache.isis.applib.query.AllInstancesQuery;
 import org.apache.isis.applib.query.NamedQuery;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryRange;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.exceprecog.Category;
 import org.apache.isis.applib.services.exceprecog.ExceptionRecognizerService;
@@ -47,12 +61,14 @@
 import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.core.metamodel.facetapi.FacetAbstract;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.facets.object.entity.DirtyPropertiesSnapshot;
 import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
 import org.apache.isis.core.metamodel.facets.object.entity.PersistenceStandard;
 import org.apache.isis.core.metamodel.objectmanager.ObjectManager;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.transaction.changetracking.EntityChangeTracker;
+import org.apache.isis.persistence.jdo.datanucleus.changetracking.DnDirtyPropertiesSnapshot;
 import org.apache.isis.persistence.jdo.datanucleus.entities.DnEntityStateProvider;
 import org.apache.isis.persistence.jdo.datanucleus.metamodel.JdoMetamodelUtil;
 import org.apache.isis.persistence.jdo.datanucleus.oid.JdoObjectIdSerializer;
@@ -67,6 +83,9 @@
 extends FacetAbstract
 implements EntityFacet {
 
+    private static final String QUERY_RESULT_CACHE_TYPE = "datanucleus.query.resultCacheType";
+    private static final String QUERY_LOAD_RESULTS_AT_COMMIT = "datanucleus.query.loadResultsAtCommit";
+
     @Inject private TransactionAwarePersistenceManagerFactoryProxy pmf;
     @Inject private TransactionService txService;
     @Inject private ObjectManager objectManager;
@@ -161,6 +180,83 @@ public ManagedObject fetchByIdentifier(
         return ManagedObject.bookmarked(actualEntitySpec, entityPojo, bookmark);
     }
 
+    /**
+     * Resolves all identifiers with a single call to {@link PersistenceManager#getObjectsById(java.util.Collection)},
+     * which honors the L1 cache and lets DataNucleus batch the lookups of the remaining instances.
+     */
+    @Override
+    public Can<ManagedObject> fetchByIdentifiers(
+            final @NonNull ObjectSpecification entitySpec,
+            final @NonNull Can<String> identifiers) {
+
+        _Assert.assertTrue(entitySpec.isEntity());
+
+        if(identifiers.size()<2) {
+            return identifiers.map(identifier->fetchByIdentifier(entitySpec, identifier));
+        }
+
+        val bookmarks = identifiers.map(identifier->
+                Bookmark.forLogicalTypeAndIdentifier(entitySpec.getLogicalType(), identifier));
+
+        log.debug("fetchEntities; bookmarks={}", bookmarks);
+
+        final Object[] entityPojos;
+        try {
+            val primaryKeys = bookmarks.map(bookmark->JdoObjectIdSerializer.toJdoObjectId(entitySpec, bookmark));
+            val persistenceManager = getPersistenceManager();
+            val fetchPlan = persistenceManager.getFetchPlan();
+            fetchPlan.addGroup(FetchGroup.DEFAULT);
+            entityPojos = persistenceManager.getObjectsById(primaryKeys.toList()).toArray();
+
+        } catch (final RuntimeException e) {
+
+            val recognition = exceptionRecognizerService.recognize(e);
+            if(recognition.isPresent()) {
+                if(recognition.get().getCategory() == Category.NOT_FOUND) {
+                    throw new ObjectNotFoundException(""+bookmarks, e);
+                }
+            }
+
+            throw e;
+        }
+
+        val specLoader = getSpecificationLoader();
+        val serviceInjector = getServiceInjector();
+
+        return bookmarks.zipMap(Arrays.asList(entityPojos), (bookmark, entityPojo)->{
+            if (entityPojo == null) {
+                throw new ObjectNotFoundException(""+bookmark);
+            }
+            val actualEntitySpec = specLoader.specForTypeElseFail(entityPojo.getClass());
+            serviceInjector.injectServicesInto(entityPojo); // might be redundant
+            return ManagedObject.bookmarked(actualEntitySpec, entityPojo, bookmark);
+        });
+    }
+
+    @Override
+    public Optional<Object> versionOf(final Object pojo) {
+        return pojo instanceof Persistable
+                ? Optional.ofNullable(((Persistable)pojo).dnGetVersion())
+                : Optional.empty();
+    }
+
+    /**
+     * Captures field values directly from DataNucleus' state manager, such that - on transaction completion -
+     * only properties flagged dirty (or found modified) are considered for change publishing.
+     */
+    @Override
+    public Optional<DirtyPropertiesSnapshot> snapshotForChangeTracking(final @NonNull ManagedObject entity) {
+        if(dirtyPropertiesSnapshotSupported == null) {
+            dirtyPropertiesSnapshotSupported = DnDirtyPropertiesSnapshot.isSupported(entity);
+        }
+        return dirtyPropertiesSnapshotSupported
+                ? DnDirtyPropertiesSnapshot.capture(entity.getPojo())
+                : Optional.empty();
+    }
+
+    /** whether all persistent properties map to DataNucleus fields of same name, lazily computed */
+    private volatile Boolean dirtyPropertiesSnapshotSupported;
+
     @Override
     public Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query) {
         if(!spec.isEntity()) {
@@ -180,13 +276,23 @@ public Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query)
 
             val persistenceManager = getPersistenceManager();
 
-            val typedQuery = persistenceManager.newJDOQLTypedQuery(queryEntityType);
-            typedQuery.extension(RDBMSPropertyNames.PROPERTY_RDBMS_QUERY_MULTIVALUED_FETCH, "none");
-
             if(!range.isUnconstrained()) {
-                typedQuery.range(range.getStart(), range.getEnd());
+                // a page, which requires a stable ordering
+                val jdoQuery = newJdoqlQuery(query).orElseThrow(_Exceptions::unexpectedCodeReach);
+                _JdoqlQueries.toPage(jdoQuery, null, identityOrdering(queryEntityType), range);
+
+                val resultList = fetchWithinTransaction(jdoQuery::executeList);
+
+                if(range.hasLimit()) {
+                    _Assert.assertTrue(resultList.size()<=range.getLimit());
+                }
+
+                return resultList;
             }
 
+            val typedQuery = persistenceManager.newJDOQLTypedQuery(queryEntityType);
+            typedQuery.extension(RDBMSPropertyNames.PROPERTY_RDBMS_QUERY_MULTIVALUED_FETCH, "none");
+
             val resultList = fetchWithinTransaction(typedQuery::executeList);
 
             if(range.hasLimit()) {
@@ -208,7 +314,12 @@ public Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query)
             namedQuery.extension(RDBMSPropertyNames.PROPERTY_RDBMS_QUERY_MULTIVALUED_FETCH, "none");
 
             if(!range.isUnconstrained()) {
-                namedQuery.range(range.getStart(), range.getEnd());
+                if(isJdoql(namedQuery)) {
+                    // a page, which requires a stable ordering
+                    _JdoqlQueries.toPage(namedQuery, declaredOrdering(namedQuery), identityOrdering(queryResultType), range);
+                } else {
+                    namedQuery.range(range.getStart(), range.getEnd());
+                }
             }
 
             // inject services into query params; not sure if required (might be redundant)
@@ -239,6 +350,221 @@ public Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query)
                 query.getDescription());
     }
 
+    @Override
+    public Optional<Can<ManagedObject>> fetchByQuery(
+            final ObjectSpecification spec,
+            final Query<?> query,
+            final String orderByPropertyId,
+            final boolean ascending) {
+
+        if(!spec.isEntity()) {
+            throw _Exceptions.unexpectedCodeReach();
+        }
+        if(!isPersistentField(query.getResultType(), orderByPropertyId)) {
+            return Optional.empty();
+        }
+
+        return newJdoqlQuery(query)
+                .map(jdoQuery->{
+
+                    if (log.isDebugEnabled()) {
+                        log.debug("about to execute Query: {}, ordered by {}", query.getDescription(), orderByPropertyId);
+                    }
+
+                    val ordering = orderByPropertyId + (ascending ? " ascending" : " descending");
+                    val identityOrdering = identityOrdering(query.getResultType());
+
+                    final QueryRange range = query.getRange();
+                    if(!range.isUnconstrained()) {
+                        _JdoqlQueries.toPage(jdoQuery, ordering, identityOrdering, range);
+                    } else {
+                        jdoQuery.setOrdering(_JdoqlQueries.stableOrdering(ordering, identityOrdering));
+                    }
+
+                    return fetchWithinTransaction(jdoQuery::executeList);
+                });
+    }
+
+    /**
+     * A single cursor over the results, as lazily loaded by DataNucleus in round-trips of the fetch size,
+     * not retaining any results already iterated over. Requires a transaction in progress, as the
+     * results would be loaded all at once on commit otherwise.
+     */
+    @Override
+    public Optional<Stream<ManagedObject>> streamByCursor(
+            final ObjectSpecification spec,
+            final Query<?> query,
+            final int fetchSize) {
+
+        if(!spec.isEntity()) {
+            throw _Exceptions.unexpectedCodeReach();
+        }
+        if(!getTransactionService().currentTransactionState().isInProgress()) {
+            return Optional.empty();
+        }
+
+        val persistenceManager = getPersistenceManager();
+
+        final javax.jdo.Query<?> jdoQuery;
+
+        if(query instanceof AllInstancesQuery) {
+
+            jdoQuery = persistenceManager.newQuery(query.getResultType());
+
+        } else if(query instanceof NamedQuery) {
+
+            val applibNamedQuery = (NamedQuery<?>) query;
+
+            jdoQuery = persistenceManager.newNamedQuery(applibNamedQuery.getResultType(), applibNamedQuery.getName());
+
+            val injector = getServiceInjector();
+            applibNamedQuery
+                .getParametersByName()
+                .values()
+                .forEach(injector::injectServicesInto);
+
+            jdoQuery.setNamedParameters(new HashMap<>(applibNamedQuery.getParametersByName()));
+
+        } else {
+            return Optional.empty();
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("about to open cursor for Query: {}", query.getDescription());
+        }
+
+        val range = query.getRange();
+        if(!range.isUnconstrained()) {
+            jdoQuery.setRange(range.getStart(), range.getEnd());
+        }
+        jdoQuery.extension(RDBMSPropertyNames.PROPERTY_RDBMS_QUERY_MULTIVALUED_FETCH, "none");
+        jdoQuery.extension(QUERY_RESULT_CACHE_TYPE, "none");
+        jdoQuery.extension(QUERY_LOAD_RESULTS_AT_COMMIT, "false");
+        jdoQuery.getFetchPlan().setFetchSize(fetchSize);
+
+        val entityChangeTracker = getFacetHolder().getServiceRegistry().lookupServiceElseFail(EntityChangeTracker.class);
+
+        // iterates the lazily loaded results, without asking for their size (which would load all of them)
+        final Iterator<?> results = jdoQuery.executeList().iterator();
+        return Optional.of(
+                StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED),
+                        false)
+                .map(fetchedObject->adopt(entityChangeTracker, fetchedObject))
+                .onClose(jdoQuery::closeAll));
+    }
+
+    @Override
+    public long countByQuery(final ObjectSpecification spec, final Query<?> query) {
+
+        if(!spec.isEntity()) {
+            throw _Exceptions.unexpectedCodeReach();
+        }
+
+        final javax.jdo.Query<?> jdoQuery = newJdoqlQuery(query).orElse(null);
+        if(jdoQuery==null) {
+            return EntityFacet.super.countByQuery(spec, query);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("about to execute count Query: {}", query.getDescription());
+        }
+
+        _JdoqlQueries.toCount(jdoQuery);
+
+        return getTransactionalProcessor().callWithinCurrentTransactionElseCreateNew(
+                ()->((Number) jdoQuery.executeResultUnique()).longValue())
+                .presentElseFail();
+    }
+
+    /**
+     * A (string based) JDOQL query equivalent to given query, but disregarding its range;
+     * or empty if there is none (eg. a named query that is not JDOQL).
+     */
+    private Optional<javax.jdo.Query<?>> newJdoqlQuery(final Query<?> query) {
+
+        val persistenceManager = getPersistenceManager();
+
+        final javax.jdo.Query<?> jdoQuery;
+
+        if(query instanceof AllInstancesQuery) {
+
+            jdoQuery = persistenceManager.newQuery(query.getResultType());
+
+        } else if(query instanceof NamedQuery) {
+
+            val applibNamedQuery = (NamedQuery<?>) query;
+
+            jdoQuery = persistenceManager.newNamedQuery(applibNamedQuery.getResultType(), applibNamedQuery.getName());
+            if(!isJdoql(jdoQuery)) {
+                return Optional.empty();
+            }
+
+            val injector = getServiceInjector();
+            applibNamedQuery
+                .getParametersByName()
+                .values()
+                .forEach(injector::injectServicesInto);
+
+            jdoQuery.setNamedParameters(new HashMap<>(applibNamedQuery.getParametersByName()));
+
+        } else {
+            return Optional.empty();
+        }
+
+        jdoQuery.extension(RDBMSPropertyNames.PROPERTY_RDBMS_QUERY_MULTIVALUED_FETCH, "none");
+        _JdoqlQueries.disregardRange(jdoQuery);
+        return Optional.of(jdoQuery);
+    }
+
+    private static boolean isJdoql(final javax.jdo.Query<?> jdoQuery) {
+        return jdoQuery instanceof JDOQuery
+                && javax.jdo.Query.JDOQL.equals(((JDOQuery<?>) jdoQuery).getLanguage());
+    }
+
+    /**
+     * @return the ordering declared by given (named) JDOQL query, if any
+     */
+    private static String declaredOrdering(final javax.jdo.Query<?> jdoQuery) {
+        return ((JDOQuery<?>) jdoQuery).getInternalQuery().getOrdering();
+    }
+
+    private Can<String> identityOrdering(final Class<?> entityType) {
+        return _JdoqlQueries.identityOrdering(getPersistenceManager().getPersistenceManagerFactory(), entityType);
+    }
+
+    private boolean isPersistentField(final Class<?> entityType, final String fieldName) {
+        val persistenceManagerFactory = getPersistenceManager().getPersistenceManagerFactory();
+        for(Class<?> type = entityType; type!=null && type!=Object.class; type = type.getSuperclass()) {
+            final TypeMetadata typeMetadata = persistenceManagerFactory.getMetadata(type.getName());
+            if(typeMetadata==null) {
+                continue;
+            }
+            for(MemberMetadata memberMetadata : typeMetadata.getMembers()) {
+                if(fieldName.equals(memberMetadata.getName())) {
+                    return memberMetadata.getPersistenceModifier() == PersistenceModifier.PERSISTENT;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void evictAll(final Can<ManagedObject> entities) {
+
+        val pojos = entities.stream()
+                .map(ManagedObject::getPojo)
+                .filter(pojo->pojo!=null && isPersistableType(pojo.getClass()))
+                .collect(Collectors.toList());
+
+        if(pojos.isEmpty()) {
+            return;
+        }
+
+        // dirty instances are not affected by eviction
+        getPersistenceManager().evictAll(pojos);
+    }
+
     @Override
     public void persist(final ObjectSpecification spec, final Object pojo) {
 
@@ -337,6 +663,13 @@ private PersistenceManager getPersistenceManager() {
         return pmf.getPersistenceManagerFactory().getPersistenceManager();
     }
 
+    private TransactionService getTransactionService() {
+        if(txService==null) {
+            getFacetHolder().getServiceInjector().injectServicesInto(this);
+        }
+        return txService;
+    }
+
     private TransactionalProcessor getTransactionalProcessor() {
         if(txService==null) {
             getFacetHolder().getServiceInjector().injectServicesInto(this);
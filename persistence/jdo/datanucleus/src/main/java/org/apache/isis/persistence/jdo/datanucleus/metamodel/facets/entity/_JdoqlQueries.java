@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jdo.datanucleus.metamodel.facets.entity;
+
+import javax.annotation.Nullable;
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.metadata.MemberMetadata;
+import javax.jdo.metadata.TypeMetadata;
+
+import org.apache.isis.applib.query.QueryRange;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.internal.base._Strings;
+import org.apache.isis.commons.internal.collections._Lists;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Adjusts (string based) JDOQL queries for counting and for paging.
+ */
+final class _JdoqlQueries {
+
+    static final String DATASTORE_IDENTITY_ORDERING = "JDOHelper.getObjectId(this) ascending";
+
+    /**
+     * Disregards any range, including one declared by a named query.
+     */
+    static void disregardRange(final @NonNull javax.jdo.Query<?> jdoQuery) {
+        jdoQuery.setRange(0L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Turns given query into one that counts its (ordinarily) selected candidates; any ordering
+     * (as may be declared by a named query) would be invalid along with an aggregate on strict databases.
+     */
+    static void toCount(final @NonNull javax.jdo.Query<?> jdoQuery) {
+        jdoQuery.setOrdering(null);
+        disregardRange(jdoQuery);
+        jdoQuery.setResult("count(this)");
+    }
+
+    /**
+     * Restricts given query to given range, ordered such that consecutive pages neither overlap nor
+     * miss any candidates: by given ordering if any, then by identity (as ties are not ordered otherwise).
+     */
+    static void toPage(
+            final @NonNull javax.jdo.Query<?> jdoQuery,
+            final @Nullable String ordering,
+            final @NonNull Can<String> identityOrdering,
+            final @NonNull QueryRange range) {
+        jdoQuery.setOrdering(stableOrdering(ordering, identityOrdering));
+        jdoQuery.setRange(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * @return given ordering, followed by the identity ordering
+     */
+    static String stableOrdering(final @Nullable String ordering, final @NonNull Can<String> identityOrdering) {
+        val orderings = _Lists.<String>newArrayList();
+        if(!_Strings.isNullOrEmpty(ordering)) {
+            orderings.add(ordering.trim());
+        }
+        identityOrdering.forEach(orderings::add);
+        return orderings.isEmpty()
+                ? null
+                : String.join(", ", orderings);
+    }
+
+    /**
+     * @return the ordering (ascending) by the primary key fields of given entity type, or by the datastore
+     * identity; empty if there is no metadata for it
+     */
+    static Can<String> identityOrdering(
+            final @NonNull PersistenceManagerFactory persistenceManagerFactory,
+            final @NonNull Class<?> entityType) {
+        val pkOrdering = _Lists.<String>newArrayList();
+        IdentityType identityType = null;
+        for(Class<?> type = entityType; type!=null && type!=Object.class; type = type.getSuperclass()) {
+            final TypeMetadata typeMetadata = persistenceManagerFactory.getMetadata(type.getName());
+            if(typeMetadata==null) {
+                continue;
+            }
+            // as declared by the root of the hierarchy
+            identityType = typeMetadata.getIdentityType()!=null
+                    ? typeMetadata.getIdentityType()
+                    : identityType;
+            for(MemberMetadata memberMetadata : typeMetadata.getMembers()) {
+                if(Boolean.TRUE.equals(memberMetadata.getPrimaryKey())) {
+                    pkOrdering.add(memberMetadata.getName() + " ascending");
+                }
+            }
+        }
+        if(identityType == IdentityType.APPLICATION
+                && !pkOrdering.isEmpty()) {
+            return Can.ofCollection(pkOrdering);
+        }
+        if(identityType == IdentityType.DATASTORE) {
+            return Can.ofSingleton(DATASTORE_IDENTITY_ORDERING);
+        }
+        return Can.empty();
+    }
+
+}
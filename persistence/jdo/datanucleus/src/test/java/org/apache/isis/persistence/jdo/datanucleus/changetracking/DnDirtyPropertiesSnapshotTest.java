@@ -0,0 +1,154 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jdo.datanucleus.changetracking;
+
+import java.util.HashMap;
+
+import org.datanucleus.enhancement.Persistable;
+import org.datanucleus.metadata.AbstractClassMetaData;
+import org.datanucleus.metadata.AbstractMemberMetaData;
+import org.datanucleus.metadata.FieldPersistenceModifier;
+import org.datanucleus.state.ObjectProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class DnDirtyPropertiesSnapshotTest {
+
+    private static final String[] FIELD_NAMES = {"name", "amount", "notes"};
+
+    private Persistable pojo;
+    private ObjectProvider<?> objectProvider;
+
+    @BeforeEach
+    void setUp() {
+        val classMetaData = Mockito.mock(AbstractClassMetaData.class);
+        when(classMetaData.getAllMemberPositions()).thenReturn(new int[] {0, 1, 2});
+        for (int fieldNumber = 0; fieldNumber < FIELD_NAMES.length; fieldNumber++) {
+            val memberMetaData = Mockito.mock(AbstractMemberMetaData.class);
+            when(memberMetaData.getName()).thenReturn(FIELD_NAMES[fieldNumber]);
+            when(memberMetaData.getPersistenceModifier()).thenReturn(FieldPersistenceModifier.PERSISTENT);
+            when(classMetaData.getMetaDataForManagedMemberAtAbsolutePosition(fieldNumber)).thenReturn(memberMetaData);
+            when(classMetaData.getAbsolutePositionOfMember(FIELD_NAMES[fieldNumber])).thenReturn(fieldNumber);
+        }
+
+        objectProvider = Mockito.mock(ObjectProvider.class);
+        when(objectProvider.getClassMetaData()).thenReturn(classMetaData);
+        when(objectProvider.provideField(anyInt())).thenAnswer(invocation->"pre-" + invocation.getArgument(0));
+        // "notes" not loaded
+        when(objectProvider.getLoadedFieldNumbers()).thenReturn(new int[] {0, 1});
+        dirtyFields();
+
+        val associatedValues = new HashMap<Object, Object>();
+        doAnswer(invocation->associatedValues.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(objectProvider).setAssociatedValue(any(), any());
+        when(objectProvider.getAssociatedValue(any())).thenAnswer(invocation->associatedValues.get(invocation.getArgument(0)));
+
+        pojo = Mockito.mock(Persistable.class);
+        when(pojo.dnGetStateManager()).thenReturn(objectProvider);
+    }
+
+    @Test
+    void captures_loaded_fields_without_reloading_these() {
+        val snapshot = DnDirtyPropertiesSnapshot.capture(pojo).get();
+
+        assertTrue(snapshot.isCaptured("name"));
+        assertEquals("pre-1", snapshot.getPreValue("amount"));
+        verify(objectProvider, never()).loadField(0);
+        verify(objectProvider, never()).loadField(1);
+    }
+
+    @Test
+    void loads_fields_not_loaded_so_as_to_capture_their_pre_values() {
+        val snapshot = DnDirtyPropertiesSnapshot.capture(pojo).get();
+
+        verify(objectProvider).loadField(2);
+        assertTrue(snapshot.isCaptured("notes"));
+        assertEquals("pre-2", snapshot.getPreValue("notes"));
+    }
+
+    @Test
+    void does_not_load_any_fields_if_all_loaded() {
+        when(objectProvider.getLoadedFieldNumbers()).thenReturn(new int[] {0, 1, 2});
+
+        DnDirtyPropertiesSnapshot.capture(pojo).get();
+
+        verify(objectProvider, never()).loadField(anyInt());
+    }
+
+    @Test
+    void does_not_capture_fields_that_are_not_persistent() {
+        when(objectProvider.getClassMetaData().getMetaDataForManagedMemberAtAbsolutePosition(2).getPersistenceModifier())
+        .thenReturn(FieldPersistenceModifier.TRANSACTIONAL);
+
+        val snapshot = DnDirtyPropertiesSnapshot.capture(pojo).get();
+
+        verify(objectProvider, never()).loadField(anyInt());
+        assertFalse(snapshot.isCaptured("notes"));
+        assertNull(snapshot.getPreValue("notes"));
+    }
+
+    @Test
+    void only_dirty_fields_are_reported() {
+        val snapshot = DnDirtyPropertiesSnapshot.capture(pojo).get();
+        dirtyFields(1);
+
+        assertEquals("[amount]", snapshot.getDirtyPropertyIds().toList().toString());
+    }
+
+    @Test
+    void fields_not_loaded_when_captured_are_reported_if_dirty() {
+        val snapshot = DnDirtyPropertiesSnapshot.capture(pojo).get();
+        dirtyFields(2);
+
+        assertEquals("[notes]", snapshot.getDirtyPropertyIds().toList().toString());
+        assertEquals("pre-2", snapshot.getPreValue("notes"));
+    }
+
+    @Test
+    void fields_dirtied_before_an_intermediate_flush_are_reported() {
+        val snapshot = DnDirtyPropertiesSnapshot.capture(pojo).get();
+        dirtyFields(0);
+        DnDirtyPropertiesSnapshot.beforeFlush(pojo);
+        dirtyFields(); // reset by the flush
+        dirtyFields(1);
+
+        assertEquals("[name, amount]", snapshot.getDirtyPropertyIds().toList().toString());
+    }
+
+    // -- HELPER
+
+    private void dirtyFields(final int... fieldNumbers) {
+        when(objectProvider.getDirtyFieldNumbers()).thenReturn(fieldNumbers);
+    }
+
+}
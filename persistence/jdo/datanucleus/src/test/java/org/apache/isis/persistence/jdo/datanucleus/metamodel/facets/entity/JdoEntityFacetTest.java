@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jdo.datanucleus.metamodel.facets.entity;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.jdo.FetchPlan;
+import javax.jdo.PersistenceManager;
+import javax.jdo.PersistenceManagerFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.apache.isis.applib.exceptions.unrecoverable.ObjectNotFoundException;
+import org.apache.isis.applib.id.LogicalType;
+import org.apache.isis.applib.services.exceprecog.ExceptionRecognizerService;
+import org.apache.isis.applib.services.inject.ServiceInjector;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.metamodel.context.MetaModelContext;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.persistence.jdo.spring.integration.TransactionAwarePersistenceManagerFactoryProxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class JdoEntityFacetTest {
+
+    static class Customer {}
+
+    private final Customer customer1 = new Customer();
+    private final Customer customer2 = new Customer();
+    private final Customer customer3 = new Customer();
+
+    private ObjectSpecification spec;
+    private PersistenceManager persistenceManager;
+    private JdoEntityFacet entityFacet;
+
+    @BeforeEach
+    void setUp() {
+        spec = Mockito.mock(ObjectSpecification.class);
+        when(spec.isEntity()).thenReturn(true);
+        when(spec.getLogicalType()).thenReturn(LogicalType.fqcn(Customer.class));
+        Mockito.doReturn(Customer.class).when(spec).getCorrespondingClass();
+
+        val specLoader = Mockito.mock(SpecificationLoader.class);
+        when(specLoader.specForTypeElseFail(Customer.class)).thenReturn(spec);
+
+        val mmc = Mockito.mock(MetaModelContext.class);
+        when(mmc.getSpecificationLoader()).thenReturn(specLoader);
+        when(mmc.getServiceInjector()).thenReturn(Mockito.mock(ServiceInjector.class));
+
+        val facetHolder = Mockito.mock(FacetHolder.class);
+        when(facetHolder.getMetaModelContext()).thenReturn(mmc);
+
+        persistenceManager = Mockito.mock(PersistenceManager.class);
+        when(persistenceManager.getFetchPlan()).thenReturn(Mockito.mock(FetchPlan.class));
+        val persistenceManagerFactory = Mockito.mock(PersistenceManagerFactory.class);
+        when(persistenceManagerFactory.getPersistenceManager()).thenReturn(persistenceManager);
+        val pmfProxy = Mockito.mock(TransactionAwarePersistenceManagerFactoryProxy.class);
+        when(pmfProxy.getPersistenceManagerFactory()).thenReturn(persistenceManagerFactory);
+
+        entityFacet = new JdoEntityFacet(facetHolder);
+        ReflectionTestUtils.setField(entityFacet, "pmf", pmfProxy);
+        ReflectionTestUtils.setField(entityFacet, "exceptionRecognizerService",
+                Mockito.mock(ExceptionRecognizerService.class));
+    }
+
+    @Test
+    void fetchByIdentifiers_shouldLookupAllAtOnce_inOrderOfIdentifiers() {
+        when(persistenceManager.getObjectsById(anyCollection()))
+        .thenReturn(Arrays.asList(customer3, customer1, customer2));
+
+        val entities = entityFacet.fetchByIdentifiers(spec, Can.of("3", "1", "2"));
+
+        assertEquals(Arrays.asList(customer3, customer1, customer2),
+                entities.map(ManagedObject::getPojo).toList());
+        assertEquals(Arrays.asList("3", "1", "2"),
+                entities.map(entity->entity.getBookmark().get().getIdentifier()).toList());
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<Object>> objectIds = ArgumentCaptor.forClass(Collection.class);
+        verify(persistenceManager, times(1)).getObjectsById(objectIds.capture());
+        verify(persistenceManager, Mockito.never()).getObjectById(any());
+        assertEquals(Arrays.asList("3", "1", "2"), Arrays.asList(objectIds.getValue().toArray()));
+    }
+
+    @Test
+    void fetchByIdentifiers_whenAnyNotFound_shouldThrow() {
+        when(persistenceManager.getObjectsById(anyCollection()))
+        .thenReturn(Arrays.asList(customer1, null));
+
+        assertThrows(ObjectNotFoundException.class,
+                ()->entityFacet.fetchByIdentifiers(spec, Can.of("1", "2")));
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jdo.datanucleus.metamodel.facets.entity;
+
+import java.util.Collections;
+
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.metadata.MemberMetadata;
+import javax.jdo.metadata.TypeMetadata;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.query.QueryRange;
+import org.apache.isis.commons.collections.Can;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class _JdoqlQueriesTest {
+
+    static class Customer {}
+    static class PreferredCustomer extends Customer {}
+
+    @Test
+    void count_clears_declared_ordering_and_range_before_aggregating() {
+        final javax.jdo.Query<?> jdoQuery = Mockito.mock(javax.jdo.Query.class);
+
+        _JdoqlQueries.toCount(jdoQuery);
+
+        final InOrder inOrder = inOrder(jdoQuery);
+        inOrder.verify(jdoQuery).setOrdering(null);
+        inOrder.verify(jdoQuery).setRange(0L, Long.MAX_VALUE);
+        inOrder.verify(jdoQuery).setResult("count(this)");
+    }
+
+    @Test
+    void page_is_ordered_by_given_ordering_then_identity() {
+        final javax.jdo.Query<?> jdoQuery = Mockito.mock(javax.jdo.Query.class);
+
+        _JdoqlQueries.toPage(jdoQuery, "name descending", Can.ofSingleton("id ascending"),
+                QueryRange.start(20).withLimit(10));
+
+        verify(jdoQuery).setOrdering("name descending, id ascending");
+        verify(jdoQuery).setRange(20L, 30L);
+    }
+
+    @Test
+    void page_without_ordering_is_ordered_by_identity() {
+        final javax.jdo.Query<?> jdoQuery = Mockito.mock(javax.jdo.Query.class);
+
+        _JdoqlQueries.toPage(jdoQuery, null, Can.ofSingleton(_JdoqlQueries.DATASTORE_IDENTITY_ORDERING),
+                QueryRange.limit(10));
+
+        verify(jdoQuery).setOrdering(_JdoqlQueries.DATASTORE_IDENTITY_ORDERING);
+        verify(jdoQuery).setRange(0L, 10L);
+    }
+
+    @Test
+    void stable_ordering_when_nothing_to_order_by() {
+        assertNull(_JdoqlQueries.stableOrdering(null, Can.empty()));
+        assertEquals("name ascending", _JdoqlQueries.stableOrdering(" name ascending ", Can.empty()));
+    }
+
+    @Test
+    void identity_ordering_by_primary_key_fields_declared_up_the_hierarchy() {
+        val pmf = Mockito.mock(PersistenceManagerFactory.class);
+        val subTypeMetadata = typeMetadata(null, member("rating", false));
+        val rootTypeMetadata = typeMetadata(IdentityType.APPLICATION, member("name", false), member("id", true));
+        when(pmf.getMetadata(PreferredCustomer.class.getName())).thenReturn(subTypeMetadata);
+        when(pmf.getMetadata(Customer.class.getName())).thenReturn(rootTypeMetadata);
+
+        assertEquals(Collections.singletonList("id ascending"),
+                _JdoqlQueries.identityOrdering(pmf, PreferredCustomer.class).toList());
+    }
+
+    @Test
+    void identity_ordering_by_datastore_identity() {
+        val pmf = Mockito.mock(PersistenceManagerFactory.class);
+        val typeMetadata = typeMetadata(IdentityType.DATASTORE, member("name", false));
+        when(pmf.getMetadata(Customer.class.getName())).thenReturn(typeMetadata);
+
+        assertEquals(Collections.singletonList(_JdoqlQueries.DATASTORE_IDENTITY_ORDERING),
+                _JdoqlQueries.identityOrdering(pmf, Customer.class).toList());
+    }
+
+    @Test
+    void no_identity_ordering_without_metadata() {
+        val pmf = Mockito.mock(PersistenceManagerFactory.class);
+
+        assertTrue(_JdoqlQueries.identityOrdering(pmf, Customer.class).isEmpty());
+    }
+
+    // -- HELPER
+
+    private static TypeMetadata typeMetadata(final IdentityType identityType, final MemberMetadata... members) {
+        val typeMetadata = Mockito.mock(TypeMetadata.class);
+        when(typeMetadata.getIdentityType()).thenReturn(identityType);
+        when(typeMetadata.getMembers()).thenReturn(members);
+        return typeMetadata;
+    }
+
+    private static MemberMetadata member(final String name, final boolean primaryKey) {
+        val memberMetadata = Mockito.mock(MemberMetadata.class);
+        when(memberMetadata.getName()).thenReturn(name);
+        when(memberMetadata.getPrimaryKey()).thenReturn(primaryKey);
+        return memberMetadata;
+    }
+
+}
@@ -28,6 +28,7 @@
 import javax.persistence.PreUpdate;
 
 import org.apache.isis.applib.services.inject.ServiceInjector;
+import org.apache.isis.persistence.jpa.applib.services.JpaChangedEntityTypesCollector;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -35,6 +36,9 @@
  * EntityListener class for listing with the {@link javax.persistence.EntityListeners} annotation, to
  * support injection point resolving for entities.
  * <p>
+ * Also reports the entities created, updated or deleted to the {@link JpaChangedEntityTypesCollector}, so that
+ * application scoped caches (eg. shared query results) are invalidated for entities listing this class.
+ * <p>
  * Instances of this class are not managed by Spring, but by the persistence layer.
  * <p>
  * The particular persistence layer implementation in use needs to be configured,
@@ -48,6 +52,9 @@ public class JpaEntityInjectionPointResolver {
     @Inject // not managed by Spring (directly)
     private ServiceInjector serviceInjector;
 
+    @Inject // not managed by Spring (directly)
+    private JpaChangedEntityTypesCollector changedEntityTypesCollector;
+
     @PrePersist
     @PreUpdate
     @PreRemove
@@ -61,6 +68,7 @@ private void beforeAnyUpdate(Object entityPojo) {
     @PostRemove
     private void afterAnyUpdate(Object entityPojo) {
         log.debug("afterAnyUpdate: {}", entityPojo);
+        changedEntityTypesCollector.onEntityChanged(entityPojo);
     }
 
     @PostLoad
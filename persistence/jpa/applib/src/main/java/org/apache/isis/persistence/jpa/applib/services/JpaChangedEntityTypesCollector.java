@@ -0,0 +1,40 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jpa.applib.services;
+
+import org.apache.isis.persistence.jpa.applib.integration.JpaEntityInjectionPointResolver;
+
+import lombok.NonNull;
+
+/**
+ * Collects the types of the entities created, updated or deleted within the current transaction, as
+ * reported by the {@link JpaEntityInjectionPointResolver} entity listener; so that application scoped caches
+ * depending on those types are invalidated once the transaction has committed.
+ *
+ * @since 2.0 {@index}
+ */
+public interface JpaChangedEntityTypesCollector {
+
+    /**
+     * Called (after flushing) for each entity created, updated or deleted.
+     * @param entityPojo - (non-null)
+     */
+    void onEntityChanged(@NonNull Object entityPojo);
+
+}
@@ -24,6 +24,7 @@
 
 import org.apache.isis.core.runtime.IsisModuleCoreRuntime;
 import org.apache.isis.persistence.jpa.integration.metamodel.JpaProgrammingModel;
+import org.apache.isis.persistence.jpa.integration.services.JpaChangedEntityTypesCollectorUsingSpring;
 import org.apache.isis.persistence.jpa.integration.services.JpaSupportServiceUsingSpring;
 import org.apache.isis.persistence.jpa.integration.typeconverters.JavaAwtBufferedImageByteArrayConverter;
 
@@ -38,6 +39,7 @@
 
         // @Service's
         JpaSupportServiceUsingSpring.class,
+        JpaChangedEntityTypesCollectorUsingSpring.class,
 
 //        DataNucleusSettings.class,
 //        ExceptionRecognizerForSQLIntegrityConstraintViolationUniqueOrIndexException.class,
@@ -18,13 +18,24 @@
  */
 package org.apache.isis.persistence.jpa.integration.metamodel;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EmbeddableType;
 import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
 
 import org.springframework.data.jpa.repository.JpaContext;
 
@@ -32,14 +43,18 @@
 import org.apache.isis.applib.query.AllInstancesQuery;
 import org.apache.isis.applib.query.NamedQuery;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryRange;
 import org.apache.isis.applib.services.registry.ServiceRegistry;
 import org.apache.isis.applib.services.repository.EntityState;
 import org.apache.isis.applib.services.urlencoding.UrlEncodingService;
+import org.apache.isis.applib.services.xactn.TransactionService;
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.collections.ImmutableEnumSet;
 import org.apache.isis.commons.internal.base._Casts;
 import org.apache.isis.commons.internal.base._Lazy;
 import org.apache.isis.commons.internal.base._Strings;
+import org.apache.isis.commons.internal.collections._Lists;
+import org.apache.isis.commons.internal.collections._Maps;
 import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.commons.internal.memento._Mementos;
 import org.apache.isis.commons.internal.memento._Mementos.SerializingAdapter;
@@ -87,6 +102,15 @@ public void process(ProcessClassContext processClassContext) {
     extends FacetAbstract
     implements EntityFacet {
 
+        /**
+         * Upper bound for the number of elements within a primary-key IN-query
+         * (some databases limit the size of IN-lists, eg. Oracle to 1000).
+         */
+        private static final int MAX_PRIMARY_KEYS_PER_QUERY = 500;
+
+        private static final String ECLIPSELINK_FETCH_SIZE = "eclipselink.jdbc.fetch-size";
+        private static final String HIBERNATE_FETCH_SIZE = "org.hibernate.fetchSize";
+
         private final Class<?> entityClass;
         private final ServiceRegistry serviceRegistry;
 
@@ -158,6 +182,80 @@ public ManagedObject fetchByIdentifier(
             return ManagedObject.of(entitySpec, entityPojo);
         }
 
+        /**
+         * Resolves the identifiers with (chunked) primary-key IN-queries.
+         * <p>
+         * Entities held by the provider's shared (second-level) {@link javax.persistence.Cache} are looked up
+         * first, such that these are not queried for. JPA has no (portable) means to tell whether an entity is
+         * managed by the persistence context without possibly loading it, so entities that are managed but not
+         * held by the shared cache are queried for, along with the others; the query still answers the managed
+         * instances (the persistence context guarantees object identity).
+         * <p>
+         * Falls back to one by one lookup, if the entity has no single id attribute.
+         */
+        @Override
+        public Can<ManagedObject> fetchByIdentifiers(
+                final @NonNull ObjectSpecification entitySpec,
+                final @NonNull Can<String> identifiers) {
+
+            if(identifiers.size()<2
+                    || !getJpaEntityType().hasSingleIdAttribute()
+                    || getJpaEntityType().getIdType().getPersistenceType()!=Type.PersistenceType.BASIC) {
+                return identifiers.map(identifier->fetchByIdentifier(entitySpec, identifier));
+            }
+
+            val entityManager = getEntityManager();
+            val persistenceUnitUtil = getPersistenceUnitUtil(entityManager);
+            val idAttribute = getJpaEntityType().getSingularAttributes().stream()
+                    .filter(SingularAttribute::isId)
+                    .findFirst()
+                    .orElseThrow(_Exceptions::noSuchElement);
+
+            val entityByPrimaryKey = _Maps.<Object, Object>newHashMap();
+            val primaryKeys = _Lists.<Object>newArrayList();
+            val cache = entityManager.getEntityManagerFactory().getCache();
+
+            for(val identifier : identifiers) {
+                val primaryKey = getObjectIdSerializer().parse(identifier);
+                if(cache!=null
+                        && cache.contains(entityClass, primaryKey)) {
+                    // resolved from the persistence context if managed, else from the shared cache;
+                    // not using getReference(..), which queries the database when there is no entity at hand,
+                    // unless the provider supports lazy loading (eg. EclipseLink requires weaving)
+                    val entityPojo = entityManager.find(entityClass, primaryKey);
+                    if(entityPojo!=null) {
+                        entityByPrimaryKey.put(primaryKey, entityPojo);
+                        continue;
+                    }
+                }
+                primaryKeys.add(primaryKey);
+            }
+
+            for(int from = 0; from < primaryKeys.size(); from += MAX_PRIMARY_KEYS_PER_QUERY) {
+                val primaryKeysChunk = primaryKeys.subList(
+                        from, Math.min(from + MAX_PRIMARY_KEYS_PER_QUERY, primaryKeys.size()));
+
+                val cb = entityManager.getCriteriaBuilder();
+                val cr = cb.createQuery(entityClass);
+                val root = cr.from(entityClass);
+                cr.select(_Casts.uncheckedCast(root))
+                  .where(root.get(idAttribute.getName()).in(primaryKeysChunk));
+
+                entityManager.createQuery(cr)
+                .getResultList()
+                .forEach(entityPojo->
+                    entityByPrimaryKey.put(persistenceUnitUtil.getIdentifier(entityPojo), entityPojo));
+            }
+
+            return identifiers.map(identifier->{
+                val entityPojo = entityByPrimaryKey.get(getObjectIdSerializer().parse(identifier));
+                if (entityPojo == null) {
+                    throw new ObjectNotFoundException(""+identifier);
+                }
+                return ManagedObject.of(entitySpec, entityPojo);
+            });
+        }
+
         @Override
         public Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query) {
 
@@ -226,6 +324,135 @@ public Can<ManagedObject> fetchByQuery(ObjectSpecification spec, Query<?> query)
                     "Support for Query of type %s not implemented.", query.getClass());
         }
 
+        @Override
+        public Optional<Can<ManagedObject>> fetchByQuery(
+                ObjectSpecification spec, Query<?> query, String orderByPropertyId, boolean ascending) {
+
+            // named queries define their own ordering
+            if(!(query instanceof AllInstancesQuery)
+                    || !entityClass.isAssignableFrom(query.getResultType())
+                    || !isSingularAttribute(orderByPropertyId)) {
+                return Optional.empty();
+            }
+
+            final QueryRange range = query.getRange();
+            final EntityManager entityManager = getEntityManager();
+
+            final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            final CriteriaQuery<Object> cr = _Casts.uncheckedCast(cb.createQuery(entityClass));
+            final Root<?> root = cr.from(entityClass);
+
+            cr.select(root);
+            // ties are broken by the id attribute(s), so that pages neither repeat nor skip entities
+            val orderings = _Lists.<Order>newArrayList();
+            orderings.add(ascending
+                    ? cb.asc(root.get(orderByPropertyId))
+                    : cb.desc(root.get(orderByPropertyId)));
+            orderings.addAll(identityOrdering(cb, root));
+            cr.orderBy(orderings);
+
+            final TypedQuery<Object> typedQuery = entityManager
+                    .createQuery(cr);
+
+            if(range.hasOffset()) {
+                typedQuery.setFirstResult(range.getStartAsInt());
+            }
+            if(range.hasLimit()) {
+                typedQuery.setMaxResults(range.getLimitAsInt());
+            }
+
+            return Optional.of(Can.ofCollection(typedQuery.getResultList())
+                    .map(entity->ManagedObject.of(spec, entity)));
+        }
+
+        /**
+         * A single cursor over the results, as provided by {@link TypedQuery#getResultStream()}; whether
+         * these are actually fetched in round-trips of the fetch size depends on the JPA provider.
+         * Requires a transaction in progress, that keeps the cursor open.
+         */
+        @Override
+        public Optional<Stream<ManagedObject>> streamByCursor(ObjectSpecification spec, Query<?> query, int fetchSize) {
+
+            if(!serviceRegistry.lookupServiceElseFail(TransactionService.class)
+                    .currentTransactionState().isInProgress()) {
+                return Optional.empty();
+            }
+
+            val entityManager = getEntityManager();
+
+            final TypedQuery<?> typedQuery;
+
+            if(query instanceof AllInstancesQuery) {
+
+                // guard against misuse
+                if(!entityClass.isAssignableFrom(query.getResultType())) {
+                    throw _Exceptions.unexpectedCodeReach();
+                }
+
+                val cb = entityManager.getCriteriaBuilder();
+                val cr = cb.createQuery(entityClass);
+                cr.select(_Casts.uncheckedCast(cr.from(entityClass)));
+                typedQuery = entityManager.createQuery(cr);
+
+            } else if(query instanceof NamedQuery) {
+
+                val applibNamedQuery = (NamedQuery<?>) query;
+                val namedQuery = entityManager
+                        .createNamedQuery(applibNamedQuery.getName(), applibNamedQuery.getResultType());
+                applibNamedQuery
+                    .getParametersByName()
+                    .forEach((paramName, paramValue)->
+                        namedQuery.setParameter(paramName, paramValue));
+                typedQuery = namedQuery;
+
+            } else {
+                return Optional.empty();
+            }
+
+            val range = query.getRange();
+            if(range.hasOffset()) {
+                typedQuery.setFirstResult(range.getStartAsInt());
+            }
+            if(range.hasLimit()) {
+                typedQuery.setMaxResults(range.getLimitAsInt());
+            }
+            // vendor specific, ignored by other providers
+            typedQuery.setHint(ECLIPSELINK_FETCH_SIZE, fetchSize);
+            typedQuery.setHint(HIBERNATE_FETCH_SIZE, fetchSize);
+
+            return Optional.of(
+                    typedQuery.getResultStream()
+                    .map(entity->ManagedObject.of(spec, entity)));
+        }
+
+        @Override
+        public long countByQuery(ObjectSpecification spec, Query<?> query) {
+
+            if(!(query instanceof AllInstancesQuery)
+                    || !entityClass.isAssignableFrom(query.getResultType())) {
+                return EntityFacet.super.countByQuery(spec, query);
+            }
+
+            final EntityManager entityManager = getEntityManager();
+
+            final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            final CriteriaQuery<Long> cr = cb.createQuery(Long.class);
+            cr.select(cb.count(cr.from(entityClass)));
+
+            return entityManager.createQuery(cr).getSingleResult();
+        }
+
+        @Override
+        public void evictAll(Can<ManagedObject> entities) {
+            val entityManager = getEntityManager();
+            entities.stream()
+            .map(ManagedObject::getPojo)
+            .filter(pojo->pojo!=null
+                    && entityClass.isAssignableFrom(pojo.getClass())
+                    && entityManager.contains(pojo))
+            .forEach(entityManager::detach);
+        }
+
         @Override
         public void persist(ObjectSpecification spec, Object pojo) {
             if(pojo==null) {
@@ -306,6 +533,16 @@ public EntityState getEntityState(Object pojo) {
                     : EntityState.PERSISTABLE_DETACHED;
         }
 
+        @Override
+        public Optional<Object> versionOf(Object pojo) {
+            if(pojo==null
+                    || !entityClass.isAssignableFrom(pojo.getClass())) {
+                return Optional.empty();
+            }
+            return versionAttributeRef.get()
+                    .map(versionAttribute->readAttribute(versionAttribute, pojo));
+        }
+
         @Override
         public boolean isProxyEnhancement(Method method) {
             return false;
@@ -334,6 +571,74 @@ private Optional<EntityType<?>> queryJpaMetamodel() {
             .findFirst();
         }
 
+        private final _Lazy<Optional<SingularAttribute<?, ?>>> versionAttributeRef =
+                _Lazy.threadSafe(this::queryVersionAttribute);
+
+        /** find the (optimistic locking) version attribute of this (corresponding) entity, if any */
+        private Optional<SingularAttribute<?, ?>> queryVersionAttribute() {
+            val entityType = getJpaEntityType();
+            if(!entityType.hasVersionAttribute()) {
+                return Optional.empty();
+            }
+            return entityType.getSingularAttributes().stream()
+                    .filter(SingularAttribute::isVersion)
+                    .<SingularAttribute<?, ?>>map(_Casts::uncheckedCast)
+                    .findFirst();
+        }
+
+        /** whether this (corresponding) entity has a singular (hence orderable) attribute of given name */
+        /**
+         * @return the ordering (ascending) by the id attribute(s) of this entity type; those of an embedded id
+         * are ordered by each in turn
+         */
+        private List<Order> identityOrdering(final CriteriaBuilder cb, final Root<?> root) {
+            val jpaEntityType = getJpaEntityType();
+            val orderings = _Lists.<Order>newArrayList();
+            if(!jpaEntityType.hasSingleIdAttribute()) {
+                // @IdClass
+                jpaEntityType.getIdClassAttributes().forEach(idAttribute->
+                    orderings.add(cb.asc(root.get(idAttribute.getName()))));
+                return orderings;
+            }
+            jpaEntityType.getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .forEach(idAttribute->{
+                if(idAttribute.getType() instanceof EmbeddableType) {
+                    val idPath = root.get(idAttribute.getName());
+                    ((EmbeddableType<?>) idAttribute.getType()).getSingularAttributes().forEach(attribute->
+                        orderings.add(cb.asc(idPath.get(attribute.getName()))));
+                } else {
+                    orderings.add(cb.asc(root.get(idAttribute.getName())));
+                }
+            });
+            return orderings;
+        }
+
+        private boolean isSingularAttribute(String attributeName) {
+            return getJpaEntityType().getSingularAttributes().stream()
+                    .anyMatch(attribute->attribute.getName().equals(attributeName));
+        }
+
+        private static Object readAttribute(SingularAttribute<?, ?> attribute, Object pojo) {
+            val member = attribute.getJavaMember();
+            try {
+                if(member instanceof Field) {
+                    val field = (Field) member;
+                    field.setAccessible(true);
+                    return field.get(pojo);
+                }
+                if(member instanceof Method) {
+                    val method = (Method) member;
+                    method.setAccessible(true);
+                    return method.invoke(pojo);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw _Exceptions.unrecoverable(e);
+            }
+            throw _Exceptions.unrecoverableFormatted(
+                    "cannot read attribute %s of %s", attribute.getName(), pojo.getClass());
+        }
+
         // -- OBJECT ID SERIALIZATION
 
         private final _Lazy<JpaObjectIdSerializer<Object>> objectIdSerializerRef = _Lazy.threadSafe(this::createObjectIdSerializer);
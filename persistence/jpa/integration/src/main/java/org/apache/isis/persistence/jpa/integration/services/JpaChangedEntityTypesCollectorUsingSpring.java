@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jpa.integration.services;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.apache.isis.applib.services.eventbus.EventBusService;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
+import org.apache.isis.persistence.jpa.applib.services.JpaChangedEntityTypesCollector;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Posts an {@link EntityTypesCommittedEvent} once a transaction that created, updated or deleted entities
+ * has committed (or completed with unknown outcome), as the {@code EntityChangeTracker} does for JDO.
+ * <p>
+ * The entity types are collected per transaction, held as a resource bound to the transaction's
+ * synchronization.
+ */
+@RequiredArgsConstructor(onConstructor_ = {@Inject})
+@Log4j2
+public class JpaChangedEntityTypesCollectorUsingSpring implements JpaChangedEntityTypesCollector {
+
+    private final EventBusService eventBusService;
+
+    @Override
+    public void onEntityChanged(final @NonNull Object entityPojo) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return; // not within a Spring managed transaction
+        }
+        changedEntityTypes().add(entityPojo.getClass());
+    }
+
+    // -- HELPER
+
+    @SuppressWarnings("unchecked")
+    private Set<Class<?>> changedEntityTypes() {
+        val bound = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+        if(bound != null) {
+            return bound;
+        }
+        val entityTypes = new LinkedHashSet<Class<?>>();
+        TransactionSynchronizationManager.bindResource(this, entityTypes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(JpaChangedEntityTypesCollectorUsingSpring.this);
+                if(status == STATUS_ROLLED_BACK) {
+                    return;
+                }
+                // also announced for the UNKNOWN completion status, it's safer to invalidate caches in that case
+                log.debug("entity types committed: {}", entityTypes);
+                eventBusService.post(EntityTypesCommittedEvent.of(Can.ofCollection(entityTypes)));
+            }
+        });
+        return entityTypes;
+    }
+
+}
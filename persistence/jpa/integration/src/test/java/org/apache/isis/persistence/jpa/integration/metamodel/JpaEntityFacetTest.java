@@ -0,0 +1,236 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jpa.integration.metamodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.Type;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.jpa.repository.JpaContext;
+
+import org.apache.isis.applib.exceptions.unrecoverable.ObjectNotFoundException;
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.services.registry.ServiceRegistry;
+import org.apache.isis.commons.collections.Can;
+import org.apache.isis.commons.internal.collections._Sets;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.persistence.jpa.integration.metamodel.JpaEntityFacetFactory.JpaEntityFacet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+class JpaEntityFacetTest {
+
+    static class Customer {
+        final long id;
+        Customer(final long id) {
+            this.id = id;
+        }
+    }
+
+    private List<Customer> stored;
+    private List<List<Object>> queriedPrimaryKeys;
+
+    private ObjectSpecification spec;
+    private EntityManager entityManager;
+    private Cache cache;
+    private EntityType<?> entityType;
+    private SingularAttribute<?, ?> idAttribute;
+    private Root<?> root;
+    private CriteriaBuilder criteriaBuilder;
+    private CriteriaQuery<?> criteriaQuery;
+    private TypedQuery<?> typedQuery;
+    private JpaEntityFacet entityFacet;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void setUp() {
+        stored = Arrays.asList(new Customer(1L), new Customer(2L), new Customer(3L));
+        queriedPrimaryKeys = new ArrayList<>();
+
+        spec = Mockito.mock(ObjectSpecification.class);
+        Mockito.doReturn(Customer.class).when(spec).getCorrespondingClass();
+
+        // JPA metamodel: a single (basic) id attribute of type Long
+        val idType = Mockito.mock(Type.class);
+        when(idType.getPersistenceType()).thenReturn(Type.PersistenceType.BASIC);
+        when(idType.getJavaType()).thenReturn(Long.class);
+        val idAttribute = Mockito.mock(SingularAttribute.class);
+        when(idAttribute.isId()).thenReturn(true);
+        when(idAttribute.getName()).thenReturn("id");
+        when(idAttribute.getType()).thenReturn(idType);
+        this.idAttribute = idAttribute;
+        val entityType = Mockito.mock(EntityType.class);
+        when(entityType.getJavaType()).thenReturn(Customer.class);
+        when(entityType.hasSingleIdAttribute()).thenReturn(true);
+        when(entityType.getIdType()).thenReturn(idType);
+        when(entityType.getSingularAttributes()).thenReturn(Collections.singleton(idAttribute));
+        this.entityType = entityType;
+        val metamodel = Mockito.mock(Metamodel.class);
+        when(metamodel.getEntities()).thenReturn(Collections.singleton(entityType));
+
+        // primary-key IN-query
+        val path = Mockito.mock(Path.class);
+        when(path.in(anyCollection())).thenAnswer(invocation->{
+            queriedPrimaryKeys.add(new ArrayList<>((Collection<Object>) invocation.getArgument(0)));
+            return Mockito.mock(Predicate.class);
+        });
+        val root = Mockito.mock(Root.class);
+        when(root.get("id")).thenReturn(path);
+        this.root = root;
+        val criteriaQuery = Mockito.mock(CriteriaQuery.class, Mockito.RETURNS_SELF);
+        when(criteriaQuery.from(Customer.class)).thenReturn(root);
+        this.criteriaQuery = criteriaQuery;
+        val criteriaBuilder = Mockito.mock(CriteriaBuilder.class);
+        when(criteriaBuilder.createQuery(Customer.class)).thenReturn(criteriaQuery);
+        this.criteriaBuilder = criteriaBuilder;
+        val typedQuery = Mockito.mock(TypedQuery.class);
+        this.typedQuery = typedQuery;
+        when(typedQuery.getResultList()).thenAnswer(invocation->{
+            val primaryKeys = queriedPrimaryKeys.get(queriedPrimaryKeys.size()-1);
+            return stored.stream()
+                    .filter(customer->primaryKeys.contains(customer.id))
+                    .collect(Collectors.toList());
+        });
+
+        cache = Mockito.mock(Cache.class);
+        val persistenceUnitUtil = Mockito.mock(PersistenceUnitUtil.class);
+        when(persistenceUnitUtil.getIdentifier(any())).thenAnswer(invocation->((Customer) invocation.getArgument(0)).id);
+        val entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+
+        entityManager = Mockito.mock(EntityManager.class);
+        when(entityManager.getMetamodel()).thenReturn(metamodel);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+
+        val jpaContext = Mockito.mock(JpaContext.class);
+        when(jpaContext.getEntityManagerByManagedType(Customer.class)).thenReturn(entityManager);
+        val serviceRegistry = Mockito.mock(ServiceRegistry.class);
+        when(serviceRegistry.lookupServiceElseFail(JpaContext.class)).thenReturn(jpaContext);
+
+        entityFacet = new JpaEntityFacet(Mockito.mock(FacetHolder.class), Customer.class, serviceRegistry);
+    }
+
+    @Test
+    void fetchByIdentifiers_shouldQueryAllAtOnce_inOrderOfIdentifiers() {
+
+        val entities = entityFacet.fetchByIdentifiers(spec, Can.of("3", "1", "2"));
+
+        assertEquals(Arrays.asList(3L, 1L, 2L), ids(entities));
+        assertEquals(Collections.singletonList(Arrays.<Object>asList(3L, 1L, 2L)), queriedPrimaryKeys);
+        verify(entityManager, never()).find(any(), any());
+    }
+
+    @Test
+    void fetchByIdentifiers_shouldNotQueryForCachedEntities() {
+        val cached = new Customer(2L);
+        when(cache.contains(Customer.class, 2L)).thenReturn(true);
+        when(entityManager.find(Customer.class, 2L)).thenReturn(cached);
+
+        val entities = entityFacet.fetchByIdentifiers(spec, Can.of("3", "1", "2"));
+
+        assertEquals(Arrays.asList(3L, 1L, 2L), ids(entities));
+        assertEquals(cached, entities.getElseFail(2).getPojo());
+        assertEquals(Collections.singletonList(Arrays.<Object>asList(3L, 1L)), queriedPrimaryKeys);
+    }
+
+    @Test
+    void fetchByIdentifiers_whenAllCached_shouldNotQueryAtAll() {
+        when(cache.contains(Mockito.eq(Customer.class), any())).thenReturn(true);
+        when(entityManager.find(Mockito.eq(Customer.class), any()))
+        .thenAnswer(invocation->new Customer((Long) invocation.getArgument(1)));
+
+        val entities = entityFacet.fetchByIdentifiers(spec, Can.of("1", "2"));
+
+        assertEquals(Arrays.asList(1L, 2L), ids(entities));
+        assertEquals(Collections.emptyList(), queriedPrimaryKeys);
+    }
+
+    @Test
+    void fetchByIdentifiers_whenAnyNotFound_shouldThrow() {
+        assertThrows(ObjectNotFoundException.class,
+                ()->entityFacet.fetchByIdentifiers(spec, Can.of("1", "4")));
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void fetchByQuery_withOrdering_shouldBreakTiesById_andNotLeaveCursorOpen() {
+        val nameAttribute = Mockito.mock(SingularAttribute.class);
+        when(nameAttribute.getName()).thenReturn("name");
+        when(entityType.getSingularAttributes()).thenReturn((Set) _Sets.of(nameAttribute, idAttribute));
+        val namePath = Mockito.mock(Path.class);
+        Mockito.doReturn(namePath).when(root).get("name");
+        val byNameDescending = Mockito.mock(Order.class);
+        val byIdAscending = Mockito.mock(Order.class);
+        when(criteriaBuilder.desc(namePath)).thenReturn(byNameDescending);
+        when(criteriaBuilder.asc(root.get("id"))).thenReturn(byIdAscending);
+        Mockito.doReturn(Arrays.asList(stored.get(1), stored.get(0))).when(typedQuery).getResultList();
+
+        val entities = entityFacet.fetchByQuery(spec, Query.allInstances(Customer.class), "name", false)
+                .orElseThrow(AssertionError::new);
+
+        assertEquals(Arrays.asList(2L, 1L), ids(entities));
+        verify(criteriaQuery).orderBy(Arrays.asList(byNameDescending, byIdAscending));
+        verify(typedQuery, never()).getResultStream();
+    }
+
+    // -- HELPER
+
+    private static List<Long> ids(final Can<ManagedObject> entities) {
+        return entities.stream()
+                .map(entity->((Customer) entity.getPojo()).id)
+                .collect(Collectors.toList());
+    }
+
+}
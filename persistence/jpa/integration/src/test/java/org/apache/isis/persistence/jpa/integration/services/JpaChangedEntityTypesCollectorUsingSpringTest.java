@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.persistence.jpa.integration.services;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.apache.isis.applib.services.eventbus.EventBusService;
+import org.apache.isis.core.transaction.changetracking.events.EntityTypesCommittedEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import lombok.val;
+
+class JpaChangedEntityTypesCollectorUsingSpringTest {
+
+    static class Customer {}
+    static class Order {}
+
+    private EventBusService eventBusService;
+    private JpaChangedEntityTypesCollectorUsingSpring collector;
+
+    @BeforeEach
+    void setUp() {
+        eventBusService = Mockito.mock(EventBusService.class);
+        collector = new JpaChangedEntityTypesCollectorUsingSpring(eventBusService);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(collector);
+    }
+
+    @Test
+    void distinct_types_are_posted_once_committed() {
+        collector.onEntityChanged(new Customer());
+        collector.onEntityChanged(new Order());
+        collector.onEntityChanged(new Customer());
+
+        verify(eventBusService, never()).post(any());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        val eventCaptor = ArgumentCaptor.forClass(EntityTypesCommittedEvent.class);
+        verify(eventBusService).post(eventCaptor.capture());
+        assertEquals(Arrays.asList(Customer.class, Order.class), eventCaptor.getValue().getEntityTypes().toList());
+        assertFalse(TransactionSynchronizationManager.hasResource(collector));
+    }
+
+    @Test
+    void nothing_is_posted_when_rolled_back() {
+        collector.onEntityChanged(new Customer());
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(eventBusService, never()).post(any());
+        assertFalse(TransactionSynchronizationManager.hasResource(collector));
+    }
+
+    @Test
+    void nothing_is_collected_outside_of_a_transaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        collector.onEntityChanged(new Customer());
+
+        verify(eventBusService, never()).post(any());
+        assertFalse(TransactionSynchronizationManager.hasResource(collector));
+    }
+
+    // -- HELPER
+
+    private static void completeTransaction(final int status) {
+        val synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization->synchronization.afterCompletion(status));
+    }
+
+}
@@ -18,17 +18,15 @@
  */
 package org.apache.isis.subdomains.excel.applib.dom;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
@@ -101,6 +99,20 @@ public <T> Blob toExcel(
         return excelServiceImpl.toExcel(domainObjects, cls, sheetName, fileName);
     }
 
+    /**
+     * As {@link #toExcel(List, Class, String, String)}, but with the domain objects pulled lazily from a stream
+     * (eg. a repository query), so that large sheets can be written without holding all objects in memory.
+     * <p>
+     * The stream is closed once the sheet has been written (or writing it failed).
+     */
+    public <T> Blob toExcel(
+            final Stream<T> domainObjects,
+            final Class<T> cls,
+            final String sheetName,
+            final String fileName) throws ExcelService.Exception {
+        return excelServiceImpl.toExcel(domainObjects, cls, sheetName, fileName);
+    }
+
     public <T> Blob toExcel(
             final List<T> domainObjects,
             final Class<T> cls,
@@ -193,6 +205,19 @@ public <T> List<T> fromExcel(
         return excelServiceImpl.fromExcel(excelBlob, worksheetSpec);
     }
 
+    /**
+     * As {@link #fromExcel(Blob, WorksheetSpec)}, but handing over the imported objects in batches (of at most
+     * <code>batchSize</code>) as the sheet is read, so that large sheets can be imported without holding all
+     * objects in memory.
+     */
+    public <T> void fromExcel(
+            final Blob excelBlob,
+            final WorksheetSpec worksheetSpec,
+            final int batchSize,
+            final Consumer<List<T>> batchConsumer) throws ExcelService.Exception {
+        excelServiceImpl.fromExcel(excelBlob, worksheetSpec, batchSize, batchConsumer);
+    }
+
     public List<List<?>> fromExcel(
             final Blob excelBlob,
             final List<WorksheetSpec> worksheetSpecs) throws ExcelService.Exception {
@@ -212,19 +237,11 @@ public List<List<?>> fromExcel(
             final WorksheetSpec.Sequencer sequencer) throws ExcelService.Exception {
 
         List<WorksheetSpec> worksheetSpecs = _Lists.newArrayList();
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(excelBlob.getBytes())) {
-            try (final Workbook wb = org.apache.poi.ss.usermodel.WorkbookFactory.create(bais)) {
-                final int numberOfSheets = wb.getNumberOfSheets();
-                for (int i = 0; i < numberOfSheets; i++) {
-                    final Sheet sheet = wb.getSheetAt(i);
-                    WorksheetSpec worksheetSpec = matcher.fromSheet(sheet.getSheetName());
-                    if(worksheetSpec != null) {
-                        worksheetSpecs.add(worksheetSpec);
-                    }
-                }
+        for (final String sheetName : excelServiceImpl.sheetNames(excelBlob)) {
+            WorksheetSpec worksheetSpec = matcher.fromSheet(sheetName);
+            if(worksheetSpec != null) {
+                worksheetSpecs.add(worksheetSpec);
             }
-        } catch (IOException e) {
-            throw new ExcelService.Exception(e);
         }
 
         if(sequencer != null) {
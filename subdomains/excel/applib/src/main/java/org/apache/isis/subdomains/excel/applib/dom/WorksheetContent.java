@@ -19,6 +19,8 @@
 package org.apache.isis.subdomains.excel.applib.dom;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @since 2.0 {@index}
@@ -26,17 +28,51 @@
 public class WorksheetContent {
 
     private final List<?> domainObjects;
+    private final Stream<?> domainObjectStream;
     private final WorksheetSpec spec;
 
     public <T> WorksheetContent(
             final List<T> domainObjects,
             final WorksheetSpec spec) {
         this.domainObjects = domainObjects;
+        this.domainObjectStream = null;
         this.spec = spec;
     }
 
+    /**
+     * For large sheets, with the domain objects pulled lazily (eg. from a repository query) as the sheet is written,
+     * rather than being held in memory all at once.
+     * <p>
+     * The stream can only be consumed once; it is closed once consumed, by
+     * {@link #getDomainObjects()} or by the {@code ExcelService} having written the sheet.
+     */
+    public <T> WorksheetContent(
+            final Stream<T> domainObjects,
+            final WorksheetSpec spec) {
+        this.domainObjects = null;
+        this.domainObjectStream = domainObjects;
+        this.spec = spec;
+    }
+
+    /**
+     * If created from a {@link Stream}, collects (hence consumes) and closes it.
+     */
     public List<?> getDomainObjects() {
-        return domainObjects;
+        if(domainObjects != null) {
+            return domainObjects;
+        }
+        try(final Stream<?> stream = domainObjectStream) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * The caller owns the stream returned, so is to close it once consumed.
+     */
+    public Stream<?> streamDomainObjects() {
+        return domainObjects != null
+                ? domainObjects.stream()
+                : domainObjectStream;
     }
 
     public WorksheetSpec getSpec() {
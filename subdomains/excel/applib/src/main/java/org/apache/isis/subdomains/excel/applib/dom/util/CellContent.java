@@ -0,0 +1,76 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.subdomains.excel.applib.dom.util;
+
+import java.util.Date;
+
+import javax.annotation.Nullable;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Comment;
+
+/**
+ * The content of a spreadsheet cell, as read by the {@link CellMarshaller} when importing;
+ * either backed by a POI user model {@link Cell}, or parsed by the {@link StreamingSheetReader}.
+ * <p>
+ * The getters follow the semantics of their {@link Cell} counterparts, in particular
+ * these throw an {@link IllegalStateException} if the cell holds a value of a different type.
+ */
+interface CellContent {
+
+    int getColumnIndex();
+
+    CellType getCellType();
+
+    String getStringCellValue();
+
+    double getNumericCellValue();
+
+    boolean getBooleanCellValue();
+
+    @Nullable Date getDateCellValue();
+
+    /**
+     * @return the text of the cell's comment, if any
+     */
+    @Nullable String getCommentText();
+
+    static CellContent of(final Cell cell) {
+        return new CellContent() {
+
+            @Override public int getColumnIndex() { return cell.getColumnIndex(); }
+            @Override public CellType getCellType() { return cell.getCellType(); }
+            @Override public String getStringCellValue() { return cell.getStringCellValue(); }
+            @Override public double getNumericCellValue() { return cell.getNumericCellValue(); }
+            @Override public boolean getBooleanCellValue() { return cell.getBooleanCellValue(); }
+            @Override public Date getDateCellValue() { return cell.getDateCellValue(); }
+
+            @Override
+            public String getCommentText() {
+                final Comment comment = cell.getCellComment();
+                return comment != null
+                        && comment.getString() != null
+                        ? comment.getString().getString()
+                        : null;
+            }
+        };
+    }
+
+}
@@ -51,6 +51,7 @@ final class CellMarshaller {
     private final CellStyle dateCellStyle;
     private final CellStyle defaultCellStyle;
     private final BookmarkService bookmarkService;
+    private CellStyle wrappedCellStyle;
 
     CellMarshaller(
             final BookmarkService bookmarkService,
@@ -240,12 +241,15 @@ private boolean setCellValue(final Cell cell, final Object valueAsObj) {
         return false;
     }
 
-    private static void setCellValueForString(final Cell cell, final String objectAsStr, CellStyle cellStyle) {
+    private void setCellValueForString(final Cell cell, final String objectAsStr, CellStyle cellStyle) {
         // char 10 is for linebreak within a cell; to display correctly wrap text needs to be set to true
         if (objectAsStr.contains(Character.toString((char)10))) {
-            CellStyle wrappedCellStyle = cell.getSheet().getWorkbook().createCellStyle();
-            wrappedCellStyle.setVerticalAlignment(VerticalAlignment.TOP);
-            wrappedCellStyle.setWrapText(true);
+            // shared by all such cells, as a workbook's number of cell styles is limited
+            if(wrappedCellStyle == null) {
+                wrappedCellStyle = cell.getSheet().getWorkbook().createCellStyle();
+                wrappedCellStyle.setVerticalAlignment(VerticalAlignment.TOP);
+                wrappedCellStyle.setWrapText(true);
+            }
             cell.setCellStyle(wrappedCellStyle);
         } else {
             cell.setCellStyle(cellStyle);
@@ -297,11 +301,11 @@ private static void setCellValueForDate(final Cell cell, Date date, CellStyle da
         cell.setCellStyle(dateCellStyle);
     }
 
-    String getStringCellValue(Cell cell) {
+    String getStringCellValue(CellContent cell) {
         return getCellValue(cell, String.class);
     }
 
-    Object getCellValue(final Cell cell, final OneToOneAssociation otoa) {
+    Object getCellValue(final CellContent cell, final OneToOneAssociation otoa) {
 
         final CellType cellType = cell.getCellType();
 
@@ -326,7 +330,7 @@ Object getCellValue(final Cell cell, final OneToOneAssociation otoa) {
     }
 
     @SuppressWarnings("unchecked")
-    private <T> T getCellValue(final Cell cell, final Class<T> requiredType) {
+    private <T> T getCellValue(final CellContent cell, final Class<T> requiredType) {
         final CellType cellType = cell.getCellType();
 
         if(requiredType == boolean.class || requiredType == Boolean.class) {
@@ -483,16 +487,11 @@ private <T> T getCellValue(final Cell cell, final Class<T> requiredType) {
     }
 
 
-    private Object getCellComment(final Cell cell, final Class<?> requiredType) {
-        final Comment comment = cell.getCellComment();
-        if(comment == null) {
-            return null;
-        }
-        final RichTextString commentRts = comment.getString();
-        if(commentRts == null) {
+    private Object getCellComment(final CellContent cell, final Class<?> requiredType) {
+        final String bookmarkStr = cell.getCommentText();
+        if(bookmarkStr == null) {
             return null;
         }
-        final String bookmarkStr = commentRts.getString();
         final Bookmark bookmark = Bookmark.parse(bookmarkStr).orElse(null);
         return bookmarkService.lookup(bookmark, requiredType).orElse(null);
     }
@@ -30,12 +30,15 @@
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
@@ -44,6 +47,7 @@
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import org.apache.isis.applib.annotation.Where;
@@ -82,6 +86,16 @@ class ExcelConverter {
 
     private static final String XLSX_SUFFIX = ".xlsx";
 
+    /**
+     * number of rows held in memory per sheet when exporting
+     */
+    static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+    /**
+     * number of imported objects handed over at a time, unless specified otherwise
+     */
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
     private static final Predicate<ObjectAssociation> VISIBLE_PROPERTIES =
             ObjectAssociation.Predicates.PROPERTIES.and(
             ObjectAssociation.Predicates.staticallyVisible(Where.STANDALONE_TABLES));
@@ -119,6 +133,15 @@ public Row newRow() {
 
     // //////////////////////////////////////
 
+    /**
+     * Writes the sheets through a {@link SXSSFWorkbook}, keeping only a window of
+     * {@value #ROW_ACCESS_WINDOW_SIZE} rows in memory (older rows are flushed to disk), and pulling the domain
+     * objects of each sheet lazily from {@link WorksheetContent#streamDomainObjects()}; each stream is closed
+     * once its sheet has been written (releasing eg. the cursor of the query it was obtained from), or if
+     * writing failed.
+     *
+     * @param workbook - either new or an existing workbook to append to; its existing sheets are not streamed
+     */
     File appendSheet(final List<WorksheetContent> worksheetContents, XSSFWorkbook workbook) throws IOException {
         final Set<String> worksheetNames = worksheetContents.stream()
                 .map(x -> x.getSpec().getSheetName())
@@ -136,27 +159,31 @@ File appendSheet(final List<WorksheetContent> worksheetContents, XSSFWorkbook wo
 
         final File tempFile =
                 File.createTempFile(ExcelConverter.class.getName(), UUID.randomUUID().toString() + XLSX_SUFFIX);
+        final SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook(workbook, ROW_ACCESS_WINDOW_SIZE);
+        streamingWorkbook.setCompressTempFiles(true);
         try(final FileOutputStream fos = new FileOutputStream(tempFile)) {
 
             for (WorksheetContent worksheetContent : worksheetContents) {
                 final WorksheetSpec spec = worksheetContent.getSpec();
-                appendSheet(workbook, worksheetContent.getDomainObjects(), spec.getFactory(), spec.getSheetName());
+                try(final Stream<?> domainObjects = worksheetContent.streamDomainObjects()) {
+                    appendSheet(streamingWorkbook, domainObjects, spec.getFactory(), spec.getSheetName());
+                }
             }
-            workbook.write(fos);
+            streamingWorkbook.write(fos);
+        } finally {
+            streamingWorkbook.dispose();
+            // those of any sheets not written, if failed; closing a stream again has no effect
+            worksheetContents.forEach(worksheetContent->worksheetContent.streamDomainObjects().close());
         }
         return tempFile;
     }
 
     private Sheet appendSheet(
-            final XSSFWorkbook workbook,
-            final List<?> domainObjects,
+            final Workbook workbook,
+            final Stream<?> domainObjects,
             final WorksheetSpec.RowFactory<?> factory,
             final String sheetName) throws IOException {
 
-        final List<ManagedObject> adapters = domainObjects.stream()
-                .map(objectManager::adapt)
-                .collect(Collectors.toList());
-
         final List<ObjectAssociation> propertyList = _Lists.newArrayList();
 
         specificationLoader.specForType(factory.getCls())
@@ -171,7 +198,7 @@ private Sheet appendSheet(
                     .forEach(annotatedAsHyperlink::add);
         }
 
-        final Sheet sheet = ((Workbook) workbook).createSheet(sheetName);
+        final Sheet sheet = workbook.createSheet(sheetName);
 
         final RowFactory rowFactory = new RowFactory(sheet);
         final Row headerRow = rowFactory.newRow();
@@ -186,12 +213,12 @@ private Sheet appendSheet(
 
         final CellMarshaller cellMarshaller = newCellMarshaller(workbook);
 
-        // detail rows
-        for (final ManagedObject objectAdapter : adapters) {
+        // detail rows, adapting each domain object only as its row is written
+        domainObjects.map(objectManager::adapt).forEach(objectAdapter->{
             final Row detailRow = rowFactory.newRow();
-            i = 0;
+            int j = 0;
             for (final ObjectAssociation oa : propertyList) {
-                final Cell cell = detailRow.createCell(i++);
+                final Cell cell = detailRow.createCell(j++);
                 final OneToOneAssociation otoa = (OneToOneAssociation) oa;
                 if (annotatedAsHyperlink.contains(oa)){
                     cellMarshaller.setCellValueForHyperlink(objectAdapter, otoa, cell);
@@ -199,7 +226,7 @@ private Sheet appendSheet(
                     cellMarshaller.setCellValue(objectAdapter, otoa, cell);
                 }
             }
-        }
+        });
 
         // freeze panes
         sheet.createFreezePane(0, 1);
@@ -207,6 +234,10 @@ private Sheet appendSheet(
         return sheet;
     }
 
+    /**
+     * Unlike {@link #appendSheet(List, XSSFWorkbook)}, pivots are built in memory, as pivoting shifts the rows of
+     * the source sheet and reads them back in arbitrary order.
+     */
     File appendPivotSheet(final List<WorksheetContent> worksheetContents) throws IOException {
 
 
@@ -271,14 +302,14 @@ private void appendPivotSheet(
         }
 
         // create pivot sheet
-        final Sheet pivotSheet = ((Workbook) workbook).createSheet(sheetName);
+        final Sheet pivotSheet = workbook.createSheet(sheetName);
 
         // Create source sheet for pivot
         String pivotSourceSheetName = ("source for ".concat(sheetName));
         if (WorksheetSpec.isTooLong(pivotSourceSheetName)) {
             pivotSourceSheetName = WorksheetSpec.trim(pivotSourceSheetName);
         }
-        final Sheet pivotSourceSheet = appendSheet(workbook, domainObjects, factory, pivotSourceSheetName);
+        final Sheet pivotSourceSheet = appendSheet(workbook, domainObjects.stream(), factory, pivotSourceSheetName);
         pivotSourceSheet.shiftRows(0, pivotSourceSheet.getLastRowNum(), 3);
         final Row annotationRow = pivotSourceSheet.createRow(0);
         final Row orderRow = pivotSourceSheet.createRow(1);
@@ -383,38 +414,116 @@ <T> List<T> fromBytes(
             final byte[] bs,
             final WorksheetSpec worksheetSpec) throws IOException, InvalidFormatException {
 
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(bs)) {
-            final Workbook wb = org.apache.poi.ss.usermodel.WorkbookFactory.create(bais);
-            return fromWorkbook(wb, worksheetSpec);
-        }
+        final List<T> importedItems = _Lists.newArrayList();
+        this.<T>fromBytes(bs, worksheetSpec, DEFAULT_BATCH_SIZE, importedItems::addAll);
+        return importedItems;
     }
 
-    private <T> List<T> fromWorkbook(
-            final Workbook workbook,
-            final WorksheetSpec worksheetSpec) {
+    /**
+     * Imports the rows of the sheet, handing over the imported objects in batches (of at most the given size)
+     * as the sheet is read.
+     */
+    <T> void fromBytes(
+            final byte[] bs,
+            final WorksheetSpec worksheetSpec,
+            final int batchSize,
+            final Consumer<List<T>> batchConsumer) throws IOException, InvalidFormatException {
+
+        if(batchSize < 1) {
+            throw new IllegalArgumentException(String.format("Batch size must be positive (was %d)", batchSize));
+        }
 
         final WorksheetSpec.RowFactory<Object> factory = worksheetSpec.getFactory();
         this.serviceInjector.injectServicesInto(factory);
 
-        final Class<T> cls = _Casts.uncheckedCast(factory.getCls());
-        final String sheetName = worksheetSpec.getSheetName();
-        final Mode mode = worksheetSpec.getMode();
+        final RowImporter<T> rowImporter = new RowImporter<>(worksheetSpec, batchSize, batchConsumer);
+        final Class<?> cls = factory.getCls();
+        readRows(bs, determineCandidateSheetNames(worksheetSpec.getSheetName(), cls), rowImporter);
+        rowImporter.flush();
+    }
 
-        final List<T> importedItems = _Lists.newArrayList();
+    List<String> sheetNamesFrom(final byte[] bs) throws IOException, InvalidFormatException {
+        if(isOoxml(bs)) {
+            try(final StreamingSheetReader reader = StreamingSheetReader.open(bs)) {
+                return reader.getSheetNames();
+            }
+        }
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(bs);
+             Workbook wb = org.apache.poi.ss.usermodel.WorkbookFactory.create(bais)) {
+            final List<String> sheetNames = _Lists.newArrayList();
+            wb.sheetIterator().forEachRemaining(sheet->sheetNames.add(sheet.getSheetName()));
+            return sheetNames;
+        }
+    }
 
-        final CellMarshaller cellMarshaller = this.newCellMarshaller(workbook);
+    private void readRows(
+            final byte[] bs,
+            final List<String> sheetNames,
+            final StreamingSheetReader.RowListener rowListener) throws IOException, InvalidFormatException {
 
-        final Sheet sheet = lookupSheet(cls, sheetName, workbook);
+        if(isOoxml(bs)) {
+            try(final StreamingSheetReader reader = StreamingSheetReader.open(bs)) {
+                reader.readSheet(sheetNames, rowListener);
+            }
+            return;
+        }
 
-        boolean header = true;
-        final Map<Integer, Property> propertyByColumn = _Maps.newHashMap();
+        // legacy (.xls) workbooks are read using the user model
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(bs);
+             Workbook wb = org.apache.poi.ss.usermodel.WorkbookFactory.create(bais)) {
+            for (final Row row : lookupSheet(wb, sheetNames)) {
+                final List<CellContent> cells = _Lists.newArrayList();
+                row.forEach(cell->cells.add(CellContent.of(cell)));
+                rowListener.onRow(row.getRowNum(), cells);
+            }
+        }
+    }
 
-        final ObjectSpecification objectSpec = specificationLoader.specForType(cls).orElse(null);
+    private static boolean isOoxml(final byte[] bs) throws IOException {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(bs)) {
+            return FileMagic.valueOf(bais) == FileMagic.OOXML;
+        }
+    }
 
-        T previousRow = null;
-        for (final Row row : sheet) {
+    /**
+     * Maps the first row of a sheet to properties (by name or id), then each subsequent row to a new domain object.
+     */
+    private class RowImporter<T> implements StreamingSheetReader.RowListener {
+
+        private final WorksheetSpec.RowFactory<Object> factory;
+        private final Class<T> cls;
+        private final String sheetName;
+        private final Mode mode;
+        private final ObjectSpecification objectSpec;
+        private final int batchSize;
+        private final Consumer<List<T>> batchConsumer;
+
+        // import needs no cell styles
+        private final CellMarshaller cellMarshaller = new CellMarshaller(bookmarkService, null, null);
+        private final Map<Integer, Property> propertyByColumn = _Maps.newHashMap();
+
+        private boolean header = true;
+        private T previousRow;
+        private List<T> batch;
+
+        RowImporter(
+                final WorksheetSpec worksheetSpec,
+                final int batchSize,
+                final Consumer<List<T>> batchConsumer) {
+            this.factory = worksheetSpec.getFactory();
+            this.cls = _Casts.uncheckedCast(factory.getCls());
+            this.sheetName = worksheetSpec.getSheetName();
+            this.mode = worksheetSpec.getMode();
+            this.objectSpec = specificationLoader.specForType(cls).orElse(null);
+            this.batchSize = batchSize;
+            this.batchConsumer = batchConsumer;
+            this.batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+        }
+
+        @Override
+        public void onRow(final int rowNum, final List<CellContent> cells) {
             if (header) {
-                for (final Cell cell : row) {
+                for (final CellContent cell : cells) {
 
                     try{
                         if (cell.getCellType() != CellType.BLANK) {
@@ -432,96 +541,99 @@ private <T> List<T> fromWorkbook(
                         case RELAXED:
                             // ignore
                         default:
-                            throw new ExcelService.Exception(String.format("Error processing Excel row nr. %d. Message: %s", row.getRowNum(), e.getMessage()), e);
+                            throw new ExcelService.Exception(String.format("Error processing Excel row nr. %d. Message: %s", rowNum, e.getMessage()), e);
                         }
                     }
 
                 }
                 header = false;
-            } else {
-                // detail
-
-                // Let's require at least one column to be not null for detecting a blank row.
-                // Excel can have physical rows with cells empty that it seem do not existent for the user.
-                ManagedObject templateAdapter = null;
-                T imported = null;
-                for (final Cell cell : row) {
-
-                    try {
-
-                        final int columnIndex = cell.getColumnIndex();
-                        final Property property = propertyByColumn.get(columnIndex);
-                        if (property != null) {
-                            final OneToOneAssociation otoa = property.getOneToOneAssociation();
-                            final Object value = cellMarshaller.getCellValue(cell, otoa);
-                            if (value != null) {
-                                if (imported == null) {
-                                    // copy the row into a new object
-                                    imported = _Casts.uncheckedCast(factory.create());
-                                    // set excel metadata if applicable
-                                    if (ExcelMetaDataEnabled.class.isAssignableFrom(cls)){
-                                        ExcelMetaDataEnabled importedEnhanced = (ExcelMetaDataEnabled) imported;
-                                        importedEnhanced.setExcelRowNumber(row.getRowNum());
-                                        importedEnhanced.setExcelSheetName(sheetName);
-                                        imported = _Casts.uncheckedCast(importedEnhanced);
-                                    }
-                                    templateAdapter = this.objectManager.adapt(imported);
+                return;
+            }
+
+            // detail
+
+            // Let's require at least one column to be not null for detecting a blank row.
+            // Excel can have physical rows with cells empty that it seem do not existent for the user.
+            ManagedObject templateAdapter = null;
+            T imported = null;
+            for (final CellContent cell : cells) {
+
+                try {
+
+                    final int columnIndex = cell.getColumnIndex();
+                    final Property property = propertyByColumn.get(columnIndex);
+                    if (property != null) {
+                        final OneToOneAssociation otoa = property.getOneToOneAssociation();
+                        final Object value = cellMarshaller.getCellValue(cell, otoa);
+                        if (value != null) {
+                            if (imported == null) {
+                                // copy the row into a new object
+                                imported = _Casts.uncheckedCast(factory.create());
+                                // set excel metadata if applicable
+                                if (ExcelMetaDataEnabled.class.isAssignableFrom(cls)){
+                                    ExcelMetaDataEnabled importedEnhanced = (ExcelMetaDataEnabled) imported;
+                                    importedEnhanced.setExcelRowNumber(rowNum);
+                                    importedEnhanced.setExcelSheetName(sheetName);
+                                    imported = _Casts.uncheckedCast(importedEnhanced);
                                 }
-                                final ManagedObject valueAdapter = this.objectManager.adapt(value);
-                                otoa.set(templateAdapter, valueAdapter, InteractionInitiatedBy.USER);
+                                templateAdapter = objectManager.adapt(imported);
                             }
-                        } else {
-                            // not expected; just ignore.
-                        }
-
-                    } catch (final Exception e) {
-                        switch (mode) {
-                        case RELAXED:
-                            // ignore
-                            break;
-                        default:
-                            throw new ExcelService.Exception(String.format("Error processing Excel row nr. %d. Message: %s", row.getRowNum(), e.getMessage()), e);
-
+                            final ManagedObject valueAdapter = objectManager.adapt(value);
+                            otoa.set(templateAdapter, valueAdapter, InteractionInitiatedBy.USER);
                         }
+                    } else {
+                        // not expected; just ignore.
                     }
-                }
 
-                //
-                // TODO: v2: to review... there is no longer an API to remove adapters.
-                //  However, my hope is that it isn't needed, because we no longer maintain an oid <-> adapter map.
-                //
-//                // we need to remove the templateAdapter because earlier on we will have created an adapter (and corresponding OID)
-//                // for a view model where the OID is initially computed on the incomplete (in fact, empty) view model.
-//                // removing the adapter therefore removes the OID as well, so next time an adapter is needed for the view model
-//                // the OID will be recomputed based on the fully populated view model pojo.
-//                if(templateAdapter != null) {
-//                    this.objectManager.removeAdapter(templateAdapter);
-//                }
-
-                if (imported != null) {
-                    importedItems.add(imported);
-
-                    if(imported instanceof RowHandler) {
-                        val rowHandler = (RowHandler<?>) imported;
-                        val rowHandlerPrev = (RowHandler<?>) previousRow;
-
-                        rowHandler.handleRow(_Casts.uncheckedCast(rowHandlerPrev));
-                    }
+                } catch (final Exception e) {
+                    switch (mode) {
+                    case RELAXED:
+                        // ignore
+                        break;
+                    default:
+                        throw new ExcelService.Exception(String.format("Error processing Excel row nr. %d. Message: %s", rowNum, e.getMessage()), e);
 
-                    previousRow = imported;
+                    }
                 }
-
             }
 
+            //
+            // TODO: v2: to review... there is no longer an API to remove adapters.
+            //  However, my hope is that it isn't needed, because we no longer maintain an oid <-> adapter map.
+            //
+//            // we need to remove the templateAdapter because earlier on we will have created an adapter (and corresponding OID)
+//            // for a view model where the OID is initially computed on the incomplete (in fact, empty) view model.
+//            // removing the adapter therefore removes the OID as well, so next time an adapter is needed for the view model
+//            // the OID will be recomputed based on the fully populated view model pojo.
+//            if(templateAdapter != null) {
+//                objectManager.removeAdapter(templateAdapter);
+//            }
+
+            if (imported != null) {
+                if(imported instanceof RowHandler) {
+                    val rowHandler = (RowHandler<?>) imported;
+                    val rowHandlerPrev = (RowHandler<?>) previousRow;
+
+                    rowHandler.handleRow(_Casts.uncheckedCast(rowHandlerPrev));
+                }
 
+                previousRow = imported;
 
+                batch.add(imported);
+                if(batch.size() >= batchSize) {
+                    flush();
+                }
+            }
         }
-        return importedItems;
-    }
 
-    protected <T> Sheet lookupSheet(final Class<T> cls, final String sheetName, final Workbook workbook) {
-        final List<String> sheetNames = determineCandidateSheetNames(sheetName, cls);
-        return lookupSheet(workbook, sheetNames);
+        void flush() {
+            if(batch.isEmpty()) {
+                return;
+            }
+            final List<T> fullBatch = batch;
+            batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+            batchConsumer.accept(fullBatch);
+        }
     }
 
     private static <T> List<String> determineCandidateSheetNames(final String sheetName, final Class<T> cls) {
@@ -23,6 +23,8 @@
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -71,6 +73,20 @@ public <T> Blob toExcel(
         return toExcel(new WorksheetContent(domainObjects, new WorksheetSpec(cls, sheetName)), fileName);
     }
 
+    /**
+     * As {@link #toExcel(List, Class, String, String)}, but with the domain objects pulled lazily from a stream
+     * (eg. a repository query), so that large sheets can be written without holding all objects in memory.
+     *
+     * @param sheetName - must be 31 chars or less
+     */
+    public <T> Blob toExcel(
+            final Stream<T> domainObjects,
+            final Class<T> cls,
+            final String sheetName,
+            final String fileName) {
+        return toExcel(new WorksheetContent(domainObjects, new WorksheetSpec(cls, sheetName)), fileName);
+    }
+
     /**
      * As {@link #toExcel(List, Class, String, String)}, but appends a single-sheet spreadsheet of the domain objects to
      * an existing workbook instead of creating one.
@@ -225,6 +241,37 @@ public List<List<?>> fromExcel(
         }
     }
 
+    /**
+     * As {@link #fromExcel(Blob, WorksheetSpec)}, but handing over the imported objects in batches as the sheet is
+     * read, rather than returning all of them at once; so that large sheets can be imported without holding all
+     * objects in memory.
+     *
+     * @param batchSize - maximum number of objects per batch
+     * @param batchConsumer - called with each batch of imported objects, in order of their rows
+     */
+    public <T> void fromExcel(
+            final Blob excelBlob,
+            final WorksheetSpec worksheetSpec,
+            final int batchSize,
+            final Consumer<List<T>> batchConsumer) throws ExcelService.Exception {
+        try {
+            newExcelConverter().fromBytes(excelBlob.getBytes(), worksheetSpec, batchSize, batchConsumer);
+        } catch (final IOException | InvalidFormatException e) {
+            throw new ExcelService.Exception(e);
+        }
+    }
+
+    /**
+     * Returns the names of the sheets of the spreadsheet, in order, without reading their rows.
+     */
+    public List<String> sheetNames(final Blob excelBlob) throws ExcelService.Exception {
+        try {
+            return newExcelConverter().sheetNamesFrom(excelBlob.getBytes());
+        } catch (final IOException | InvalidFormatException e) {
+            throw new ExcelService.Exception(e);
+        }
+    }
+
     @SneakyThrows
     private ExcelConverter newExcelConverter() {
         return new ExcelConverter(specificationLoader, objectManager, bookmarkService, serviceInjector);
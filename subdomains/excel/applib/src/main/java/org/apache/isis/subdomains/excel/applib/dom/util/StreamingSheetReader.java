@@ -0,0 +1,402 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.subdomains.excel.applib.dom.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.CommentsTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Reads the sheets of an <code>.xlsx</code> workbook row by row, using the XSSF event API (SAX),
+ * so that memory consumption does not depend on the size of a sheet.
+ * <p>
+ * The workbook is spooled to a temporary file (deleted on {@link #close()}), so that its parts are
+ * inflated on demand, rather than up front.
+ * Only the shared strings table and the comments of the sheet being read are held in memory.
+ */
+final class StreamingSheetReader implements AutoCloseable {
+
+    @FunctionalInterface
+    interface RowListener {
+        /**
+         * @param rowNum - zero based, as per {@link org.apache.poi.ss.usermodel.Row#getRowNum()}
+         * @param cells - the physical cells of the row, in order of their column
+         */
+        void onRow(int rowNum, List<CellContent> cells);
+    }
+
+    private final File file;
+    private final OPCPackage opcPackage;
+    private final XSSFReader xssfReader;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final boolean date1904;
+
+    private StreamingSheetReader(final File file) throws IOException, InvalidFormatException {
+        this.file = file;
+        this.opcPackage = OPCPackage.open(file, PackageAccess.READ);
+        try {
+            this.xssfReader = new XSSFReader(opcPackage);
+            this.sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            try(val workbookData = xssfReader.getWorkbookData()) {
+                this.date1904 = isDate1904(workbookData);
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            opcPackage.revert();
+            throw new IOException(e);
+        } catch (IOException | RuntimeException e) {
+            opcPackage.revert();
+            throw e;
+        }
+    }
+
+    static StreamingSheetReader open(final byte[] bs) throws IOException, InvalidFormatException {
+        final File file = File.createTempFile(
+                StreamingSheetReader.class.getName(), UUID.randomUUID().toString() + ".xlsx");
+        try {
+            Files.write(file.toPath(), bs);
+            return new StreamingSheetReader(file);
+        } catch (IOException | InvalidFormatException | RuntimeException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+    }
+
+    List<String> getSheetNames() throws IOException, InvalidFormatException {
+        final List<String> sheetNames = new ArrayList<>();
+        val sheets = sheets();
+        while (sheets.hasNext()) {
+            try(val sheetData = sheets.next()) {
+                sheetNames.add(sheets.getSheetName());
+            }
+        }
+        return sheetNames;
+    }
+
+    /**
+     * Reads the first sheet found by any of the given names (in order of preference).
+     *
+     * @throws IllegalArgumentException if there is no such sheet
+     */
+    void readSheet(
+            final List<String> sheetNames,
+            final RowListener rowListener) throws IOException, InvalidFormatException {
+
+        final List<String> available = getSheetNames();
+        final String sheetName = sheetNames.stream()
+                .filter(available::contains)
+                .findFirst()
+                .orElseThrow(()->new IllegalArgumentException(
+                        String.format("Could not locate sheet named any of: '%s'", sheetNames)));
+
+        val sheets = sheets();
+        while (sheets.hasNext()) {
+            try(val sheetData = sheets.next()) {
+                if(sheetName.equals(sheets.getSheetName())) {
+                    parse(sheetData, new SheetHandler(sheets.getSheetComments(), rowListener));
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            opcPackage.revert();
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    // -- HELPER
+
+    private XSSFReader.SheetIterator sheets() throws IOException, InvalidFormatException {
+        return (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+    }
+
+    private static void parse(final InputStream in, final DefaultHandler handler) throws IOException {
+        try {
+            final XMLReader xmlReader = SAXHelper.newXMLReader();
+            xmlReader.setContentHandler(handler);
+            xmlReader.parse(new InputSource(in));
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static boolean isDate1904(final InputStream workbookData) throws IOException {
+        final boolean[] date1904 = {false};
+        parse(workbookData, new DefaultHandler() {
+            @Override
+            public void startElement(
+                    final String uri, final String localName, final String qName, final Attributes attributes) {
+                if("workbookPr".equals(localName)) {
+                    val value = attributes.getValue("date1904");
+                    date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                }
+            }
+        });
+        return date1904[0];
+    }
+
+    /**
+     * Collects the cells of each <code>&lt;row&gt;</code> of the sheet's XML, passing them on as the row ends.
+     */
+    @RequiredArgsConstructor
+    private final class SheetHandler extends DefaultHandler {
+
+        private final @Nullable CommentsTable comments;
+        private final RowListener rowListener;
+
+        private final StringBuilder text = new StringBuilder();
+        private List<CellContent> cells = new ArrayList<>();
+        private int rowNum = -1;
+        private int columnIndex;
+
+        // current cell
+        private String cellType;
+        private boolean formula;
+        private boolean hasValue;
+        private boolean inValue;
+
+        @Override
+        public void startElement(
+                final String uri, final String localName, final String qName, final Attributes attributes) {
+            switch (localName) {
+            case "row":
+                val r = attributes.getValue("r");
+                rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                columnIndex = -1;
+                cells = new ArrayList<>();
+                break;
+            case "c":
+                val ref = attributes.getValue("r");
+                columnIndex = ref != null ? new CellReference(ref).getCol() : columnIndex + 1;
+                cellType = attributes.getValue("t");
+                formula = false;
+                hasValue = false;
+                text.setLength(0);
+                break;
+            case "f":
+                formula = true;
+                break;
+            case "v":
+            case "t": // text of an inline string
+                inValue = true;
+                hasValue = true;
+                break;
+            default:
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if(inValue) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            switch (localName) {
+            case "v":
+            case "t":
+                inValue = false;
+                break;
+            case "c":
+                cells.add(newCell());
+                break;
+            case "row":
+                rowListener.onRow(rowNum, cells);
+                break;
+            default:
+            }
+        }
+
+        private CellContent newCell() {
+            val cell = new ParsedCell(columnIndex, date1904, commentText());
+            if(!hasValue) {
+                return cell.blank();
+            }
+            val value = text.toString();
+            switch (cellType != null ? cellType : "n") {
+            case "s":
+                return cell.string(formula, sharedStrings.getItemAt(Integer.parseInt(value.trim())).getString());
+            case "inlineStr":
+            case "str":
+                return cell.string(formula, value);
+            case "b":
+                return cell.bool(formula, "1".equals(value) || "true".equalsIgnoreCase(value));
+            case "e":
+                return cell.error(formula, value);
+            default:
+                return cell.numeric(formula, Double.parseDouble(value));
+            }
+        }
+
+        private String commentText() {
+            if(comments == null) {
+                return null;
+            }
+            final XSSFComment comment = comments.findCellComment(new CellAddress(rowNum, columnIndex));
+            return comment != null
+                    && comment.getString() != null
+                    ? comment.getString().getString()
+                    : null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ParsedCell implements CellContent {
+
+        private final int columnIndex;
+        private final boolean date1904;
+        private final String commentText;
+
+        private CellType cellType = CellType.BLANK;
+        private CellType resultType = CellType.BLANK;
+        private String stringValue;
+        private double numericValue;
+        private boolean booleanValue;
+
+        ParsedCell blank() {
+            return this;
+        }
+
+        ParsedCell string(final boolean formula, final String value) {
+            stringValue = value;
+            return typed(formula, CellType.STRING);
+        }
+
+        ParsedCell numeric(final boolean formula, final double value) {
+            numericValue = value;
+            return typed(formula, CellType.NUMERIC);
+        }
+
+        ParsedCell bool(final boolean formula, final boolean value) {
+            booleanValue = value;
+            return typed(formula, CellType.BOOLEAN);
+        }
+
+        ParsedCell error(final boolean formula, final String value) {
+            stringValue = value;
+            return typed(formula, CellType.ERROR);
+        }
+
+        private ParsedCell typed(final boolean formula, final CellType type) {
+            resultType = type;
+            cellType = formula ? CellType.FORMULA : type;
+            return this;
+        }
+
+        @Override
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+
+        @Override
+        public CellType getCellType() {
+            return cellType;
+        }
+
+        @Override
+        public String getStringCellValue() {
+            switch (resultType) {
+            case BLANK:
+                return "";
+            case STRING:
+                return stringValue;
+            default:
+                throw typeMismatch(CellType.STRING);
+            }
+        }
+
+        @Override
+        public double getNumericCellValue() {
+            switch (resultType) {
+            case BLANK:
+                return 0.0;
+            case NUMERIC:
+                return numericValue;
+            default:
+                throw typeMismatch(CellType.NUMERIC);
+            }
+        }
+
+        @Override
+        public boolean getBooleanCellValue() {
+            switch (resultType) {
+            case BLANK:
+                return false;
+            case BOOLEAN:
+                return booleanValue;
+            default:
+                throw typeMismatch(CellType.BOOLEAN);
+            }
+        }
+
+        @Override
+        public Date getDateCellValue() {
+            return resultType == CellType.BLANK
+                    ? null
+                    : DateUtil.getJavaDate(getNumericCellValue(), date1904);
+        }
+
+        @Override
+        public String getCommentText() {
+            return commentText;
+        }
+
+        private IllegalStateException typeMismatch(final CellType expected) {
+            return new IllegalStateException(
+                    String.format("Cannot get a %s value from a %s cell", expected, resultType));
+        }
+    }
+
+}
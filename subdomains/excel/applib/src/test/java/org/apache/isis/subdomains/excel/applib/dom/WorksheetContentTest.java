@@ -0,0 +1,42 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.subdomains.excel.applib.dom;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import lombok.val;
+
+public class WorksheetContentTest {
+
+    @Test
+    public void collecting_domain_objects_closes_the_stream() {
+        val closed = new AtomicBoolean();
+        val worksheetContent = new WorksheetContent(
+                Stream.of("a", "b").onClose(()->closed.set(true)),
+                new WorksheetSpec(String.class, "strings"));
+
+        Assertions.assertThat(worksheetContent.getDomainObjects()).containsExactly("a", "b");
+        Assertions.assertThat(closed).isTrue();
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.subdomains.excel.applib.dom.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.CreationHelper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import lombok.val;
+
+public class StreamingSheetReaderTest {
+
+    private final Date date = new Date(1_600_000_000_000L);
+
+    @Test
+    public void reads_inline_strings_as_written_by_streaming_workbook() throws Exception {
+
+        // given
+        val bytes = write(new SXSSFWorkbook(10));
+
+        // when
+        val rows = read(bytes, Arrays.asList("Other", "Data"));
+
+        // then
+        assertRows(rows);
+    }
+
+    @Test
+    public void reads_shared_strings() throws Exception {
+
+        // given
+        val bytes = write(new XSSFWorkbook());
+
+        // when
+        val rows = read(bytes, Arrays.asList("Data"));
+
+        // then
+        assertRows(rows);
+    }
+
+    @Test
+    public void sheet_names_in_order() throws Exception {
+
+        // given
+        val bytes = write(new XSSFWorkbook());
+
+        // when
+        try(val reader = StreamingSheetReader.open(bytes)) {
+
+            // then
+            Assertions.assertThat(reader.getSheetNames()).containsExactly("Other", "Data");
+        }
+    }
+
+    @Test
+    public void fails_when_no_sheet_found() throws Exception {
+
+        // given
+        val bytes = write(new XSSFWorkbook());
+
+        // when
+        try(val reader = StreamingSheetReader.open(bytes)) {
+
+            // then
+            Assertions.assertThatThrownBy(()->reader.readSheet(Arrays.asList("Unknown"), (rowNum, cells)->{}))
+            .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    // -- HELPER
+
+    private byte[] write(final Workbook workbook) throws IOException {
+        try(final Workbook wb = workbook) {
+            wb.createSheet("Other").createRow(0).createCell(0).setCellValue("not read");
+
+            final Sheet sheet = wb.createSheet("Data");
+            final Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("name");
+            header.createCell(2).setCellValue("amount");
+
+            final Row detail = sheet.createRow(1);
+            detail.createCell(0).setCellValue("Fred\nSmith");
+            detail.createCell(1).setBlank();
+            detail.createCell(2).setCellValue(12.5);
+            detail.createCell(3).setCellValue(true);
+            detail.createCell(4).setCellValue(date);
+            detail.createCell(5).setCellValue("referenced");
+            setCellComment(wb, sheet, detail, 5, "bookmark");
+
+            // a large row number
+            sheet.createRow(70_000).createCell(0).setCellValue("last");
+
+            val bytes = new ByteArrayOutputStream();
+            wb.write(bytes);
+            if(wb instanceof SXSSFWorkbook) {
+                ((SXSSFWorkbook) wb).dispose();
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private static void setCellComment(
+            final Workbook wb, final Sheet sheet, final Row row, final int column, final String text) {
+        final CreationHelper creationHelper = wb.getCreationHelper();
+        final ClientAnchor anchor = creationHelper.createClientAnchor();
+        anchor.setCol1(column);
+        anchor.setCol2(column + 1);
+        anchor.setRow1(row.getRowNum());
+        anchor.setRow2(row.getRowNum() + 3);
+        final Comment comment = sheet.createDrawingPatriarch().createCellComment(anchor);
+        comment.setString(creationHelper.createRichTextString(text));
+        row.getCell(column).setCellComment(comment);
+    }
+
+    private static List<List<CellContent>> read(final byte[] bytes, final List<String> sheetNames)
+            throws IOException, InvalidFormatException {
+        final List<Integer> rowNums = new ArrayList<>();
+        final List<List<CellContent>> rows = new ArrayList<>();
+        try(val reader = StreamingSheetReader.open(bytes)) {
+            reader.readSheet(sheetNames, (rowNum, cells)->{
+                rowNums.add(rowNum);
+                rows.add(cells);
+            });
+        }
+        Assertions.assertThat(rowNums).containsExactly(0, 1, 70_000);
+        return rows;
+    }
+
+    private void assertRows(final List<List<CellContent>> rows) {
+        val header = rows.get(0);
+        Assertions.assertThat(header).extracting(CellContent::getColumnIndex).containsExactly(0, 2);
+        Assertions.assertThat(header.get(1).getStringCellValue()).isEqualTo("amount");
+
+        val detail = rows.get(1);
+        Assertions.assertThat(detail).extracting(CellContent::getCellType).containsExactly(
+                CellType.STRING, CellType.BLANK, CellType.NUMERIC, CellType.BOOLEAN, CellType.NUMERIC, CellType.STRING);
+        Assertions.assertThat(detail.get(0).getStringCellValue()).isEqualTo("Fred\nSmith");
+        Assertions.assertThat(detail.get(1).getDateCellValue()).isNull();
+        Assertions.assertThat(detail.get(2).getNumericCellValue()).isEqualTo(12.5);
+        Assertions.assertThat(detail.get(3).getBooleanCellValue()).isTrue();
+        Assertions.assertThat(detail.get(4).getDateCellValue()).isEqualTo(date);
+        Assertions.assertThat(detail.get(5).getStringCellValue()).isEqualTo("referenced");
+        Assertions.assertThat(detail.get(5).getCommentText()).isEqualTo("bookmark");
+        Assertions.assertThat(detail.get(0).getCommentText()).isNull();
+        Assertions.assertThatThrownBy(()->detail.get(2).getStringCellValue())
+        .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(rows.get(2).get(0).getStringCellValue()).isEqualTo("last");
+    }
+
+}
@@ -141,7 +141,7 @@ public static Family lookupFamily(final int statusCode) {
 
         // public static final int SC_GONE = 410;
         // public static final int SC_LENGTH_REQUIRED = 411;
-        // public static final int SC_PRECONDITION_FAILED = 412;
+        public static final HttpStatusCode PRECONDITION_FAILED = new HttpStatusCode(412, Status.PRECONDITION_FAILED);
         // public static final int SC_REQUEST_TOO_LONG = 413;
         // public static final int SC_REQUEST_URI_TOO_LONG = 414;
         // public static final int SC_UNSUPPORTED_MEDIA_TYPE = 415;
@@ -19,6 +19,7 @@
 package org.apache.isis.viewer.restfulobjects.applib.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -150,4 +151,17 @@ public String write(final Object object) throws JsonGenerationException, JsonMap
         return objectMapper.writeValueAsString(object);
     }
 
+    /**
+     * Writes the object as (UTF-8 encoded) JSON directly to the given stream, without first materializing it
+     * as a {@link String}; the output is the same as that of {@link #write(Object)}.
+     * <p>
+     * The stream is flushed but not closed.
+     */
+    public void write(final Object object, final OutputStream outputStream) throws JsonGenerationException, JsonMappingException, IOException {
+        try(final JsonGenerator jgen = objectMapper.getFactory().createGenerator(outputStream)) {
+            jgen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectMapper.writeValue(jgen, object);
+        }
+    }
+
 }
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.applib.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+
+import static org.apache.isis.viewer.restfulobjects.applib.JsonFixture.readJson;
+
+public class JsonMapperTest_writeToOutputStream {
+
+    private JsonRepresentation jsonRepresentation;
+
+    @Before
+    public void setUp() throws Exception {
+        jsonRepresentation = new JsonRepresentation(readJson("map.json"));
+    }
+
+    @Test
+    public void same_as_string_when_pretty_printing() throws IOException {
+        assertSameAsString(jsonRepresentation, JsonMapper.PrettyPrinting.ENABLE);
+    }
+
+    @Test
+    public void same_as_string_when_not_pretty_printing() throws IOException {
+        assertSameAsString(jsonRepresentation, JsonMapper.PrettyPrinting.DISABLE);
+    }
+
+    @Test
+    public void same_as_string_for_large_list() throws IOException {
+        final JsonRepresentation list = JsonRepresentation.newArray();
+        for (int i = 0; i < 10_000; i++) {
+            final JsonRepresentation element = JsonRepresentation.newMap();
+            element.mapPut("title", "Object #" + i + " äöü");
+            element.mapPut("id", i);
+            list.arrayAdd(element);
+        }
+        assertSameAsString(list, JsonMapper.PrettyPrinting.DISABLE);
+    }
+
+    @Test
+    public void does_not_close_stream() throws IOException {
+        final ClosingAwareOutputStream output = new ClosingAwareOutputStream();
+        JsonMapper.instance().write(jsonRepresentation, output);
+        assertThat(output.closed, is(false));
+    }
+
+    // -- HELPER
+
+    private static void assertSameAsString(
+            final JsonRepresentation representation,
+            final JsonMapper.PrettyPrinting prettyPrinting) throws IOException {
+
+        final JsonMapper jsonMapper = JsonMapper.instance(prettyPrinting);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        jsonMapper.write(representation, output);
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8),
+                is(jsonMapper.write(representation)));
+    }
+
+    private static class ClosingAwareOutputStream extends ByteArrayOutputStream {
+        boolean closed;
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.viewer.resources;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.specimpl.RequestImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import lombok.val;
+
+/**
+ * Requires a JAX-RS implementation (for evaluating preconditions as well),
+ * hence not located with {@link EntityTagHelper} itself.
+ */
+class EntityTagHelper_Test {
+
+    private static final String JSON = "{\"title\":\"Fred\"}";
+
+    @Test
+    void renderAndTag_shouldRenderStreamedEntityOnce_andTagTheRenderedBytes() {
+        val writeCount = new AtomicInteger();
+        val response = streamed(JSON, writeCount);
+
+        val contentTagged = EntityTagHelper.renderAndTag(response).get();
+
+        assertEquals(1, writeCount.get());
+        assertArrayEquals(JSON.getBytes(StandardCharsets.UTF_8), (byte[]) contentTagged.getResponse().getEntity());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, contentTagged.getResponse().getMediaType());
+        assertFalse(contentTagged.getEntityTag().isWeak());
+
+        // same content, same tag (regardless of whether streamed)
+        assertEquals(EntityTagHelper.forContent(textual(JSON)).get(), contentTagged.getEntityTag());
+        assertEquals(EntityTagHelper.renderAndTag(textual(JSON)).get().getEntityTag(), contentTagged.getEntityTag());
+    }
+
+    @Test
+    void forContent_shouldVaryByContentAndMediaType() {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+
+        assertEquals(tag, EntityTagHelper.forContent(streamed(JSON, new AtomicInteger())).get());
+        assertNotEquals(tag, EntityTagHelper.forContent(textual("{\"title\":\"Bill\"}")).get());
+        assertNotEquals(tag, EntityTagHelper.forContent(
+                Response.ok(JSON, MediaType.APPLICATION_XML_TYPE).build()).get());
+    }
+
+    @Test
+    void forContent_whenNoEntity_shouldBeEmpty() {
+        assertFalse(EntityTagHelper.forContent(Response.noContent().build()).isPresent());
+        assertFalse(EntityTagHelper.renderAndTag(Response.noContent().build()).isPresent());
+    }
+
+    @Test
+    void forVersion_shouldBeStrong_andVaryByVersionUserAndAcceptedMediaTypes() {
+        val tag = EntityTagHelper.forVersion(versionedEntity(1L), "sven", accepting(MediaType.APPLICATION_JSON_TYPE)).get();
+
+        assertFalse(tag.isWeak());
+        assertEquals(tag, EntityTagHelper.forVersion(versionedEntity(1L), "sven", accepting(MediaType.APPLICATION_JSON_TYPE)).get());
+        assertNotEquals(tag, EntityTagHelper.forVersion(versionedEntity(2L), "sven", accepting(MediaType.APPLICATION_JSON_TYPE)).get());
+        assertNotEquals(tag, EntityTagHelper.forVersion(versionedEntity(1L), "dick", accepting(MediaType.APPLICATION_JSON_TYPE)).get());
+        assertNotEquals(tag, EntityTagHelper.forVersion(versionedEntity(1L), "sven", accepting(MediaType.APPLICATION_XML_TYPE)).get());
+    }
+
+    @Test
+    void forVersion_whenNotVersioned_shouldBeEmpty() {
+        val entity = versionedEntity(1L);
+        val entityFacet = entity.getSpecification().getFacet(EntityFacet.class);
+        when(entityFacet.versionOf(any())).thenReturn(Optional.empty());
+
+        assertFalse(EntityTagHelper.forVersion(entity, "sven", accepting(MediaType.APPLICATION_JSON_TYPE)).isPresent());
+    }
+
+    @Test
+    void ifMatch_byVersion_shouldMatchTagOfAnyAcceptedMediaTypes_butOnlyOfSameVersionAndUser() {
+        val versionTag = EntityTagHelper.forVersionIgnoringMediaTypes(versionedEntity(1L), "sven").get();
+        val jsonTag = EntityTagHelper.forVersion(versionedEntity(1L), "sven", accepting(MediaType.APPLICATION_JSON_TYPE)).get();
+        val xmlTag = EntityTagHelper.forVersion(versionedEntity(1L), "sven", accepting(MediaType.APPLICATION_XML_TYPE)).get();
+        val outdatedTag = EntityTagHelper.forVersion(versionedEntity(2L), "sven", accepting(MediaType.APPLICATION_JSON_TYPE)).get();
+        val otherUsersTag = EntityTagHelper.forVersion(versionedEntity(1L), "dick", accepting(MediaType.APPLICATION_JSON_TYPE)).get();
+
+        assertTrue(EntityTagHelper.isIfMatchMetByVersion(ifMatch(jsonTag.getValue()), versionTag));
+        assertTrue(EntityTagHelper.isIfMatchMetByVersion(ifMatch(xmlTag.getValue()), versionTag));
+        assertTrue(EntityTagHelper.isIfMatchMetByVersion(ifMatch(versionTag.getValue()), versionTag));
+        assertTrue(EntityTagHelper.isIfMatchMetByVersion(
+                Collections.singletonList("\"outdated\", \"" + jsonTag.getValue() + "\""), versionTag));
+        assertTrue(EntityTagHelper.isIfMatchMetByVersion(Collections.singletonList("*"), versionTag));
+
+        assertFalse(EntityTagHelper.isIfMatchMetByVersion(ifMatch(outdatedTag.getValue()), versionTag));
+        assertFalse(EntityTagHelper.isIfMatchMetByVersion(ifMatch(otherUsersTag.getValue()), versionTag));
+        // strong comparison: a weak tag never matches, even if of same value
+        assertFalse(EntityTagHelper.isIfMatchMetByVersion(
+                Collections.singletonList("W/\"" + jsonTag.getValue() + "\""), versionTag));
+    }
+
+    @Test
+    void header_shouldBeStrongTagFormat() {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+        val header = EntityTagHelper.withEntityTag(textual(JSON), tag).getHeaderString(HttpHeaders.ETAG);
+
+        assertFalse(header.startsWith("W/"));
+        assertEquals("\"" + tag.getValue() + "\"", header);
+    }
+
+    @Test
+    void get_whenIfNoneMatchMatches_shouldAnswerNotModified() throws URISyntaxException {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+        val request = request("GET", HttpHeaders.IF_NONE_MATCH, "\"" + tag.getValue() + "\"");
+
+        val response = EntityTagHelper.evaluatePreconditions(request, textual(JSON), tag);
+
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertNull(response.getEntity());
+        assertEquals(tag, response.getEntityTag());
+    }
+
+    @Test
+    void get_whenIfNoneMatchDoesNotMatch_shouldAnswerRepresentationWithTag() throws URISyntaxException {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+        val request = request("GET", HttpHeaders.IF_NONE_MATCH, "\"outdated\"");
+
+        val response = EntityTagHelper.evaluatePreconditions(request, textual(JSON), tag);
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(JSON, response.getEntity());
+        assertEquals(tag, response.getEntityTag());
+    }
+
+    @Test
+    void mutation_whenIfMatchMatches_shouldBeMet() throws URISyntaxException {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+
+        assertTrue(EntityTagHelper.isPreconditionMet(request("PUT", HttpHeaders.IF_MATCH, "\"" + tag.getValue() + "\""), tag));
+        assertTrue(EntityTagHelper.isPreconditionMet(request("POST", HttpHeaders.IF_MATCH, "\"" + tag.getValue() + "\""), tag));
+        assertTrue(EntityTagHelper.isPreconditionMet(request("DELETE", HttpHeaders.IF_MATCH, "\"" + tag.getValue() + "\""), tag));
+        assertTrue(EntityTagHelper.isPreconditionMet(request("PUT", HttpHeaders.IF_MATCH, "*"), tag));
+    }
+
+    @Test
+    void mutation_whenIfMatchDoesNotMatch_shouldNotBeMet() throws URISyntaxException {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+
+        assertFalse(EntityTagHelper.isPreconditionMet(request("PUT", HttpHeaders.IF_MATCH, "\"outdated\""), tag));
+        // strong comparison: a weak tag never matches, even if of same value
+        assertFalse(EntityTagHelper.isPreconditionMet(request("PUT", HttpHeaders.IF_MATCH, "W/\"" + tag.getValue() + "\""), tag));
+    }
+
+    @Test
+    void mutation_withoutIfMatch_shouldBeMet() throws URISyntaxException {
+        val tag = EntityTagHelper.forContent(textual(JSON)).get();
+
+        assertTrue(EntityTagHelper.isPreconditionMet(new RequestImpl(
+                MockHttpRequest.create("PUT", "/objects/customer/1"), new MockHttpResponse()), tag));
+    }
+
+    // -- HELPER
+
+    private static Request request(final String httpMethod, final String headerName, final String headerValue)
+            throws URISyntaxException {
+        return new RequestImpl(
+                MockHttpRequest.create(httpMethod, "/objects/customer/1").header(headerName, headerValue),
+                new MockHttpResponse());
+    }
+
+    private static List<String> ifMatch(final String tagValue) {
+        return Collections.singletonList("\"" + tagValue + "\"");
+    }
+
+    private static HttpHeaders accepting(final MediaType mediaType) {
+        val httpHeaders = Mockito.mock(HttpHeaders.class);
+        when(httpHeaders.getAcceptableMediaTypes()).thenReturn(Collections.singletonList(mediaType));
+        return httpHeaders;
+    }
+
+    private static ManagedObject versionedEntity(final long version) {
+        val entityFacet = Mockito.mock(EntityFacet.class);
+        when(entityFacet.versionOf(any())).thenReturn(Optional.of(version));
+        val spec = Mockito.mock(ObjectSpecification.class);
+        when(spec.isEntity()).thenReturn(true);
+        when(spec.getFacet(EntityFacet.class)).thenReturn(entityFacet);
+        val entity = Mockito.mock(ManagedObject.class);
+        when(entity.getSpecification()).thenReturn(spec);
+        when(entity.getPojo()).thenReturn(new Object());
+        when(entity.getBookmark()).thenReturn(Optional.of(Bookmark.forLogicalTypeNameAndIdentifier("customer", "1")));
+        return entity;
+    }
+
+    private static Response textual(final String json) {
+        return Response.ok(json, MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    private static Response streamed(final String json, final AtomicInteger writeCount) {
+        final StreamingOutput streamingOutput = output->{
+            writeCount.incrementAndGet();
+            output.write(json.getBytes(StandardCharsets.UTF_8));
+        };
+        return Response.ok(streamingOutput, MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+}
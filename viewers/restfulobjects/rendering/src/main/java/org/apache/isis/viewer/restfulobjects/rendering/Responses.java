@@ -81,7 +81,7 @@ public static Response.ResponseBuilder ofOk(
                 .header("Date", dateFormat.format(now))
                 .type(mediaType)
                 .cacheControl(caching.getCacheControl())
-                .entity(JsonWriterUtil.jsonFor(entityRepresentation, inferPrettyPrinting(renderer)));
+                .entity(JsonWriterUtil.streamingJsonFor(entityRepresentation, inferPrettyPrinting(renderer)));
 
         return response;
     }
@@ -18,6 +18,13 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering.service.swagger;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -30,11 +37,18 @@
 import org.apache.isis.applib.services.swagger.Format;
 import org.apache.isis.applib.services.swagger.SwaggerService;
 import org.apache.isis.applib.services.swagger.Visibility;
+import org.apache.isis.commons.internal.base._Lazy;
 import org.apache.isis.commons.internal.base._Strings;
+import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.core.config.RestEasyConfiguration;
 import org.apache.isis.core.config.viewer.wicket.WebAppContextPath;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
 import org.apache.isis.viewer.restfulobjects.rendering.service.swagger.internal.SwaggerSpecGenerator;
 
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.val;
 
 @Service
@@ -45,15 +59,24 @@
 public class SwaggerServiceDefault implements SwaggerService {
 
     private final SwaggerSpecGenerator swaggerSpecGenerator;
+    private final SpecificationLoader specificationLoader;
     private final String basePath;
 
+    /**
+     * Populated only once the metamodel is fully introspected (and so locked);
+     * an entry is stale once the metamodel's version has moved on, eg. by reloading a specification.
+     */
+    private final Map<CacheKey, CachedSpec> cachedSpecs = new ConcurrentHashMap<>();
+
     @Inject
     public SwaggerServiceDefault(
             final SwaggerSpecGenerator swaggerSpecGenerator,
+            final SpecificationLoader specificationLoader,
             final RestEasyConfiguration restEasyConfiguration,
             final WebAppContextPath webAppContextPath) {
 
         this.swaggerSpecGenerator = swaggerSpecGenerator;
+        this.specificationLoader = specificationLoader;
 
         val restfulPath = restEasyConfiguration.getJaxrs().getDefaultPath();
         val restfulBase = webAppContextPath.prependContextPath(restfulPath);
@@ -65,7 +88,67 @@ public SwaggerServiceDefault(
     public String generateSwaggerSpec(
             final Visibility visibility,
             final Format format) {
-        return swaggerSpecGenerator.generate(basePath, visibility, format);
+        return cachedElseGenerate(visibility, format).getSpec();
+    }
+
+    @Override
+    public byte[] generateSwaggerSpecGzipped(
+            final Visibility visibility,
+            final Format format) {
+        return cachedElseGenerate(visibility, format).getGzipped();
+    }
+
+    // -- HELPER
+
+    private CachedSpec cachedElseGenerate(
+            final Visibility visibility,
+            final Format format) {
+
+        if(!specificationLoader.isMetamodelFullyIntrospected()) {
+            // specifications are still being added lazily, so nothing to cache yet
+            return new CachedSpec(-1L, swaggerSpecGenerator.generate(basePath, visibility, format));
+        }
+
+        val metamodelVersion = specificationLoader.getMetamodelVersion();
+
+        // generating is expensive, so concurrent requests for the same key wait for the one generation
+        return cachedSpecs.compute(CacheKey.of(basePath, visibility, format), (key, cached)->
+            cached != null
+                && cached.getMetamodelVersion() == metamodelVersion
+                    ? cached
+                    : new CachedSpec(metamodelVersion, swaggerSpecGenerator.generate(basePath, visibility, format)));
+    }
+
+    @Value(staticConstructor = "of")
+    private static class CacheKey {
+        String basePath;
+        Visibility visibility;
+        Format format;
+    }
+
+    @RequiredArgsConstructor
+    private static class CachedSpec {
+
+        @Getter private final long metamodelVersion;
+        @Getter private final @NonNull String spec;
+
+        private final _Lazy<byte[]> gzipped = _Lazy.threadSafe(this::gzip);
+
+        public byte[] getGzipped() {
+            return gzipped.get();
+        }
+
+        private byte[] gzip() {
+            val bytes = spec.getBytes(StandardCharsets.UTF_8);
+            val buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try(val gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw _Exceptions.unrecoverable(e);
+            }
+            return buffer.toByteArray();
+        }
+
     }
 
 }
@@ -0,0 +1,57 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.applib.util.JsonMapper;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Response entity, that serializes a {@link JsonRepresentation} onto the response's output stream
+ * (via a Jackson {@link com.fasterxml.jackson.core.JsonGenerator}),
+ * rather than first rendering it to an intermediate {@link String}.
+ * <p>
+ * Only the serialization is streamed: the representation (tree) has already been built in full by the
+ * renderers, including all of its collection and value members.
+ * <p>
+ * The bytes written are the same as those of {@link JsonWriterUtil#jsonFor(Object, JsonMapper.PrettyPrinting)}
+ * (UTF-8 encoded).
+ *
+ * @since 2.0
+ */
+@RequiredArgsConstructor(staticName = "of")
+public final class JsonStreamingOutput implements StreamingOutput {
+
+    @Getter private final @NonNull JsonRepresentation representation;
+    @Getter private final @NonNull JsonMapper.PrettyPrinting prettyPrinting;
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        JsonMapper.instance(prettyPrinting).write(representation, output);
+    }
+
+}
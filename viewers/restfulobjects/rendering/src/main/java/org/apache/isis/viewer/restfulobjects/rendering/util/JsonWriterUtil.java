@@ -23,6 +23,7 @@
 import javax.annotation.Nullable;
 
 import org.apache.isis.core.config.environment.IsisSystemEnvironment;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
 import org.apache.isis.viewer.restfulobjects.applib.util.JsonMapper;
 
 import lombok.val;
@@ -46,5 +47,15 @@ public static String jsonFor(Object object, @Nullable IsisSystemEnvironment syst
         return jsonFor(object, prettyPrinting);
     }
 
+    /**
+     * As per {@link #jsonFor(Object, JsonMapper.PrettyPrinting)}, but serialized only once the response is
+     * written, onto its output stream, so without an intermediate {@link String} (nor its encoded bytes).
+     * <p>
+     * The representation itself is not streamed: it has been built in full (in memory) by the renderers.
+     */
+    public static JsonStreamingOutput streamingJsonFor(JsonRepresentation representation, JsonMapper.PrettyPrinting prettyPrinting) {
+        return JsonStreamingOutput.of(representation, prettyPrinting);
+    }
+
 
 }
@@ -0,0 +1,146 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering.service.swagger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.jmock.Expectations;
+import org.jmock.Sequence;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.apache.isis.applib.services.swagger.Format;
+import org.apache.isis.applib.services.swagger.Visibility;
+import org.apache.isis.commons.internal.base._Bytes;
+import org.apache.isis.core.config.RestEasyConfiguration;
+import org.apache.isis.core.config.viewer.wicket.WebAppContextPath;
+import org.apache.isis.core.internaltestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.viewer.restfulobjects.rendering.service.swagger.internal.SwaggerSpecGenerator;
+
+public class SwaggerServiceDefaultTest {
+
+    @Rule public JUnitRuleMockery2 context =
+            JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock private SwaggerSpecGenerator mockSwaggerSpecGenerator;
+    @Mock private SpecificationLoader mockSpecificationLoader;
+
+    private SwaggerServiceDefault swaggerService;
+
+    @Before
+    public void setUp() throws Exception {
+        swaggerService = new SwaggerServiceDefault(
+                mockSwaggerSpecGenerator,
+                mockSpecificationLoader,
+                new RestEasyConfiguration(),
+                new WebAppContextPath());
+    }
+
+    @Test
+    public void when_not_fully_introspected_then_generates_every_time() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).isMetamodelFullyIntrospected();
+            will(returnValue(false));
+
+            exactly(2).of(mockSwaggerSpecGenerator).generate("/restful/", Visibility.PUBLIC, Format.JSON);
+            will(returnValue("{}"));
+        }});
+
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PUBLIC, Format.JSON), is("{}"));
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PUBLIC, Format.JSON), is("{}"));
+    }
+
+    @Test
+    public void when_fully_introspected_then_generates_once_per_visibility_and_format() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).isMetamodelFullyIntrospected();
+            will(returnValue(true));
+            allowing(mockSpecificationLoader).getMetamodelVersion();
+            will(returnValue(1L));
+
+            oneOf(mockSwaggerSpecGenerator).generate("/restful/", Visibility.PUBLIC, Format.JSON);
+            will(returnValue("{public}"));
+            oneOf(mockSwaggerSpecGenerator).generate("/restful/", Visibility.PRIVATE, Format.JSON);
+            will(returnValue("{private}"));
+        }});
+
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PUBLIC, Format.JSON), is("{public}"));
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PRIVATE, Format.JSON), is("{private}"));
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PUBLIC, Format.JSON), is("{public}"));
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PRIVATE, Format.JSON), is("{private}"));
+    }
+
+    @Test
+    public void when_metamodel_version_changes_then_regenerates() throws Exception {
+        final Sequence versions = context.sequence("versions");
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).isMetamodelFullyIntrospected();
+            will(returnValue(true));
+
+            oneOf(mockSpecificationLoader).getMetamodelVersion(); inSequence(versions);
+            will(returnValue(1L));
+            oneOf(mockSwaggerSpecGenerator).generate("/restful/", Visibility.PUBLIC, Format.YAML); inSequence(versions);
+            will(returnValue("before"));
+
+            oneOf(mockSpecificationLoader).getMetamodelVersion(); inSequence(versions);
+            will(returnValue(2L));
+            oneOf(mockSwaggerSpecGenerator).generate("/restful/", Visibility.PUBLIC, Format.YAML); inSequence(versions);
+            will(returnValue("after"));
+        }});
+
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PUBLIC, Format.YAML), is("before"));
+        assertThat(swaggerService.generateSwaggerSpec(Visibility.PUBLIC, Format.YAML), is("after"));
+    }
+
+    @Test
+    public void gzipped_spec_decompresses_to_spec() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).isMetamodelFullyIntrospected();
+            will(returnValue(true));
+            allowing(mockSpecificationLoader).getMetamodelVersion();
+            will(returnValue(1L));
+
+            oneOf(mockSwaggerSpecGenerator).generate("/restful/", Visibility.PUBLIC, Format.JSON);
+            will(returnValue("{\"swagger\":\"2.0\"}"));
+        }});
+
+        final byte[] gzipped = swaggerService.generateSwaggerSpecGzipped(Visibility.PUBLIC, Format.JSON);
+
+        assertThat(gunzip(gzipped), is("{\"swagger\":\"2.0\"}"));
+        assertThat(swaggerService.generateSwaggerSpecGzipped(Visibility.PUBLIC, Format.JSON) == gzipped, is(true));
+    }
+
+    // -- HELPER
+
+    private static String gunzip(final byte[] gzipped) throws IOException {
+        try(final GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(_Bytes.of(input), StandardCharsets.UTF_8);
+        }
+    }
+
+}
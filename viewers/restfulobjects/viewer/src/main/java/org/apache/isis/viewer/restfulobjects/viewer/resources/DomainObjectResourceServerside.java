@@ -33,6 +33,8 @@
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -45,7 +47,9 @@
 import org.apache.isis.applib.layout.component.PropertyLayoutData;
 import org.apache.isis.applib.layout.grid.Grid;
 import org.apache.isis.applib.layout.links.Link;
+import org.apache.isis.applib.services.user.UserService;
 import org.apache.isis.commons.internal.base._Bytes;
+import org.apache.isis.commons.internal.base._NullSafe;
 import org.apache.isis.commons.internal.base._Strings;
 import org.apache.isis.commons.internal.codec._UrlDecoderUtil;
 import org.apache.isis.commons.internal.resources._Resources;
@@ -59,6 +63,7 @@
 import org.apache.isis.core.metamodel.interactions.managed.MemberInteraction.AccessIntent;
 import org.apache.isis.core.metamodel.interactions.managed.PropertyInteraction;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ManagedObjects;
 import org.apache.isis.core.metamodel.spec.ManagedObjects.EntityUtil;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
@@ -164,9 +169,19 @@ public Response object(@PathParam("domainType") String domainType, @PathParam("i
                 RepresentationType.DOMAIN_OBJECT, Where.OBJECT_FORMS, RepresentationService.Intent.ALREADY_PERSISTENT);
 
         val objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+
+        // for versioned entities, conditional requests are answered without rendering
+        val versionTag = entityTagForVersion(objectAdapter);
+        if(versionTag.isPresent()) {
+            val notModified = request.evaluatePreconditions(versionTag.get());
+            if(notModified != null) {
+                return notModified.build();
+            }
+        }
+
         val domainResourceHelper = DomainResourceHelper.ofObjectResource(resourceContext, objectAdapter);
 
-        return domainResourceHelper.objectRepresentation();
+        return withEntityTag(domainResourceHelper.objectRepresentation(), versionTag);
     }
 
 
@@ -190,6 +205,7 @@ public Response object(@PathParam("domainType") String domainType, @PathParam("i
         }
 
         val objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        evaluateIfMatchElseThrow(objectAdapter);
         final ObjectAdapterUpdateHelper updateHelper = new ObjectAdapterUpdateHelper(resourceContext, objectAdapter);
 
         if (!updateHelper.copyOverProperties(argRepr, ObjectAdapterUpdateHelper.Intent.UPDATE_EXISTING)) {
@@ -454,6 +470,7 @@ public Response modifyProperty(@PathParam("domainType") String domainType, @Path
                 ResourceDescriptor.generic(Where.OBJECT_FORMS, RepresentationService.Intent.NOT_APPLICABLE));
 
         val objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        evaluateIfMatchElseThrow(objectAdapter);
 
         PropertyInteraction.start(objectAdapter, propertyId, resourceContext.getWhere())
         .checkVisibility()
@@ -484,6 +501,7 @@ public Response clearProperty(@PathParam("domainType") String domainType, @PathP
                 ResourceDescriptor.generic(Where.OBJECT_FORMS, RepresentationService.Intent.NOT_APPLICABLE));
 
         val objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        evaluateIfMatchElseThrow(objectAdapter);
 
         PropertyInteraction.start(objectAdapter, propertyId, resourceContext.getWhere())
         .checkVisibility()
@@ -662,6 +680,7 @@ public Response invokeActionIdempotent(
         final JsonRepresentation arguments = resourceContext.getQueryStringAsJsonRepr();
 
         val objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        evaluateIfMatchElseThrow(objectAdapter);
         val domainResourceHelper = DomainResourceHelper.ofObjectResource(resourceContext, objectAdapter);
 
         return domainResourceHelper.invokeActionIdempotent(actionId, arguments);
@@ -688,6 +707,7 @@ public Response invokeAction(
         final JsonRepresentation arguments = resourceContext.getQueryStringAsJsonRepr();
 
         val objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        evaluateIfMatchElseThrow(objectAdapter);
         val domainResourceHelper = DomainResourceHelper.ofObjectResource(resourceContext, objectAdapter);
 
         return domainResourceHelper.invokeAction(actionId, arguments);
@@ -700,4 +720,77 @@ public Response deleteInvokeActionNotAllowed(@PathParam("domainType") String dom
         throw RestfulObjectsApplicationException.createWithMessage(RestfulResponse.HttpStatusCode.METHOD_NOT_ALLOWED, "Deleting an action invocation resource is not allowed.");
     }
 
+    // //////////////////////////////////////////////////////////
+    // conditional requests
+    // //////////////////////////////////////////////////////////
+
+    private Optional<EntityTag> entityTagForVersion(final ManagedObject objectAdapter) {
+        return EntityTagHelper.forVersion(objectAdapter, currentUserName(), httpHeaders);
+    }
+
+    private String currentUserName() {
+        return metaModelContext.getServiceRegistry()
+                .lookupServiceElseFail(UserService.class)
+                .currentUserNameElseNobody();
+    }
+
+    /**
+     * Tags the (rendered) representation, by version if available, otherwise by content;
+     * answers {@code 304 Not Modified} if matched by the request's {@code If-None-Match} header.
+     */
+    private Response withEntityTag(final Response response, final Optional<EntityTag> versionTag) {
+        if(response.getStatus() != Response.Status.OK.getStatusCode()) {
+            return response;
+        }
+        if(versionTag.isPresent()) {
+            return EntityTagHelper.evaluatePreconditions(request, response, versionTag.get());
+        }
+        return EntityTagHelper.renderAndTag(response)
+                .map(contentTagged->EntityTagHelper.evaluatePreconditions(
+                        request, contentTagged.getResponse(), contentTagged.getEntityTag()))
+                .orElse(response);
+    }
+
+    /**
+     * Optimistic concurrency: if the request has an {@code If-Match} header, verifies that it matches the
+     * current entity tag of the object (as it would be answered by a GET), else fails with
+     * {@code 412 Precondition Failed}.
+     * <p>
+     * For versioned entities, only the version part of the tag is compared (derived from bookmark, version and
+     * user), so it matches regardless of the {@code Accept} header the tag was obtained with. Otherwise the tag
+     * is derived from the representation, so only matches if obtained with the same {@code Accept} header as
+     * that of this request.
+     */
+    private void evaluateIfMatchElseThrow(final ManagedObject objectAdapter) {
+        val ifMatchHeaderValues = httpHeaders.getRequestHeader(HttpHeaders.IF_MATCH);
+        if(_NullSafe.isEmpty(ifMatchHeaderValues)) {
+            return;
+        }
+        val versionTag = EntityTagHelper.forVersionIgnoringMediaTypes(objectAdapter, currentUserName());
+        if(versionTag.isPresent()) {
+            if(!EntityTagHelper.isIfMatchMetByVersion(ifMatchHeaderValues, versionTag.get())) {
+                throwPreconditionFailed(objectAdapter);
+            }
+            return;
+        }
+        val resourceContext = createResourceContext(
+                RepresentationType.DOMAIN_OBJECT, Where.OBJECT_FORMS, RepresentationService.Intent.ALREADY_PERSISTENT);
+        val currentRepresentation = DomainResourceHelper.ofObjectResource(resourceContext, objectAdapter)
+                .objectRepresentation();
+        val contentTag = EntityTagHelper.forContent(currentRepresentation).orElse(null);
+        if(contentTag == null) {
+            return;
+        }
+        if(!EntityTagHelper.isPreconditionMet(request, contentTag)) {
+            throwPreconditionFailed(objectAdapter);
+        }
+    }
+
+    private void throwPreconditionFailed(final ManagedObject objectAdapter) {
+        throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.PRECONDITION_FAILED,
+                "Object '%s' has been modified, its current entity tag does not match '%s'",
+                ManagedObjects.stringify(objectAdapter).orElse("?"),
+                httpHeaders.getHeaderString(HttpHeaders.IF_MATCH));
+    }
+
 }
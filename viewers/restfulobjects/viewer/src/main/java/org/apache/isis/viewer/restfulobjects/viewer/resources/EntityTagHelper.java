@@ -0,0 +1,294 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.viewer.resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.isis.commons.internal.base._NullSafe;
+import org.apache.isis.commons.internal.exceptions._Exceptions;
+import org.apache.isis.core.metamodel.facets.object.entity.EntityFacet;
+import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ManagedObjects;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+/**
+ * Computes strong {@link EntityTag}s for domain object representations, in support of conditional requests
+ * ({@code If-None-Match} on GET, {@code If-Match} on PUT, POST and DELETE).
+ * <p>
+ * Tags derived from the rendered content depend on the requested media types (the {@code Accept} header), hence
+ * an {@code If-Match} only matches such a tag if obtained by a GET with the same {@code Accept} header;
+ * tags derived from the version of an entity do not have that limitation.
+ *
+ * @since 2.0
+ */
+final class EntityTagHelper {
+
+    private EntityTagHelper() {}
+
+    /**
+     * Derived from the entity's (optimistic locking) version, hence available without rendering;
+     * varies by user and requested media types, as do the representations.
+     * <p>
+     * Made up of the {@link #forVersionIgnoringMediaTypes(ManagedObject, String) version part}, followed by a
+     * part derived from the requested media types, so that {@code If-Match} can be evaluated regardless of
+     * the media types the tag was obtained for.
+     *
+     * @return empty, if not an entity or its type is not versioned
+     */
+    static Optional<EntityTag> forVersion(
+            final @NonNull ManagedObject adapter,
+            final @NonNull String userName,
+            final @NonNull HttpHeaders httpHeaders) {
+        return forVersionIgnoringMediaTypes(adapter, userName)
+                .map(versionTag->new EntityTag(
+                        versionTag.getValue()
+                        + MEDIA_TYPES_SEPARATOR
+                        + strongTag(acceptedMediaTypes(httpHeaders)).getValue()));
+    }
+
+    /**
+     * Derived from the entity's bookmark, (optimistic locking) version and the user only; the part of the
+     * {@link #forVersion(ManagedObject, String, HttpHeaders) version tag} that is compared by
+     * {@link #isIfMatchMetByVersion(List, EntityTag)}.
+     *
+     * @return empty, if not an entity or its type is not versioned
+     */
+    static Optional<EntityTag> forVersionIgnoringMediaTypes(
+            final @NonNull ManagedObject adapter,
+            final @NonNull String userName) {
+
+        if(!ManagedObjects.isSpecified(adapter)
+                || !adapter.getSpecification().isEntity()) {
+            return Optional.empty();
+        }
+        val entityFacet = adapter.getSpecification().getFacet(EntityFacet.class);
+        if(entityFacet == null) {
+            return Optional.empty();
+        }
+        return entityFacet.versionOf(adapter.getPojo())
+                .flatMap(version->ManagedObjects.bookmark(adapter)
+                        .map(bookmark->strongTag(
+                                bookmark.stringify(),
+                                String.valueOf(version),
+                                userName)));
+    }
+
+    /**
+     * Derived from the rendered representation (a hash thereof), when only the tag is of interest
+     * (eg. to evaluate preconditions), but not the representation itself.
+     *
+     * Streamed entities are written to the digest only, so are not buffered.
+     *
+     * @return empty, if the response has no (textual or streamed) entity
+     * @see #renderAndTag(Response)
+     */
+    static Optional<EntityTag> forContent(final @NonNull Response response) {
+        val entity = response.getEntity();
+        if(entity instanceof String) {
+            return Optional.of(contentTag(response, ((String) entity).getBytes(StandardCharsets.UTF_8)));
+        }
+        if(entity instanceof StreamingOutput) {
+            val digest = contentDigest(response);
+            try(val digestOutput = new DigestOutputStream(NULL_OUTPUT, digest)) {
+                ((StreamingOutput) entity).write(digestOutput);
+            } catch (IOException e) {
+                throw _Exceptions.unrecoverable(e);
+            }
+            return Optional.of(strongTag(digest));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Derived from the rendered representation (a hash thereof), that is to be sent.
+     *
+     * Streamed entities are rendered only once (to a buffer), such that the tag is derived from
+     * exactly the bytes that are sent subsequently.
+     *
+     * @return the response (with its streamed entity replaced by the rendered bytes) along with its tag;
+     *      empty, if the response has no (textual or streamed) entity
+     */
+    static Optional<ContentTagged> renderAndTag(final @NonNull Response response) {
+        val entity = response.getEntity();
+        if(entity instanceof String) {
+            return Optional.of(ContentTagged.of(
+                    response,
+                    contentTag(response, ((String) entity).getBytes(StandardCharsets.UTF_8))));
+        }
+        if(entity instanceof StreamingOutput) {
+            val buffer = new ByteArrayOutputStream();
+            try {
+                ((StreamingOutput) entity).write(buffer);
+            } catch (IOException e) {
+                throw _Exceptions.unrecoverable(e);
+            }
+            val bytes = buffer.toByteArray();
+            return Optional.of(ContentTagged.of(
+                    Response.fromResponse(response).entity(bytes).build(),
+                    contentTag(response, bytes)));
+        }
+        return Optional.empty();
+    }
+
+    @Value(staticConstructor = "of")
+    static class ContentTagged {
+        Response response;
+        EntityTag entityTag;
+    }
+
+    /**
+     * Answers {@code 304 Not Modified} (or {@code 412 Precondition Failed}) if so required by the request's
+     * preconditions ({@code If-None-Match} on GET) for the given (current) tag, otherwise given response
+     * with the tag attached.
+     */
+    static Response evaluatePreconditions(
+            final @NonNull Request request,
+            final @NonNull Response response,
+            final @NonNull EntityTag entityTag) {
+        val preconditionsFailed = request.evaluatePreconditions(entityTag);
+        if(preconditionsFailed != null) {
+            return preconditionsFailed.build();
+        }
+        return withEntityTag(response, entityTag);
+    }
+
+    /**
+     * Whether the request's preconditions ({@code If-Match} on PUT, POST and DELETE) are met by the given
+     * (current) tag; as tags are strong, any weak tag given by the request never matches.
+     */
+    static boolean isPreconditionMet(
+            final @NonNull Request request,
+            final @NonNull EntityTag entityTag) {
+        return request.evaluatePreconditions(entityTag) == null;
+    }
+
+    /**
+     * Whether the given {@code If-Match} header values (on PUT, POST and DELETE) are met by the entity's current
+     * {@link #forVersionIgnoringMediaTypes(ManagedObject, String) version tag}: compares (strongly) only the
+     * version part of the given tags, so any tag obtained by a GET matches, whatever its {@code Accept} header.
+     */
+    static boolean isIfMatchMetByVersion(
+            final @Nullable List<String> ifMatchHeaderValues,
+            final @NonNull EntityTag versionTag) {
+        if(_NullSafe.isEmpty(ifMatchHeaderValues)) {
+            return true;
+        }
+        for(val headerValue : ifMatchHeaderValues) {
+            for(val tag : headerValue.split(",")) {
+                val trimmed = tag.trim();
+                if(trimmed.equals("*")) {
+                    return true;
+                }
+                // strong comparison: a weak tag never matches
+                if(trimmed.length() < 2
+                        || !trimmed.startsWith("\"")
+                        || !trimmed.endsWith("\"")) {
+                    continue;
+                }
+                val value = trimmed.substring(1, trimmed.length() - 1);
+                val separatorIndex = value.indexOf(MEDIA_TYPES_SEPARATOR);
+                val versionPart = separatorIndex < 0
+                        ? value
+                        : value.substring(0, separatorIndex);
+                if(versionPart.equals(versionTag.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static Response withEntityTag(final @NonNull Response response, final @NonNull EntityTag entityTag) {
+        return Response.fromResponse(response)
+                .tag(entityTag)
+                .build();
+    }
+
+    // -- HELPER
+
+    /** not part of the (URL-safe) Base64 alphabet of the parts */
+    private static final char MEDIA_TYPES_SEPARATOR = '.';
+
+    private static String acceptedMediaTypes(final HttpHeaders httpHeaders) {
+        return _NullSafe.stream(httpHeaders.getAcceptableMediaTypes())
+                .map(MediaType::toString)
+                .collect(Collectors.joining(","));
+    }
+
+    private static EntityTag strongTag(final String... parts) {
+        val digest = sha256();
+        update(digest, String.join("\n", parts));
+        return strongTag(digest);
+    }
+
+    private static MessageDigest contentDigest(final Response response) {
+        val digest = sha256();
+        update(digest, String.valueOf(response.getMediaType()) + "\n");
+        return digest;
+    }
+
+    private static EntityTag contentTag(final Response response, final byte[] content) {
+        val digest = contentDigest(response);
+        digest.update(content);
+        return strongTag(digest);
+    }
+
+    private static EntityTag strongTag(final MessageDigest digest) {
+        return new EntityTag(Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String string) {
+        digest.update(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override public void write(final int b) {}
+        @Override public void write(final byte[] b, final int off, final int len) {}
+    };
+
+}
@@ -30,6 +30,7 @@
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import org.springframework.stereotype.Component;
 
@@ -65,7 +66,7 @@ public SwaggerSpecResource(
     @Produces({
         MediaType.APPLICATION_JSON, "text/yaml"
     })
-    public String swaggerPrivate() {
+    public Response swaggerPrivate() {
         return swagger(Visibility.PRIVATE);
     }
 
@@ -75,7 +76,7 @@ public String swaggerPrivate() {
     @Produces({
         MediaType.APPLICATION_JSON, "text/yaml"
     })
-    public String swaggerPrototyping() {
+    public Response swaggerPrototyping() {
         return swagger(Visibility.PRIVATE_WITH_PROTOTYPING);
     }
 
@@ -85,17 +86,44 @@ public String swaggerPrototyping() {
     @Produces({
         MediaType.APPLICATION_JSON, "text/yaml"
     })
-    public String swaggerPublic() {
+    public Response swaggerPublic() {
         return swagger(Visibility.PUBLIC);
     }
 
-    private String swagger(final Visibility visibility) {
+    private Response swagger(final Visibility visibility) {
 
         val format = deriveFrom(httpHeaders);
+
+        if(acceptsGzip(httpHeaders)) {
+            val gzippedSpec = isisInteractionFactory.callAnonymous(
+                    ()->swaggerService.generateSwaggerSpecGzipped(visibility, format));
+            return Response.ok(gzippedSpec)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
         val callable = new MyCallable(swaggerService, visibility, format);
 
         val spec = isisInteractionFactory.callAnonymous(callable);
-        return spec;
+        return Response.ok(spec)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    private static boolean acceptsGzip(final HttpHeaders httpHeaders) {
+        val acceptEncoding = httpHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if(acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            val parts = encoding.trim().split(";");
+            if("gzip".equalsIgnoreCase(parts[0].trim())
+                    && !(parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private Format deriveFrom(final HttpHeaders httpHeaders) {
@@ -18,17 +18,30 @@
  */
 package org.apache.isis.viewer.wicket.model.models;
 
+import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import javax.annotation.Nullable;
+
+import org.apache.isis.applib.query.NamedQuery;
+import org.apache.isis.applib.query.Query;
 import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.internal.base._NullSafe;
 import org.apache.isis.core.metamodel.facets.object.plural.PluralFacet;
+import org.apache.isis.core.metamodel.objectmanager.query.ObjectBulkLoader;
+import org.apache.isis.core.metamodel.objectmanager.query.QueryResultList;
 import org.apache.isis.core.metamodel.spec.ManagedObject;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
 import org.apache.isis.core.runtime.memento.ObjectMemento;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.val;
 
 public class EntityCollectionModelStandalone
 extends EntityCollectionModelAbstract {
@@ -61,10 +74,19 @@ protected EntityCollectionModelStandalone(
                 actionModel.getCommonContext(),
                 actionModel.getMetaModel());
         this.actionModel = actionModel;
-        this.mementoList = _NullSafe.streamAutodetect(collectionAsAdapter.getPojo()) // pojos
-                .filter(_NullSafe::isPresent)
-                .map(actionModel.getMementoService()::mementoForPojo)
-                .collect(Can.toCan());
+        this.query = QueryResultList.originatingQuery(collectionAsAdapter.getPojo())
+                .filter(__->getSortedBy() == null) // ordering by comparator requires all elements in memory
+                .filter(query->getSpecificationLoader().specForType(query.getResultType())
+                        .map(ObjectSpecification::isEntity)
+                        .orElse(false))
+                .filter(this::hasValueParametersOnly) // as held on to by this (serializable) model
+                .orElse(null);
+        this.mementoList = query != null
+                ? Can.empty() // elements are re-fetched by query, as required
+                : _NullSafe.streamAutodetect(collectionAsAdapter.getPojo()) // pojos
+                    .filter(_NullSafe::isPresent)
+                    .map(actionModel.getMementoService()::mementoForPojo)
+                    .collect(Can.toCan());
 
     }
 
@@ -79,10 +101,21 @@ public Variant getVariant() {
 
     private Can<ObjectMemento> mementoList;
 
+    /**
+     * The query the collection originates from, if it is the (unmodified) result of one, and its elements
+     * are entities; re-issued (with a different range and ordering) to page through the collection,
+     * rather than holding on to mementos of all of its elements.
+     */
+    private final @Nullable Query<?> query;
+
+    private transient Integer countIfQuery;
+
     @Override
     protected List<ManagedObject> load() {
-        return mementoList.stream()
-        .map(getCommonContext()::reconstructObject)
+        if(query != null) {
+            return getObjectManager().queryObjects(queryRequest(query)).toList();
+        }
+        return getCommonContext().reconstructObjects(mementoList).stream()
         .sorted(super.getElementComparator())
         .collect(Can.toCan())
         .toList();
@@ -90,9 +123,107 @@ protected List<ManagedObject> load() {
 
     @Override
     public int getCount() {
+        if(query != null) {
+            if(countIfQuery == null) {
+                countIfQuery = countByQuery(query);
+            }
+            return countIfQuery;
+        }
         return mementoList.size();
     }
 
+    @Override
+    protected void onDetach() {
+        countIfQuery = null;
+        super.onDetach();
+    }
+
+    // -- PAGING
+
+    /**
+     * Whether {@link #loadPage(long, long, ObjectAssociation, boolean)} is supported,
+     * that is, whether this collection is the result of a query over entities.
+     */
+    public boolean isPageable() {
+        return query != null;
+    }
+
+    /**
+     * Fetches (only) the elements of the requested page from the persistence store,
+     * optionally having the persistence store order these by given (persistent) property.
+     *
+     * @param first - index of the first element of the page
+     * @param count - (maximum) number of elements of the page
+     * @param orderBy - the property to order by, if any
+     * @return empty if not {@link #isPageable() pageable}, or if the requested ordering cannot be pushed
+     * down to the persistence store; in which case the caller has to load all elements
+     */
+    public Optional<List<ManagedObject>> loadPage(
+            final long first,
+            final long count,
+            final @Nullable ObjectAssociation orderBy,
+            final boolean ascending) {
+
+        if(query == null) {
+            return Optional.empty();
+        }
+
+        val range = query.getRange();
+        if(orderBy != null
+                && !range.isUnconstrained()) {
+            // ordering first would change which elements are within the range
+            return Optional.empty();
+        }
+
+        val limit = range.hasLimit()
+                ? Math.min(count, range.getLimit() - first)
+                : count;
+        if(limit <= 0) {
+            return Optional.of(Collections.emptyList());
+        }
+
+        val pageRequest = queryRequest(query.withRange(range.getStart() + first, limit));
+
+        if(orderBy == null) {
+            return Optional.of(getObjectManager().queryObjects(pageRequest).toList());
+        }
+
+        if(!(orderBy instanceof OneToOneAssociation)
+                || ((OneToOneAssociation) orderBy).isNotPersisted()) {
+            return Optional.empty();
+        }
+
+        return getObjectManager().queryObjectsOrderedBy(pageRequest, orderBy.getId(), ascending)
+                .map(Can::toList);
+    }
+
+    // -- HELPER
+
+    private ObjectBulkLoader.Request queryRequest(final Query<?> query) {
+        val resultTypeSpec = getSpecificationLoader().specForTypeElseFail(query.getResultType());
+        return ObjectBulkLoader.Request.of(resultTypeSpec, query);
+    }
+
+    private boolean hasValueParametersOnly(final Query<?> query) {
+        if(!(query instanceof NamedQuery)) {
+            return true;
+        }
+        return ((NamedQuery<?>) query).getParametersByName().values().stream()
+                .filter(_NullSafe::isPresent)
+                .allMatch(param->param instanceof Serializable
+                        && getSpecificationLoader().specForType(param.getClass())
+                            .map(ObjectSpecification::isValue)
+                            .orElse(false));
+    }
+
+    private int countByQuery(final Query<?> query) {
+        val range = query.getRange();
+        val count = getObjectManager().countObjects(queryRequest(query)) - range.getStart();
+        return (int) Math.max(0L, range.hasLimit()
+                ? Math.min(count, range.getLimit())
+                : count);
+    }
+
     @Override
     public String getName() {
         return getTypeOfSpecification().lookupFacet(PluralFacet.class)
@@ -22,6 +22,7 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import org.apache.wicket.extensions.ajax.markup.html.repeater.data.table.AjaxFallbackDefaultDataTable;
@@ -40,6 +41,7 @@
 import org.apache.isis.core.metamodel.spec.ManagedObjects;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.viewer.wicket.model.models.EntityCollectionModel;
+import org.apache.isis.viewer.wicket.model.models.EntityCollectionModelStandalone;
 import org.apache.isis.viewer.wicket.model.models.EntityModel;
 
 import lombok.val;
@@ -64,7 +66,9 @@ public IModel<ManagedObject> model(ManagedObject adapter) {
 
     @Override
     public long size() {
-        return model.getObject().size();
+        return pageableModel().isPresent()
+                ? model.getCount() // without loading all elements
+                : model.getObject().size();
     }
 
     @Override
@@ -80,6 +84,17 @@ public EntityCollectionModel getEntityCollectionModel() {
     @Override
     public Iterator<ManagedObject> iterator(final long first, final long count) {
 
+        // if possible, have the persistence store do the paging and sorting,
+        // so visibility only needs to be checked for the elements of the requested page
+        val sort = getSort();
+        val pagedVisibleAdapters = pageableModel()
+                .flatMap(pageable->pageable.loadPage(
+                        first, count, lookupAssociationFor(sort), sort == null || sort.isAscending()))
+                .map(page->_Lists.filter(page, ignoreHidden()));
+        if(pagedVisibleAdapters.isPresent()) {
+            return pagedVisibleAdapters.get().iterator();
+        }
+
         final List<ManagedObject> adapters = model.getObject();
 
         final List<ManagedObject> visibleAdapters =
@@ -92,6 +107,13 @@ public Iterator<ManagedObject> iterator(final long first, final long count) {
         return pagedAdapters.iterator();
     }
 
+    private Optional<EntityCollectionModelStandalone> pageableModel() {
+        return model instanceof EntityCollectionModelStandalone
+                && ((EntityCollectionModelStandalone) model).isPageable()
+                ? Optional.of((EntityCollectionModelStandalone) model)
+                : Optional.empty();
+    }
+
     private static List<ManagedObject> subList(
             final long first,
             final long count,
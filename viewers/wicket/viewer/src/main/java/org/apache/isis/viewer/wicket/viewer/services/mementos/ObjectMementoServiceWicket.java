@@ -19,6 +19,7 @@
 package org.apache.isis.viewer.wicket.viewer.services.mementos;
 
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -33,6 +34,7 @@
 import org.apache.isis.applib.annotation.OrderPrecedence;
 import org.apache.isis.applib.id.LogicalType;
 import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.commons.collections.Can;
 import org.apache.isis.commons.internal.base._NullSafe;
 import org.apache.isis.commons.internal.exceptions._Exceptions;
 import org.apache.isis.core.metamodel.context.MetaModelContext;
@@ -138,9 +140,7 @@ public ManagedObject reconstructObject(@Nullable ObjectMemento memento) {
         if(memento instanceof ObjectMementoCollection) {
             val objectMementoCollection = (ObjectMementoCollection) memento;
 
-            val listOfPojos = objectMementoCollection.unwrapList().stream()
-                    .map(this::reconstructObject)
-                    .filter(_NullSafe::isPresent)
+            val listOfPojos = reconstructObjects(Can.ofCollection(objectMementoCollection.unwrapList())).stream()
                     .map(ManagedObject::getPojo)
                     .filter(_NullSafe::isPresent)
                     .collect(Collectors.toCollection(ArrayList::new));
@@ -156,6 +156,42 @@ public ManagedObject reconstructObject(@Nullable ObjectMemento memento) {
         throw _Exceptions.unrecoverableFormatted("unsupported ObjectMemento type %s", memento.getClass());
     }
 
+    /**
+     * Entities are loaded in bulk, with a single query per logical type.
+     */
+    @Override
+    public Can<ManagedObject> reconstructObjects(final @NonNull Can<ObjectMemento> mementos) {
+
+        val objects = new ManagedObject[mementos.size()];
+        val entityIndices = new ArrayList<Integer>();
+        val entityBookmarks = new ArrayList<Bookmark>();
+
+        for(int i=0; i<mementos.size(); ++i) {
+            val memento = mementos.getElseFail(i);
+            val entityBookmark = memento instanceof ObjectMementoAdapter
+                    ? ((ObjectMementoAdapter) memento).asEntityBookmarkIfAny(mmc)
+                    : Optional.<Bookmark>empty();
+            if(entityBookmark.isPresent()) {
+                entityIndices.add(i);
+                entityBookmarks.add(entityBookmark.get());
+            } else {
+                objects[i] = reconstructObject(memento);
+            }
+        }
+
+        if(!entityBookmarks.isEmpty()) {
+            val entities = objectManager.loadObjects(Can.ofCollection(entityBookmarks));
+            for(int j=0; j<entityIndices.size(); ++j) {
+                val entity = entities.getElseFail(j);
+                objects[entityIndices.get(j)] = ManagedObjects.isSpecified(entity)
+                        ? entity
+                        : null;
+            }
+        }
+
+        return Can.ofArray(objects);
+    }
+
 //TODO 2x remove if no longer required for debugging ...
     private void assertSingleton(ManagedObject adapter) {
 //        if(ManagedObjects.isNullOrUnspecifiedOrEmpty(adapter)) {
@@ -207,6 +243,10 @@ ManagedObject reconstructObject(MetaModelContext mmc) {
             return delegate.reconstructObject(mmc);
         }
 
+        Optional<Bookmark> asEntityBookmarkIfAny(MetaModelContext mmc) {
+            return delegate.asEntityBookmarkIfAny(mmc);
+        }
+
         @Override
         public String toString() {
             return delegate.toString();
@@ -24,6 +24,7 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
@@ -497,6 +498,25 @@ Bookmark asHintingBookmark() {
                 : bookmark;
     }
 
+    /**
+     * The bookmark of the entity, this (scalar) memento is for, such that it can be loaded in bulk
+     * along with others; otherwise empty, in which case the object is to be
+     * {@link #reconstructObject(MetaModelContext) reconstructed} individually.
+     */
+    Optional<Bookmark> asEntityBookmarkIfAny(MetaModelContext mmc) {
+        if(cardinality != Cardinality.SCALAR
+                || recreateStrategy != RecreateStrategy.LOOKUP
+                || _NullSafe.isEmpty(persistentOidStr)) {
+            return Optional.empty();
+        }
+        val spec = mmc.getSpecificationLoader().specForLogicalType(logicalType).orElse(null);
+        if(spec==null
+                || !spec.isEntity()) {
+            return Optional.empty();
+        }
+        return Bookmark.parse(persistentOidStr);
+    }
+
     /**
      * Lazily looks up {@link ManagedObject} if required.
      *